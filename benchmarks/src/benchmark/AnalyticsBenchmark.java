@@ -0,0 +1,148 @@
+package benchmark;
+
+import analytics.ItemSales;
+import analytics.SalesAnalytics;
+import domain.enums.MenuItemCategory;
+import domain.enums.OrderType;
+import domain.models.Meal;
+import domain.models.MenuItem;
+import domain.models.Order;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import logging.Level;
+import logging.Log;
+
+/**
+ * Live analytics versus iterating orders.
+ *
+ * Several threads record half an hour of simulated traffic. Running totals must match
+ * a direct count over the orders, and the 15-minute window must match a count over
+ * the orders recorded in its time span. Then a dashboard refresh (items per category,
+ * revenue per order type, top 5 sellers) is timed both ways.
+ *
+ * Run: gradle :benchmarks:bench -Pmain=AnalyticsBenchmark -Pargs='[threads] [ordersPerThread]'
+ */
+public class AnalyticsBenchmark {
+    private static final long MINUTE = 60_000;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+        Log.setLevel(Level.OFF);
+
+        Order[] shapes = new Order[OrderShape.values().length];
+        for (int i = 0; i < shapes.length; i++) {
+            shapes[i] = OrderShape.values()[i].build();
+        }
+        AtomicLong clock = new AtomicLong(1_000 * MINUTE);
+        SalesAnalytics analytics = new SalesAnalytics(SalesAnalytics.DEFAULT_WINDOW,
+            SalesAnalytics.DEFAULT_BUCKETS, SalesAnalytics.DEFAULT_ITEM_CAPACITY, clock::get);
+
+        // Half an hour of traffic in steps of one simulated second
+        int total = threads * perThread;
+        int perStep = Math.max(1, total / 1_800);
+        long[] recordedAt = new long[total];
+        Order[] recorded = new Order[total];
+        long elapsed = 0;
+        for (int first = 0; first < total; first += perStep * threads) {
+            final int batchStart = first;
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                final int from = batchStart + t * perStep;
+                workers[t] = new Thread(() -> {
+                    for (int i = from; i < Math.min(from + perStep, total); i++) {
+                        recorded[i] = shapes[i % shapes.length];
+                        recordedAt[i] = clock.get();
+                        analytics.record(recorded[i]);
+                    }
+                });
+            }
+            long started = System.nanoTime();
+            for (Thread worker : workers) {
+                worker.start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            elapsed += System.nanoTime() - started;
+            clock.addAndGet(1_000);
+        }
+        System.out.printf("=== Sales analytics: %,d orders over 30 simulated minutes ===%n", total);
+        System.out.printf("record: %,.0f orders/s (%d threads, thread start included)%n%n",
+            total * 1e9 / elapsed, threads);
+
+        // The window covers the current 15-second bucket and the 59 before it
+        long bucketMillis = SalesAnalytics.DEFAULT_WINDOW.toMillis() / SalesAnalytics.DEFAULT_BUCKETS;
+        long windowStart = (clock.get() / bucketMillis - SalesAnalytics.DEFAULT_BUCKETS + 1) * bucketMillis;
+        Dashboard direct = Dashboard.scan(recorded, recordedAt, Long.MIN_VALUE);
+        Dashboard window = Dashboard.scan(recorded, recordedAt, windowStart);
+        for (OrderType type : OrderType.values()) {
+            check(analytics.getRevenueCents(type) == direct.revenue.get(type), "running revenue " + type);
+            check(analytics.getRevenueInWindow().get(type).longValue() == window.revenue.get(type), "window revenue " + type);
+        }
+        for (MenuItemCategory category : MenuItemCategory.values()) {
+            check(analytics.getItemsSold(category) == direct.items.get(category), "running items " + category);
+            check(analytics.getItemsSoldInWindow().get(category).longValue() == window.items.get(category),
+                "window items " + category);
+        }
+        System.out.println("Top sellers, last 15 minutes: " + analytics.getTopSellers(5));
+        System.out.println("Revenue, last 15 minutes:     " + analytics.getRevenueInWindow());
+        System.out.println();
+
+        long cutoff = clock.get() - 15 * MINUTE;
+        System.out.println(Harness.run("dashboard from analytics", 2_000, 20_000, () -> {
+            List<ItemSales> top = analytics.getTopSellers(5);
+            return top.size() + analytics.getItemsSoldInWindow().size() + analytics.getRevenueInWindow().size();
+        }));
+        System.out.println(Harness.run("dashboard by iterating orders", 5, 50,
+            () -> Dashboard.scan(recorded, recordedAt, cutoff).revenue.size()));
+    }
+
+    /**
+     * Reference figures computed by looking at every order
+     */
+    private static final class Dashboard {
+        final Map<MenuItemCategory, Long> items = new EnumMap<>(MenuItemCategory.class);
+        final Map<OrderType, Long> revenue = new EnumMap<>(OrderType.class);
+
+        static Dashboard scan(Order[] orders, long[] recordedAt, long since) {
+            Dashboard d = new Dashboard();
+            for (MenuItemCategory category : MenuItemCategory.values()) {
+                d.items.put(category, 0L);
+            }
+            for (OrderType type : OrderType.values()) {
+                d.revenue.put(type, 0L);
+            }
+            for (int i = 0; i < orders.length; i++) {
+                if (recordedAt[i] < since) {
+                    continue;
+                }
+                Order order = orders[i];
+                d.revenue.merge(order.getOrderType(), order.calculateSubtotalCents(), Long::sum);
+                List<MenuItem> items = new ArrayList<>(order.getItems());
+                for (Meal meal : order.getMeals()) {
+                    for (MenuItem item : new MenuItem[] {meal.getMainItem(), meal.getSideItem(),
+                            meal.getBeverage(), meal.getDessert()}) {
+                        if (item != null) {
+                            items.add(item);
+                        }
+                    }
+                }
+                for (MenuItem item : items) {
+                    d.items.merge(item.getCategory(), 1L, Long::sum);
+                }
+            }
+            return d;
+        }
+    }
+
+    private static void check(boolean ok, String message) {
+        if (!ok) {
+            System.out.println("FAILED: " + message);
+            System.exit(1);
+        }
+    }
+}
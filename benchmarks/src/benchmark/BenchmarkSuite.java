@@ -0,0 +1,213 @@
+package benchmark;
+
+import domain.enums.MenuItemCategory;
+import domain.models.Meal;
+import domain.models.MenuItem;
+import domain.models.Order;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import logging.Level;
+import logging.Log;
+import patterns.builder.MealBuilder;
+import patterns.factory.MenuItemFactory;
+
+/**
+ * Regression benchmarks for the ordering hot paths.
+ *
+ * Covers MenuItemFactory.createMenuItem, MealBuilder.build, OrderBuilder.build,
+ * Order.calculateTotal and Order.toString, the order paths once per OrderShape.
+ * Every benchmark reports mean ns/op, throughput, per-operation latency percentiles
+ * (see Harness.sample), bytes allocated per operation and the resulting allocation
+ * rate, and is compared with a stored baseline (benchmarks/baseline.txt by default).
+ * The same paths are covered by the JMH benchmarks in benchmark.jmh.
+ *
+ * Run:  gradle :benchmarks:bench -Pmain=BenchmarkSuite -Pargs='[options]'
+ *   --baseline <file>      baseline to compare with / save to
+ *   --save                 store this run as the new baseline
+ *   --filter <text>        only run benchmarks whose name contains text
+ *   --quick                shorter runs (smoke test, numbers are noisier)
+ *   --threshold <percent>  slowdown reported as a regression (default 10)
+ *   --fail-on-regression   exit with status 1 if anything regressed
+ *
+ * Compare baselines recorded on the same machine only.
+ */
+public class BenchmarkSuite {
+    public static final String DEFAULT_BASELINE = "benchmarks/baseline.txt";
+
+    // Allocation must grow by at least this much (and the threshold) to count
+    private static final double ALLOCATION_TOLERANCE_BYTES = 8;
+
+    private final Map<String, LongSupplier> benchmarks = new LinkedHashMap<>();
+
+    public static void main(String[] args) throws IOException {
+        Path baselineFile = Paths.get(DEFAULT_BASELINE);
+        boolean save = false;
+        boolean quick = false;
+        boolean failOnRegression = false;
+        String filter = "";
+        double threshold = 10;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--baseline":
+                    baselineFile = Paths.get(args[++i]);
+                    break;
+                case "--save":
+                    save = true;
+                    break;
+                case "--filter":
+                    filter = args[++i];
+                    break;
+                case "--quick":
+                    quick = true;
+                    break;
+                case "--threshold":
+                    threshold = Double.parseDouble(args[++i]);
+                    break;
+                case "--fail-on-regression":
+                    failOnRegression = true;
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        // Builders and payments log every call; measure the code, not the console
+        Log.setLevel(Level.OFF);
+
+        BenchmarkSuite suite = new BenchmarkSuite();
+        Map<String, Harness.Result> baseline = Files.exists(baselineFile)
+            ? readBaseline(baselineFile) : new LinkedHashMap<>();
+        List<Harness.Result> results = new ArrayList<>();
+        int regressions = 0;
+        for (Map.Entry<String, LongSupplier> benchmark : suite.benchmarks.entrySet()) {
+            if (!benchmark.getKey().contains(filter)) {
+                continue;
+            }
+            Harness.Result result = quick
+                ? Harness.sample(benchmark.getKey(), 20_000, 5_000, 20, benchmark.getValue())
+                : Harness.sample(benchmark.getKey(), 200_000, 50_000, 20, benchmark.getValue());
+            results.add(result);
+            System.out.println(result);
+            Harness.Result previous = baseline.get(result.getName());
+            if (previous != null) {
+                String comparison = compare(previous, result, threshold);
+                if (comparison.startsWith("REGRESSION")) {
+                    regressions++;
+                }
+                System.out.println("    " + comparison);
+            }
+        }
+
+        if (save) {
+            writeBaseline(baselineFile, results);
+            System.out.println("Saved baseline to " + baselineFile);
+        } else if (baseline.isEmpty()) {
+            System.out.println("No baseline at " + baselineFile + " (run with --save to create one)");
+        } else {
+            System.out.println(regressions + " regression(s) against " + baselineFile);
+        }
+        if (failOnRegression && regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    BenchmarkSuite() {
+        benchmarks.put("MenuItemFactory.createMenuItem", () ->
+            MenuItemFactory.createMenuItem(MenuItemCategory.MAIN_COURSE, "Quattro Formaggi").getId());
+
+        MenuItem pizza = MenuItemFactory.createMenuItem(MenuItemCategory.MAIN_COURSE, "Pepperoni");
+        MenuItem salad = MenuItemFactory.createMenuItem(MenuItemCategory.APPETIZER, "Caesar Salad");
+        MenuItem coke = MenuItemFactory.createMenuItem(MenuItemCategory.BEVERAGE, "Coke");
+        MenuItem cake = MenuItemFactory.createMenuItem(MenuItemCategory.DESSERT, "Lava Cake");
+        benchmarks.put("MealBuilder.build", () ->
+            new MealBuilder().setMainItem(pizza).setSideItem(salad).setBeverage(coke).setDessert(cake)
+                .build().getTotalPriceCents());
+
+        for (OrderShape shape : OrderShape.values()) {
+            benchmarks.put("OrderBuilder.build/" + shape.getLabel(), () -> shape.build().getItemCount());
+        }
+        for (OrderShape shape : OrderShape.values()) {
+            // A fresh order per call: totals are cached, so the first calculation (including
+            // the subtotal taken in the constructor) is the one the terminal pays for. The
+            // strings are read once: the phone and table getters unpack a new string.
+            Order o = shape.build();
+            String customer = o.getCustomerName();
+            String phone = o.getPhoneNumber();
+            String table = o.getTableNumber();
+            List<MenuItem> items = o.getItems();
+            List<Meal> meals = o.getMeals();
+            benchmarks.put("Order.calculateTotal/" + shape.getLabel(), () ->
+                new Order(o.getOrderNumber(), customer, phone, table,
+                    items, meals, o.getOrderType(), o.getDeliveryAddress(), o.getPaymentMethod())
+                    .calculateTotalCents());
+        }
+        for (OrderShape shape : OrderShape.values()) {
+            Order order = shape.build();
+            benchmarks.put("Order.toString/" + shape.getLabel(), () -> order.toString().length());
+        }
+    }
+
+    private static String compare(Harness.Result before, Harness.Result after, double thresholdPercent) {
+        double time = change(before.getNanosPerOp(), after.getNanosPerOp());
+        double p99 = change(before.getP99(), after.getP99());
+        double bytes = after.getBytesPerOp() - before.getBytesPerOp();
+        boolean slower = time > thresholdPercent;
+        boolean allocates = bytes > ALLOCATION_TOLERANCE_BYTES
+            && change(before.getBytesPerOp(), after.getBytesPerOp()) > thresholdPercent;
+        String verdict = slower || allocates ? "REGRESSION"
+            : time < -thresholdPercent ? "improved" : "unchanged";
+        return String.format(Locale.ROOT, "%-10s vs baseline: time %+.1f%%, p99 %+.1f%%, alloc %+.1f B/op",
+            verdict, time, p99, bytes);
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) / before * 100;
+    }
+
+    /**
+     * Baseline format: one benchmark per line, tab separated
+     * name, ns/op, p50, p90, p99, max, B/op; lines starting with # are comments
+     */
+    static Map<String, Harness.Result> readBaseline(Path file) throws IOException {
+        Map<String, Harness.Result> results = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] f = line.split("\t");
+            if (f.length < 7) {
+                throw new IllegalArgumentException(file + ": malformed baseline line: " + line);
+            }
+            results.put(f[0], new Harness.Result(f[0], 0, Double.parseDouble(f[1]), Double.parseDouble(f[6]),
+                Double.parseDouble(f[2]), Double.parseDouble(f[3]), Double.parseDouble(f[4]),
+                Double.parseDouble(f[5])));
+        }
+        return results;
+    }
+
+    static void writeBaseline(Path file, List<Harness.Result> results) throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("# benchmark.BenchmarkSuite baseline, recorded " + LocalDate.now()
+            + " on " + System.getProperty("java.vm.name") + " " + System.getProperty("java.version")
+            + ", " + Runtime.getRuntime().availableProcessors() + " CPU(s)");
+        lines.add("# name\tns/op\tp50\tp90\tp99\tmax\tB/op");
+        for (Harness.Result r : results) {
+            lines.add(String.format(Locale.ROOT, "%s\t%.1f\t%.1f\t%.1f\t%.1f\t%.1f\t%.1f", r.getName(),
+                r.getNanosPerOp(), r.getP50(), r.getP90(), r.getP99(), r.getMax(), r.getBytesPerOp()));
+        }
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        Files.write(file, lines, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,107 @@
+package benchmark;
+
+import domain.enums.PaymentType;
+import domain.models.Payment;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import payment.AsyncPaymentProcessor;
+import payment.PaymentPolicy;
+import payment.PaymentResult;
+import payment.SimulatedPaymentGateway;
+
+/**
+ * Checkout throughput under slow payment gateways.
+ *
+ * Submits a burst of concurrent card / mobile / gift card payments against the
+ * SimulatedPaymentGateway and reports throughput, outcome counts and latency
+ * percentiles. With blocking, one-at-a-time checkout the same burst would take the
+ * sum of all gateway latencies; here it should take roughly the slowest one.
+ *
+ * Run: gradle :benchmarks:bench -Pmain=CheckoutThroughput -Pargs='[payments] [timeScale]'
+ *      timeScale shrinks the simulated latencies (1.0 = 100 ms - 2 s card calls)
+ */
+public class CheckoutThroughput {
+    public static void main(String[] args) throws Exception {
+        int payments = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        double timeScale = args.length > 1 ? Double.parseDouble(args[1]) : 0.25;
+
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway()
+            .setLatency(PaymentType.CREDIT_CARD, scaled(100, timeScale), scaled(2000, timeScale))
+            .setLatency(PaymentType.MOBILE_PAYMENT, scaled(100, timeScale), scaled(1500, timeScale))
+            .setLatency(PaymentType.GIFT_CARD, scaled(20, timeScale), scaled(200, timeScale));
+        PaymentPolicy policy = PaymentPolicy.defaults()
+            .withAttemptTimeout(Duration.ofMillis(scaled(1800, timeScale)))
+            .withRetryBackoff(Duration.ofMillis(scaled(50, timeScale)))
+            .withMaxInFlight(PaymentType.CREDIT_CARD, payments)
+            .withMaxInFlight(PaymentType.MOBILE_PAYMENT, payments)
+            .withMaxInFlight(PaymentType.GIFT_CARD, payments);
+
+        Payment[] methods = {
+            new SilentPayment(PaymentType.CREDIT_CARD),
+            new SilentPayment(PaymentType.MOBILE_PAYMENT),
+            new SilentPayment(PaymentType.GIFT_CARD)
+        };
+
+        try (AsyncPaymentProcessor processor = new AsyncPaymentProcessor(gateway, policy)) {
+            long start = System.nanoTime();
+            List<CompletableFuture<PaymentResult>> futures = new ArrayList<>(payments);
+            for (int i = 0; i < payments; i++) {
+                futures.add(processor.submit(methods[i % methods.length], 1_000 + i));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+            long elapsed = System.nanoTime() - start;
+
+            Map<PaymentResult.Status, Integer> outcomes = new EnumMap<>(PaymentResult.Status.class);
+            long[] latencies = new long[payments];
+            for (int i = 0; i < payments; i++) {
+                PaymentResult result = futures.get(i).join();
+                outcomes.merge(result.getStatus(), 1, Integer::sum);
+                latencies[i] = result.getLatencyNanos();
+            }
+            Arrays.sort(latencies);
+
+            System.out.printf("%,d payments in %,.0f ms -> %,.0f checkouts/s (time scale %.2f)%n",
+                payments, elapsed / 1e6, payments / (elapsed / 1e9), timeScale);
+            System.out.println("Outcomes: " + outcomes);
+            System.out.printf("Latency p50 %,.0f ms  p95 %,.0f ms  p99 %,.0f ms  max %,.0f ms%n",
+                percentile(latencies, 50) / 1e6, percentile(latencies, 95) / 1e6,
+                percentile(latencies, 99) / 1e6, latencies[latencies.length - 1] / 1e6);
+        }
+    }
+
+    private static long scaled(long millis, double timeScale) {
+        return Math.max(1, Math.round(millis * timeScale));
+    }
+
+    private static long percentile(long[] sorted, int p) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * p / 100.0) - 1)];
+    }
+
+    // The simulated gateway never calls processPayment, so only the type matters
+    private static final class SilentPayment implements Payment {
+        private final PaymentType type;
+
+        SilentPayment(PaymentType type) {
+            this.type = type;
+        }
+
+        @Override
+        public void processPayment(long amountCents) {
+        }
+
+        @Override
+        public PaymentType getPaymentType() {
+            return type;
+        }
+
+        @Override
+        public String getPaymentDetails() {
+            return type.name();
+        }
+    }
+}
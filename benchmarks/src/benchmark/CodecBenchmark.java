@@ -0,0 +1,84 @@
+package benchmark;
+
+import codec.OrderCodec;
+import codec.OrderView;
+import domain.models.Order;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import logging.Level;
+import logging.Log;
+
+/**
+ * Binary order codec: round-trip check and throughput.
+ *
+ * Every OrderShape is encoded and decoded again; the decoded order must print the
+ * same receipt and total, and the view must read the same values without decoding.
+ * The encoding must not contain the full card number, and a promotion discount must
+ * survive the round trip. Then encode, decode and view
+ * reads are timed against Order.toString(), the only representation before the codec.
+ *
+ * Run: gradle :benchmarks:bench -Pmain=CodecBenchmark
+ */
+public class CodecBenchmark {
+    public static void main(String[] args) {
+        Log.setLevel(Level.OFF);
+        OrderCodec codec = OrderCodec.getDefault();
+        OrderView view = new OrderView();
+
+        for (OrderShape shape : OrderShape.values()) {
+            Order order = shape.build();
+            ByteBuffer encoded = codec.encode(order);
+            Order decoded = codec.decode(encoded.duplicate());
+            view.wrap(encoded, 0);
+            check(decoded.toString().equals(order.toString()), shape + ": receipt differs after round trip");
+            check(view.getTotalCents() == order.calculateTotalCents()
+                && view.getOrderNumber() == order.getOrderNumber()
+                && view.getItemCount() == order.getItemCount()
+                && view.getCustomerName().equals(order.getCustomerName()),
+                shape + ": view disagrees with the order");
+            check(!new String(encoded.array(), StandardCharsets.ISO_8859_1).contains("4532123456789012"),
+                shape + ": card number leaked into the encoding");
+            System.out.printf("%-20s %5d bytes encoded, %5d chars as toString()%n",
+                shape.getLabel(), encoded.remaining(), order.toString().length());
+
+            order.applyDiscount(order.calculateSubtotalCents() / 10);
+            ByteBuffer discounted = codec.encode(order);
+            decoded = codec.decode(discounted.duplicate());
+            view.wrap(discounted, 0);
+            check(decoded.calculateDiscountCents() == order.calculateDiscountCents()
+                && decoded.calculateTotalCents() == order.calculateTotalCents()
+                && view.getDiscountCents() == order.calculateDiscountCents()
+                && view.getTotalCents() == order.calculateTotalCents()
+                && decoded.toString().equals(order.toString()),
+                shape + ": discount lost in the round trip");
+        }
+        System.out.println();
+
+        Order order = OrderShape.DELIVERY_WITH_MEALS.build();
+        ByteBuffer buffer = ByteBuffer.allocate(codec.encodedSize(order));
+        codec.encode(order, buffer);
+        long warmup = 200_000;
+        long ops = 500_000;
+        System.out.println(Harness.run("Order.toString", warmup, ops, () -> order.toString().length()));
+        System.out.println(Harness.run("encode -> reused buffer", warmup, ops, () -> {
+            buffer.clear();
+            codec.encode(order, buffer);
+            return buffer.position();
+        }));
+        System.out.println(Harness.run("decode", warmup, ops, () -> {
+            buffer.position(0);
+            return codec.decode(buffer).getItemCount();
+        }));
+        System.out.println(Harness.run("view: number + total", warmup, ops,
+            () -> view.wrap(buffer, 0).getOrderNumber() + view.getTotalCents()));
+        System.out.println(Harness.run("view: customer name", warmup, ops,
+            () -> view.wrap(buffer, 0).getCustomerName().length()));
+    }
+
+    private static void check(boolean ok, String message) {
+        if (!ok) {
+            System.out.println("FAILED: " + message);
+            System.exit(1);
+        }
+    }
+}
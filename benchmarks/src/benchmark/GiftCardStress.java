@@ -0,0 +1,99 @@
+package benchmark;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import payment.GiftCardLedger;
+import payment.GiftCardTransaction;
+
+/**
+ * Concurrency stress check for the gift card ledger.
+ *
+ * Many threads redeem (fully and partially) and reload the same few cards at the
+ * same time. Afterwards every card must still be non-negative, its balance must equal
+ * opening balance + reloads - redemptions, and the history must account for every
+ * cent. Exits with status 1 on any mismatch.
+ *
+ * Run: gradle :benchmarks:bench -Pmain=GiftCardStress -Pargs='[threads] [operationsPerThread]'
+ */
+public class GiftCardStress {
+    private static final String[] CARDS = {
+        "6006 4912 0000 0001", "6006 4912 0000 0002", "6006 4912 0000 0003", "6006 4912 0000 0004"
+    };
+    private static final long OPENING_CENTS = 50_000;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+        GiftCardLedger ledger = new GiftCardLedger(1024);
+        for (String card : CARDS) {
+            ledger.issue(card, OPENING_CENTS);
+        }
+        AtomicLong[] redeemed = new AtomicLong[CARDS.length];
+        AtomicLong[] reloaded = new AtomicLong[CARDS.length];
+        for (int i = 0; i < CARDS.length; i++) {
+            redeemed[i] = new AtomicLong();
+            reloaded[i] = new AtomicLong();
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int seed = t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    int card = (seed + i) % CARDS.length;
+                    long amount = 1 + (i * 7919L + seed) % 2_500;
+                    GiftCardTransaction tx;
+                    switch (i % 5) {
+                        case 0:
+                            tx = ledger.reload(CARDS[card], amount / 2 + 1);
+                            reloaded[card].addAndGet(tx.getAmountCents());
+                            break;
+                        case 1:
+                            tx = ledger.redeemPartial(CARDS[card], amount);
+                            redeemed[card].addAndGet(tx.getAmountCents());
+                            break;
+                        default:
+                            tx = ledger.redeem(CARDS[card], amount);
+                            redeemed[card].addAndGet(tx.getAmountCents());
+                    }
+                    if (tx.getBalanceAfterCents() < 0) {
+                        throw new IllegalStateException("Negative balance: " + tx);
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+
+        boolean ok = true;
+        for (int i = 0; i < CARDS.length; i++) {
+            long expected = OPENING_CENTS + reloaded[i].get() - redeemed[i].get();
+            long balance = ledger.getBalanceCents(CARDS[i]);
+            long fromHistory = 0;
+            for (GiftCardTransaction tx : ledger.history(CARDS[i])) {
+                fromHistory += tx.getType() == GiftCardTransaction.Type.REDEEM ? -tx.getAmountCents() : tx.getAmountCents();
+            }
+            boolean cardOk = balance >= 0 && balance == expected && fromHistory == balance;
+            ok &= cardOk;
+            System.out.printf("%s  balance %,d  expected %,d  history %,d -> %s%n",
+                GiftCardLedger.mask(CARDS[i]), balance, expected, fromHistory, cardOk ? "OK" : "MISMATCH");
+        }
+        System.out.printf("%,d transactions from %d threads, %,.0f ops/s%n",
+            ledger.getTransactionCount(), threads, (double) threads * perThread / (elapsed / 1e9));
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+}
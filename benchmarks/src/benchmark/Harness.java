@@ -0,0 +1,152 @@
+package benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Minimal in-process micro-benchmark harness.
+ *
+ * Runs an operation through a warm-up phase and a measured phase on the current
+ * thread and reports average time per operation and bytes allocated per operation
+ * (from the HotSpot per-thread allocation counter). Operations return a long that
+ * is folded into a sink so the JIT cannot eliminate the work.
+ *
+ * sample() additionally times single operations and reports latency percentiles
+ * over them. Only one operation in sampleEvery is timed on its own, the rest run
+ * between the samples so the clock reads barely show in the mean; each sampled
+ * latency includes one System.nanoTime() call (tens of ns on some machines), so
+ * percentiles of very short operations read high. For full distributions without
+ * that bias use the JMH benchmarks in benchmark.jmh (SampleTime mode).
+ */
+public final class Harness {
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static volatile long sink;
+
+    private Harness() {
+    }
+
+    public static final class Result {
+        private final String name;
+        private final long operations;
+        private final double nanosPerOp;
+        private final double bytesPerOp;
+        private final double p50;
+        private final double p90;
+        private final double p99;
+        private final double max;
+
+        Result(String name, long operations, double nanosPerOp, double bytesPerOp) {
+            this(name, operations, nanosPerOp, bytesPerOp, Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+        }
+
+        public Result(String name, long operations, double nanosPerOp, double bytesPerOp,
+                      double p50, double p90, double p99, double max) {
+            this.name = name;
+            this.operations = operations;
+            this.nanosPerOp = nanosPerOp;
+            this.bytesPerOp = bytesPerOp;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+            this.max = max;
+        }
+
+        public String getName() { return name; }
+        public long getOperations() { return operations; }
+        public double getNanosPerOp() { return nanosPerOp; }
+        public double getBytesPerOp() { return bytesPerOp; }
+        /** Latency percentiles in ns/op, NaN unless produced by sample() */
+        public double getP50() { return p50; }
+        public double getP90() { return p90; }
+        public double getP99() { return p99; }
+        public double getMax() { return max; }
+
+        public double getOpsPerSecond() {
+            return 1e9 / nanosPerOp;
+        }
+
+        /**
+         * Allocation rate in MB/s while the operation runs back to back
+         */
+        public double getAllocationRate() {
+            return bytesPerOp * getOpsPerSecond() / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            if (Double.isNaN(p50)) {
+                return String.format("%-40s %12.1f ns/op %12.1f B/op", name, nanosPerOp, bytesPerOp);
+            }
+            return String.format("%-40s %12.1f ns/op %12.0f ops/s  p50 %9.1f  p90 %9.1f  p99 %9.1f ns"
+                    + "  %9.1f B/op %8.1f MB/s",
+                name, nanosPerOp, getOpsPerSecond(), p50, p90, p99, bytesPerOp, getAllocationRate());
+        }
+    }
+
+    /**
+     * Runs warmupOps unmeasured operations, then measures operations
+     */
+    public static Result run(String name, long warmupOps, long operations, LongSupplier op) {
+        long acc = 0;
+        for (long i = 0; i < warmupOps; i++) {
+            acc += op.getAsLong();
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (long i = 0; i < operations; i++) {
+            acc += op.getAsLong();
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = THREADS.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+        sink += acc;
+        return new Result(name, operations, (double) elapsed / operations, (double) bytes / operations);
+    }
+
+    /**
+     * Like run(), but also times every sampleEvery-th operation on its own and reports
+     * percentiles of those per-operation latencies. Runs samples * sampleEvery measured
+     * operations; the mean and bytes/op cover all of them.
+     */
+    public static Result sample(String name, long warmupOps, int samples, int sampleEvery, LongSupplier op) {
+        if (samples <= 0 || sampleEvery <= 0) {
+            throw new IllegalArgumentException("samples and sampleEvery must be positive");
+        }
+        long acc = 0;
+        for (long i = 0; i < warmupOps; i++) {
+            acc += op.getAsLong();
+        }
+
+        long[] latencies = new long[samples];
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = THREADS.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        for (int s = 0; s < samples; s++) {
+            for (int i = 1; i < sampleEvery; i++) {
+                acc += op.getAsLong();
+            }
+            long opStart = System.nanoTime();
+            acc += op.getAsLong();
+            latencies[s] = System.nanoTime() - opStart;
+        }
+        long elapsed = System.nanoTime() - start;
+        long bytes = THREADS.getThreadAllocatedBytes(threadId) - bytesBefore;
+
+        sink += acc;
+        Arrays.sort(latencies);
+        long operations = (long) samples * sampleEvery;
+        return new Result(name, operations, (double) elapsed / operations, (double) bytes / operations,
+            percentile(latencies, 50), percentile(latencies, 90), percentile(latencies, 99),
+            latencies[samples - 1]);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(sorted.length * p / 100.0) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+}
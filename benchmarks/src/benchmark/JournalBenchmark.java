@@ -0,0 +1,179 @@
+package benchmark;
+
+import domain.enums.OrderStatus;
+import domain.models.Order;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+import journal.OrderJournal;
+import journal.Recovery;
+import logging.Level;
+import logging.Log;
+import repository.OrderRepository;
+
+/**
+ * Order journal throughput and recovery.
+ *
+ * Intake threads journal pre-built orders three ways:
+ *   append only      no durability wait (records reach disk with the next group commit)
+ *   group commit     each thread waits until its record is durable before the next order
+ *   force per append each thread forces the journal itself after every append
+ * and then the journal is reopened to time recovery, once intact and once with its
+ * last record torn, which must cost exactly that one record.
+ *
+ * Run: gradle :benchmarks:bench -Pmain=JournalBenchmark -Pargs='[threads] [ordersPerThread]'
+ */
+public class JournalBenchmark {
+    private static final int SEGMENT_SIZE = 8 << 20;
+
+    private interface Mode {
+        void afterAppend(OrderJournal journal, long sequence);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        Log.setLevel(Level.OFF);
+
+        Order[] orders = new Order[threads * perThread];
+        OrderShape[] shapes = OrderShape.values();
+        for (int i = 0; i < orders.length; i++) {
+            orders[i] = shapes[i % shapes.length].build();
+        }
+
+        System.out.println("=== Order journal: " + threads + " threads x " + perThread + " orders ===");
+        run("append only", orders, threads, (journal, sequence) -> { });
+        run("group commit", orders, threads, OrderJournal::awaitDurable);
+        run("force per append", orders, threads, (journal, sequence) -> journal.sync());
+
+        Path directory = Files.createTempDirectory("journal-recovery");
+        try {
+            // Every order paid through the journal, every third one completed in the repository;
+            // order 1 stays open with a promotion discount
+            orders[1].applyDiscount(orders[1].calculateSubtotalCents() / 10);
+            try (OrderJournal journal = OrderJournal.open(directory, SEGMENT_SIZE, OrderJournal.DEFAULT_SYNC_INTERVAL)) {
+                OrderRepository repository = new OrderRepository().setJournal(journal);
+                for (int i = 0; i < orders.length; i++) {
+                    journal.appendOrder(orders[i]);
+                    repository.add(orders[i]);
+                    orders[i].processPayment(journal);
+                    if (i % 3 == 0) {
+                        repository.updateStatus(orders[i].getOrderNumber(), OrderStatus.COMPLETED);
+                    }
+                }
+            }
+            int expectedOpen = orders.length - (orders.length + 2) / 3;
+            Recovery intact = reopen(directory);
+            System.out.println("\nRecovery (intact):     " + intact);
+            check(intact.getOpenOrderCount() == expectedOpen && !intact.hasDamagedTail(),
+                "expected " + expectedOpen + " open orders");
+            Order open = orders[1];
+            check(intact.getPaidCents(open.getOrderNumber()) == open.calculateTotalCents(),
+                "expected the payment of an open order to be recovered");
+            Order recovered = intact.getOpenOrders().stream()
+                .filter(o -> o.getOrderNumber() == open.getOrderNumber()).findFirst().orElse(null);
+            check(recovered != null && recovered.calculateDiscountCents() == open.calculateDiscountCents()
+                    && recovered.calculateTotalCents() == intact.getPaidCents(open.getOrderNumber()),
+                "expected the recovered discounted order to be fully paid");
+
+            tearLastRecord(directory);
+            Recovery torn = reopen(directory);
+            System.out.println("Recovery (torn tail):  " + torn);
+            check(torn.hasDamagedTail() && torn.getRecordCount() == intact.getRecordCount() - 1,
+                "expected exactly the torn record to be lost");
+
+            Recovery again = reopen(directory);
+            System.out.println("Recovery (after repair): " + again);
+            check(!again.hasDamagedTail() && again.getRecordCount() == torn.getRecordCount(),
+                "expected a clean journal after the damaged segment was cut");
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static void run(String label, Order[] orders, int threads, Mode mode) throws Exception {
+        Path directory = Files.createTempDirectory("journal-bench");
+        int perThread = orders.length / threads;
+        try (OrderJournal journal = OrderJournal.open(directory, SEGMENT_SIZE, OrderJournal.DEFAULT_SYNC_INTERVAL)) {
+            CountDownLatch start = new CountDownLatch(1);
+            Thread[] workers = new Thread[threads];
+            for (int t = 0; t < threads; t++) {
+                final int first = t * perThread;
+                workers[t] = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = first; i < first + perThread; i++) {
+                        mode.afterAppend(journal, journal.appendOrder(orders[i]));
+                    }
+                });
+                workers[t].start();
+            }
+            long started = System.nanoTime();
+            start.countDown();
+            for (Thread worker : workers) {
+                worker.join();
+            }
+            long elapsed = System.nanoTime() - started;
+            long appended = (long) perThread * threads;
+            long forces = Math.max(1, journal.getForceCount());
+            System.out.printf("%-18s %,10.0f orders/s  %,8d forces  %8.1f orders/force%n",
+                label, appended * 1e9 / elapsed, journal.getForceCount(), appended / (double) forces);
+        } finally {
+            delete(directory);
+        }
+    }
+
+    private static Recovery reopen(Path directory) {
+        try (OrderJournal journal = OrderJournal.open(directory, SEGMENT_SIZE, OrderJournal.DEFAULT_SYNC_INTERVAL)) {
+            return journal.getRecovery();
+        }
+    }
+
+    // Flips a byte in the middle of the last record, as a write cut short by a crash would leave it
+    private static void tearLastRecord(Path directory) throws IOException {
+        Path last;
+        try (Stream<Path> files = Files.list(directory)) {
+            last = files.filter(file -> file.toString().endsWith(".seg")).max(Comparator.naturalOrder()).orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            long position = 32;
+            long lastRecord = -1;
+            while (true) {
+                header.clear();
+                channel.read(header, position);
+                int length = header.getInt(0);
+                if (length == 0) {
+                    break;
+                }
+                lastRecord = position;
+                position += 17 + length;
+            }
+            ByteBuffer garbage = ByteBuffer.wrap(new byte[] {(byte) 0xFF});
+            channel.write(garbage, lastRecord + 17 + (position - lastRecord - 17) / 2);
+        }
+    }
+
+    private static void check(boolean ok, String message) {
+        if (!ok) {
+            System.out.println("FAILED: " + message);
+            System.exit(1);
+        }
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+}
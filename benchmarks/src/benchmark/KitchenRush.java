@@ -0,0 +1,84 @@
+package benchmark;
+
+import domain.models.Order;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import kitchen.KitchenPolicy;
+import kitchen.KitchenScheduler;
+import kitchen.Station;
+import kitchen.StationStats;
+import logging.Level;
+import logging.Log;
+
+/**
+ * Friday rush simulation for the kitchen scheduler.
+ *
+ * Orders of every OrderShape arrive at a steady rate while each station takes a
+ * realistic (scaled) time per ticket: 8 minutes in the oven, 3 at cold prep, 1 at the
+ * bar, 2 at pastry, +-25%. Station stats are printed every second and the run ends
+ * with the bottleneck station.
+ *
+ * Run: gradle :benchmarks:bench -Pmain=KitchenRush -Pargs='[ordersPerMinute] [minutes] [millisPerKitchenMinute] [ovens]'
+ */
+public class KitchenRush {
+    public static void main(String[] args) throws Exception {
+        int ordersPerMinute = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        int minutes = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        double millisPerMinute = args.length > 2 ? Double.parseDouble(args[2]) : 50;
+        int ovens = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+
+        Map<Station, Double> minutesPerTicket = new EnumMap<>(Station.class);
+        minutesPerTicket.put(Station.OVEN, 8.0);
+        minutesPerTicket.put(Station.COLD_PREP, 3.0);
+        minutesPerTicket.put(Station.BAR, 1.0);
+        minutesPerTicket.put(Station.PASTRY, 2.0);
+
+        Log.setLevel(Level.OFF);
+        KitchenPolicy policy = KitchenPolicy.defaults()
+            .withParallelism(Station.OVEN, ovens)
+            .withParallelism(Station.COLD_PREP, 2)
+            .withParallelism(Station.BAR, 1)
+            .withParallelism(Station.PASTRY, 1);
+        OrderShape[] shapes = OrderShape.values();
+        List<CompletableFuture<Order>> orders = new ArrayList<>();
+
+        try (KitchenScheduler kitchen = new KitchenScheduler(policy, ticket -> {
+            double minutesOfWork = minutesPerTicket.get(ticket.getStation())
+                * ThreadLocalRandom.current().nextDouble(0.75, 1.25);
+            Thread.sleep(Math.max(1, Math.round(minutesOfWork * millisPerMinute)));
+        })) {
+            long start = System.nanoTime();
+            long nextReport = start + TimeUnit.SECONDS.toNanos(1);
+            long intervalNanos = (long) (millisPerMinute * 1e6 / ordersPerMinute);
+            for (int i = 0; i < ordersPerMinute * minutes; i++) {
+                long due = start + i * intervalNanos;
+                long now;
+                while ((now = System.nanoTime()) < due) {
+                    TimeUnit.NANOSECONDS.sleep(Math.min(due - now, 1_000_000));
+                }
+                // Mostly small tables, some delivery, an occasional catering order
+                OrderShape shape = i % 20 == 0 ? OrderShape.LARGE_CATERING : shapes[i % 2 == 0 ? 0 : 2];
+                orders.add(kitchen.submit(shape.build()));
+                if (now >= nextReport) {
+                    report(kitchen, (now - start) / (millisPerMinute * 1e6));
+                    nextReport += TimeUnit.SECONDS.toNanos(1);
+                }
+            }
+            CompletableFuture.allOf(orders.toArray(new CompletableFuture<?>[0])).join();
+            report(kitchen, (System.nanoTime() - start) / (millisPerMinute * 1e6));
+            System.out.println("Bottleneck station: " + kitchen.getBottleneck());
+        }
+    }
+
+    private static void report(KitchenScheduler kitchen, double kitchenMinutes) {
+        System.out.printf("-- kitchen minute %.0f (times below are wall clock)%n", kitchenMinutes);
+        for (StationStats stats : kitchen.getStats().values()) {
+            System.out.println(stats);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package benchmark;
+
+import domain.pricing.Money;
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import logging.ConsoleLogSink;
+import logging.Event;
+import logging.FileLogSink;
+import logging.Level;
+import logging.Log;
+
+/**
+ * Compares the old System.out.println logging with the event logger.
+ *
+ * The legacy variant builds the same strings the payment classes used to build and
+ * prints them to a synchronized PrintStream over a file (the console replaced by a
+ * file so the numbers are not dominated by the terminal). The event logger runs
+ * with the console sink removed and a FileLogSink behind the background writer.
+ * Reports the cost on the logging thread, allocation per call, and the throughput
+ * of several terminal threads logging at once. Sustained throughput is bounded by
+ * the disk either way; the difference shows in what a burst costs the terminal.
+ *
+ * Run: gradle :benchmarks:bench -Pmain=LoggingBenchmark -Pargs='[threads]'
+ */
+public class LoggingBenchmark {
+    private static final String HOLDER = "Alice Johnson";
+    private static final String CARD = "4532123456789012";
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        Path dir = Files.createTempDirectory("log-bench");
+
+        try (PrintStream legacy = new PrintStream(new BufferedOutputStream(
+                new FileOutputStream(dir.resolve("legacy.log").toFile())), false, "UTF-8")) {
+            System.out.println(Harness.run("legacy println", 200_000, 1_000_000,
+                () -> legacyCardPayment(legacy, 4_599)));
+            System.out.printf("%-40s %,12.0f lines/s%n", "legacy println, " + threads + " threads",
+                throughput(threads, 200_000, () -> legacyCardPayment(legacy, 4_599)));
+        }
+
+        FileLogSink file = new FileLogSink(dir.resolve("events.log"));
+        Log.setSinks(file);
+
+        Log.setLevel(Level.OFF);
+        System.out.println(Harness.run("event logger, level OFF", 1_000_000, 10_000_000, () -> {
+            Log.log(Event.CARD_PAYMENT, HOLDER, CARD, 4_599);
+            return 1;
+        }));
+
+        Log.setLevel(Level.INFO);
+        Log.startBackgroundWriter(Log.DEFAULT_BUFFER_SIZE);
+        System.out.println(Harness.run("event logger, async", 200_000, 1_000_000, () -> {
+            Log.log(Event.CARD_PAYMENT, HOLDER, CARD, 4_599);
+            return 1;
+        }));
+        System.out.printf("%-40s %12.1f ns/op (bursts that fit the ring buffer)%n", "event logger, async burst",
+            burstNanosPerEvent(Log.DEFAULT_BUFFER_SIZE / 2, 50));
+        System.out.printf("%-40s %,12.0f lines/s%n", "event logger, " + threads + " threads",
+            throughput(threads, 200_000, () -> Log.log(Event.CARD_PAYMENT, HOLDER, CARD, 4_599)));
+        long stalls = Log.getStalls();
+        Log.stopBackgroundWriter();
+        Log.setSinks(new ConsoleLogSink());
+        file.close();
+        System.out.println("Ring buffer stalls (writer behind): " + stalls);
+        System.out.println("Log files in " + dir);
+    }
+
+    // Logging-thread cost of a burst that the writer has not caught up with yet
+    private static double burstNanosPerEvent(int burst, int rounds) throws InterruptedException {
+        long total = 0;
+        for (int r = 0; r < rounds; r++) {
+            Thread.sleep(20); // let the writer drain the previous burst
+            long start = System.nanoTime();
+            for (int i = 0; i < burst; i++) {
+                Log.log(Event.CARD_PAYMENT, HOLDER, CARD, 4_599);
+            }
+            total += System.nanoTime() - start;
+        }
+        return (double) total / ((long) burst * rounds);
+    }
+
+    private static long legacyCardPayment(PrintStream out, long amountCents) {
+        out.println("Processing credit card payment...");
+        out.println("Card Holder: " + HOLDER);
+        out.println("Card Number: **** **** **** " + CARD.substring(Math.max(0, CARD.length() - 4)));
+        out.println("Amount: $" + Money.format(amountCents));
+        out.println("Authorizing transaction...");
+        out.println("Payment successful!");
+        return 1;
+    }
+
+    private static double throughput(int threads, int perThread, Runnable op) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    op.run();
+                }
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return (double) threads * perThread / ((System.nanoTime() - begin) / 1e9);
+    }
+}
@@ -0,0 +1,128 @@
+package benchmark;
+
+import domain.enums.MealSize;
+import domain.models.Meal;
+import domain.models.MenuItem;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import logging.Level;
+import logging.Log;
+import patterns.builder.MealBuilder;
+import patterns.flyweight.MealCache;
+import patterns.flyweight.MenuCatalog;
+
+/**
+ * Interned meals versus a new Meal per build.
+ *
+ * Checks that identical combos share one instance and differing ones do not, that a
+ * small cache stays bounded while thousands of one-off meals pass through it (every
+ * meal it returns must still equal a freshly built one), and that threads interning
+ * the same combos concurrently always get a correct meal. Then times building a
+ * popular combo both ways.
+ *
+ * Run: gradle :benchmarks:bench -Pmain=MealCacheBenchmark -Pargs='[threads] [mealsPerThread]'
+ */
+public class MealCacheBenchmark {
+    private static final MealSize[] SIZES = MealSize.values();
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 500_000;
+        Log.setLevel(Level.OFF);
+        MenuCatalog menu = MenuCatalog.getDefault();
+
+        Meal lunch = MealBuilder.lunchSpecial().setMainItem(menu.get(3)).setBeverage(menu.get(12)).build();
+        Meal again = MealBuilder.lunchSpecial().setMainItem(menu.get(3)).setBeverage(menu.get(12)).build();
+        Meal large = MealBuilder.lunchSpecial().setMainItem(menu.get(3)).setBeverage(menu.get(12))
+            .setMealSize(MealSize.LARGE).build();
+        Meal fresh = new Meal(menu.get(3), null, menu.get(12), null, "Lunch Special", MealSize.REGULAR);
+        check(lunch == again, "identical combos must share one instance");
+        check(lunch != large && !lunch.equals(large), "different sizes must be different meals");
+        check(lunch.equals(fresh) && lunch.hashCode() == fresh.hashCode(), "equals/hashCode with a new Meal");
+        check(lunch.getTotalPriceCents() == menu.get(3).getPriceCents() + menu.get(12).getPriceCents(),
+            "precomputed total");
+        check(lunch.getComponents() == lunch.getComponents(), "getComponents must not copy");
+        try {
+            lunch.getComponents().add("Extra");
+            check(false, "components must be unmodifiable");
+        } catch (UnsupportedOperationException expected) {
+            // unmodifiable view
+        }
+
+        // One-off meals through a small cache
+        MealCache small = new MealCache(64);
+        for (int i = 0; i < 10_000; i++) {
+            String instructions = "Table " + (i % 2_500);
+            Meal meal = small.intern(menu.get(3 + i % 4), menu.get(i % 3), menu.get(10 + i % 5), null,
+                instructions, SIZES[i % SIZES.length]);
+            check(meal.equals(new Meal(menu.get(3 + i % 4), menu.get(i % 3), menu.get(10 + i % 5), null,
+                instructions, SIZES[i % SIZES.length])), "interned meal differs from a new one");
+        }
+        System.out.printf("small cache: capacity %d, %d hits, %d misses, %d evictions%n",
+            small.getCapacity(), small.getHits(), small.getMisses(), small.getEvictions());
+        check(small.getCapacity() == 64 && small.getEvictions() >= 10_000 - 64 - small.getHits(),
+            "cache must stay bounded");
+
+        // Concurrent interning of a few hundred combos
+        int combos = 4 * 3 * 5 * SIZES.length;
+        Meal[] expected = new Meal[combos];
+        for (int c = 0; c < combos; c++) {
+            expected[c] = combo(menu, c);
+        }
+        MealCache shared = new MealCache(MealCache.DEFAULT_CAPACITY);
+        AtomicLong wrong = new AtomicLong();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int seed = t;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    int c = (i * 31 + seed) % combos;
+                    Meal meal = shared.intern(menu.get(3 + c % 4), menu.get(c / 4 % 3), menu.get(10 + c / 12 % 5),
+                        null, "Combo", SIZES[c / 60]);
+                    if (!meal.equals(expected[c]) || meal.getTotalPriceCents() != expected[c].getTotalPriceCents()) {
+                        wrong.incrementAndGet();
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        System.out.printf("%d threads x %,d interns over %d combos: %d misses, %d wrong%n%n",
+            threads, perThread, combos, shared.getMisses(), wrong.get());
+        check(wrong.get() == 0, "concurrent interning returned a wrong meal");
+
+        MenuItem pizza = menu.get(4);
+        MenuItem salad = menu.get(2);
+        MenuItem coke = menu.get(12);
+        MenuItem cake = menu.get(9);
+        System.out.println(Harness.run("MealBuilder.build (interned)", 1_000_000, 5_000_000,
+            () -> {
+                Meal meal = new MealBuilder().setMainItem(pizza).setSideItem(salad).setBeverage(coke)
+                    .setDessert(cake).setMealSize(MealSize.LARGE).build();
+                return meal.getTotalPriceCents() + meal.getComponents().size();
+            }));
+        System.out.println(Harness.run("new Meal + total + components", 1_000_000, 5_000_000,
+            () -> {
+                Meal meal = new Meal(pizza, salad, coke, cake, null, MealSize.LARGE);
+                List<String> components = meal.getComponents();
+                return meal.getTotalPriceCents() + components.size();
+            }));
+        MealCache cache = MealCache.getDefault();
+        System.out.println(Harness.run("MealCache.intern", 1_000_000, 5_000_000,
+            () -> cache.intern(pizza, salad, coke, cake, null, MealSize.LARGE).getTotalPriceCents()));
+    }
+
+    private static Meal combo(MenuCatalog menu, int c) {
+        return new Meal(menu.get(3 + c % 4), menu.get(c / 4 % 3), menu.get(10 + c / 12 % 5), null, "Combo",
+            SIZES[c / 60]);
+    }
+
+    private static void check(boolean ok, String message) {
+        if (!ok) {
+            System.out.println("FAILED: " + message);
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package benchmark;
+
+import domain.enums.MenuItemCategory;
+import domain.models.Order;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+import javax.management.MBeanServer;
+import logging.Level;
+import logging.Log;
+import metrics.Histogram;
+import metrics.HistogramSnapshot;
+import metrics.Metrics;
+import metrics.MetricsRegistry;
+import metrics.Operation;
+import patterns.factory.MenuItemFactory;
+import patterns.factory.PaymentFactory;
+import payment.GiftCardLedger;
+
+/**
+ * Latency histograms and operation metrics.
+ *
+ * Checks that percentiles from the log-bucketed histogram stay within 6.25% of the
+ * exact ones, that concurrent recording loses nothing, that recording allocates
+ * nothing, that every instrumented operation (menu lookup, meal and order builds,
+ * pricing, receipt text, the four payment types) is counted, and that the Prometheus
+ * text, the file export and the MBeans agree with the histograms. Then measures
+ * what recording costs and what the instrumentation adds to the timed operations.
+ *
+ * Run: gradle :benchmarks:bench -Pmain=MetricsBenchmark -Pargs='[threads] [recordsPerThread]'
+ */
+public class MetricsBenchmark {
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 1_000_000;
+        Log.setLevel(Level.OFF);
+        MetricsRegistry registry = new MetricsRegistry();
+
+        // Percentiles of a long-tailed distribution against the exact values
+        Histogram latencies = registry.histogram("sample_latency", "Log-normal sample");
+        Random random = new Random(42);
+        long[] exact = new long[1_000_000];
+        for (int i = 0; i < exact.length; i++) {
+            exact[i] = (long) Math.exp(9 + 1.5 * random.nextGaussian());
+            latencies.record(exact[i]);
+        }
+        Arrays.sort(exact);
+        HistogramSnapshot snapshot = latencies.snapshot();
+        System.out.println("histogram " + snapshot);
+        for (double p : new double[] {50, 90, 99, 99.9, 100}) {
+            long expected = exact[(int) Math.ceil(exact.length * p / 100.0) - 1];
+            long reported = snapshot.getValueAtPercentile(p);
+            System.out.printf("  p%-5s exact %,13d  reported %,13d  %+.2f%%%n", p, expected, reported,
+                100.0 * (reported - expected) / expected);
+            check(reported >= expected && reported <= expected + expected / 16 + 1,
+                "p" + p + " must be within 6.25% above the exact value");
+        }
+        check(snapshot.getCount() == exact.length && snapshot.getMaxNanos() == exact[exact.length - 1],
+            "count and max");
+
+        // Concurrent recording
+        Histogram shared = registry.histogram("shared_latency", "Recorded from several threads");
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int seed = t;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    shared.record(1 + (i + seed) % 100_000);
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long expectedSum = 0;
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < perThread; i++) {
+                expectedSum += 1 + (i + t) % 100_000;
+            }
+        }
+        HistogramSnapshot concurrent = shared.snapshot();
+        System.out.printf("%d threads x %,d records: count %,d, max %,d%n", threads, perThread,
+            concurrent.getCount(), concurrent.getMaxNanos());
+        check(concurrent.getCount() == (long) threads * perThread && concurrent.getSumNanos() == expectedSum
+            && concurrent.getMaxNanos() == 100_000, "concurrent records were lost");
+
+        // Every instrumented operation is counted
+        Map<Operation, Long> before = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            before.put(operation, operation.getLatency().getCount());
+        }
+        long lookupErrors = Operation.MENU_ITEM_LOOKUP.getErrors().getCount();
+        GiftCardLedger ledger = new GiftCardLedger(16);
+        ledger.issue("6000000000001", 1_000_000_000);
+        // Enough calls that the sampled operations are timed too
+        for (int round = 0; round < 64; round++) {
+            for (OrderShape shape : OrderShape.values()) {
+                Order order = shape.build();
+                check(!order.toString().isEmpty() && order.calculateTotalCents() > 0, "order " + shape.getLabel());
+                order.processPayment();
+                PaymentFactory.createGiftCardPayment("6000000000001", ledger).processPayment(order.calculateTotalCents());
+            }
+        }
+        try {
+            MenuItemFactory.createMenuItem("Haggis");
+            check(false, "unknown item must be rejected");
+        } catch (IllegalArgumentException expected) {
+            // counted as an error
+        }
+        for (Operation operation : Operation.values()) {
+            long count = operation.getLatency().getCount() - before.get(operation);
+            System.out.printf("  %-18s %5d timed (1 in %d calls)%n", operation, count, operation.getSampleEvery());
+            check(count > 0, operation + " was not timed");
+        }
+        check(Operation.MENU_ITEM_LOOKUP.getErrors().getCount() == lookupErrors + 1, "lookup error counter");
+
+        // Prometheus text, file export and MBeans
+        StringBuilder text = new StringBuilder();
+        registry.writePrometheus(text);
+        check(text.indexOf("# TYPE tmps_shared_latency_seconds summary\n") >= 0
+            && text.indexOf("tmps_shared_latency_seconds_count " + (long) threads * perThread + "\n") >= 0
+            && text.indexOf("tmps_sample_latency_seconds{quantile=\"0.99\"} "
+                + snapshot.getValueAtPercentile(99) / 1e9 + "\n") >= 0, "Prometheus text");
+        for (String line : text.toString().split("\n")) {
+            if (!line.startsWith("#")) {
+                Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1));
+            }
+        }
+        Path file = Files.createTempFile("metrics", ".prom");
+        try {
+            registry.writePrometheus(file);
+            check(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).equals(text.toString()), "file export");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        StringBuilder operations = new StringBuilder();
+        Metrics.getRegistry().writePrometheus(operations);
+        check(operations.indexOf("tmps_order_build_seconds_count ") >= 0
+            && operations.indexOf("tmps_menu_item_lookup_errors_total ") >= 0, "operation metrics exported");
+
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        registry.registerMBeans(server);
+        Histogram late = registry.histogram("registered_later", "Created after registerMBeans");
+        late.record(5);
+        check(((Long) server.getAttribute(MetricsRegistry.objectNameOf(shared), "Count")) == concurrent.getCount()
+            && ((Long) server.getAttribute(MetricsRegistry.objectNameOf(late), "MaxNanos")) == 5,
+            "MBean attributes");
+        System.out.println("prometheus, file and JMX exports agree\n");
+
+        // Cost of recording
+        Histogram cost = registry.histogram("cost", "Benchmark");
+        Harness.Result record = Harness.run("Histogram.record", 1_000_000, 20_000_000,
+            () -> {
+                cost.record(1_234);
+                return 1;
+            });
+        System.out.println(record);
+        System.out.println(Harness.run("Metrics.start + stop (every call)", 1_000_000, 20_000_000,
+            () -> {
+                long start = Metrics.start(Operation.ORDER_BUILD);
+                Metrics.stop(Operation.ORDER_BUILD, start);
+                return start;
+            }));
+        System.out.println(Harness.run("Metrics.start + stop (1 in 16 calls)", 1_000_000, 20_000_000,
+            () -> {
+                long start = Metrics.start(Operation.MENU_ITEM_LOOKUP);
+                Metrics.stop(Operation.MENU_ITEM_LOOKUP, start);
+                return start;
+            }));
+        check(record.getBytesPerOp() < 0.01, "recording must not allocate");
+
+        System.out.println();
+        for (boolean enabled : new boolean[] {false, true, false, true}) {
+            Metrics.setEnabled(enabled);
+            String state = enabled ? " (metrics on)" : " (metrics off)";
+            System.out.println(Harness.run("createMenuItem" + state, 1_000_000, 5_000_000,
+                () -> MenuItemFactory.createMenuItem(MenuItemCategory.MAIN_COURSE, "Pepperoni").getId()));
+            System.out.println(Harness.run("OrderBuilder.build/small-dine-in" + state, 100_000, 1_000_000,
+                () -> OrderShape.SMALL_DINE_IN.build().getItemCount()));
+        }
+        Metrics.setEnabled(true);
+    }
+
+    private static void check(boolean ok, String message) {
+        if (!ok) {
+            System.out.println("FAILED: " + message);
+            System.exit(1);
+        }
+    }
+}
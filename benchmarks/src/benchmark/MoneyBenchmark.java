@@ -0,0 +1,74 @@
+package benchmark;
+
+import domain.enums.MealSize;
+import domain.pricing.Money;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Compares order pricing with long cents (domain.pricing.Money) against BigDecimal
+ * and double. Each operation prices a 40-line order: sum the lines, apply the LARGE
+ * meal multiplier, add 8.5% tax.
+ *
+ * Run: gradle :benchmarks:bench -Pmain=MoneyBenchmark
+ */
+public class MoneyBenchmark {
+    private static final int LINES = 40;
+    private static final int TAX_BASIS_POINTS = 850;
+
+    public static void main(String[] args) {
+        long[] cents = new long[LINES];
+        BigDecimal[] decimals = new BigDecimal[LINES];
+        double[] doubles = new double[LINES];
+        for (int i = 0; i < LINES; i++) {
+            cents[i] = 199 + (i * 137) % 1500;
+            decimals[i] = BigDecimal.valueOf(cents[i], 2);
+            doubles[i] = cents[i] / 100.0;
+        }
+        BigDecimal largeMultiplier = new BigDecimal("1.3");
+        BigDecimal taxRate = new BigDecimal("0.085");
+
+        long fixed = priceFixed(cents);
+        long decimal = priceDecimal(decimals, largeMultiplier, taxRate);
+        if (fixed != decimal) {
+            throw new AssertionError("Fixed-point total " + fixed + " != BigDecimal total " + decimal);
+        }
+        System.out.println("Order total: $" + Money.format(fixed) + " (fixed-point and BigDecimal agree)");
+
+        long warmup = 2_000_000;
+        long ops = 5_000_000;
+        System.out.println(Harness.run("long cents (Money)", warmup, ops, () -> priceFixed(cents)));
+        System.out.println(Harness.run("BigDecimal", warmup, ops,
+            () -> priceDecimal(decimals, largeMultiplier, taxRate)));
+        System.out.println(Harness.run("double (previous implementation)", warmup, ops,
+            () -> priceDouble(doubles)));
+    }
+
+    static long priceFixed(long[] lines) {
+        long subtotal = 0;
+        for (long line : lines) {
+            subtotal += line;
+        }
+        subtotal = MealSize.LARGE.applyTo(subtotal);
+        return subtotal + Money.percentOf(subtotal, TAX_BASIS_POINTS, Money.TAX_ROUNDING);
+    }
+
+    static long priceDecimal(BigDecimal[] lines, BigDecimal multiplier, BigDecimal taxRate) {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        for (BigDecimal line : lines) {
+            subtotal = subtotal.add(line);
+        }
+        subtotal = subtotal.multiply(multiplier).setScale(2, Money.SIZE_ROUNDING);
+        BigDecimal tax = subtotal.multiply(taxRate).setScale(2, RoundingMode.HALF_UP);
+        return subtotal.add(tax).unscaledValue().longValue();
+    }
+
+    static long priceDouble(double[] lines) {
+        double subtotal = 0;
+        for (double line : lines) {
+            subtotal += line;
+        }
+        subtotal *= 1.3;
+        return Math.round((subtotal + subtotal * 0.085) * 100);
+    }
+}
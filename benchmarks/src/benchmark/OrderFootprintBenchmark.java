@@ -0,0 +1,180 @@
+package benchmark;
+
+import domain.enums.MealSize;
+import domain.enums.OrderType;
+import domain.models.Meal;
+import domain.models.MenuItem;
+import domain.models.Order;
+import domain.models.Payment;
+import domain.pricing.PriceBreakdown;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import logging.Level;
+import logging.Log;
+import patterns.flyweight.MealCache;
+import patterns.flyweight.MenuCatalog;
+import patterns.singleton.ConfigSnapshot;
+import patterns.singleton.RestaurantConfig;
+
+/**
+ * Heap retained by a day of orders: the compact Order layout versus the previous one
+ * (line arrays of references adopted from the builder, phone and table kept as
+ * Strings).
+ *
+ * Generates the same seeded orders twice, once as Order and once as a replica of
+ * the previous layout, and measures the heap each set retains after a full GC.
+ * Every compact order must give back exactly the phone, table, items and subtotal
+ * it was created with.
+ *
+ * Run: gradle :benchmarks:bench -Pmain=OrderFootprintBenchmark -Pargs='[orders]'
+ */
+public class OrderFootprintBenchmark {
+    private static final OrderType[] TYPES = OrderType.values();
+    private static final MealSize[] SIZES = MealSize.values();
+    private static final MemoryMXBean MEMORY = ManagementFactory.getMemoryMXBean();
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Log.setLevel(Level.OFF);
+        MenuCatalog menu = MenuCatalog.getDefault();
+        ConfigSnapshot config = RestaurantConfig.getInstance().snapshot();
+
+        long before = usedHeap();
+        Object[] legacy = new Object[count];
+        generate(count, menu, (i, number, name, phone, table, items, meals, type, address) ->
+            legacy[i] = new PreviousLayout(number, config, name, phone, table, items, meals, type, address, null));
+        long legacyBytes = usedHeap() - before;
+        Arrays.fill(legacy, null);
+
+        before = usedHeap();
+        Order[] orders = new Order[count];
+        long[] wrong = new long[1];
+        generate(count, menu, (i, number, name, phone, table, items, meals, type, address) -> {
+            Order order = new Order(number, 0L, config, name, phone, table, items, meals, type, address, null);
+            long subtotal = 0;
+            for (MenuItem item : items) {
+                subtotal += item.getPriceCents();
+            }
+            for (Meal meal : meals) {
+                subtotal += meal.getTotalPriceCents();
+            }
+            if (!phone.equals(order.getPhoneNumber()) || !Objects.equals(table, order.getTableNumber())
+                    || !order.getItems().equals(items) || !order.getMeals().equals(meals)
+                    || order.calculateSubtotalCents() != subtotal || !order.hasCompactLines()) {
+                wrong[0]++;
+            }
+            orders[i] = order;
+        });
+        long compactBytes = usedHeap() - before;
+
+        System.out.printf("=== %,d orders retained ===%n", count);
+        System.out.printf("previous layout  %,8.1f MB  %6.1f B/order%n", legacyBytes / 1e6, (double) legacyBytes / count);
+        System.out.printf("compact layout   %,8.1f MB  %6.1f B/order  (%.0f%% less)%n", compactBytes / 1e6,
+            (double) compactBytes / count, 100.0 * (legacyBytes - compactBytes) / legacyBytes);
+        System.out.println("orders that did not round-trip: " + wrong[0]);
+        if (wrong[0] != 0 || orders[count - 1] == null) {
+            System.out.println("FAILED: compact orders differ from their input");
+            System.exit(1);
+        }
+    }
+
+    interface Sink {
+        void accept(int index, long number, String name, String phone, String table, List<MenuItem> items,
+                    List<Meal> meals, OrderType type, String address);
+    }
+
+    // Seeded mix: 1-6 items (sometimes two of the same), up to two interned meals,
+    // strings created per order as they would be when parsed from a request
+    private static void generate(int count, MenuCatalog menu, Sink sink) {
+        Random random = new Random(42);
+        List<MenuItem> items = new ArrayList<>();
+        List<Meal> meals = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.clear();
+            meals.clear();
+            int lines = 1 + random.nextInt(6);
+            for (int l = 0; l < lines; l++) {
+                MenuItem item = menu.get(random.nextInt(menu.size()));
+                items.add(item);
+                if (random.nextInt(5) == 0) {
+                    items.add(item);
+                }
+            }
+            for (int m = random.nextInt(3); m > 0; m--) {
+                meals.add(MealCache.getDefault().intern(menu.get(3 + random.nextInt(4)), null,
+                    menu.get(10 + random.nextInt(5)), null, null, SIZES[random.nextInt(SIZES.length)]));
+            }
+            OrderType type = TYPES[random.nextInt(TYPES.length)];
+            String phone = new StringBuilder(16).append("+1-555-").append(1000 + random.nextInt(9000)).toString();
+            String table = type == OrderType.DINE_IN ? new StringBuilder(4).append('T').append(1 + random.nextInt(40))
+                .toString() : null;
+            String address = type == OrderType.DELIVERY ? new StringBuilder(24).append(1 + random.nextInt(200))
+                .append(" Main Street").toString() : null;
+            String name = new StringBuilder(16).append("Customer ").append(random.nextInt(100_000)).toString();
+            sink.accept(i, i + 1L, name, phone, table, items, meals, type, address);
+        }
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return MEMORY.getHeapMemoryUsage().getUsed();
+    }
+
+    // Field-for-field replica of Order before the compact layout. The line arrays are
+    // exact-size copies, as the List constructor made them (a builder could hand over
+    // arrays with spare slots, which would only make this layout larger).
+    @SuppressWarnings("unused")
+    private static final class PreviousLayout {
+        private static final MenuItem[] NO_ITEMS = new MenuItem[0];
+        private static final Meal[] NO_MEALS = new Meal[0];
+
+        private final String customerName;
+        private final String phoneNumber;
+        private final String tableNumber;
+        private final MenuItem[] items;
+        private final int itemCount;
+        private final Meal[] meals;
+        private final int mealCount;
+        private final OrderType orderType;
+        private final String deliveryAddress;
+        private final Payment paymentMethod;
+        private final long orderNumber;
+        private final long placedAtMillis;
+        private final long subtotalCents;
+        private volatile PriceBreakdown priceBreakdown;
+        private final ConfigSnapshot config;
+
+        PreviousLayout(long orderNumber, ConfigSnapshot config, String customerName, String phoneNumber,
+                       String tableNumber, List<MenuItem> items, List<Meal> meals, OrderType orderType,
+                       String deliveryAddress, Payment paymentMethod) {
+            this.orderNumber = orderNumber;
+            this.placedAtMillis = 0;
+            this.config = config;
+            this.customerName = customerName;
+            this.phoneNumber = phoneNumber;
+            this.tableNumber = tableNumber;
+            this.items = items.toArray(NO_ITEMS);
+            this.itemCount = this.items.length;
+            this.meals = meals.toArray(NO_MEALS);
+            this.mealCount = this.meals.length;
+            this.orderType = orderType;
+            this.deliveryAddress = deliveryAddress;
+            this.paymentMethod = paymentMethod;
+            long subtotal = 0;
+            for (MenuItem item : items) {
+                subtotal += item.getPriceCents();
+            }
+            for (Meal meal : meals) {
+                subtotal += meal.getTotalPriceCents();
+            }
+            this.subtotalCents = subtotal;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package benchmark;
+
+import domain.ids.HighWaterMark;
+import domain.ids.OrderIdGenerator;
+import domain.ids.SnowflakeIdGenerator;
+import domain.ids.StripedSequenceGenerator;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Concurrency stress check for the order ID generators.
+ *
+ * Many threads draw IDs at the same time; all IDs are then sorted and checked for
+ * duplicates. The persistent sequence is also restarted mid-run to check that IDs
+ * stay unique across restarts. Exits with status 1 on any duplicate.
+ *
+ * Run: gradle :benchmarks:bench -Pmain=OrderIdStress -Pargs='[threads] [idsPerThread]'
+ */
+public class OrderIdStress {
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+        boolean ok = check("striped sequence", new StripedSequenceGenerator(1001), threads, perThread, null);
+        ok &= check("snowflake", new SnowflakeIdGenerator(7), threads, perThread, null);
+
+        Path dir = Files.createTempDirectory("order-ids");
+        HighWaterMark mark = new HighWaterMark(dir.resolve("order-ids.hwm"));
+        long[] beforeRestart = drain(new StripedSequenceGenerator(1001, 32, mark, 1_000), threads, perThread);
+        ok &= check("persistent sequence after restart",
+            new StripedSequenceGenerator(1001, 32, mark, 1_000), threads, perThread, beforeRestart);
+        deleteQuietly(dir);
+
+        if (!ok) {
+            System.exit(1);
+        }
+    }
+
+    private static boolean check(String name, OrderIdGenerator generator, int threads, int perThread,
+                                 long[] earlierIds) throws InterruptedException {
+        long start = System.nanoTime();
+        long[] ids = drain(generator, threads, perThread);
+        long elapsed = System.nanoTime() - start;
+        if (earlierIds != null) {
+            long[] combined = Arrays.copyOf(earlierIds, earlierIds.length + ids.length);
+            System.arraycopy(ids, 0, combined, earlierIds.length, ids.length);
+            ids = combined;
+        }
+        Arrays.sort(ids);
+        long duplicates = 0;
+        for (int i = 1; i < ids.length; i++) {
+            if (ids[i] == ids[i - 1]) {
+                duplicates++;
+            }
+        }
+        System.out.printf("%-36s %,d IDs from %d threads, %,.0f IDs/s, %d duplicates -> %s%n",
+            name, ids.length, threads, (double) threads * perThread / (elapsed / 1e9),
+            duplicates, duplicates == 0 ? "OK" : "FAILED");
+        return duplicates == 0;
+    }
+
+    private static long[] drain(OrderIdGenerator generator, int threads, int perThread)
+            throws InterruptedException {
+        long[] ids = new long[threads * perThread];
+        CountDownLatch startGate = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int offset = t * perThread;
+            workers[t] = new Thread(() -> {
+                try {
+                    startGate.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    ids[offset + i] = generator.nextId();
+                }
+            });
+            workers[t].start();
+        }
+        startGate.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return ids;
+    }
+
+    private static void deleteQuietly(Path dir) throws IOException {
+        try (var files = Files.list(dir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+}
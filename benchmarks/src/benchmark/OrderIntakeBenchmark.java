@@ -0,0 +1,132 @@
+package benchmark;
+
+import domain.enums.OrderType;
+import domain.models.Meal;
+import domain.models.MenuItem;
+import domain.models.Order;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import logging.Level;
+import logging.Log;
+import patterns.builder.MealBuilder;
+import patterns.builder.OrderBuilder;
+import patterns.flyweight.MenuCatalog;
+
+/**
+ * Order intake allocation: pooled builders versus a new builder per order versus
+ * copying the lines into the order.
+ *
+ * Checks first that orders never see later changes to the builder that built them
+ * (including a second build() from the same builder and the next order built by a
+ * pooled builder), that line lists are read-only, and that threads building with
+ * their pooled builders always get the subtotal of their own lines. Then measures
+ * time and bytes per built order for a table of four and a 30-line catering order.
+ *
+ * Run: gradle :benchmarks:bench -Pmain=OrderIntakeBenchmark -Pargs='[threads] [ordersPerThread]'
+ */
+public class OrderIntakeBenchmark {
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int perThread = args.length > 1 ? Integer.parseInt(args[1]) : 200_000;
+        Log.setLevel(Level.OFF);
+        MenuCatalog menu = MenuCatalog.getDefault();
+
+        OrderBuilder builder = OrderBuilder.pooled().setCustomerName("A").setPhoneNumber("1").setTableNumber("T1")
+            .addItem(menu.get(3)).addItem(menu.get(12));
+        Order first = builder.build();
+        Order second = builder.addItem(menu.get(7)).build();
+        check(first.getItemCount() == 2 && second.getItemCount() == 3 && first.getItem(1) == menu.get(12),
+            "adding after build() changed the built order");
+        Order third = OrderBuilder.pooled().setCustomerName("B").setPhoneNumber("2").setTableNumber("T2")
+            .addItem(menu.get(0)).build();
+        check(OrderBuilder.pooled() == builder, "pooled() must reuse the thread's builder");
+        check(first.getItem(0) == menu.get(3) && second.getItem(2) == menu.get(7) && third.getItemCount() == 1,
+            "the next pooled order changed an earlier one");
+        check(first.calculateSubtotalCents() == menu.get(3).getPriceCents() + menu.get(12).getPriceCents(),
+            "subtotal of adopted lines");
+        try {
+            first.getItems().add(menu.get(1));
+            check(false, "item list must be read-only");
+        } catch (UnsupportedOperationException expected) {
+            // read-only view
+        }
+        check(first.getItems().equals(List.of(menu.get(3), menu.get(12))), "items view");
+
+        AtomicLong wrong = new AtomicLong();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int seed = t;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    int lines = 1 + (i + seed) % 7;
+                    OrderBuilder b = OrderBuilder.pooled().setCustomerName("Load").setPhoneNumber("0")
+                        .setOrderType(OrderType.TAKEOUT);
+                    long expected = 0;
+                    for (int l = 0; l < lines; l++) {
+                        MenuItem item = menu.get((i + l + seed) % menu.size());
+                        b.addItem(item);
+                        expected += item.getPriceCents();
+                    }
+                    Order order = b.build();
+                    if (order.calculateSubtotalCents() != expected || order.getItemCount() != lines) {
+                        wrong.incrementAndGet();
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        System.out.printf("%d threads x %,d pooled orders: %d wrong%n%n", threads, perThread, wrong.get());
+        check(wrong.get() == 0, "pooled builders mixed up lines between orders");
+
+        MenuItem[] table = {menu.get(3), menu.get(4), menu.get(2), menu.get(12)};
+        Meal meal = MealBuilder.pooled().setMainItem(menu.get(5)).setBeverage(menu.get(13)).build();
+        System.out.println(Harness.run("pooled builder / table of four", 200_000, 2_000_000,
+            () -> tableOfFour(OrderBuilder.pooled(), table, meal).getItemCount()));
+        System.out.println(Harness.run("new builder / table of four", 200_000, 2_000_000,
+            () -> tableOfFour(new OrderBuilder(), table, meal).getItemCount()));
+        System.out.println(Harness.run("copied lists / table of four", 200_000, 2_000_000,
+            () -> copied(table, meal, 1).getItemCount()));
+        System.out.println(Harness.run("pooled builder / catering (30 lines)", 100_000, 1_000_000,
+            () -> catering(OrderBuilder.pooled(), menu).getItemCount()));
+        System.out.println(Harness.run("new builder / catering (30 lines)", 100_000, 1_000_000,
+            () -> catering(new OrderBuilder(), menu).getItemCount()));
+    }
+
+    private static Order tableOfFour(OrderBuilder builder, MenuItem[] table, Meal meal) {
+        builder.setCustomerName("Table").setPhoneNumber("+1-555-0000").setTableNumber("T4");
+        for (MenuItem item : table) {
+            builder.addItem(item);
+        }
+        return builder.addMeal(meal).build();
+    }
+
+    private static Order catering(OrderBuilder builder, MenuCatalog menu) {
+        builder.setCustomerName("Acme").setPhoneNumber("+1-555-9000").setOrderType(OrderType.TAKEOUT);
+        for (int i = 0; i < 30; i++) {
+            builder.addItem(menu.get(i % menu.size()));
+        }
+        return builder.build();
+    }
+
+    // What intake cost before: lists collected, then copied into the order
+    private static Order copied(MenuItem[] table, Meal meal, long number) {
+        List<MenuItem> items = new ArrayList<>();
+        for (MenuItem item : table) {
+            items.add(item);
+        }
+        List<Meal> meals = new ArrayList<>();
+        meals.add(meal);
+        return new Order(number, "Table", "+1-555-0000", "T4", items, meals, OrderType.DINE_IN, null, null);
+    }
+
+    private static void check(boolean ok, String message) {
+        if (!ok) {
+            System.out.println("FAILED: " + message);
+            System.exit(1);
+        }
+    }
+}
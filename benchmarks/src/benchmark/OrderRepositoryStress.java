@@ -0,0 +1,186 @@
+package benchmark;
+
+import domain.enums.OrderStatus;
+import domain.enums.OrderType;
+import domain.models.Order;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import logging.Level;
+import logging.Log;
+import patterns.singleton.ConfigSnapshot;
+import patterns.singleton.RestaurantConfig;
+import repository.OrderRepository;
+
+/**
+ * Concurrency and memory-budget check for OrderRepository.
+ *
+ * Writer threads insert orders and move them through their statuses while reader
+ * threads run the support-desk queries (by phone, open orders at a table, pending
+ * deliveries). Afterwards every index must agree with the primary index. A second
+ * phase spreads orders over ten days and checks that only the hot days are kept.
+ * Exits with status 1 on any mismatch.
+ *
+ * Run: gradle :benchmarks:bench -Pmain=OrderRepositoryStress -Pargs='[writers] [readers] [ordersPerWriter]'
+ */
+public class OrderRepositoryStress {
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+    private static final long DAY_MILLIS = 86_400_000L;
+    private static final OrderStatus[] PROGRESSION = {
+        OrderStatus.PAID, OrderStatus.OUT_FOR_DELIVERY, OrderStatus.COMPLETED
+    };
+
+    public static void main(String[] args) throws Exception {
+        int writers = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int readers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int perWriter = args.length > 2 ? Integer.parseInt(args[2]) : 50_000;
+        Log.setLevel(Level.OFF);
+
+        Order[] templates = new Order[OrderShape.values().length];
+        for (int i = 0; i < templates.length; i++) {
+            templates[i] = OrderShape.values()[i].build();
+        }
+        ConfigSnapshot config = RestaurantConfig.getInstance().snapshot();
+        long today = LocalDate.now(ZONE).toEpochDay() * DAY_MILLIS + 12 * 3_600_000L;
+
+        OrderRepository repository = new OrderRepository(OrderRepository.DEFAULT_HOT_DAYS, ZONE);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicLong queries = new AtomicLong();
+        CountDownLatch start = new CountDownLatch(1);
+
+        Thread[] writerThreads = new Thread[writers];
+        for (int w = 0; w < writers; w++) {
+            final int writer = w;
+            writerThreads[w] = new Thread(() -> {
+                await(start);
+                for (int i = 0; i < perWriter; i++) {
+                    long number = (long) writer * perWriter + i + 1;
+                    repository.add(order(templates, config, number, today));
+                    // Move an earlier order of this writer on; every fourth one stays PLACED
+                    long earlier = number - 10;
+                    if (i >= 10 && earlier % 4 != 3) {
+                        repository.updateStatus(earlier, PROGRESSION[(int) (earlier % 4)]);
+                    }
+                }
+            });
+        }
+        Thread[] readerThreads = new Thread[readers];
+        for (int r = 0; r < readers; r++) {
+            final int reader = r;
+            readerThreads[r] = new Thread(() -> {
+                await(start);
+                long local = 0;
+                for (int i = reader; writing.get(); i++) {
+                    repository.findByPhone(phone(i));
+                    repository.findOpenByTable(table(i));
+                    if (i % 64 == 0) {
+                        repository.findPendingDeliveries();
+                    }
+                    local += 2;
+                }
+                queries.addAndGet(local);
+            });
+        }
+
+        for (Thread thread : writerThreads) {
+            thread.start();
+        }
+        for (Thread thread : readerThreads) {
+            thread.start();
+        }
+        long started = System.nanoTime();
+        start.countDown();
+        for (Thread thread : writerThreads) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - started;
+        writing.set(false);
+        for (Thread thread : readerThreads) {
+            thread.join();
+        }
+
+        long total = (long) writers * perWriter;
+        System.out.println("=== OrderRepository: " + writers + " writers, " + readers + " readers ===");
+        System.out.printf("inserts: %,.0f orders/s   concurrent queries: %,.0f/s%n",
+            total * 1e9 / elapsed, queries.get() * 1e9 / elapsed);
+        verify(repository, total);
+
+        // Memory budget: ten days of orders, three kept
+        OrderRepository budgeted = new OrderRepository(3, ZONE);
+        int perDay = 1_000;
+        for (int day = 0; day < 10; day++) {
+            for (int i = 0; i < perDay; i++) {
+                budgeted.add(order(templates, config, day * perDay + i + 1, today + (day - 9) * DAY_MILLIS));
+            }
+        }
+        System.out.printf("day budget: %d days held, %d orders kept, %d evicted%n",
+            budgeted.getDayCount(), budgeted.size(), budgeted.getEvictedCount());
+        check(budgeted.getDayCount() == 3 && budgeted.size() == 3 * perDay
+            && budgeted.getEvictedCount() == 7 * perDay, "day budget not enforced");
+        check(budgeted.findByPhone(phone(0), LocalDate.now(ZONE)).size() == perDay / 50
+            && budgeted.get(1) == null, "evicted orders still indexed");
+        System.out.println("OK");
+    }
+
+    private static void verify(OrderRepository repository, long total) {
+        check(repository.size() == total, "primary index has " + repository.size() + " of " + total);
+        long byStatus = 0;
+        for (OrderStatus status : OrderStatus.values()) {
+            List<Order> orders = repository.findByStatus(status);
+            for (Order order : orders) {
+                check(repository.getStatus(order.getOrderNumber()) == status, "stale status index");
+            }
+            byStatus += orders.size();
+        }
+        check(byStatus == total, "status index has " + byStatus + " of " + total);
+        long byPhone = 0;
+        for (int i = 0; i < 50; i++) {
+            byPhone += repository.findByPhone(phone(i)).size();
+        }
+        check(byPhone == total, "phone index has " + byPhone + " of " + total);
+        long byType = 0;
+        for (OrderType type : OrderType.values()) {
+            byType += repository.findByType(type).size();
+        }
+        check(byType == total, "type index has " + byType + " of " + total);
+        for (Order order : repository.findPendingDeliveries()) {
+            check(order.getOrderType() == OrderType.DELIVERY
+                && repository.getStatus(order.getOrderNumber()).isOpen(), "pending deliveries wrong");
+        }
+    }
+
+    private static Order order(Order[] templates, ConfigSnapshot config, long number, long placedAt) {
+        Order template = templates[(int) (number % templates.length)];
+        boolean dineIn = template.getOrderType() == OrderType.DINE_IN;
+        return new Order(number, placedAt, config, template.getCustomerName(), phone(number),
+            dineIn ? table(number) : null, template.getItems(), template.getMeals(),
+            template.getOrderType(), template.getDeliveryAddress(), template.getPaymentMethod());
+    }
+
+    private static String phone(long i) {
+        return "+1-555-" + (1000 + i % 50);
+    }
+
+    private static String table(long i) {
+        return "T" + (1 + i % 20);
+    }
+
+    private static void await(CountDownLatch start) {
+        try {
+            start.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void check(boolean ok, String message) {
+        if (!ok) {
+            System.out.println("FAILED: " + message);
+            System.exit(1);
+        }
+    }
+}
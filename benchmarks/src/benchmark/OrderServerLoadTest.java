@@ -0,0 +1,191 @@
+package benchmark;
+
+import concurrent.VirtualThreads;
+import domain.ids.OrderIds;
+import domain.ids.StripedSequenceGenerator;
+import domain.pricing.Money;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import logging.Level;
+import logging.Log;
+import repository.OrderRepository;
+import server.OrderIntake;
+import server.OrderServer;
+
+/**
+ * Local load test for the order-intake service.
+ *
+ * Starts an OrderServer on a free port and runs closed-loop terminals against it:
+ * each terminal posts an order, waits for the answer and posts the next one. After
+ * a warm-up the sustained request rate and latency percentiles are measured. Every
+ * answer must be 201 with the total the same request gives when placed directly
+ * through OrderIntake; an invalid request must be answered 400, and /metrics must
+ * export the order build timings.
+ *
+ * Run: gradle :benchmarks:bench -Pmain=OrderServerLoadTest -Pargs='[terminals] [seconds]'
+ */
+public class OrderServerLoadTest {
+    private static final String[] FORMS = {
+        form("customer", "Table 4", "phone", "+1-555-0104", "type", "DINE_IN", "table", "T4",
+            "item", "Margherita", "item", "Caesar Salad", "item", "Coke", "item", "Water",
+            "payment", "card:4532123456789012:Table Four:08/27:123"),
+        form("customer", "Dana Lee", "phone", "+1-555-2222", "type", "DELIVERY", "address", "9 Elm Street",
+            "meal", "Pepperoni|Bruschetta|Coke|Lava Cake|LARGE", "meal", "Margherita||Sprite||REGULAR|No basil",
+            "item", "Mozzarella Sticks", "payment", "mobile:Google Pay"),
+        form("customer", "Walk In", "phone", "+1-555-0000", "type", "TAKEOUT",
+            "item", "Four Cheese", "item", "Espresso", "item", "Tiramisu", "payment", "cash:60.00"),
+    };
+
+    public static void main(String[] args) throws Exception {
+        int terminals = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        Log.setLevel(Level.OFF);
+
+        OrderRepository repository = new OrderRepository();
+        OrderIntake intake = new OrderIntake().setRepository(repository)
+            .setIdGenerator(new StripedSequenceGenerator(OrderIds.FIRST_ORDER_NUMBER));
+        String[] expectedTotals = new String[FORMS.length];
+        for (int i = 0; i < FORMS.length; i++) {
+            expectedTotals[i] = Money.format(intake.place(FORMS[i]).calculateTotalCents());
+        }
+
+        try (OrderServer server = OrderServer.start(0, intake)) {
+            URI uri = URI.create("http://127.0.0.1:" + server.getPort() + "/orders");
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .executor(VirtualThreads.newThreadPerTaskExecutor("load-client"))
+                .connectTimeout(Duration.ofSeconds(5)).build();
+
+            HttpResponse<String> invalid = post(client, uri, form("customer", "X", "phone", "1", "item", "Haggis"));
+            System.out.println("invalid request -> " + invalid.statusCode() + " " + invalid.body());
+            check(invalid.statusCode() == 400 && invalid.body().contains("Unknown menu item"),
+                "invalid order must be rejected with 400");
+
+            System.out.printf("=== %d terminals, %d s, %s, %d cores ===%n", terminals, seconds,
+                VirtualThreads.isAvailable() ? "virtual threads" : "platform threads",
+                Runtime.getRuntime().availableProcessors());
+            run(client, uri, terminals, Math.max(1, seconds / 3), expectedTotals, false);
+            run(client, uri, terminals, seconds, expectedTotals, true);
+
+            HttpResponse<String> metrics = client.send(HttpRequest.newBuilder(uri.resolve("/metrics")).build(),
+                HttpResponse.BodyHandlers.ofString());
+            check(metrics.statusCode() == 200 && metrics.body().contains("\ntmps_order_build_seconds_count "),
+                "/metrics must export the order metrics");
+        }
+
+        // Every request ran on its own thread; order numbers must still be consecutive
+        long last = intake.place(FORMS[0]).getOrderNumber();
+        System.out.println(repository.size() + " orders numbered " + OrderIds.FIRST_ORDER_NUMBER + " - " + last);
+        check(last == OrderIds.FIRST_ORDER_NUMBER + repository.size() - 1, "order numbers must not skip");
+    }
+
+    private static void run(HttpClient client, URI uri, int terminals, int seconds, String[] expectedTotals,
+                            boolean report) throws InterruptedException {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        long[][] latencies = new long[terminals][];
+        int[] counts = new int[terminals];
+        AtomicLong failures = new AtomicLong();
+        Thread[] threads = new Thread[terminals];
+        for (int t = 0; t < terminals; t++) {
+            final int terminal = t;
+            threads[t] = new Thread(() -> {
+                long[] samples = new long[1024];
+                int n = 0;
+                while (System.nanoTime() < deadline) {
+                    int shape = (terminal + n) % FORMS.length;
+                    long started = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = post(client, uri, FORMS[shape]);
+                        if (response.statusCode() != 201 || !expectedTotals[shape].equals(total(response.body()))) {
+                            failures.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        failures.incrementAndGet();
+                    }
+                    if (n == samples.length) {
+                        samples = Arrays.copyOf(samples, n * 2);
+                    }
+                    samples[n++] = System.nanoTime() - started;
+                }
+                latencies[terminal] = samples;
+                counts[terminal] = n;
+            }, "terminal-" + t);
+        }
+        long started = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double elapsed = (System.nanoTime() - started) / 1e9;
+
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        long[] all = new long[total];
+        int offset = 0;
+        for (int t = 0; t < terminals; t++) {
+            System.arraycopy(latencies[t], 0, all, offset, counts[t]);
+            offset += counts[t];
+        }
+        Arrays.sort(all);
+        if (report) {
+            System.out.printf("%,d requests in %.1f s: %,.0f req/s  p50 %.2f ms  p90 %.2f ms  p99 %.2f ms"
+                    + "  max %.2f ms  failures %d%n",
+                total, elapsed, total / elapsed, percentile(all, 50), percentile(all, 90), percentile(all, 99),
+                all.length == 0 ? 0 : all[all.length - 1] / 1e6, failures.get());
+        }
+        check(failures.get() == 0, failures.get() + " requests failed or returned a wrong total");
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(sorted.length * percentile / 100.0) - 1;
+        return sorted[Math.max(0, rank)] / 1e6;
+    }
+
+    private static HttpResponse<String> post(HttpClient client, URI uri, String form) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri)
+            .header("Content-Type", "application/x-www-form-urlencoded")
+            .POST(HttpRequest.BodyPublishers.ofString(form))
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String total(String json) {
+        int start = json.indexOf("\"total\":");
+        if (start < 0) {
+            return "";
+        }
+        int end = json.indexOf('}', start);
+        return json.substring(start + 8, end < 0 ? json.length() : end);
+    }
+
+    private static String form(String... pairs) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < pairs.length; i += 2) {
+            if (sb.length() > 0) {
+                sb.append('&');
+            }
+            sb.append(pairs[i]).append('=').append(URLEncoder.encode(pairs[i + 1], StandardCharsets.UTF_8));
+        }
+        return sb.toString();
+    }
+
+    private static void check(boolean ok, String message) {
+        if (!ok) {
+            System.out.println("FAILED: " + message);
+            System.exit(1);
+        }
+    }
+}
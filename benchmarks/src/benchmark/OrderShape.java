@@ -0,0 +1,105 @@
+package benchmark;
+
+import domain.enums.MealSize;
+import domain.enums.MenuItemCategory;
+import domain.models.Meal;
+import domain.models.MenuItem;
+import domain.models.Order;
+import patterns.builder.MealBuilder;
+import patterns.builder.OrderBuilder;
+import patterns.factory.MenuItemFactory;
+import patterns.factory.PaymentFactory;
+
+/**
+ * Representative orders for benchmarks, built the way the ordering terminals build
+ * them: items resolved through MenuItemFactory, meals through MealBuilder, the
+ * order through OrderBuilder.
+ */
+public enum OrderShape {
+    /** Table of two: a pizza, a salad, two drinks, card payment */
+    SMALL_DINE_IN("small-dine-in") {
+        @Override
+        public Order build() {
+            return OrderBuilder.dineInOrder("Alice Johnson", "+1-555-1234", "T5")
+                .addItem(item(MenuItemCategory.MAIN_COURSE, "Margherita"))
+                .addItem(item(MenuItemCategory.APPETIZER, "Caesar Salad"))
+                .addItem(item(MenuItemCategory.BEVERAGE, "Coke"))
+                .addItem(item(MenuItemCategory.BEVERAGE, "Water"))
+                .setPaymentMethod(PaymentFactory.createCreditCardPayment(
+                    "4532123456789012", "Alice Johnson", "08/27", "123"))
+                .build();
+        }
+    },
+    /** Office catering: 40 items across the whole menu and 10 family-size meals */
+    LARGE_CATERING("large-catering") {
+        private final String[] pizzas = {"Margherita", "Pepperoni", "Four Cheese", "Capricciosa"};
+        private final String[] drinks = {"Coke", "Sprite", "Water", "Espresso", "Cappuccino"};
+
+        @Override
+        public Order build() {
+            OrderBuilder builder = OrderBuilder.takeoutOrder("Acme Corp", "+1-555-9000")
+                .setPaymentMethod(PaymentFactory.createCashPayment(2_000.0));
+            for (int i = 0; i < 40; i++) {
+                builder.addItem(i % 2 == 0
+                    ? item(MenuItemCategory.MAIN_COURSE, pizzas[i % pizzas.length])
+                    : item(MenuItemCategory.BEVERAGE, drinks[i % drinks.length]));
+            }
+            for (int i = 0; i < 10; i++) {
+                builder.addMeal(MealBuilder.familyFeast()
+                    .setMainItem(item(MenuItemCategory.MAIN_COURSE, pizzas[i % pizzas.length]))
+                    .setSideItem(item(MenuItemCategory.APPETIZER, "Mozzarella Sticks"))
+                    .setBeverage(item(MenuItemCategory.BEVERAGE, drinks[i % drinks.length]))
+                    .setDessert(item(MenuItemCategory.DESSERT, "Tiramisu"))
+                    .build());
+            }
+            return builder.build();
+        }
+    },
+    /** Delivery for a family: three meals of different sizes plus extras */
+    DELIVERY_WITH_MEALS("delivery-with-meals") {
+        @Override
+        public Order build() {
+            Meal large = new MealBuilder()
+                .setMainItem(item(MenuItemCategory.MAIN_COURSE, "Pepperoni"))
+                .setSideItem(item(MenuItemCategory.APPETIZER, "Bruschetta"))
+                .setBeverage(item(MenuItemCategory.BEVERAGE, "Coke"))
+                .setDessert(item(MenuItemCategory.DESSERT, "Lava Cake"))
+                .setMealSize(MealSize.LARGE)
+                .build();
+            Meal regular = new MealBuilder()
+                .setMainItem(item(MenuItemCategory.MAIN_COURSE, "Margherita"))
+                .setBeverage(item(MenuItemCategory.BEVERAGE, "Sprite"))
+                .setSpecialInstructions("No basil")
+                .build();
+            Meal kids = new MealBuilder()
+                .setMainItem(item(MenuItemCategory.MAIN_COURSE, "Four Cheese"))
+                .setDessert(item(MenuItemCategory.DESSERT, "Panna Cotta"))
+                .build();
+            return OrderBuilder.deliveryOrder("Dana Lee", "+1-555-2222", "9 Elm Street, Apt 4")
+                .addMeal(large).addMeal(regular).addMeal(kids)
+                .addItem(item(MenuItemCategory.APPETIZER, "Mozzarella Sticks"))
+                .addItem(item(MenuItemCategory.BEVERAGE, "Water"))
+                .setPaymentMethod(PaymentFactory.createMobilePayment("+1-555-2222", "Google Pay"))
+                .build();
+        }
+    };
+
+    private final String label;
+
+    OrderShape(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Builds a new order of this shape from scratch
+     */
+    public abstract Order build();
+
+    private static MenuItem item(MenuItemCategory category, String name) {
+        return MenuItemFactory.createMenuItem(category, name);
+    }
+}
@@ -0,0 +1,147 @@
+package benchmark;
+
+import domain.enums.MenuItemCategory;
+import domain.models.MenuItem;
+import domain.models.Order;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import kitchen.BatchPolicy;
+import kitchen.KitchenPolicy;
+import kitchen.KitchenScheduler;
+import kitchen.KitchenTicket;
+import kitchen.Station;
+import kitchen.StationStats;
+import kitchen.StationWork;
+import logging.Level;
+import logging.Log;
+import patterns.builder.OrderBuilder;
+import patterns.factory.MenuItemFactory;
+
+/**
+ * Oven throughput and ticket wait with and without batching.
+ *
+ * Replays the same seeded stream of pizza orders through the kitchen scheduler
+ * three times: baking one pizza at a time, with a BatchPolicy that mixes pizza
+ * types in a bake, and with one that only batches identical pizzas. A bake takes
+ * the same time however many pizzas are in the oven. Time is scaled:
+ * one kitchen minute lasts millisPerMinute of wall time, and all results are
+ * reported in kitchen minutes.
+ *
+ * Run: gradle :benchmarks:bench -Pmain=OvenBatchingSimulator -Pargs='[ordersPerMinute] [minutes] [ovens]'
+ *          [ovenCapacity] [windowMinutes] [bakeMinutes] [millisPerMinute]
+ */
+public class OvenBatchingSimulator {
+    private static final String[] PIZZAS = {"Margherita", "Pepperoni", "Four Cheese", "Capricciosa"};
+    // Margherita and pepperoni outsell the rest
+    private static final int[] POPULARITY = {40, 35, 15, 10};
+
+    public static void main(String[] args) throws Exception {
+        double ordersPerMinute = args.length > 0 ? Double.parseDouble(args[0]) : 4;
+        int minutes = args.length > 1 ? Integer.parseInt(args[1]) : 60;
+        int ovens = args.length > 2 ? Integer.parseInt(args[2]) : 2;
+        int capacity = args.length > 3 ? Integer.parseInt(args[3]) : 6;
+        double windowMinutes = args.length > 4 ? Double.parseDouble(args[4]) : 0.5;
+        double bakeMinutes = args.length > 5 ? Double.parseDouble(args[5]) : 1.5;
+        double millisPerMinute = args.length > 6 ? Double.parseDouble(args[6]) : 20;
+
+        Log.setLevel(Level.OFF);
+        List<Order> orders = generateOrders(ordersPerMinute, minutes, 42);
+        long pizzas = orders.stream().mapToLong(Order::getItemCount).sum();
+        System.out.printf("%d orders, %d pizzas over %d minutes; %d ovens, bake %.1f min%n%n",
+            orders.size(), pizzas, minutes, ovens, bakeMinutes);
+
+        KitchenPolicy base = KitchenPolicy.defaults().withParallelism(Station.OVEN, ovens);
+        Duration window = Duration.ofNanos((long) (windowMinutes * millisPerMinute * 1e6));
+        run("one pizza per bake", base, orders, ordersPerMinute, bakeMinutes, millisPerMinute);
+        run("batched, capacity " + capacity + ", window " + windowMinutes + " min",
+            base.withBatching(Station.OVEN, new BatchPolicy(capacity, window, true)),
+            orders, ordersPerMinute, bakeMinutes, millisPerMinute);
+        run("batched, identical pizzas only",
+            base.withBatching(Station.OVEN, new BatchPolicy(capacity, window, false)),
+            orders, ordersPerMinute, bakeMinutes, millisPerMinute);
+    }
+
+    private static List<Order> generateOrders(double ordersPerMinute, int minutes, long seed) {
+        Random random = new Random(seed);
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < ordersPerMinute * minutes; i++) {
+            OrderBuilder builder = OrderBuilder.takeoutOrder("Guest " + i, "+1-555-0000");
+            int count = 1 + random.nextInt(3);
+            for (int p = 0; p < count; p++) {
+                builder.addItem(pizza(random));
+            }
+            orders.add(builder.build());
+        }
+        return orders;
+    }
+
+    private static MenuItem pizza(Random random) {
+        int roll = random.nextInt(100);
+        int i = 0;
+        while (roll >= POPULARITY[i]) {
+            roll -= POPULARITY[i++];
+        }
+        return MenuItemFactory.createMenuItem(MenuItemCategory.MAIN_COURSE, PIZZAS[i]);
+    }
+
+    private static void run(String name, KitchenPolicy policy, List<Order> orders, double ordersPerMinute,
+                            double bakeMinutes, double millisPerMinute) throws Exception {
+        long bakeNanos = (long) (bakeMinutes * millisPerMinute * 1e6);
+        ConcurrentLinkedQueue<Long> waits = new ConcurrentLinkedQueue<>();
+        StationWork oven = new StationWork() {
+            @Override
+            public void perform(KitchenTicket ticket) throws InterruptedException {
+                performBatch(List.of(ticket));
+            }
+
+            @Override
+            public void performBatch(List<KitchenTicket> batch) throws InterruptedException {
+                for (KitchenTicket ticket : batch) {
+                    waits.add(ticket.getWaitNanos());
+                }
+                TimeUnit.NANOSECONDS.sleep(bakeNanos);
+            }
+        };
+
+        List<CompletableFuture<Order>> done = new ArrayList<>();
+        StationStats stats;
+        long elapsed;
+        try (KitchenScheduler kitchen = new KitchenScheduler(policy, oven)) {
+            long intervalNanos = (long) (millisPerMinute * 1e6 / ordersPerMinute);
+            long start = System.nanoTime();
+            for (int i = 0; i < orders.size(); i++) {
+                long due = start + i * intervalNanos;
+                long now;
+                while ((now = System.nanoTime()) < due) {
+                    TimeUnit.NANOSECONDS.sleep(due - now);
+                }
+                done.add(kitchen.submit(orders.get(i)));
+            }
+            CompletableFuture.allOf(done.toArray(new CompletableFuture<?>[0])).join();
+            elapsed = System.nanoTime() - start;
+            stats = kitchen.getStats(Station.OVEN);
+        }
+
+        long[] sorted = waits.stream().mapToLong(Long::longValue).sorted().toArray();
+        double nanosPerMinute = millisPerMinute * 1e6;
+        double makespan = elapsed / nanosPerMinute;
+        System.out.println(name);
+        System.out.printf("  finished after %.1f min, %.1f pizzas/hour%n", makespan, sorted.length / makespan * 60);
+        System.out.printf("  oven wait p50 %.1f min, p95 %.1f min, max %.1f min%n",
+            percentile(sorted, 50) / nanosPerMinute, percentile(sorted, 95) / nanosPerMinute,
+            sorted[sorted.length - 1] / nanosPerMinute);
+        if (stats.getBatches() > 0) {
+            System.out.printf("  %d bakes, %.1f pizzas per bake%n", stats.getBatches(), stats.getMeanBatchSize());
+        }
+        System.out.println();
+    }
+
+    private static long percentile(long[] sorted, int p) {
+        return sorted[Math.max(0, (int) Math.ceil(sorted.length * p / 100.0) - 1)];
+    }
+}
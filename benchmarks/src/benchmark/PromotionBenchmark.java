@@ -0,0 +1,224 @@
+package benchmark;
+
+import domain.enums.MenuItemCategory;
+import domain.models.Meal;
+import domain.models.MenuItem;
+import domain.models.Order;
+import domain.pricing.Money;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import logging.Level;
+import logging.Log;
+import patterns.builder.MealBuilder;
+import patterns.builder.OrderBuilder;
+import patterns.factory.PaymentFactory;
+import patterns.flyweight.MenuCatalog;
+import promotions.PromotionEngine;
+import promotions.PromotionResult;
+import promotions.PromotionSet;
+
+/**
+ * Promotion evaluation on compiled lookup tables.
+ *
+ * A hand-built order is priced at happy hour, at noon with a coupon and around a
+ * happy hour that runs past midnight; every discount must match the amount worked
+ * out by hand from the menu prices. Evaluation is then timed for each order shape,
+ * with the small set and with a set of several hundred rules. Finally evaluator
+ * threads run while two sets are published back and forth: every result must be
+ * exactly the one of the set whose version it reports.
+ *
+ * Run: gradle :benchmarks:bench -Pmain=PromotionBenchmark -Pargs='[threads] [swaps]'
+ */
+public class PromotionBenchmark {
+    private static final EnumSet<DayOfWeek> WEEKDAYS = EnumSet.range(DayOfWeek.MONDAY, DayOfWeek.FRIDAY);
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int swaps = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        Log.setLevel(Level.OFF);
+
+        MenuCatalog catalog = MenuCatalog.getDefault();
+        PromotionEngine engine = new PromotionEngine();
+        engine.publish(standard(200));
+
+        // 2 Margherita, Coca-Cola, 2 Espresso, Caesar Salad, a Lunch Special meal
+        Meal lunch = MealBuilder.lunchSpecial().setMainItem(catalog.get(4)).setBeverage(catalog.get(13)).build();
+        Order order = OrderBuilder.takeoutOrder("Promo Test", "+1-555-0100")
+            .addItem(catalog.get(3)).addItem(catalog.get(3)).addItem(catalog.get(12))
+            .addItem(catalog.get(10)).addItem(catalog.get(10)).addItem(catalog.get(2))
+            .addMeal(lunch)
+            .setPaymentMethod(PaymentFactory.createCashPayment(200.0))
+            .build();
+        long coke = price(catalog, 12);
+        long espresso = price(catalog, 10);
+        long subtotal = order.calculateSubtotalCents();
+        long mealOff = Money.percentOf(lunch.getTotalPriceCents(), 1_000, Money.DISCOUNT_ROUNDING);
+
+        System.out.println("=== Promotions: " + order.getItemCount() + " items, " + order.getMealCount()
+            + " meal, subtotal $" + Money.format(subtotal) + " ===");
+
+        // Monday 18:00 UTC: drinks half price, second espresso free, one pizza + Coca-Cola combo
+        long happyHour = at("2024-01-01T18:00:00Z");
+        long cokeOff = Money.percentOf(coke, 5_000, Money.DISCOUNT_ROUNDING);
+        long espressoOff = Money.percentOf(espresso, 5_000, Money.DISCOUNT_ROUNDING);
+        PromotionResult evening = engine.evaluate(order, happyHour, null);
+        System.out.println("Mon 18:00            " + evening);
+        check(evening.getDiscountCents() == cokeOff + 2 * espressoOff + (espresso - espressoOff) + 200 + mealOff,
+            "happy hour discount");
+        check(!evening.isCouponApplied() && evening.getAppliedCount() == 4, "happy hour rules applied");
+
+        // Monday 12:00 UTC with a coupon: no happy hour, coupon on what the other rules left
+        long noon = at("2024-01-01T12:00:00Z");
+        PromotionResult lunchtime = engine.evaluate(order, noon, "WELCOME10");
+        System.out.println("Mon 12:00 WELCOME10  " + lunchtime);
+        long beforeCoupon = espresso + 200 + mealOff;
+        check(lunchtime.getDiscountCents()
+                == beforeCoupon + Money.percentOf(subtotal - beforeCoupon, 1_000, Money.DISCOUNT_ROUNDING),
+            "coupon discount");
+        check(engine.evaluate(order, noon, "NOPE").getDiscountCents() == beforeCoupon, "unknown coupon ignored");
+
+        // Friday 22:00 - 02:00 desserts: Saturday 01:50 is inside the window, 02:00 is not
+        Order dessert = OrderBuilder.takeoutOrder("Late", "+1-555-0101").addItem(catalog.get(7))
+            .setPaymentMethod(PaymentFactory.createCashPayment(50.0)).build();
+        long tiramisuOff = Money.percentOf(price(catalog, 7), 2_500, Money.DISCOUNT_ROUNDING);
+        check(engine.evaluate(dessert, at("2024-01-06T01:50:00Z"), null).getDiscountCents() == tiramisuOff,
+            "happy hour past midnight");
+        check(engine.evaluate(dessert, at("2024-01-06T02:00:00Z"), null).getDiscountCents() == 0,
+            "happy hour ends at 02:00");
+        check(engine.evaluate(dessert, at("2024-01-05T21:59:00Z"), null).getDiscountCents() == 0,
+            "happy hour starts at 22:00");
+
+        // Applying the promotions takes the discount off before tax
+        engine.apply(dessert, at("2024-01-06T01:50:00Z"), null);
+        check(dessert.calculateDiscountCents() == tiramisuOff
+                && dessert.calculateTotalCents() == dessert.calculateSubtotalCents() - tiramisuOff
+                    + dessert.calculateTaxCents() + dessert.calculateServiceFeeCents()
+                && dessert.calculateTaxCents() == Money.percentOf(dessert.calculateSubtotalCents() - tiramisuOff,
+                    dessert.getPriceBreakdown().getTaxRateBasisPoints(), Money.TAX_ROUNDING),
+            "applied discount in the price breakdown");
+        check(dessert.toString().contains("Discount: -$" + Money.format(tiramisuOff)), "discount on the receipt");
+        try {
+            PromotionSet.builder("odd").happyHour("Odd", 1_000, LocalTime.of(17, 10), LocalTime.of(18, 0), WEEKDAYS,
+                MenuItemCategory.BEVERAGE);
+            check(false, "happy hour off a quarter hour must be rejected");
+        } catch (IllegalArgumentException expected) {
+            // rejected
+        }
+        System.out.println();
+
+        for (OrderShape shape : OrderShape.values()) {
+            Order o = shape.build();
+            System.out.println(Harness.run("evaluate/" + shape.getLabel(), 200_000, 1_000_000,
+                () -> engine.evaluate(o, happyHour, "WELCOME10").getDiscountCents()));
+        }
+        engine.publish(large());
+        for (OrderShape shape : OrderShape.values()) {
+            Order o = shape.build();
+            System.out.println(Harness.run("evaluate/" + shape.getLabel() + " (" + engine.getPromotionSet()
+                    .getRuleCount() + " rules)", 200_000, 1_000_000,
+                () -> engine.evaluate(o, happyHour, "CODE250").getDiscountCents()));
+        }
+        System.out.println();
+
+        // Publish two sets back and forth while evaluating; odd versions are set A
+        PromotionEngine swapping = new PromotionEngine();
+        PromotionSet a = standard(200);
+        PromotionSet b = standard(350);
+        long expectedA = discount(a, catalog, order, happyHour);
+        long expectedB = discount(b, catalog, order, happyHour);
+        check(expectedA != expectedB, "sets A and B must differ");
+        swapping.publish(a);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong evaluations = new AtomicLong();
+        AtomicLong mismatches = new AtomicLong();
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                long n = 0;
+                while (running.get()) {
+                    PromotionResult r = swapping.evaluate(order, happyHour, null);
+                    long expected = (r.getPromotionSetVersion() & 1) == 1 ? expectedA : expectedB;
+                    if (r.getDiscountCents() != expected) {
+                        mismatches.incrementAndGet();
+                    }
+                    n++;
+                }
+                evaluations.addAndGet(n);
+            });
+            workers[t].start();
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < swaps; i++) {
+            swapping.publish(i % 2 == 0 ? b : a);
+        }
+        long publishNanos = System.nanoTime() - started;
+        running.set(false);
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        System.out.printf("%d publishes (%.1f us each) during %,d evaluations on %d threads: %d mismatches%n",
+            swaps, publishNanos / 1e3 / swaps, evaluations.get(), threads, mismatches.get());
+        check(mismatches.get() == 0, "evaluation saw a mix of two promotion sets");
+    }
+
+    private static PromotionSet standard(long comboCents) {
+        return PromotionSet.builder("standard-" + comboCents)
+            .setZone(ZoneOffset.UTC)
+            .happyHour("Happy hour drinks", 5_000, LocalTime.of(17, 0), LocalTime.of(19, 0), WEEKDAYS,
+                MenuItemCategory.BEVERAGE)
+            .happyHour("Late night desserts", 2_500, LocalTime.of(22, 0), LocalTime.of(2, 0),
+                EnumSet.of(DayOfWeek.FRIDAY), MenuItemCategory.DESSERT)
+            .buyOneGetOne("Espresso BOGO", 10)
+            .combo("Pizza + drink", comboCents, MenuItemCategory.MAIN_COURSE, MenuItemCategory.BEVERAGE)
+            .mealTemplate("Lunch Special 10%", "Lunch Special", 1_000)
+            .coupon("WELCOME10", 1_000, 2_000)
+            .build();
+    }
+
+    // Hourly happy hours on every day, offers on every item, 300 coupons
+    private static PromotionSet large() {
+        PromotionSet.Builder builder = PromotionSet.builder("large").setZone(ZoneOffset.UTC);
+        MenuItemCategory[] categories = MenuItemCategory.values();
+        for (int hour = 0; hour < 24; hour++) {
+            builder.happyHour("Hour " + hour, 500 + hour * 100, LocalTime.of(hour, 0), LocalTime.of(hour, 45),
+                EnumSet.allOf(DayOfWeek.class), categories[hour % categories.length]);
+        }
+        for (int id = 0; id < 15; id++) {
+            builder.buyXGetY("Offer " + id, id, 2 + id % 3, 1);
+        }
+        for (int c = 0; c < categories.length; c++) {
+            builder.combo("Combo " + c, 100 + c * 50, categories[c], categories[(c + 1) % categories.length]);
+        }
+        for (int code = 0; code < 300; code++) {
+            builder.coupon("CODE" + code, 100 + code % 20 * 100, code * 10L);
+        }
+        return builder.mealTemplate("Family Feast 5%", "Family Feast", 500).build();
+    }
+
+    private static long discount(PromotionSet set, MenuCatalog catalog, Order order, long atMillis) {
+        PromotionEngine engine = new PromotionEngine();
+        engine.publish(set, catalog);
+        return engine.evaluate(order, atMillis, null).getDiscountCents();
+    }
+
+    private static long price(MenuCatalog catalog, int id) {
+        MenuItem item = catalog.get(id);
+        return item.getPriceCents();
+    }
+
+    private static long at(String instant) {
+        return Instant.parse(instant).toEpochMilli();
+    }
+
+    private static void check(boolean ok, String message) {
+        if (!ok) {
+            System.out.println("FAILED: " + message);
+            System.exit(1);
+        }
+    }
+}
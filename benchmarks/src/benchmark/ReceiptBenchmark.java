@@ -0,0 +1,149 @@
+package benchmark;
+
+import domain.enums.MealSize;
+import domain.enums.MenuItemCategory;
+import domain.models.Meal;
+import domain.models.MenuItem;
+import domain.models.Order;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import patterns.builder.MealBuilder;
+import patterns.builder.OrderBuilder;
+import patterns.factory.MenuItemFactory;
+import patterns.factory.PaymentFactory;
+import receipt.EscPosReceiptSink;
+import receipt.ReceiptRenderer;
+import receipt.TextReceiptSink;
+
+/**
+ * Compares the previous String.format based receipt against ReceiptRenderer writing
+ * into reused StringBuilder, CharBuffer and ESC/POS ByteBuffer targets. The JMH
+ * version is benchmark.jmh.ReceiptRenderBenchmark.
+ *
+ * Run: gradle :benchmarks:bench -Pmain=ReceiptBenchmark
+ */
+public class ReceiptBenchmark {
+    public static void main(String[] args) {
+        Order order = sampleOrder();
+        ReceiptRenderer renderer = ReceiptRenderer.standard();
+
+        String legacy = legacyReceipt(order);
+        if (!legacy.equals(order.toString())) {
+            throw new AssertionError("Renderer output differs from the previous receipt format");
+        }
+
+        StringBuilder sb = new StringBuilder(4096);
+        TextReceiptSink builderSink = new TextReceiptSink(sb);
+        CharBuffer chars = CharBuffer.allocate(4096);
+        TextReceiptSink charSink = new TextReceiptSink(chars);
+        ByteBuffer bytes = ByteBuffer.allocateDirect(4096);
+        EscPosReceiptSink escPosSink = new EscPosReceiptSink(bytes);
+
+        long warmup = 200_000;
+        long ops = 500_000;
+        System.out.println(Harness.run("previous toString (String.format)", warmup, ops,
+            () -> legacyReceipt(order).length()));
+        System.out.println(Harness.run("Order.toString (renderer)", warmup, ops,
+            () -> order.toString().length()));
+        System.out.println(Harness.run("renderer -> reused StringBuilder", warmup, ops, () -> {
+            sb.setLength(0);
+            renderer.render(order, builderSink);
+            return sb.length();
+        }));
+        System.out.println(Harness.run("renderer -> reused CharBuffer", warmup, ops, () -> {
+            chars.clear();
+            renderer.render(order, charSink);
+            return chars.position();
+        }));
+        System.out.println(Harness.run("renderer -> ESC/POS ByteBuffer", warmup, ops, () -> {
+            bytes.clear();
+            renderer.render(order, escPosSink);
+            return bytes.position();
+        }));
+    }
+
+    public static Order sampleOrder() {
+        MenuItem pizza = MenuItemFactory.createMenuItem(MenuItemCategory.MAIN_COURSE, "Pepperoni");
+        MenuItem salad = MenuItemFactory.createMenuItem(MenuItemCategory.APPETIZER, "Caesar Salad");
+        MenuItem coke = MenuItemFactory.createMenuItem(MenuItemCategory.BEVERAGE, "Coke");
+        MenuItem cake = MenuItemFactory.createMenuItem(MenuItemCategory.DESSERT, "Lava Cake");
+        Meal meal = new MealBuilder().setMainItem(pizza).setSideItem(salad).setBeverage(coke)
+            .setDessert(cake).setMealSize(MealSize.LARGE).build();
+        OrderBuilder builder = OrderBuilder.deliveryOrder("Dana Lee", "+1-555-2222", "9 Elm Street")
+            .setPaymentMethod(PaymentFactory.createMobilePayment("+1-555-2222", "Google Pay"))
+            .addMeal(meal).addMeal(meal);
+        for (int i = 0; i < 8; i++) {
+            builder.addItem(i % 2 == 0 ? pizza : coke);
+        }
+        return builder.build();
+    }
+
+    // The receipt as Order.toString() produced it before ReceiptRenderer
+    public static String legacyReceipt(Order order) {
+        StringBuilder sb = new StringBuilder();
+        var config = order.getConfigSnapshot();
+        sb.append("\n╔════════════════════════════════════════╗\n");
+        sb.append("║          ORDER RECEIPT                ║\n");
+        sb.append("╚════════════════════════════════════════╝\n");
+        sb.append("Restaurant: ").append(config.getRestaurantName()).append("\n");
+        sb.append("Address: ").append(config.getAddress()).append("\n");
+        sb.append("Phone: ").append(config.getPhoneNumber()).append("\n");
+        sb.append("----------------------------------------\n");
+        sb.append("Order #").append(order.getOrderNumber()).append("\n");
+        sb.append("Customer: ").append(order.getCustomerName()).append("\n");
+        sb.append("Phone: ").append(order.getPhoneNumber()).append("\n");
+        if (order.getTableNumber() != null && !order.getTableNumber().isEmpty()) {
+            sb.append("Table: ").append(order.getTableNumber()).append("\n");
+        }
+        sb.append("Order Type: ").append(order.getOrderType()).append("\n");
+        if (order.getDeliveryAddress() != null && !order.getDeliveryAddress().isEmpty()) {
+            sb.append("Delivery Address: ").append(order.getDeliveryAddress()).append("\n");
+        }
+        sb.append("----------------------------------------\n");
+        if (!order.getItems().isEmpty()) {
+            sb.append("Individual Items:\n");
+            for (MenuItem item : order.getItems()) {
+                sb.append("  - ").append(item.getName())
+                  .append(" ($").append(String.format("%.2f", item.getPrice())).append(")\n");
+            }
+        }
+        if (!order.getMeals().isEmpty()) {
+            sb.append("\nCombo Meals:\n");
+            for (int i = 0; i < order.getMeals().size(); i++) {
+                sb.append("  Meal #").append(i + 1).append(":\n");
+                Meal meal = order.getMeals().get(i);
+                if (meal.getMainItem() != null) {
+                    sb.append("    Main: ").append(meal.getMainItem().getName()).append("\n");
+                }
+                if (meal.getSideItem() != null) {
+                    sb.append("    Side: ").append(meal.getSideItem().getName()).append("\n");
+                }
+                if (meal.getBeverage() != null) {
+                    sb.append("    Beverage: ").append(meal.getBeverage().getName()).append("\n");
+                }
+                if (meal.getDessert() != null) {
+                    sb.append("    Dessert: ").append(meal.getDessert().getName()).append("\n");
+                }
+                if (meal.getMealSize() != null) {
+                    sb.append("    Size: ").append(meal.getMealSize()).append("\n");
+                }
+                sb.append("    Meal Total: $").append(String.format("%.2f", meal.getTotalPrice())).append("\n");
+            }
+        }
+        sb.append("----------------------------------------\n");
+        sb.append("Subtotal: $").append(String.format("%.2f", order.calculateSubtotal())).append("\n");
+        sb.append("Tax (").append(config.getTaxRate()).append("%): $")
+          .append(String.format("%.2f", order.calculateTax())).append("\n");
+        if (order.calculateServiceFee() > 0) {
+            sb.append("Delivery Fee (").append(config.getServiceFeePercentage())
+              .append("%): $").append(String.format("%.2f", order.calculateServiceFee())).append("\n");
+        }
+        sb.append("========================================\n");
+        sb.append("TOTAL: $").append(String.format("%.2f", order.calculateTotal())).append("\n");
+        sb.append("========================================\n");
+        if (order.getPaymentMethod() != null) {
+            sb.append("Payment Method: ").append(order.getPaymentMethod().getPaymentType()).append("\n");
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,189 @@
+package benchmark;
+
+import domain.enums.MealSize;
+import domain.enums.OrderType;
+import domain.enums.PaymentType;
+import domain.models.Meal;
+import domain.models.MenuItem;
+import domain.models.Order;
+import domain.models.Payment;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import logging.Level;
+import logging.Log;
+import patterns.factory.PaymentFactory;
+import patterns.flyweight.MenuCatalog;
+import patterns.singleton.ConfigSnapshot;
+import patterns.singleton.RestaurantConfig;
+import payment.GiftCardLedger;
+import reporting.HistoricalOrderStore;
+import reporting.ReportEngine;
+import reporting.SalesReport;
+
+/**
+ * Month-end reporting: columnar store with fork-join aggregation versus iterating
+ * Order objects.
+ *
+ * Generates a month of seeded random orders (one in eight with a promotion discount),
+ * loads them into an in-memory store and into a store that may keep only four chunks
+ * on the heap (the rest spill to chunk files). Both must report exactly the totals computed from the Order objects, and
+ * the streamed per-day reports must add up to the month. A second budgeted store
+ * spills into the same directory; closing the stores must leave it empty.
+ *
+ * Run: gradle :benchmarks:bench -Pmain=ReportingBenchmark -Pargs='[ordersPerDay] [days]'
+ */
+public class ReportingBenchmark {
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+    private static final PaymentType[] PAYMENT_TYPES = PaymentType.values();
+
+    public static void main(String[] args) throws Exception {
+        int perDay = args.length > 0 ? Integer.parseInt(args[0]) : 35_000;
+        int days = args.length > 1 ? Integer.parseInt(args[1]) : 30;
+        Log.setLevel(Level.OFF);
+
+        LocalDate firstDay = LocalDate.of(2026, 1, 1);
+        List<Order> orders = generate(perDay, days, firstDay);
+        Path spill = Files.createTempDirectory("report-chunks");
+        try (HistoricalOrderStore spilling = new HistoricalOrderStore(HistoricalOrderStore.DEFAULT_CHUNK_ROWS, 4, spill);
+             HistoricalOrderStore firstDays = new HistoricalOrderStore(1_024, 1, spill)) {
+            HistoricalOrderStore memory = new HistoricalOrderStore();
+            long started = System.nanoTime();
+            memory.appendAll(orders);
+            long loadNanos = System.nanoTime() - started;
+            spilling.appendAll(orders);
+
+            long from = firstDay.atStartOfDay(ZONE).toInstant().toEpochMilli();
+            long to = firstDay.plusDays(days).atStartOfDay(ZONE).toInstant().toEpochMilli();
+            System.out.printf("=== Month-end report: %,d orders over %d days, %d cores ===%n",
+                orders.size(), days, Runtime.getRuntime().availableProcessors());
+            System.out.printf("load into columns: %,.0f orders/s, %d chunks (%d spilled in the budgeted store)%n%n",
+                orders.size() * 1e9 / loadNanos, memory.getChunkCount(), spilling.getSpilledChunkCount());
+
+            long[] expected = iterate(orders);
+            ReportEngine inMemory = new ReportEngine(memory);
+            ReportEngine streamed = new ReportEngine(spilling);
+            SalesReport month = inMemory.report(from, to);
+            System.out.println("Month: " + month);
+            check(matches(month, expected), "columnar report differs from the order totals");
+            check(matches(streamed.report(from, to), expected), "spilled report differs from the order totals");
+
+            AtomicLong dayOrders = new AtomicLong();
+            AtomicLong dayTotal = new AtomicLong();
+            streamed.reportByDay(firstDay, firstDay.plusDays(days - 1), ZONE, (day, report) -> {
+                dayOrders.addAndGet(report.getOrderCount());
+                dayTotal.addAndGet(report.getTotalCents());
+            });
+            check(dayOrders.get() == month.getOrderCount() && dayTotal.get() == month.getTotalCents(),
+                "daily reports do not add up to the month");
+
+            // Spilling into the same directory must not overwrite the first store's chunks
+            List<Order> firstDayOrders = orders.subList(0, Math.min(perDay, orders.size()));
+            firstDays.appendAll(firstDayOrders);
+            check(matches(new ReportEngine(firstDays).report(from, to), iterate(firstDayOrders)),
+                "second spilled store differs from its order totals");
+            check(matches(streamed.report(from, to), expected), "spilled chunks overwritten by another store");
+            System.out.println();
+
+            System.out.println(Harness.run("iterate Order objects", 1, 5, () -> iterate(orders)[0]));
+            System.out.println(Harness.run("columnar, fork-join (in memory)", 3, 10,
+                () -> inMemory.report(from, to).getOrderCount()));
+            System.out.println(Harness.run("columnar, fork-join (4 chunks in memory)", 1, 5,
+                () -> streamed.report(from, to).getOrderCount()));
+            System.out.println(Harness.run("one day (in memory)", 20, 200,
+                () -> inMemory.report(firstDay.plusDays(days / 2), ZONE).getOrderCount()));
+        }
+        try (Stream<Path> left = Files.list(spill)) {
+            check(left.count() == 0, "spilled chunk files left after close");
+        }
+        Files.delete(spill);
+    }
+
+    // The report computed the straightforward way: orders, subtotal, tax, fees, card orders,
+    // discounts, totals charged
+    private static long[] iterate(List<Order> orders) {
+        long[] totals = new long[7];
+        for (Order order : orders) {
+            totals[0]++;
+            totals[1] += order.calculateSubtotalCents();
+            totals[2] += order.calculateTaxCents();
+            totals[3] += order.calculateServiceFeeCents();
+            if (order.getPaymentMethod() != null
+                    && order.getPaymentMethod().getPaymentType() == PaymentType.CREDIT_CARD) {
+                totals[4]++;
+            }
+            totals[5] += order.calculateDiscountCents();
+            totals[6] += order.calculateTotalCents();
+        }
+        return totals;
+    }
+
+    private static boolean matches(SalesReport report, long[] expected) {
+        return report.getOrderCount() == expected[0] && report.getSubtotalCents() == expected[1]
+            && report.getTaxCents() == expected[2] && report.getServiceFeeCents() == expected[3]
+            && report.getOrderCount(PaymentType.CREDIT_CARD) == expected[4]
+            && report.getDiscountCents() == expected[5] && report.getTotalCents() == expected[6];
+    }
+
+    private static List<Order> generate(int perDay, int days, LocalDate firstDay) {
+        Random random = new Random(42);
+        MenuCatalog catalog = MenuCatalog.getDefault();
+        List<MenuItem> menu = new ArrayList<>();
+        for (int id = 0; id < catalog.size(); id++) {
+            if (catalog.contains(id)) {
+                menu.add(catalog.get(id));
+            }
+        }
+        GiftCardLedger ledger = new GiftCardLedger(1024);
+        ledger.issue("6006 4912 0000 0001", Long.MAX_VALUE / 4);
+        Payment[] payments = {
+            PaymentFactory.createCashPayment(500.0),
+            PaymentFactory.createCreditCardPayment("4532123456789012", "Alice Johnson", "08/27", "123"),
+            PaymentFactory.createMobilePayment("+1-555-1234", "Apple Pay"),
+            PaymentFactory.createGiftCardPayment("6006 4912 0000 0001", ledger)
+        };
+        ConfigSnapshot config = RestaurantConfig.getInstance().snapshot();
+        OrderType[] types = OrderType.values();
+
+        List<Order> orders = new ArrayList<>(perDay * days);
+        long number = 1;
+        for (int day = 0; day < days; day++) {
+            long dayStart = firstDay.plusDays(day).atStartOfDay(ZONE).toInstant().toEpochMilli();
+            for (int i = 0; i < perDay; i++) {
+                List<MenuItem> items = new ArrayList<>();
+                for (int n = 1 + random.nextInt(6); n > 0; n--) {
+                    items.add(menu.get(random.nextInt(menu.size())));
+                }
+                List<Meal> meals = new ArrayList<>();
+                if (random.nextInt(4) == 0) {
+                    meals.add(new Meal(menu.get(random.nextInt(menu.size())), menu.get(random.nextInt(menu.size())),
+                        menu.get(random.nextInt(menu.size())), null, null, MealSize.values()[random.nextInt(3)]));
+                }
+                OrderType type = types[random.nextInt(types.length)];
+                Order order = new Order(number++, dayStart + random.nextInt(86_400_000), config, "Customer",
+                    "+1-555-0000", type == OrderType.DINE_IN ? "T1" : null, items, meals, type,
+                    type == OrderType.DELIVERY ? "1 Main St" : null,
+                    random.nextInt(20) == 0 ? null : payments[random.nextInt(PAYMENT_TYPES.length)]);
+                if (random.nextInt(8) == 0) {
+                    order.applyDiscount(order.calculateSubtotalCents() / 10);
+                }
+                orders.add(order);
+            }
+        }
+        return orders;
+    }
+
+    private static void check(boolean ok, String message) {
+        if (!ok) {
+            System.out.println("FAILED: " + message);
+            System.exit(1);
+        }
+    }
+}
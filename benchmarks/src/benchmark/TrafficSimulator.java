@@ -0,0 +1,508 @@
+package benchmark;
+
+import domain.enums.MealSize;
+import domain.enums.MenuItemCategory;
+import domain.enums.OrderType;
+import domain.enums.PaymentType;
+import domain.models.GiftCardPayment;
+import domain.models.Meal;
+import domain.models.MenuItem;
+import domain.models.Order;
+import domain.models.Payment;
+import domain.pricing.PriceBreakdown;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import logging.Level;
+import logging.Log;
+import patterns.builder.MealBuilder;
+import patterns.builder.OrderBuilder;
+import patterns.factory.MenuItemFactory;
+import patterns.factory.PaymentFactory;
+import patterns.flyweight.MenuCatalog;
+import patterns.singleton.ConfigSnapshot;
+import patterns.singleton.RestaurantConfig;
+import payment.GiftCardLedger;
+import receipt.ReceiptRenderer;
+import receipt.TextReceiptSink;
+
+/**
+ * Open-loop traffic simulator for capacity planning.
+ *
+ * Generates a seeded stream of orders - Poisson arrivals at the given rate, a
+ * weighted OrderType mix, a weighted distribution of order sizes, meals from the
+ * lunchSpecial / familyFeast / dateNight templates and all four payment types - and
+ * plays it against a pool of order-taking workers. Each order is taken through the
+ * stages a terminal goes through: build (menu lookups, MealBuilder, OrderBuilder),
+ * price, pay and receipt.
+ *
+ * Arrivals follow the schedule whatever the workers are doing, and every latency is
+ * measured from the time the order was due, not from when a worker got to it, so a
+ * backlog shows up in the tail instead of slowing the arrivals down (coordinated
+ * omission). The same seed and arguments always produce the same orders; the
+ * workload fingerprint printed at the start identifies them. Every order must come
+ * out with the total computed independently from the generated lines.
+ *
+ * Run: gradle :benchmarks:bench -Pmain=TrafficSimulator -Pargs='[ordersPerSecond] [seconds] [seed] [workers]'
+ *          [typeMix] [sizeMix]
+ *      typeMix  weights per OrderType, e.g. DINE_IN:50,TAKEOUT:30,DELIVERY:20
+ *      sizeMix  weights per number of covers (items or meals), e.g. 1:15,2:35,4:30,8:15,30:5
+ */
+public class TrafficSimulator {
+    private static final String[] STAGES = {"queue", "build", "price", "pay", "receipt", "end-to-end"};
+    private static final int QUEUE = 0;
+    private static final int BUILD = 1;
+    private static final int PRICE = 2;
+    private static final int PAY = 3;
+    private static final int RECEIPT = 4;
+    private static final int END_TO_END = 5;
+
+    private static final String[] TEMPLATES = {"lunchSpecial", "familyFeast", "dateNight"};
+    private static final int[] TEMPLATE_WEIGHTS = {50, 20, 30};
+    private static final MealSize[] TEMPLATE_SIZES = {MealSize.REGULAR, MealSize.FAMILY_SIZE, MealSize.LARGE};
+    private static final String[] TEMPLATE_INSTRUCTIONS = {"Lunch Special", "Family Feast", "Date Night Special"};
+    // One cover in four is a meal, the rest are a la carte items
+    private static final int MEAL_PERCENT = 25;
+
+    private static final PaymentType[] PAYMENTS = PaymentType.values();
+    private static final int[] PAYMENT_WEIGHTS = {20, 45, 25, 10};
+    private static final int GIFT_CARDS = 256;
+    private static final long GIFT_CARD_BALANCE_CENTS = 1_000_000_000L;
+
+    private static final ThreadLocal<StringBuilder> RECEIPT_BUFFER =
+        ThreadLocal.withInitial(() -> new StringBuilder(2048));
+    private static final ThreadLocal<TextReceiptSink> RECEIPT_SINK =
+        ThreadLocal.withInitial(() -> new TextReceiptSink(RECEIPT_BUFFER.get()));
+
+    public static void main(String[] args) throws Exception {
+        double rate = args.length > 0 ? Double.parseDouble(args[0]) : 1_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        int workers = args.length > 3 ? Integer.parseInt(args[3]) : 4;
+        Mix<OrderType> typeMix = Mix.parse(args.length > 4 ? args[4] : "DINE_IN:50,TAKEOUT:30,DELIVERY:20",
+            OrderType::valueOf);
+        Mix<Integer> sizeMix = Mix.parse(args.length > 5 ? args[5] : "1:15,2:35,4:30,8:15,30:5", Integer::valueOf);
+        Log.setLevel(Level.OFF);
+
+        GiftCardLedger ledger = new GiftCardLedger(GIFT_CARDS * 2);
+        for (int c = 0; c < GIFT_CARDS; c++) {
+            ledger.issue(giftCard(c), GIFT_CARD_BALANCE_CENTS);
+        }
+        ConfigSnapshot config = RestaurantConfig.getInstance().snapshot();
+
+        Workload workload = Workload.generate(rate, seconds, seed, typeMix, sizeMix, config);
+        check(workload.fingerprint() == Workload.generate(rate, seconds, seed, typeMix, sizeMix, config).fingerprint(),
+            "the same seed must generate the same workload");
+        System.out.printf("=== %,d orders over %d s (%.0f/s offered), seed %d, %d workers, %d cores ===%n",
+            workload.size(), seconds, rate, seed, workers, Runtime.getRuntime().availableProcessors());
+        System.out.println(workload.describe());
+
+        // Unmeasured warm-up with a different stream, so the JIT does not show up in the tail
+        Workload warmup = Workload.generate(rate, Math.max(1, seconds / 4), seed + 1, typeMix, sizeMix, config);
+        play(warmup, workers, ledger);
+
+        Result result = play(workload, workers, ledger);
+        System.out.println(result.report());
+        check(result.wrongTotals.get() == 0, result.wrongTotals.get() + " orders came out with a wrong total");
+        check(result.failures.get() == 0, result.failures.get() + " orders failed");
+        long giftCardTaken = 0;
+        for (int c = 0; c < GIFT_CARDS; c++) {
+            giftCardTaken += GIFT_CARD_BALANCE_CENTS - ledger.getBalanceCents(giftCard(c));
+        }
+        check(giftCardTaken == warmup.giftCardCents + workload.giftCardCents,
+            "gift cards were charged " + giftCardTaken + " cents, expected "
+                + (warmup.giftCardCents + workload.giftCardCents));
+    }
+
+    /**
+     * Plays the workload's schedule against a fixed pool of workers and returns the
+     * per-stage latencies
+     */
+    private static Result play(Workload workload, int workers, GiftCardLedger ledger) throws InterruptedException {
+        int n = workload.size();
+        Result result = new Result(n, workers);
+        ExecutorService pool = Executors.newFixedThreadPool(workers);
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
+        for (int i = 0; i < n; i++) {
+            long due = start + workload.tickets[i].offsetNanos;
+            long now;
+            while ((now = System.nanoTime()) < due) {
+                TimeUnit.NANOSECONDS.sleep(Math.min(due - now, 1_000_000));
+            }
+            final int index = i;
+            pool.execute(() -> take(workload.tickets[index], index, due, ledger, result));
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.HOURS);
+        result.elapsedNanos = result.lastCompletion.get() - start;
+        return result;
+    }
+
+    private static void take(Ticket ticket, int index, long due, GiftCardLedger ledger, Result result) {
+        long[][] nanos = result.nanos;
+        long started = System.nanoTime();
+        try {
+            Order order = build(ticket, ledger);
+            long built = System.nanoTime();
+            long total = order.calculateTotalCents();
+            long priced = System.nanoTime();
+            order.processPayment();
+            long paid = System.nanoTime();
+            StringBuilder buffer = RECEIPT_BUFFER.get();
+            buffer.setLength(0);
+            ReceiptRenderer.standard().render(order, RECEIPT_SINK.get());
+            long rendered = System.nanoTime();
+
+            nanos[QUEUE][index] = started - due;
+            nanos[BUILD][index] = built - started;
+            nanos[PRICE][index] = priced - built;
+            nanos[PAY][index] = paid - priced;
+            nanos[RECEIPT][index] = rendered - paid;
+            nanos[END_TO_END][index] = rendered - due;
+            Payment payment = order.getPaymentMethod();
+            if (total != ticket.expectedTotalCents || buffer.length() == 0
+                    || payment instanceof GiftCardPayment && ((GiftCardPayment) payment).getAmountDueCents() != 0) {
+                result.wrongTotals.incrementAndGet();
+            }
+            result.lastCompletion.accumulateAndGet(rendered, Math::max);
+        } catch (RuntimeException e) {
+            result.failures.incrementAndGet();
+        }
+    }
+
+    // What an ordering terminal does: look the items up by name, fill meal templates,
+    // collect everything in this thread's pooled OrderBuilder
+    private static Order build(Ticket ticket, GiftCardLedger ledger) {
+        OrderBuilder builder = OrderBuilder.pooled()
+            .setCustomerName(ticket.customer)
+            .setPhoneNumber(ticket.phone)
+            .setOrderType(ticket.type);
+        if (ticket.type == OrderType.DINE_IN) {
+            builder.setTableNumber(ticket.table);
+        } else if (ticket.type == OrderType.DELIVERY) {
+            builder.setDeliveryAddress(ticket.address);
+        }
+        for (String item : ticket.items) {
+            builder.addItem(MenuItemFactory.createMenuItem(item));
+        }
+        for (String[] meal : ticket.meals) {
+            builder.addMeal(template(meal[0])
+                .setMainItem(MenuItemFactory.createMenuItem(MenuItemCategory.MAIN_COURSE, meal[1]))
+                .setSideItem(meal[2] == null ? null : MenuItemFactory.createMenuItem(MenuItemCategory.APPETIZER, meal[2]))
+                .setBeverage(MenuItemFactory.createMenuItem(MenuItemCategory.BEVERAGE, meal[3]))
+                .setDessert(meal[4] == null ? null : MenuItemFactory.createMenuItem(MenuItemCategory.DESSERT, meal[4]))
+                .build());
+        }
+        switch (ticket.payment) {
+            case CASH:
+                builder.setPaymentMethod(PaymentFactory.createCashPayment(ticket.cashGivenDollars));
+                break;
+            case CREDIT_CARD:
+                builder.setPaymentMethod(PaymentFactory.createCreditCardPayment(
+                    "4532123456789012", ticket.customer, "08/27", "123"));
+                break;
+            case MOBILE_PAYMENT:
+                builder.setPaymentMethod(PaymentFactory.createMobilePayment(ticket.phone, "Apple Pay"));
+                break;
+            default:
+                builder.setPaymentMethod(PaymentFactory.createGiftCardPayment(ticket.giftCard, ledger));
+                break;
+        }
+        return builder.build();
+    }
+
+    private static MealBuilder template(String name) {
+        switch (name) {
+            case "familyFeast":
+                return MealBuilder.familyFeast();
+            case "dateNight":
+                return MealBuilder.dateNight();
+            default:
+                return MealBuilder.lunchSpecial();
+        }
+    }
+
+    private static String giftCard(int card) {
+        return String.valueOf(6_000_000_000_000L + card);
+    }
+
+    /**
+     * One generated order: when it arrives, what it contains and the total it must
+     * come out with
+     */
+    private static final class Ticket {
+        long offsetNanos;
+        OrderType type;
+        PaymentType payment;
+        String customer;
+        String phone;
+        String table;
+        String address;
+        String[] items;
+        // template, main, side, beverage, dessert (side and dessert may be null)
+        String[][] meals;
+        double cashGivenDollars;
+        String giftCard;
+        long expectedTotalCents;
+    }
+
+    /**
+     * A seeded order stream
+     */
+    private static final class Workload {
+        final Ticket[] tickets;
+        long giftCardCents;
+
+        private Workload(Ticket[] tickets) {
+            this.tickets = tickets;
+        }
+
+        int size() {
+            return tickets.length;
+        }
+
+        static Workload generate(double rate, int seconds, long seed, Mix<OrderType> typeMix, Mix<Integer> sizeMix,
+                                 ConfigSnapshot config) {
+            MenuCatalog menu = MenuCatalog.getDefault();
+            List<MenuItem> mains = menu.getItems(MenuItemCategory.MAIN_COURSE);
+            List<MenuItem> sides = menu.getItems(MenuItemCategory.APPETIZER);
+            List<MenuItem> drinks = menu.getItems(MenuItemCategory.BEVERAGE);
+            List<MenuItem> desserts = menu.getItems(MenuItemCategory.DESSERT);
+            Mix<String> templates = new Mix<>(TEMPLATES, TEMPLATE_WEIGHTS);
+            Mix<PaymentType> payments = new Mix<>(PAYMENTS, PAYMENT_WEIGHTS);
+
+            Random random = new Random(seed);
+            long horizon = TimeUnit.SECONDS.toNanos(seconds);
+            double meanGapNanos = 1e9 / rate;
+            Ticket[] tickets = new Ticket[Math.max(16, (int) (rate * seconds * 1.1))];
+            int count = 0;
+            long giftCardCents = 0;
+            long offset = 0;
+            while (true) {
+                // Poisson arrivals: exponentially distributed gaps
+                offset += (long) (-Math.log(1.0 - random.nextDouble()) * meanGapNanos);
+                if (offset >= horizon) {
+                    break;
+                }
+                Ticket t = new Ticket();
+                t.offsetNanos = offset;
+                t.type = typeMix.pick(random);
+                t.payment = payments.pick(random);
+                t.customer = "Guest " + (count + 1);
+                t.phone = "+1-555-" + (1000 + random.nextInt(9000));
+                t.table = "T" + (1 + random.nextInt(40));
+                t.address = (1 + random.nextInt(200)) + " Main Street";
+                t.giftCard = giftCard(random.nextInt(GIFT_CARDS));
+
+                int covers = sizeMix.pick(random);
+                String[] items = new String[covers];
+                String[][] meals = new String[covers][];
+                int itemCount = 0;
+                int mealCount = 0;
+                long subtotal = 0;
+                for (int c = 0; c < covers; c++) {
+                    if (random.nextInt(100) < MEAL_PERCENT) {
+                        int template = templates.pickIndex(random);
+                        MenuItem main = pick(mains, random);
+                        MenuItem side = template == 1 ? pick(sides, random) : null;
+                        MenuItem drink = pick(drinks, random);
+                        MenuItem dessert = template != 0 ? pick(desserts, random) : null;
+                        meals[mealCount++] = new String[] {TEMPLATES[template], main.getName(),
+                            side == null ? null : side.getName(), drink.getName(),
+                            dessert == null ? null : dessert.getName()};
+                        subtotal += new Meal(main, side, drink, dessert, TEMPLATE_INSTRUCTIONS[template],
+                            TEMPLATE_SIZES[template]).getTotalPriceCents();
+                    } else {
+                        MenuItem item = menu.get(random.nextInt(menu.size()));
+                        items[itemCount++] = item.getName();
+                        subtotal += item.getPriceCents();
+                    }
+                }
+                t.items = Arrays.copyOf(items, itemCount);
+                t.meals = Arrays.copyOf(meals, mealCount);
+                t.expectedTotalCents = new PriceBreakdown(subtotal, config.getTaxRateBasisPoints(),
+                    config.getServiceFeeBasisPoints(), t.type == OrderType.DELIVERY, config.getVersion()).getTotalCents();
+                // Cash customers round up to the next $20
+                t.cashGivenDollars = (t.expectedTotalCents / 2_000 + 1) * 20.0;
+                if (t.payment == PaymentType.GIFT_CARD) {
+                    giftCardCents += t.expectedTotalCents;
+                }
+                if (count == tickets.length) {
+                    tickets = Arrays.copyOf(tickets, count * 2);
+                }
+                tickets[count++] = t;
+            }
+            Workload workload = new Workload(Arrays.copyOf(tickets, count));
+            workload.giftCardCents = giftCardCents;
+            return workload;
+        }
+
+        private static MenuItem pick(List<MenuItem> items, Random random) {
+            return items.get(random.nextInt(items.size()));
+        }
+
+        long fingerprint() {
+            long h = tickets.length;
+            for (Ticket t : tickets) {
+                h = h * 31 + t.offsetNanos;
+                h = h * 31 + t.type.ordinal();
+                h = h * 31 + t.payment.ordinal();
+                h = h * 31 + t.phone.hashCode();
+                h = h * 31 + Arrays.hashCode(t.items);
+                h = h * 31 + Arrays.deepHashCode(t.meals);
+                h = h * 31 + t.expectedTotalCents;
+            }
+            return h;
+        }
+
+        String describe() {
+            Map<OrderType, Integer> types = new EnumMap<>(OrderType.class);
+            Map<PaymentType, Integer> payments = new EnumMap<>(PaymentType.class);
+            int[] templates = new int[TEMPLATES.length];
+            long items = 0;
+            long revenue = 0;
+            for (Ticket t : tickets) {
+                types.merge(t.type, 1, Integer::sum);
+                payments.merge(t.payment, 1, Integer::sum);
+                items += t.items.length;
+                for (String[] meal : t.meals) {
+                    templates[Arrays.asList(TEMPLATES).indexOf(meal[0])]++;
+                }
+                revenue += t.expectedTotalCents;
+            }
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("workload fingerprint %016x%n", fingerprint()));
+            sb.append("order types ").append(types).append('\n');
+            sb.append("payments    ").append(payments).append('\n');
+            sb.append(String.format("lines       %,d items, meals %s=%d %s=%d %s=%d%n", items,
+                TEMPLATES[0], templates[0], TEMPLATES[1], templates[1], TEMPLATES[2], templates[2]));
+            sb.append(String.format("revenue     $%,.2f%n", revenue / 100.0));
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Weighted choice among a fixed set of values
+     */
+    private static final class Mix<T> {
+        private final T[] values;
+        private final int[] cumulative;
+
+        Mix(T[] values, int[] weights) {
+            if (values.length == 0 || values.length != weights.length) {
+                throw new IllegalArgumentException("A mix needs one weight per value");
+            }
+            this.values = values;
+            this.cumulative = new int[weights.length];
+            int sum = 0;
+            for (int i = 0; i < weights.length; i++) {
+                if (weights[i] < 0) {
+                    throw new IllegalArgumentException("Negative weight for " + values[i]);
+                }
+                sum += weights[i];
+                cumulative[i] = sum;
+            }
+            if (sum == 0) {
+                throw new IllegalArgumentException("A mix needs a positive weight");
+            }
+        }
+
+        /**
+         * Parses "VALUE:weight,VALUE:weight,..."
+         */
+        @SuppressWarnings("unchecked")
+        static <T> Mix<T> parse(String spec, Function<String, T> parser) {
+            String[] parts = spec.split(",");
+            Object[] values = new Object[parts.length];
+            int[] weights = new int[parts.length];
+            for (int i = 0; i < parts.length; i++) {
+                int colon = parts[i].indexOf(':');
+                if (colon < 0) {
+                    throw new IllegalArgumentException("Expected VALUE:weight, got " + parts[i]);
+                }
+                values[i] = parser.apply(parts[i].substring(0, colon).trim());
+                weights[i] = Integer.parseInt(parts[i].substring(colon + 1).trim());
+            }
+            return new Mix<>((T[]) values, weights);
+        }
+
+        int pickIndex(Random random) {
+            int r = random.nextInt(cumulative[cumulative.length - 1]);
+            int i = 0;
+            while (cumulative[i] <= r) {
+                i++;
+            }
+            return i;
+        }
+
+        T pick(Random random) {
+            return values[pickIndex(random)];
+        }
+    }
+
+    /**
+     * Latencies of one run, one slot per order and stage
+     */
+    private static final class Result {
+        final long[][] nanos;
+        final int workers;
+        final AtomicLong wrongTotals = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+        final AtomicLong lastCompletion = new AtomicLong();
+        long elapsedNanos;
+
+        Result(int orders, int workers) {
+            this.nanos = new long[STAGES.length][orders];
+            this.workers = workers;
+        }
+
+        String report() {
+            int n = nanos[0].length;
+            double seconds = elapsedNanos / 1e9;
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%,d orders in %.2f s: %,.0f orders/s%n", n, seconds, n / seconds));
+            sb.append(String.format("%-11s %9s %9s %9s %9s %9s %9s %6s %11s%n", "stage (us)", "mean", "p50", "p90",
+                "p99", "p99.9", "max", "busy", "capacity/s"));
+            for (int s = 0; s < STAGES.length; s++) {
+                long[] sorted = nanos[s].clone();
+                Arrays.sort(sorted);
+                long sum = 0;
+                for (long v : sorted) {
+                    sum += v;
+                }
+                // Share of the workers' time spent in the stage, and the orders per second the
+                // workers could push through it alone; neither applies to waits
+                boolean service = s != QUEUE && s != END_TO_END;
+                double mean = (double) sum / Math.max(1, n);
+                sb.append(String.format("%-11s %9.1f %9.1f %9.1f %9.1f %9.1f %9.1f %6s %11s%n", STAGES[s],
+                    mean / 1e3, percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99),
+                    percentile(sorted, 99.9), n == 0 ? 0 : sorted[n - 1] / 1e3,
+                    service ? String.format("%5.1f%%", 100.0 * sum / (elapsedNanos * (double) workers)) : "",
+                    service ? String.format("%,11.0f", workers * 1e9 / Math.max(1, mean)) : ""));
+            }
+            return sb.toString();
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(sorted.length * p / 100.0) - 1;
+            return sorted[Math.max(0, rank)] / 1e3;
+        }
+    }
+
+    private static void check(boolean ok, String message) {
+        if (!ok) {
+            System.out.println("FAILED: " + message);
+            System.exit(1);
+        }
+    }
+}
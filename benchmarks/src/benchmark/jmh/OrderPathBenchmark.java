@@ -0,0 +1,100 @@
+package benchmark.jmh;
+
+import benchmark.OrderShape;
+import domain.enums.MenuItemCategory;
+import domain.models.Meal;
+import domain.models.MenuItem;
+import domain.models.Order;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import logging.Level;
+import logging.Log;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import patterns.builder.MealBuilder;
+import patterns.factory.MenuItemFactory;
+
+/**
+ * JMH version of the BenchmarkSuite paths: MenuItemFactory.createMenuItem,
+ * MealBuilder.build, and OrderBuilder.build, Order.calculateTotal and Order.toString
+ * per OrderShape. Reports the mean and the sampled latency distribution of every
+ * path; run through gradle :benchmarks:jmh for the allocation figures (-prof gc).
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderPathBenchmark {
+    @Param({"SMALL_DINE_IN", "LARGE_CATERING", "DELIVERY_WITH_MEALS"})
+    public OrderShape shape;
+
+    private MenuItem pizza;
+    private MenuItem salad;
+    private MenuItem coke;
+    private MenuItem cake;
+    private Order order;
+    private String phone;
+    private String table;
+    private List<MenuItem> items;
+    private List<Meal> meals;
+
+    @Setup
+    public void setUp() {
+        // Builders and payments log every call; measure the code, not the console
+        Log.setLevel(Level.OFF);
+        pizza = MenuItemFactory.createMenuItem(MenuItemCategory.MAIN_COURSE, "Pepperoni");
+        salad = MenuItemFactory.createMenuItem(MenuItemCategory.APPETIZER, "Caesar Salad");
+        coke = MenuItemFactory.createMenuItem(MenuItemCategory.BEVERAGE, "Coke");
+        cake = MenuItemFactory.createMenuItem(MenuItemCategory.DESSERT, "Lava Cake");
+        order = shape.build();
+        phone = order.getPhoneNumber();
+        table = order.getTableNumber();
+        items = order.getItems();
+        meals = order.getMeals();
+    }
+
+    // Independent of the shape; JMH runs it once per shape all the same
+    @Benchmark
+    public MenuItem createMenuItem() {
+        return MenuItemFactory.createMenuItem(MenuItemCategory.MAIN_COURSE, "Quattro Formaggi");
+    }
+
+    @Benchmark
+    public Meal buildMeal() {
+        return new MealBuilder().setMainItem(pizza).setSideItem(salad).setBeverage(coke).setDessert(cake).build();
+    }
+
+    @Benchmark
+    public Order buildOrder() {
+        return shape.build();
+    }
+
+    /**
+     * A fresh order per call: totals are cached, so the first calculation (including
+     * the subtotal taken in the constructor) is the one the terminal pays for. The
+     * phone and table strings are read in setUp, their getters unpack a new string.
+     */
+    @Benchmark
+    public long calculateTotal() {
+        Order o = order;
+        return new Order(o.getOrderNumber(), o.getCustomerName(), phone, table,
+            items, meals, o.getOrderType(), o.getDeliveryAddress(), o.getPaymentMethod())
+            .calculateTotalCents();
+    }
+
+    @Benchmark
+    public String render() {
+        return order.toString();
+    }
+}
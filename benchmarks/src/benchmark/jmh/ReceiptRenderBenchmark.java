@@ -0,0 +1,76 @@
+package benchmark.jmh;
+
+import benchmark.ReceiptBenchmark;
+import domain.models.Order;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import logging.Level;
+import logging.Log;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import receipt.EscPosReceiptSink;
+import receipt.ReceiptRenderer;
+import receipt.TextReceiptSink;
+
+/**
+ * The receipt paths of ReceiptBenchmark under JMH: the previous String.format based
+ * receipt, Order.toString() and ReceiptRenderer writing into reused targets. Run
+ * through gradle :benchmarks:jmh for the allocation per receipt (-prof gc).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReceiptRenderBenchmark {
+    private Order order;
+    private ReceiptRenderer renderer;
+    private StringBuilder sb;
+    private TextReceiptSink textSink;
+    private ByteBuffer bytes;
+    private EscPosReceiptSink escPosSink;
+
+    @Setup
+    public void setUp() {
+        Log.setLevel(Level.OFF);
+        order = ReceiptBenchmark.sampleOrder();
+        renderer = ReceiptRenderer.standard();
+        sb = new StringBuilder(4096);
+        textSink = new TextReceiptSink(sb);
+        bytes = ByteBuffer.allocateDirect(4096);
+        escPosSink = new EscPosReceiptSink(bytes);
+    }
+
+    @Benchmark
+    public String previousToString() {
+        return ReceiptBenchmark.legacyReceipt(order);
+    }
+
+    @Benchmark
+    public String orderToString() {
+        return order.toString();
+    }
+
+    @Benchmark
+    public int renderToStringBuilder() {
+        sb.setLength(0);
+        renderer.render(order, textSink);
+        return sb.length();
+    }
+
+    @Benchmark
+    public int renderToEscPos() {
+        bytes.clear();
+        renderer.render(order, escPosSink);
+        return bytes.position();
+    }
+}
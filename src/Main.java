@@ -5,6 +5,7 @@ import patterns.factory.MenuItemFactory;
 import patterns.factory.PaymentFactory;
 import patterns.builder.MealBuilder;
 import patterns.builder.OrderBuilder;
+import logging.Log;
 
 /**
  * TMPS Laboratory Work #2 - Creational Design Patterns
@@ -18,6 +19,9 @@ import patterns.builder.OrderBuilder;
  */
 public class Main {
     public static void main(String[] args) {
+        // The demo prints its own output between the events it triggers: log in program order
+        Log.stopBackgroundWriter();
+
         System.out.println("╔══════════════════════════════════════════════════════════╗");
         System.out.println("║   TMPS Lab #2 - Creational Design Patterns Demo        ║");
         System.out.println("║   Restaurant Management System: TMPS Pizza              ║");
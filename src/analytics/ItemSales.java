@@ -0,0 +1,30 @@
+package analytics;
+
+import domain.pricing.Money;
+
+/**
+ * Quantity and revenue of one menu item over a query window
+ */
+public final class ItemSales {
+    private final int itemId;
+    private final String name;
+    private final long quantity;
+    private final long revenueCents;
+
+    public ItemSales(int itemId, String name, long quantity, long revenueCents) {
+        this.itemId = itemId;
+        this.name = name;
+        this.quantity = quantity;
+        this.revenueCents = revenueCents;
+    }
+
+    public int getItemId() { return itemId; }
+    public String getName() { return name; }
+    public long getQuantity() { return quantity; }
+    public long getRevenueCents() { return revenueCents; }
+
+    @Override
+    public String toString() {
+        return name + " x" + quantity + " ($" + Money.format(revenueCents) + ")";
+    }
+}
@@ -0,0 +1,312 @@
+package analytics;
+
+import domain.enums.MealSize;
+import domain.enums.MenuItemCategory;
+import domain.enums.OrderType;
+import domain.models.Meal;
+import domain.models.MenuItem;
+import domain.models.Order;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import patterns.flyweight.MenuCatalog;
+
+/**
+ * Live sales figures fed by orders as they are built or paid.
+ *
+ * Recording an order only adds to counters, so queries never look at orders:
+ *
+ * - Running totals since start use one LongAdder per catalog item ID, per
+ *   MenuItemCategory and per OrderType, so terminals recording at the same time
+ *   do not contend on a shared counter.
+ * - Sliding windows (the last 15 minutes by default) use a ring of time buckets.
+ *   Each bucket holds per-item, per-category and per-type counts, striped by thread
+ *   like a LongAdder. A bucket is reused once it is older than the window. A window
+ *   query sums the live buckets, so its cost depends on the bucket count, not on
+ *   the number of orders.
+ *
+ * Meal components count as items sold; their revenue includes the meal's size
+ * multiplier. Revenue is net sales (the order subtotal, before tax and fees).
+ */
+public final class SalesAnalytics {
+    public static final Duration DEFAULT_WINDOW = Duration.ofMinutes(15);
+    public static final int DEFAULT_BUCKETS = 60;
+    public static final int DEFAULT_ITEM_CAPACITY = 256;
+
+    private static final MenuItemCategory[] CATEGORIES = MenuItemCategory.values();
+    private static final OrderType[] ORDER_TYPES = OrderType.values();
+    private static final long RESETTING = Long.MIN_VALUE;
+
+    private final int itemCapacity;
+    private final int buckets;
+    private final long bucketMillis;
+    private final LongSupplier clock;
+    private final int stripes;
+
+    private final LongAdder[] itemQuantity;
+    private final LongAdder[] itemRevenue;
+    private final Map<MenuItemCategory, LongAdder> categoryQuantity = new EnumMap<>(MenuItemCategory.class);
+    private final Map<OrderType, LongAdder> typeRevenue = new EnumMap<>(OrderType.class);
+    private final Map<OrderType, LongAdder> typeOrders = new EnumMap<>(OrderType.class);
+    private final LongAdder untrackedItems = new LongAdder();
+    private final Bucket[] ring;
+
+    // Offsets within one stripe of a bucket
+    private final int quantityBase;
+    private final int revenueBase;
+    private final int categoryBase;
+    private final int typeRevenueBase;
+    private final int typeOrdersBase;
+    private final int stripeWidth;
+
+    public SalesAnalytics() {
+        this(DEFAULT_WINDOW, DEFAULT_BUCKETS, DEFAULT_ITEM_CAPACITY, System::currentTimeMillis);
+    }
+
+    /**
+     * @param window       length of the sliding window
+     * @param buckets      number of buckets the window is divided into
+     * @param itemCapacity catalog IDs from 0 to itemCapacity - 1 are tracked per item
+     * @param clock        current time in milliseconds
+     */
+    public SalesAnalytics(Duration window, int buckets, int itemCapacity, LongSupplier clock) {
+        if (buckets < 1 || window.toMillis() < buckets) {
+            throw new IllegalArgumentException("Window " + window + " cannot be split into " + buckets + " buckets");
+        }
+        if (itemCapacity < 1) {
+            throw new IllegalArgumentException("Item capacity must be positive: " + itemCapacity);
+        }
+        this.itemCapacity = itemCapacity;
+        this.buckets = buckets;
+        this.bucketMillis = window.toMillis() / buckets;
+        this.clock = clock;
+        this.stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors()) * 2 - 1);
+
+        this.itemQuantity = new LongAdder[itemCapacity];
+        this.itemRevenue = new LongAdder[itemCapacity];
+        for (int id = 0; id < itemCapacity; id++) {
+            itemQuantity[id] = new LongAdder();
+            itemRevenue[id] = new LongAdder();
+        }
+        for (MenuItemCategory category : CATEGORIES) {
+            categoryQuantity.put(category, new LongAdder());
+        }
+        for (OrderType type : ORDER_TYPES) {
+            typeRevenue.put(type, new LongAdder());
+            typeOrders.put(type, new LongAdder());
+        }
+
+        this.quantityBase = 0;
+        this.revenueBase = itemCapacity;
+        this.categoryBase = 2 * itemCapacity;
+        this.typeRevenueBase = categoryBase + CATEGORIES.length;
+        this.typeOrdersBase = typeRevenueBase + ORDER_TYPES.length;
+        // Round up to a cache line of longs so neighbouring stripes do not share one
+        this.stripeWidth = (typeOrdersBase + ORDER_TYPES.length + 7) & ~7;
+
+        // One spare bucket so the oldest bucket of a full window is never being reset
+        this.ring = new Bucket[buckets + 1];
+        for (int i = 0; i < ring.length; i++) {
+            ring[i] = new Bucket(stripes * stripeWidth);
+        }
+    }
+
+    /**
+     * Counts for one time slice, one stripe of stripeWidth counters per thread group
+     */
+    private static final class Bucket {
+        final AtomicLong epoch = new AtomicLong(-1);
+        final AtomicLongArray counts;
+
+        Bucket(int size) {
+            this.counts = new AtomicLongArray(size);
+        }
+    }
+
+    // ----- recording
+
+    /**
+     * Adds an order to the running totals and to the current window bucket
+     */
+    public void record(Order order) {
+        Bucket bucket = currentBucket();
+        int stripe = bucket == null ? 0 : (int) (Thread.currentThread().getId() & (stripes - 1)) * stripeWidth;
+
+        for (int line = 0; line < order.getLineCount(); line++) {
+            MenuItem item = order.getLineItem(line);
+            int quantity = order.getLineQuantity(line);
+            recordItem(bucket, stripe, item, quantity, quantity * item.getPriceCents());
+        }
+        for (int i = 0; i < order.getMealCount(); i++) {
+            Meal meal = order.getMeal(i);
+            MealSize size = meal.getMealSize();
+            recordMealItem(bucket, stripe, meal.getMainItem(), size);
+            recordMealItem(bucket, stripe, meal.getSideItem(), size);
+            recordMealItem(bucket, stripe, meal.getBeverage(), size);
+            recordMealItem(bucket, stripe, meal.getDessert(), size);
+        }
+
+        OrderType type = order.getOrderType();
+        long revenue = order.calculateSubtotalCents();
+        typeRevenue.get(type).add(revenue);
+        typeOrders.get(type).increment();
+        if (bucket != null) {
+            bucket.counts.addAndGet(stripe + typeRevenueBase + type.ordinal(), revenue);
+            bucket.counts.incrementAndGet(stripe + typeOrdersBase + type.ordinal());
+        }
+    }
+
+    private void recordMealItem(Bucket bucket, int stripe, MenuItem item, MealSize size) {
+        if (item != null) {
+            recordItem(bucket, stripe, item, 1, size != null ? size.applyTo(item.getPriceCents()) : item.getPriceCents());
+        }
+    }
+
+    // revenueCents is for all quantity units
+    private void recordItem(Bucket bucket, int stripe, MenuItem item, int quantity, long revenueCents) {
+        int category = item.getCategory().ordinal();
+        categoryQuantity.get(item.getCategory()).add(quantity);
+        int id = item.getId();
+        if (id < 0 || id >= itemCapacity) {
+            untrackedItems.add(quantity);
+        } else {
+            itemQuantity[id].add(quantity);
+            itemRevenue[id].add(revenueCents);
+        }
+        if (bucket != null) {
+            AtomicLongArray counts = bucket.counts;
+            counts.addAndGet(stripe + categoryBase + category, quantity);
+            if (id >= 0 && id < itemCapacity) {
+                counts.addAndGet(stripe + quantityBase + id, quantity);
+                counts.addAndGet(stripe + revenueBase + id, revenueCents);
+            }
+        }
+    }
+
+    /**
+     * The bucket for the current time slice, claiming and clearing a stale one if
+     * needed. Null if the clock went backwards past the ring (only totals are kept).
+     */
+    private Bucket currentBucket() {
+        long slice = clock.getAsLong() / bucketMillis;
+        Bucket bucket = ring[(int) (slice % ring.length)];
+        long epoch;
+        while ((epoch = bucket.epoch.get()) != slice) {
+            if (epoch > slice) {
+                return null;
+            }
+            if (epoch != RESETTING && bucket.epoch.compareAndSet(epoch, RESETTING)) {
+                for (int i = 0; i < bucket.counts.length(); i++) {
+                    bucket.counts.lazySet(i, 0);
+                }
+                bucket.epoch.set(slice); // volatile write publishes the cleared counts
+                return bucket;
+            }
+            Thread.onSpinWait();
+        }
+        return bucket;
+    }
+
+    // ----- running totals
+
+    public long getItemsSold(int itemId) {
+        return itemId >= 0 && itemId < itemCapacity ? itemQuantity[itemId].sum() : 0;
+    }
+
+    public long getItemsSold(MenuItemCategory category) {
+        return categoryQuantity.get(category).sum();
+    }
+
+    public long getRevenueCents(OrderType type) {
+        return typeRevenue.get(type).sum();
+    }
+
+    public long getOrderCount(OrderType type) {
+        return typeOrders.get(type).sum();
+    }
+
+    /**
+     * Items whose catalog ID is outside the tracked range; they are still counted
+     * per category and in revenue
+     */
+    public long getUntrackedItems() {
+        return untrackedItems.sum();
+    }
+
+    // ----- sliding window
+
+    /**
+     * Items sold per category during the window
+     */
+    public Map<MenuItemCategory, Long> getItemsSoldInWindow() {
+        long[] totals = sumWindow(categoryBase, CATEGORIES.length);
+        Map<MenuItemCategory, Long> result = new EnumMap<>(MenuItemCategory.class);
+        for (MenuItemCategory category : CATEGORIES) {
+            result.put(category, totals[category.ordinal()]);
+        }
+        return result;
+    }
+
+    /**
+     * Net revenue per order type during the window
+     */
+    public Map<OrderType, Long> getRevenueInWindow() {
+        long[] totals = sumWindow(typeRevenueBase, ORDER_TYPES.length);
+        Map<OrderType, Long> result = new EnumMap<>(OrderType.class);
+        for (OrderType type : ORDER_TYPES) {
+            result.put(type, totals[type.ordinal()]);
+        }
+        return result;
+    }
+
+    /**
+     * The best selling items of the window by quantity (ties broken by revenue),
+     * at most limit entries
+     */
+    public List<ItemSales> getTopSellers(int limit) {
+        long[] quantities = sumWindow(quantityBase, itemCapacity);
+        long[] revenues = sumWindow(revenueBase, itemCapacity);
+        MenuCatalog catalog = MenuCatalog.getDefault();
+        List<ItemSales> sellers = new ArrayList<>();
+        for (int id = 0; id < itemCapacity; id++) {
+            if (quantities[id] > 0) {
+                String name = catalog.contains(id) ? catalog.get(id).getName() : "#" + id;
+                sellers.add(new ItemSales(id, name, quantities[id], revenues[id]));
+            }
+        }
+        sellers.sort(Comparator.comparingLong(ItemSales::getQuantity)
+            .thenComparingLong(ItemSales::getRevenueCents).reversed());
+        return sellers.size() > limit ? new ArrayList<>(sellers.subList(0, limit)) : sellers;
+    }
+
+    public Duration getWindow() {
+        return Duration.ofMillis(bucketMillis * buckets);
+    }
+
+    // Sums a range of counters over every stripe of every bucket inside the window
+    private long[] sumWindow(int base, int length) {
+        long[] totals = new long[length];
+        long newest = clock.getAsLong() / bucketMillis;
+        long oldest = newest - buckets + 1;
+        for (Bucket bucket : ring) {
+            long epoch = bucket.epoch.get();
+            if (epoch < oldest || epoch > newest) {
+                continue;
+            }
+            for (int stripe = 0; stripe < stripes; stripe++) {
+                int offset = stripe * stripeWidth + base;
+                for (int i = 0; i < length; i++) {
+                    totals[i] += bucket.counts.get(offset + i);
+                }
+            }
+        }
+        return totals;
+    }
+}
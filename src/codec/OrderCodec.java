@@ -0,0 +1,381 @@
+package codec;
+
+import domain.enums.MealSize;
+import domain.enums.OrderType;
+import domain.enums.PaymentType;
+import domain.models.*;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import patterns.flyweight.MealCache;
+import patterns.flyweight.MenuCatalog;
+import patterns.singleton.ConfigSnapshot;
+import patterns.singleton.RestaurantConfig;
+import payment.GiftCardLedger;
+
+/**
+ * Versioned compact binary encoding of an Order with its meals and payment details.
+ *
+ * Layout, format 2 (big-endian, offsets relative to the start of the order):
+ *
+ *   0   short magic "OD", byte format, byte paymentType (-1 = none)
+ *   4   int   encoded length in bytes, header included
+ *   8   long  orderNumber         16  long placedAtMillis
+ *   24  long  configVersion       32  long subtotalCents
+ *   40  int   taxBasisPoints      44  int  serviceFeeBasisPoints
+ *   48  byte  orderType, byte reserved, short itemCount
+ *   52  short mealCount, short reserved
+ *   56  int   offset of the text section
+ *   60  long  discountCents (promotions, taken off the subtotal before tax and fees)
+ *   68  items  itemCount x {int catalogId, int priceCents}
+ *       meals  mealCount x {4 x {int catalogId, int priceCents} (id -1 = none), byte size (-1 = none)}
+ *       text   customer, phone, table, address, one instruction string per meal (see Utf8)
+ *       payment fields by type:
+ *              cash: long amountGivenCents
+ *              credit card: holder, last four digits, expiry
+ *              mobile: phone, provider
+ *              gift card: card number
+ *
+ * Everything a summary needs (number, type, totals, lines) sits at fixed offsets, so
+ * OrderView can read it without decoding the order. Menu items are referenced by
+ * catalog ID together with the price they were sold at. The full card number and CVV
+ * are never encoded: a decoded card payment knows only the last four digits.
+ */
+public final class OrderCodec {
+    public static final short MAGIC = 0x4F44; // "OD"
+    public static final byte FORMAT_VERSION = 2;
+
+    static final int FORMAT_OFFSET = 2;
+    static final int PAYMENT_TYPE_OFFSET = 3;
+    static final int LENGTH_OFFSET = 4;
+    static final int ORDER_NUMBER_OFFSET = 8;
+    static final int PLACED_AT_OFFSET = 16;
+    static final int CONFIG_VERSION_OFFSET = 24;
+    static final int SUBTOTAL_OFFSET = 32;
+    static final int TAX_RATE_OFFSET = 40;
+    static final int FEE_RATE_OFFSET = 44;
+    static final int ORDER_TYPE_OFFSET = 48;
+    static final int ITEM_COUNT_OFFSET = 50;
+    static final int MEAL_COUNT_OFFSET = 52;
+    static final int TEXT_OFFSET = 56;
+    static final int DISCOUNT_OFFSET = 60;
+    static final int HEADER_SIZE = 68;
+    static final int ITEM_SIZE = 8;
+    static final int MEAL_SIZE = 4 * ITEM_SIZE + 1;
+
+    static final OrderType[] ORDER_TYPES = OrderType.values();
+    static final PaymentType[] PAYMENT_TYPES = PaymentType.values();
+    static final MealSize[] MEAL_SIZES = MealSize.values();
+
+    private static final OrderCodec DEFAULT = new OrderCodec(null, null);
+
+    private final MenuCatalog catalog;
+    private final GiftCardLedger ledger;
+
+    /**
+     * A codec that resolves items and gift cards against the given catalog and ledger
+     */
+    public OrderCodec(MenuCatalog catalog, GiftCardLedger ledger) {
+        this.catalog = catalog;
+        this.ledger = ledger;
+    }
+
+    /**
+     * Codec that uses whichever menu catalog and gift card ledger are current at the
+     * time of decoding
+     */
+    public static OrderCodec getDefault() {
+        return DEFAULT;
+    }
+
+    // ----- encoding
+
+    /**
+     * Exact number of bytes encode() will write for this order
+     */
+    public int encodedSize(Order order) {
+        int size = HEADER_SIZE + order.getItemCount() * ITEM_SIZE + order.getMealCount() * MEAL_SIZE
+            + Utf8.sizeOf(order.getCustomerName()) + Utf8.sizeOf(order.getPhoneNumber())
+            + Utf8.sizeOf(order.getTableNumber()) + Utf8.sizeOf(order.getDeliveryAddress());
+        for (int i = 0; i < order.getMealCount(); i++) {
+            size += Utf8.sizeOf(order.getMeal(i).getSpecialInstructions());
+        }
+        Payment payment = order.getPaymentMethod();
+        if (payment != null) {
+            switch (payment.getPaymentType()) {
+                case CASH:
+                    size += 8;
+                    break;
+                case CREDIT_CARD:
+                    CreditCardPayment card = (CreditCardPayment) payment;
+                    size += Utf8.sizeOf(card.getCardHolderName()) + Utf8.sizeOf(card.getLastFourDigits())
+                        + Utf8.sizeOf(card.getExpiryDate());
+                    break;
+                case MOBILE_PAYMENT:
+                    MobilePayment mobile = (MobilePayment) payment;
+                    size += Utf8.sizeOf(mobile.getPhoneNumber()) + Utf8.sizeOf(mobile.getProvider());
+                    break;
+                case GIFT_CARD:
+                    size += Utf8.sizeOf(((GiftCardPayment) payment).getGiftCardNumber());
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown payment type: " + payment.getPaymentType());
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Writes the order at the buffer's position and advances past it. Throws
+     * BufferOverflowException, without writing anything, if the order does not fit.
+     */
+    public void encode(Order order, ByteBuffer out) {
+        int size = encodedSize(order);
+        if (out.remaining() < size) {
+            throw new BufferOverflowException();
+        }
+        if (order.getItemCount() > Short.MAX_VALUE || order.getMealCount() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many order lines to encode");
+        }
+        int start = out.position();
+        ConfigSnapshot config = order.getConfigSnapshot();
+        Payment payment = order.getPaymentMethod();
+
+        out.putShort(MAGIC);
+        out.put(FORMAT_VERSION);
+        out.put(payment != null ? (byte) payment.getPaymentType().ordinal() : -1);
+        out.putInt(size);
+        out.putLong(order.getOrderNumber());
+        out.putLong(order.getPlacedAtMillis());
+        out.putLong(config.getVersion());
+        out.putLong(order.calculateSubtotalCents());
+        out.putInt(config.getTaxRateBasisPoints());
+        out.putInt(config.getServiceFeeBasisPoints());
+        out.put((byte) order.getOrderType().ordinal());
+        out.put((byte) 0);
+        out.putShort((short) order.getItemCount());
+        out.putShort((short) order.getMealCount());
+        out.putShort((short) 0);
+        out.putInt(HEADER_SIZE + order.getItemCount() * ITEM_SIZE + order.getMealCount() * MEAL_SIZE);
+        out.putLong(order.calculateDiscountCents());
+
+        for (int line = 0; line < order.getLineCount(); line++) {
+            MenuItem item = order.getLineItem(line);
+            for (int q = order.getLineQuantity(line); q > 0; q--) {
+                putItem(out, item);
+            }
+        }
+        for (int i = 0; i < order.getMealCount(); i++) {
+            Meal meal = order.getMeal(i);
+            putItem(out, meal.getMainItem());
+            putItem(out, meal.getSideItem());
+            putItem(out, meal.getBeverage());
+            putItem(out, meal.getDessert());
+            out.put(meal.getMealSize() != null ? (byte) meal.getMealSize().ordinal() : -1);
+        }
+
+        Utf8.put(out, order.getCustomerName());
+        Utf8.put(out, order.getPhoneNumber());
+        Utf8.put(out, order.getTableNumber());
+        Utf8.put(out, order.getDeliveryAddress());
+        for (int i = 0; i < order.getMealCount(); i++) {
+            Utf8.put(out, order.getMeal(i).getSpecialInstructions());
+        }
+        if (payment != null) {
+            putPayment(out, payment);
+        }
+        assert out.position() - start == size;
+    }
+
+    /**
+     * Encodes into a new buffer of exactly the right size, flipped for reading
+     */
+    public ByteBuffer encode(Order order) {
+        ByteBuffer out = ByteBuffer.allocate(encodedSize(order));
+        encode(order, out);
+        return out.flip();
+    }
+
+    private static void putItem(ByteBuffer out, MenuItem item) {
+        if (item == null) {
+            out.putInt(-1);
+            out.putInt(0);
+            return;
+        }
+        if (item.getId() < 0) {
+            throw new IllegalArgumentException("Only catalog items can be encoded: " + item.getName());
+        }
+        out.putInt(item.getId());
+        out.putInt(Math.toIntExact(item.getPriceCents()));
+    }
+
+    private static void putPayment(ByteBuffer out, Payment payment) {
+        switch (payment.getPaymentType()) {
+            case CASH:
+                out.putLong(((CashPayment) payment).getAmountGivenCents());
+                break;
+            case CREDIT_CARD:
+                CreditCardPayment card = (CreditCardPayment) payment;
+                Utf8.put(out, card.getCardHolderName());
+                Utf8.put(out, card.getLastFourDigits());
+                Utf8.put(out, card.getExpiryDate());
+                break;
+            case MOBILE_PAYMENT:
+                MobilePayment mobile = (MobilePayment) payment;
+                Utf8.put(out, mobile.getPhoneNumber());
+                Utf8.put(out, mobile.getProvider());
+                break;
+            case GIFT_CARD:
+                Utf8.put(out, ((GiftCardPayment) payment).getGiftCardNumber());
+                break;
+            default:
+                throw new IllegalStateException("Unknown payment type: " + payment.getPaymentType());
+        }
+    }
+
+    // ----- decoding
+
+    /**
+     * Decodes the order at the buffer's position and advances past it. The order is
+     * priced with the current configuration if its version and rates match, otherwise
+     * with a snapshot carrying the encoded version and rates. Throws IllegalStateException
+     * if a menu item or gift card is unknown to the codec's catalog or ledger.
+     */
+    public Order decode(ByteBuffer in) {
+        return decode(in, null);
+    }
+
+    /**
+     * Decodes the order at the buffer's position with a known configuration snapshot
+     * (null to resolve it as decode(ByteBuffer) does)
+     */
+    public Order decode(ByteBuffer in, ConfigSnapshot config) {
+        int start = in.position();
+        int length = checkHeader(in, start);
+        if (config == null) {
+            config = resolveConfig(in.getLong(start + CONFIG_VERSION_OFFSET),
+                in.getInt(start + TAX_RATE_OFFSET), in.getInt(start + FEE_RATE_OFFSET));
+        }
+        MenuCatalog menu = catalog != null ? catalog : MenuCatalog.getDefault();
+        byte paymentType = in.get(start + PAYMENT_TYPE_OFFSET);
+        OrderType orderType = ORDER_TYPES[in.get(start + ORDER_TYPE_OFFSET)];
+        int itemCount = in.getShort(start + ITEM_COUNT_OFFSET);
+        int mealCount = in.getShort(start + MEAL_COUNT_OFFSET);
+
+        int offset = start + HEADER_SIZE;
+        List<MenuItem> items = new ArrayList<>(itemCount);
+        for (int i = 0; i < itemCount; i++, offset += ITEM_SIZE) {
+            items.add(getItem(in, offset, menu));
+        }
+
+        in.position(start + in.getInt(start + TEXT_OFFSET));
+        String customer = Utf8.get(in);
+        String phone = Utf8.get(in);
+        String table = Utf8.get(in);
+        String address = Utf8.get(in);
+        List<Meal> meals = new ArrayList<>(mealCount);
+        for (int i = 0; i < mealCount; i++, offset += MEAL_SIZE) {
+            byte size = in.get(offset + 4 * ITEM_SIZE);
+            meals.add(MealCache.getDefault().intern(getItem(in, offset, menu), getItem(in, offset + ITEM_SIZE, menu),
+                getItem(in, offset + 2 * ITEM_SIZE, menu), getItem(in, offset + 3 * ITEM_SIZE, menu),
+                Utf8.get(in), size < 0 ? null : MEAL_SIZES[size]));
+        }
+        Payment payment = paymentType < 0 ? null : getPayment(in, PAYMENT_TYPES[paymentType]);
+        in.position(start + length);
+
+        Order order = new Order(in.getLong(start + ORDER_NUMBER_OFFSET), in.getLong(start + PLACED_AT_OFFSET),
+            config, customer, phone, table, items, meals, orderType, address, payment);
+        long discountCents = in.getLong(start + DISCOUNT_OFFSET);
+        if (discountCents != 0) {
+            order.applyDiscount(discountCents);
+        }
+        return order;
+    }
+
+    /**
+     * Validates magic, format and length of the order at offset; returns its length
+     */
+    static int checkHeader(ByteBuffer in, int offset) {
+        if (in.limit() - offset < HEADER_SIZE || in.getShort(offset) != MAGIC) {
+            throw new IllegalArgumentException("Not an encoded order");
+        }
+        byte format = in.get(offset + FORMAT_OFFSET);
+        if (format != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported order format: " + format);
+        }
+        int length = in.getInt(offset + LENGTH_OFFSET);
+        if (length < HEADER_SIZE || length > in.limit() - offset) {
+            throw new IllegalArgumentException("Truncated encoded order: " + length + " bytes expected");
+        }
+        return length;
+    }
+
+    private static ConfigSnapshot resolveConfig(long version, int taxBasisPoints, int feeBasisPoints) {
+        // Versions restart in every process, so a matching number alone proves nothing
+        ConfigSnapshot current = RestaurantConfig.getInstance().snapshot();
+        if (current.getVersion() == version && current.getTaxRateBasisPoints() == taxBasisPoints
+                && current.getServiceFeeBasisPoints() == feeBasisPoints) {
+            return current;
+        }
+        return ConfigSnapshot.restore(version, current.getRestaurantName(), current.getAddress(),
+            current.getPhoneNumber(), current.getBusinessHours(), taxBasisPoints, feeBasisPoints,
+            current.getCapacity(), current.getCurrency());
+    }
+
+    /**
+     * The catalog's shared item, or a copy at the encoded price if the price has
+     * changed since the order was placed
+     */
+    private static MenuItem getItem(ByteBuffer in, int offset, MenuCatalog menu) {
+        int id = in.getInt(offset);
+        if (id < 0) {
+            return null;
+        }
+        if (!menu.contains(id)) {
+            throw new IllegalStateException("Menu item " + id + " is no longer in the catalog");
+        }
+        MenuItem item = menu.get(id);
+        long priceCents = in.getInt(offset + 4);
+        if (item.getPriceCents() == priceCents) {
+            return item;
+        }
+        switch (item.getCategory()) {
+            case APPETIZER:
+                return new Appetizer(id, item.getName(), item.getDescription(), priceCents);
+            case MAIN_COURSE:
+                return new Pizza(id, item.getName(), item.getDescription(), priceCents);
+            case DESSERT:
+                return new Dessert(id, item.getName(), item.getDescription(), priceCents);
+            case BEVERAGE:
+                return new Beverage(id, item.getName(), item.getDescription(), priceCents);
+            default:
+                throw new IllegalStateException("Unknown menu item category: " + item.getCategory());
+        }
+    }
+
+    private Payment getPayment(ByteBuffer in, PaymentType type) {
+        switch (type) {
+            case CASH:
+                return CashPayment.ofCents(in.getLong());
+            case CREDIT_CARD:
+                String holder = Utf8.get(in);
+                String lastFour = Utf8.get(in);
+                return new CreditCardPayment("************" + lastFour, holder, Utf8.get(in), null);
+            case MOBILE_PAYMENT:
+                String phone = Utf8.get(in);
+                return new MobilePayment(phone, Utf8.get(in));
+            case GIFT_CARD:
+                String cardNumber = Utf8.get(in);
+                GiftCardLedger cards = ledger != null ? ledger : GiftCardLedger.getDefault();
+                // Balances live in the ledger; decoding against the wrong ledger is an error
+                if (!cards.contains(cardNumber)) {
+                    throw new IllegalStateException("Gift card " + GiftCardLedger.mask(cardNumber)
+                        + " is not in the ledger");
+                }
+                return new GiftCardPayment(cardNumber, cards);
+            default:
+                throw new IllegalStateException("Unknown payment type: " + type);
+        }
+    }
+}
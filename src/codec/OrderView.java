@@ -0,0 +1,172 @@
+package codec;
+
+import domain.enums.MealSize;
+import domain.enums.OrderType;
+import domain.enums.PaymentType;
+import domain.pricing.Money;
+import domain.pricing.PriceBreakdown;
+import java.nio.ByteBuffer;
+
+/**
+ * Read-only window onto an encoded order (see OrderCodec) that reads fields in
+ * place instead of decoding the whole order.
+ *
+ * Numbers, order type, lines and totals come straight from fixed offsets; text fields
+ * are decoded only when asked for. A view can be re-pointed with wrap() to scan many
+ * encoded orders without allocating.
+ */
+public final class OrderView {
+    private ByteBuffer buffer;
+    private int start;
+
+    public OrderView() {
+    }
+
+    public OrderView(ByteBuffer buffer) {
+        wrap(buffer, buffer.position());
+    }
+
+    /**
+     * Points this view at the order encoded at the given absolute offset
+     */
+    public OrderView wrap(ByteBuffer buffer, int offset) {
+        OrderCodec.checkHeader(buffer, offset);
+        this.buffer = buffer;
+        this.start = offset;
+        return this;
+    }
+
+    public int getEncodedLength() { return buffer.getInt(start + OrderCodec.LENGTH_OFFSET); }
+    public long getOrderNumber() { return buffer.getLong(start + OrderCodec.ORDER_NUMBER_OFFSET); }
+    public long getPlacedAtMillis() { return buffer.getLong(start + OrderCodec.PLACED_AT_OFFSET); }
+    public long getConfigVersion() { return buffer.getLong(start + OrderCodec.CONFIG_VERSION_OFFSET); }
+    public int getTaxRateBasisPoints() { return buffer.getInt(start + OrderCodec.TAX_RATE_OFFSET); }
+    public int getServiceFeeBasisPoints() { return buffer.getInt(start + OrderCodec.FEE_RATE_OFFSET); }
+    public int getItemCount() { return buffer.getShort(start + OrderCodec.ITEM_COUNT_OFFSET); }
+    public int getMealCount() { return buffer.getShort(start + OrderCodec.MEAL_COUNT_OFFSET); }
+
+    public OrderType getOrderType() {
+        return OrderCodec.ORDER_TYPES[buffer.get(start + OrderCodec.ORDER_TYPE_OFFSET)];
+    }
+
+    /**
+     * Payment type, or null if the order has no payment method
+     */
+    public PaymentType getPaymentType() {
+        byte type = buffer.get(start + OrderCodec.PAYMENT_TYPE_OFFSET);
+        return type < 0 ? null : OrderCodec.PAYMENT_TYPES[type];
+    }
+
+    /**
+     * Catalog ID of an individual item
+     */
+    public int getItemId(int index) {
+        return buffer.getInt(itemOffset(index));
+    }
+
+    /**
+     * Price the item was sold at
+     */
+    public long getItemPriceCents(int index) {
+        return buffer.getInt(itemOffset(index) + 4);
+    }
+
+    /**
+     * Catalog ID of one component of a meal (0 = main, 1 = side, 2 = beverage,
+     * 3 = dessert), -1 if the meal has none
+     */
+    public int getMealItemId(int meal, int component) {
+        return buffer.getInt(mealComponentOffset(meal, component));
+    }
+
+    public long getMealItemPriceCents(int meal, int component) {
+        return buffer.getInt(mealComponentOffset(meal, component) + 4);
+    }
+
+    /**
+     * Size of a meal, or null if none was set
+     */
+    public MealSize getMealSize(int meal) {
+        byte size = buffer.get(mealOffset(meal) + 4 * OrderCodec.ITEM_SIZE);
+        return size < 0 ? null : OrderCodec.MEAL_SIZES[size];
+    }
+
+    public long getSubtotalCents() {
+        return buffer.getLong(start + OrderCodec.SUBTOTAL_OFFSET);
+    }
+
+    /**
+     * Promotion discount, taken off the subtotal before tax and fees
+     */
+    public long getDiscountCents() {
+        return buffer.getLong(start + OrderCodec.DISCOUNT_OFFSET);
+    }
+
+    public long getTaxCents() {
+        return Money.percentOf(getSubtotalCents() - getDiscountCents(), getTaxRateBasisPoints(), Money.TAX_ROUNDING);
+    }
+
+    public long getServiceFeeCents() {
+        return getOrderType() == OrderType.DELIVERY
+            ? Money.percentOf(getSubtotalCents() - getDiscountCents(), getServiceFeeBasisPoints(), Money.FEE_ROUNDING)
+            : 0;
+    }
+
+    /**
+     * Same total as Order.calculateTotalCents() on the decoded order
+     */
+    public long getTotalCents() {
+        return getSubtotalCents() - getDiscountCents() + getTaxCents() + getServiceFeeCents();
+    }
+
+    public PriceBreakdown getPriceBreakdown() {
+        return new PriceBreakdown(getSubtotalCents(), getDiscountCents(), getTaxRateBasisPoints(),
+            getServiceFeeBasisPoints(), getOrderType() == OrderType.DELIVERY, getConfigVersion());
+    }
+
+    public String getCustomerName() {
+        return Utf8.get(buffer, textOffset(0));
+    }
+
+    public String getPhoneNumber() {
+        return Utf8.get(buffer, textOffset(1));
+    }
+
+    public String getTableNumber() {
+        return Utf8.get(buffer, textOffset(2));
+    }
+
+    public String getDeliveryAddress() {
+        return Utf8.get(buffer, textOffset(3));
+    }
+
+    private int itemOffset(int index) {
+        if (index < 0 || index >= getItemCount()) {
+            throw new IndexOutOfBoundsException("Item " + index + " of " + getItemCount());
+        }
+        return start + OrderCodec.HEADER_SIZE + index * OrderCodec.ITEM_SIZE;
+    }
+
+    private int mealOffset(int meal) {
+        if (meal < 0 || meal >= getMealCount()) {
+            throw new IndexOutOfBoundsException("Meal " + meal + " of " + getMealCount());
+        }
+        return start + OrderCodec.HEADER_SIZE + getItemCount() * OrderCodec.ITEM_SIZE + meal * OrderCodec.MEAL_SIZE;
+    }
+
+    private int mealComponentOffset(int meal, int component) {
+        if (component < 0 || component > 3) {
+            throw new IndexOutOfBoundsException("Meal component " + component);
+        }
+        return mealOffset(meal) + component * OrderCodec.ITEM_SIZE;
+    }
+
+    // Offset of the n-th string of the text section
+    private int textOffset(int n) {
+        int offset = start + buffer.getInt(start + OrderCodec.TEXT_OFFSET);
+        for (int i = 0; i < n; i++) {
+            offset = Utf8.skip(buffer, offset);
+        }
+        return offset;
+    }
+}
@@ -0,0 +1,151 @@
+package codec;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Length-prefixed UTF-8 strings for the binary codecs.
+ *
+ * A string is a varint holding (byte length + 1), so 0 encodes null, followed by
+ * the UTF-8 bytes. Encoding walks the characters straight into the buffer; decoding
+ * of heap buffers goes straight from the backing array into the String.
+ */
+final class Utf8 {
+    private Utf8() {
+    }
+
+    /**
+     * Bytes needed to store s, including its length prefix
+     */
+    static int sizeOf(CharSequence s) {
+        if (s == null) {
+            return 1;
+        }
+        int bytes = byteLength(s);
+        return varintSize(bytes + 1) + bytes;
+    }
+
+    static void put(ByteBuffer out, CharSequence s) {
+        if (s == null) {
+            out.put((byte) 0);
+            return;
+        }
+        putVarint(out, byteLength(s) + 1);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                out.put((byte) c);
+            } else if (c < 0x800) {
+                out.put((byte) (0xC0 | (c >> 6)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length()
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, s.charAt(++i));
+                out.put((byte) (0xF0 | (codePoint >> 18)));
+                out.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+                out.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (codePoint & 0x3F)));
+            } else if (Character.isSurrogate(c)) {
+                out.put((byte) '?'); // unpaired surrogate, replaced like String.getBytes does
+            } else {
+                out.put((byte) (0xE0 | (c >> 12)));
+                out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (c & 0x3F)));
+            }
+        }
+    }
+
+    /**
+     * Reads the string at the buffer's position and advances past it
+     */
+    static String get(ByteBuffer in) {
+        int prefix = getVarint(in);
+        if (prefix == 0) {
+            return null;
+        }
+        int length = prefix - 1;
+        String s = decode(in, in.position(), length);
+        in.position(in.position() + length);
+        return s;
+    }
+
+    /**
+     * Reads the string at an absolute offset without moving the buffer
+     */
+    static String get(ByteBuffer in, int offset) {
+        int prefix = getVarint(in, offset);
+        return prefix == 0 ? null : decode(in, offset + varintSize(prefix), prefix - 1);
+    }
+
+    /**
+     * Offset just past the string stored at offset
+     */
+    static int skip(ByteBuffer in, int offset) {
+        int prefix = getVarint(in, offset);
+        return offset + varintSize(prefix) + Math.max(0, prefix - 1);
+    }
+
+    private static String decode(ByteBuffer in, int offset, int length) {
+        if (in.hasArray()) {
+            return new String(in.array(), in.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+        }
+        byte[] bytes = new byte[length];
+        in.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int byteLength(CharSequence s) {
+        int bytes = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length()
+                    && Character.isLowSurrogate(s.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                bytes += 1;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    static int varintSize(int value) {
+        int size = 1;
+        while ((value >>>= 7) != 0) {
+            size++;
+        }
+        return size;
+    }
+
+    static void putVarint(ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    static int getVarint(ByteBuffer in) {
+        int value = getVarint(in, in.position());
+        in.position(in.position() + varintSize(value));
+        return value;
+    }
+
+    static int getVarint(ByteBuffer in, int offset) {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            byte b = in.get(offset++);
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint");
+    }
+}
@@ -0,0 +1,60 @@
+package concurrent;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-per-task executors that use virtual threads when the JVM has them.
+ *
+ * On Java 21+ this returns Executors.newVirtualThreadPerTaskExecutor() (looked up
+ * reflectively so the code still compiles and runs on Java 17). On older JVMs it
+ * falls back to a cached pool of daemon platform threads, which behaves the same
+ * but costs a platform thread per blocked task.
+ */
+public final class VirtualThreads {
+    private static final Method NEW_VIRTUAL_EXECUTOR = findVirtualExecutorFactory();
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isAvailable() {
+        return NEW_VIRTUAL_EXECUTOR != null;
+    }
+
+    /**
+     * Returns an executor that runs every task on its own (virtual, if available) thread
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        if (NEW_VIRTUAL_EXECUTOR != null) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_EXECUTOR.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // fall through to platform threads
+            }
+        }
+        return Executors.newCachedThreadPool(daemonThreads(namePrefix));
+    }
+
+    /**
+     * Named daemon platform threads
+     */
+    public static ThreadFactory daemonThreads(String namePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static Method findVirtualExecutorFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
@@ -1,8 +1,27 @@
 package domain.enums;
 
+import domain.pricing.Money;
+
 public enum MealSize {
-    REGULAR,
-    LARGE,
-    FAMILY_SIZE
-}
+    REGULAR(10_000),
+    LARGE(13_000),
+    FAMILY_SIZE(20_000);
+
+    // Price multiplier in basis points (10000 = 1.0x)
+    private final int multiplierBasisPoints;
 
+    MealSize(int multiplierBasisPoints) {
+        this.multiplierBasisPoints = multiplierBasisPoints;
+    }
+
+    public int getMultiplierBasisPoints() {
+        return multiplierBasisPoints;
+    }
+
+    /**
+     * Applies the size multiplier to a price in cents (rounded with Money.SIZE_ROUNDING)
+     */
+    public long applyTo(long cents) {
+        return Money.multiply(cents, multiplierBasisPoints, Money.SIZE_ROUNDING);
+    }
+}
@@ -0,0 +1,16 @@
+package domain.enums;
+
+public enum OrderStatus {
+    PLACED,
+    PAID,
+    OUT_FOR_DELIVERY,
+    COMPLETED,
+    CANCELLED;
+
+    /**
+     * True until the order is completed or cancelled
+     */
+    public boolean isOpen() {
+        return this != COMPLETED && this != CANCELLED;
+    }
+}
@@ -0,0 +1,66 @@
+package domain.ids;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Durable upper bound for issued IDs.
+ *
+ * A generator stores a mark above every ID it may hand out before handing it out,
+ * so after a restart it can resume from the stored mark and never repeat an ID.
+ * The file holds the mark as decimal text and is replaced atomically.
+ */
+public final class HighWaterMark {
+    private final Path file;
+
+    public HighWaterMark(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the stored mark, or the fallback if nothing has been stored yet
+     */
+    public long load(long fallback) {
+        try {
+            if (!Files.exists(file)) {
+                return fallback;
+            }
+            String text = new String(Files.readAllBytes(file), StandardCharsets.US_ASCII).trim();
+            return text.isEmpty() ? fallback : Math.max(fallback, Long.parseLong(text));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read ID high-water mark " + file, e);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Corrupt ID high-water mark in " + file, e);
+        }
+    }
+
+    /**
+     * Durably stores a new mark (written to a temporary file, synced, then moved into place)
+     */
+    public void store(long mark) {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer bytes = ByteBuffer.wrap(Long.toString(mark).getBytes(StandardCharsets.US_ASCII));
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(true);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot store ID high-water mark " + file, e);
+        }
+    }
+}
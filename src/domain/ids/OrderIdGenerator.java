@@ -0,0 +1,18 @@
+package domain.ids;
+
+/**
+ * Strategy for issuing order numbers. Implementations must be thread-safe and
+ * never return the same ID twice.
+ */
+public interface OrderIdGenerator {
+    long nextId();
+
+    /**
+     * An ID for a caller that is not a long-lived thread (e.g. one virtual thread per
+     * request), where state cached per thread would be thrown away after one ID.
+     * Defaults to nextId().
+     */
+    default long nextSharedId() {
+        return nextId();
+    }
+}
@@ -0,0 +1,57 @@
+package domain.ids;
+
+import java.nio.file.Paths;
+
+/**
+ * Holds the order ID generator used by OrderBuilder.build().
+ *
+ * The default is chosen from system properties:
+ *   tmps.orders.ids     "sequence" (default) or "snowflake"
+ *   tmps.orders.idFile  high-water mark file for the sequence (no file: in-memory, starts at 1001)
+ *   tmps.orders.node    node ID for snowflake IDs (default 0)
+ */
+public final class OrderIds {
+    public static final long FIRST_ORDER_NUMBER = 1001;
+
+    private static volatile OrderIdGenerator generator = createDefault();
+
+    private OrderIds() {
+    }
+
+    public static OrderIdGenerator getGenerator() {
+        return generator;
+    }
+
+    /**
+     * Replaces the default generator, e.g. with a SnowflakeIdGenerator on multi-node setups
+     */
+    public static void setGenerator(OrderIdGenerator newGenerator) {
+        if (newGenerator == null) {
+            throw new IllegalArgumentException("Order ID generator cannot be null");
+        }
+        generator = newGenerator;
+    }
+
+    public static long next() {
+        return generator.nextId();
+    }
+
+    private static OrderIdGenerator createDefault() {
+        String mode = System.getProperty("tmps.orders.ids", "sequence");
+        switch (mode) {
+            case "snowflake":
+                return new SnowflakeIdGenerator(Integer.getInteger("tmps.orders.node", 0));
+            case "sequence":
+                String idFile = System.getProperty("tmps.orders.idFile");
+                if (idFile == null) {
+                    return new StripedSequenceGenerator(FIRST_ORDER_NUMBER);
+                }
+                return new StripedSequenceGenerator(FIRST_ORDER_NUMBER,
+                    StripedSequenceGenerator.DEFAULT_BLOCK_SIZE,
+                    new HighWaterMark(Paths.get(idFile)),
+                    StripedSequenceGenerator.DEFAULT_RESERVATION);
+            default:
+                throw new IllegalArgumentException("Unknown order ID mode: " + mode);
+        }
+    }
+}
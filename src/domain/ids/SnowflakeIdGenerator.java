@@ -0,0 +1,60 @@
+package domain.ids;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time and node based IDs for deployments with several order-intake nodes.
+ *
+ * Layout (63 bits, always positive):
+ *   41 bits  milliseconds since EPOCH (about 69 years)
+ *   10 bits  node ID (0-1023, unique per node)
+ *   12 bits  sequence within the millisecond
+ *
+ * Nodes never coordinate; uniqueness comes from the node ID. Within a node the
+ * (timestamp, sequence) pair is advanced with a single CAS. If more than 4096 IDs
+ * are requested in one millisecond, or the clock steps backwards, the generator
+ * keeps counting forward from its last value instead of waiting, so IDs stay
+ * unique and increasing and simply run slightly ahead of the wall clock.
+ */
+public final class SnowflakeIdGenerator implements OrderIdGenerator {
+    /** 2024-01-01T00:00:00Z */
+    public static final long EPOCH = 1_704_067_200_000L;
+    public static final int MAX_NODE_ID = 1023;
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final int NODE_BITS = 10;
+
+    private final long nodeBits;
+    // (millis since EPOCH << SEQUENCE_BITS) | sequence of the last issued ID
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+    }
+
+    @Override
+    public long nextId() {
+        long floor = (System.currentTimeMillis() - EPOCH) << SEQUENCE_BITS;
+        long current;
+        long next;
+        do {
+            current = state.get();
+            next = Math.max(current + 1, floor);
+        } while (!state.compareAndSet(current, next));
+
+        long timestamp = next >>> SEQUENCE_BITS;
+        long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+        return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | sequence;
+    }
+
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH;
+    }
+
+    public static int nodeOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+}
@@ -0,0 +1,92 @@
+package domain.ids;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sequential order numbers without contention between terminals.
+ *
+ * Each thread leases a block of consecutive IDs from a shared counter and then
+ * issues IDs from its block without touching shared state, so the shared counter is
+ * hit once per block instead of once per order. IDs are unique and increase per
+ * thread; IDs from different threads interleave, and a block that is not used up
+ * before shutdown leaves a gap. nextSharedId() takes a single ID from the shared
+ * counter, for callers that run on a new thread each time.
+ *
+ * With a HighWaterMark the generator reserves IDs in large chunks and stores the end
+ * of each chunk before using it, so after a restart it continues above every ID that
+ * could have been issued.
+ */
+public final class StripedSequenceGenerator implements OrderIdGenerator {
+    public static final int DEFAULT_BLOCK_SIZE = 32;
+    public static final long DEFAULT_RESERVATION = 10_000;
+
+    private final AtomicLong nextBlockStart;
+    private final int blockSize;
+    private final HighWaterMark highWaterMark;
+    private final long reservation;
+    private volatile long reservedUpTo; // exclusive
+    // [next, end) of the current thread's block
+    private final ThreadLocal<long[]> block = ThreadLocal.withInitial(() -> new long[2]);
+
+    /**
+     * In-memory sequence starting at firstId
+     */
+    public StripedSequenceGenerator(long firstId) {
+        this(firstId, DEFAULT_BLOCK_SIZE, null, 0);
+    }
+
+    /**
+     * Persistent sequence: resumes from the stored high-water mark if there is one
+     */
+    public StripedSequenceGenerator(long firstId, int blockSize, HighWaterMark highWaterMark, long reservation) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        if (highWaterMark != null && reservation < blockSize) {
+            throw new IllegalArgumentException("Reservation must cover at least one block");
+        }
+        long start = highWaterMark != null ? highWaterMark.load(firstId) : firstId;
+        this.nextBlockStart = new AtomicLong(start);
+        this.blockSize = blockSize;
+        this.highWaterMark = highWaterMark;
+        this.reservation = reservation;
+        this.reservedUpTo = start;
+    }
+
+    @Override
+    public long nextId() {
+        long[] current = block.get();
+        if (current[0] == current[1]) {
+            long start = leaseBlock();
+            current[0] = start;
+            current[1] = start + blockSize;
+        }
+        return current[0]++;
+    }
+
+    @Override
+    public long nextSharedId() {
+        return lease(1);
+    }
+
+    private long leaseBlock() {
+        return lease(blockSize);
+    }
+
+    private long lease(int size) {
+        long start = nextBlockStart.getAndAdd(size);
+        if (highWaterMark != null && start + size > reservedUpTo) {
+            reserve(start + size);
+        }
+        return start;
+    }
+
+    // Rare slow path: persist a new chunk before any ID in it is handed out
+    private synchronized void reserve(long end) {
+        if (end > reservedUpTo) {
+            long mark = end + reservation;
+            highWaterMark.store(mark);
+            reservedUpTo = mark;
+        }
+    }
+}
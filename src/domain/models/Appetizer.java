@@ -1,6 +1,8 @@
 package domain.models;
 
 import domain.enums.MenuItemCategory;
+import logging.Event;
+import logging.Log;
 
 public class Appetizer extends MenuItem {
 
@@ -8,9 +10,13 @@ public class Appetizer extends MenuItem {
         super(name, description, price, MenuItemCategory.APPETIZER);
     }
 
+    public Appetizer(int id, String name, String description, long priceCents) {
+        super(id, name, description, priceCents, MenuItemCategory.APPETIZER);
+    }
+
     @Override
     public void prepare() {
-        System.out.println("Preparing appetizer: " + name);
+        Log.log(Event.APPETIZER_PREPARING, name);
     }
 }
 
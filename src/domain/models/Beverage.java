@@ -1,6 +1,8 @@
 package domain.models;
 
 import domain.enums.MenuItemCategory;
+import logging.Event;
+import logging.Log;
 
 public class Beverage extends MenuItem {
 
@@ -8,9 +10,13 @@ public class Beverage extends MenuItem {
         super(name, description, price, MenuItemCategory.BEVERAGE);
     }
 
+    public Beverage(int id, String name, String description, long priceCents) {
+        super(id, name, description, priceCents, MenuItemCategory.BEVERAGE);
+    }
+
     @Override
     public void prepare() {
-        System.out.println("Preparing beverage: " + name);
+        Log.log(Event.BEVERAGE_PREPARING, name);
     }
 }
 
@@ -1,27 +1,47 @@
 package domain.models;
 
 import domain.enums.PaymentType;
+import domain.pricing.Money;
+import logging.Event;
+import logging.Log;
+import metrics.Metrics;
+import metrics.Operation;
 
 public class CashPayment implements Payment {
-    private double amountGiven;
-    private double change;
+    private long amountGivenCents;
+    private long changeCents;
+    private long amountDueCents;
 
     public CashPayment(double amountGiven) {
-        this.amountGiven = amountGiven;
+        this(Money.ofDollars(amountGiven));
+    }
+
+    // Private, so new CashPayment(100) from outside still means $100.00 (see ofCents())
+    private CashPayment(long amountGivenCents) {
+        this.amountGivenCents = amountGivenCents;
+    }
+
+    /**
+     * Cash payment of an exact amount in cents
+     */
+    public static CashPayment ofCents(long amountGivenCents) {
+        return new CashPayment(amountGivenCents);
     }
 
     @Override
-    public void processPayment(double amount) {
-        if (amountGiven >= amount) {
-            change = amountGiven - amount;
-            System.out.println("Processing cash payment...");
-            System.out.println("Amount Given: $" + String.format("%.2f", amountGiven));
-            System.out.println("Total: $" + String.format("%.2f", amount));
-            System.out.println("Change: $" + String.format("%.2f", change));
-            System.out.println("Payment successful!");
+    public void processPayment(long amountCents) {
+        long start = Metrics.start(Operation.CASH_PAYMENT);
+        if (amountGivenCents >= amountCents) {
+            changeCents = amountGivenCents - amountCents;
+            amountDueCents = 0;
+            Log.log(Event.CASH_PAYMENT, amountGivenCents, amountCents, changeCents);
         } else {
-            System.out.println("Insufficient cash! Need $" + String.format("%.2f", amount - amountGiven) + " more.");
+            changeCents = 0;
+            amountDueCents = amountCents - amountGivenCents;
+            Metrics.error(Operation.CASH_PAYMENT);
+            Log.log(Event.CASH_INSUFFICIENT, amountDueCents);
         }
+        Metrics.stop(Operation.CASH_PAYMENT, start);
     }
 
     @Override
@@ -31,11 +51,23 @@ public class CashPayment implements Payment {
 
     @Override
     public String getPaymentDetails() {
-        return "Cash Payment - Amount Given: $" + String.format("%.2f", amountGiven);
+        return "Cash Payment - Amount Given: $" + Money.format(amountGivenCents);
     }
 
     public double getChange() {
-        return change;
+        return Money.toDollars(changeCents);
+    }
+
+    public long getChangeCents() {
+        return changeCents;
+    }
+
+    @Override
+    public long getAmountDueCents() {
+        return amountDueCents;
     }
-}
 
+    public long getAmountGivenCents() {
+        return amountGivenCents;
+    }
+}
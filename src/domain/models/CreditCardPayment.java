@@ -1,6 +1,10 @@
 package domain.models;
 
 import domain.enums.PaymentType;
+import logging.Event;
+import logging.Log;
+import metrics.Metrics;
+import metrics.Operation;
 
 public class CreditCardPayment implements Payment {
     private String cardNumber;
@@ -16,13 +20,10 @@ public class CreditCardPayment implements Payment {
     }
 
     @Override
-    public void processPayment(double amount) {
-        System.out.println("Processing credit card payment...");
-        System.out.println("Card Holder: " + cardHolderName);
-        System.out.println("Card Number: **** **** **** " + cardNumber.substring(Math.max(0, cardNumber.length() - 4)));
-        System.out.println("Amount: $" + String.format("%.2f", amount));
-        System.out.println("Authorizing transaction...");
-        System.out.println("Payment successful!");
+    public void processPayment(long amountCents) {
+        long start = Metrics.start(Operation.CARD_PAYMENT);
+        Log.log(Event.CARD_PAYMENT, cardHolderName, cardNumber, amountCents);
+        Metrics.stop(Operation.CARD_PAYMENT, start);
     }
 
     @Override
@@ -32,8 +33,22 @@ public class CreditCardPayment implements Payment {
 
     @Override
     public String getPaymentDetails() {
-        return "Credit Card - " + cardHolderName + " (**** " +
-               cardNumber.substring(Math.max(0, cardNumber.length() - 4)) + ")";
+        return "Credit Card - " + cardHolderName + " (**** " + getLastFourDigits() + ")";
+    }
+
+    public String getCardHolderName() {
+        return cardHolderName;
+    }
+
+    public String getExpiryDate() {
+        return expiryDate;
+    }
+
+    /**
+     * The only part of the card number that leaves this object
+     */
+    public String getLastFourDigits() {
+        return cardNumber.substring(Math.max(0, cardNumber.length() - 4));
     }
 }
 
@@ -1,6 +1,8 @@
 package domain.models;
 
 import domain.enums.MenuItemCategory;
+import logging.Event;
+import logging.Log;
 
 public class Dessert extends MenuItem {
 
@@ -8,9 +10,13 @@ public class Dessert extends MenuItem {
         super(name, description, price, MenuItemCategory.DESSERT);
     }
 
+    public Dessert(int id, String name, String description, long priceCents) {
+        super(id, name, description, priceCents, MenuItemCategory.DESSERT);
+    }
+
     @Override
     public void prepare() {
-        System.out.println("Preparing dessert: " + name);
+        Log.log(Event.DESSERT_PREPARING, name);
     }
 }
 
@@ -1,30 +1,51 @@
 package domain.models;
 
 import domain.enums.PaymentType;
+import domain.pricing.Money;
+import logging.Event;
+import logging.Log;
+import metrics.Metrics;
+import metrics.Operation;
+import payment.GiftCardLedger;
+import payment.GiftCardTransaction;
 
+/**
+ * Gift card payment against the shared GiftCardLedger. The balance lives in the
+ * ledger, not in this object, so every terminal sees the same card balance.
+ * A card that cannot cover the whole amount is drained and the rest is reported
+ * as still due.
+ */
 public class GiftCardPayment implements Payment {
-    private String giftCardNumber;
-    private double balance;
+    private final String giftCardNumber;
+    private final GiftCardLedger ledger;
+    private volatile long amountDueCents;
 
-    public GiftCardPayment(String giftCardNumber, double balance) {
+    public GiftCardPayment(String giftCardNumber, GiftCardLedger ledger) {
+        if (!ledger.contains(giftCardNumber)) {
+            throw new IllegalArgumentException("Unknown gift card: " + GiftCardLedger.mask(giftCardNumber));
+        }
         this.giftCardNumber = giftCardNumber;
-        this.balance = balance;
+        this.ledger = ledger;
+    }
+
+    public String getGiftCardNumber() {
+        return giftCardNumber;
     }
 
     @Override
-    public void processPayment(double amount) {
-        System.out.println("Processing gift card payment...");
-        System.out.println("Gift Card: **** **** " + giftCardNumber.substring(Math.max(0, giftCardNumber.length() - 4)));
-        System.out.println("Current Balance: $" + String.format("%.2f", balance));
-        System.out.println("Amount: $" + String.format("%.2f", amount));
-
-        if (balance >= amount) {
-            balance -= amount;
-            System.out.println("Remaining Balance: $" + String.format("%.2f", balance));
-            System.out.println("Payment successful!");
-        } else {
-            System.out.println("Insufficient balance! Need $" + String.format("%.2f", amount - balance) + " more.");
+    public void processPayment(long amountCents) {
+        long start = Metrics.start(Operation.GIFT_CARD_PAYMENT);
+        GiftCardTransaction redemption = ledger.redeemPartial(giftCardNumber, amountCents);
+        amountDueCents = redemption.getShortfallCents();
+        Event event = !redemption.isPartial() ? Event.GIFT_CARD_PAYMENT
+            : redemption.getAmountCents() > 0 ? Event.GIFT_CARD_PARTIAL
+            : Event.GIFT_CARD_INSUFFICIENT;
+        Log.log(event, giftCardNumber, null, redemption.getBalanceAfterCents() + redemption.getAmountCents(),
+            amountCents, redemption.getBalanceAfterCents(), amountDueCents);
+        if (amountDueCents > 0) {
+            Metrics.error(Operation.GIFT_CARD_PAYMENT);
         }
+        Metrics.stop(Operation.GIFT_CARD_PAYMENT, start);
     }
 
     @Override
@@ -34,11 +55,22 @@ public class GiftCardPayment implements Payment {
 
     @Override
     public String getPaymentDetails() {
-        return "Gift Card - Balance: $" + String.format("%.2f", balance);
+        return "Gift Card - Balance: $" + Money.format(getBalanceCents());
     }
 
     public double getBalance() {
-        return balance;
+        return Money.toDollars(getBalanceCents());
     }
-}
 
+    public long getBalanceCents() {
+        return ledger.getBalanceCents(giftCardNumber);
+    }
+
+    /**
+     * Part of the last charge the card could not cover, 0 if it was paid in full
+     */
+    @Override
+    public long getAmountDueCents() {
+        return amountDueCents;
+    }
+}
@@ -1,17 +1,31 @@
 package domain.models;
 
 import domain.enums.MealSize;
+import domain.pricing.Money;
+import receipt.ReceiptRenderer;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
-public class Meal {
-    private MenuItem mainItem;
-    private MenuItem sideItem;
-    private MenuItem beverage;
-    private MenuItem dessert;
-    private String specialInstructions;
-    private MealSize mealSize;
-    private List<String> components;
+/**
+ * An immutable meal: up to four menu items, a size and optional instructions.
+ *
+ * The total, the component names and the hash code are computed once in the
+ * constructor. Because a meal never changes, identical combos can share one
+ * instance (see MealCache, used by MealBuilder). Two meals are equal when they hold
+ * the same menu item instances, size and instructions.
+ */
+public final class Meal {
+    private final MenuItem mainItem;
+    private final MenuItem sideItem;
+    private final MenuItem beverage;
+    private final MenuItem dessert;
+    private final String specialInstructions;
+    private final MealSize mealSize;
+    private final List<String> components;
+    private final long totalPriceCents;
+    private final int hash;
 
     public Meal(MenuItem mainItem, MenuItem sideItem, MenuItem beverage,
                 MenuItem dessert, String specialInstructions, MealSize mealSize) {
@@ -21,64 +35,92 @@ public class Meal {
         this.dessert = dessert;
         this.specialInstructions = specialInstructions;
         this.mealSize = mealSize;
-        this.components = new ArrayList<>();
-        buildComponentsList();
+        this.components = buildComponentsList();
+        this.totalPriceCents = computeTotalPriceCents();
+        this.hash = hashOf(mainItem, sideItem, beverage, dessert, specialInstructions, mealSize);
     }
 
-    private void buildComponentsList() {
-        if (mainItem != null) components.add(mainItem.getName());
-        if (sideItem != null) components.add(sideItem.getName());
-        if (beverage != null) components.add(beverage.getName());
-        if (dessert != null) components.add(dessert.getName());
+    private List<String> buildComponentsList() {
+        List<String> names = new ArrayList<>(4);
+        if (mainItem != null) names.add(mainItem.getName());
+        if (sideItem != null) names.add(sideItem.getName());
+        if (beverage != null) names.add(beverage.getName());
+        if (dessert != null) names.add(dessert.getName());
+        return Collections.unmodifiableList(names);
     }
 
-    public double getTotalPrice() {
-        double total = 0.0;
-        if (mainItem != null) total += mainItem.getPrice();
-        if (sideItem != null) total += sideItem.getPrice();
-        if (beverage != null) total += beverage.getPrice();
-        if (dessert != null) total += dessert.getPrice();
+    private long computeTotalPriceCents() {
+        long total = 0;
+        if (mainItem != null) total += mainItem.getPriceCents();
+        if (sideItem != null) total += sideItem.getPriceCents();
+        if (beverage != null) total += beverage.getPriceCents();
+        if (dessert != null) total += dessert.getPriceCents();
 
         // Apply size multiplier
         if (mealSize != null) {
-            switch (mealSize) {
-                case LARGE:
-                    total *= 1.3;
-                    break;
-                case FAMILY_SIZE:
-                    total *= 2.0;
-                    break;
-                default:
-                    break;
-            }
+            total = mealSize.applyTo(total);
         }
         return total;
     }
 
+    /**
+     * hashCode() of a meal with these fields, so a cache can be probed without
+     * building a meal first
+     */
+    public static int hashOf(MenuItem mainItem, MenuItem sideItem, MenuItem beverage,
+                             MenuItem dessert, String specialInstructions, MealSize mealSize) {
+        int h = idOf(mainItem);
+        h = 31 * h + idOf(sideItem);
+        h = 31 * h + idOf(beverage);
+        h = 31 * h + idOf(dessert);
+        h = 31 * h + (specialInstructions == null ? 0 : specialInstructions.hashCode());
+        return 31 * h + (mealSize == null ? -1 : mealSize.ordinal());
+    }
+
+    private static int idOf(MenuItem item) {
+        return item == null ? -1 : item.getId();
+    }
+
+    /**
+     * True if this meal has exactly these fields (same menu item instances)
+     */
+    public boolean matches(MenuItem mainItem, MenuItem sideItem, MenuItem beverage,
+                           MenuItem dessert, String specialInstructions, MealSize mealSize) {
+        return this.mainItem == mainItem && this.sideItem == sideItem && this.beverage == beverage
+            && this.dessert == dessert && this.mealSize == mealSize
+            && Objects.equals(this.specialInstructions, specialInstructions);
+    }
+
+    public long getTotalPriceCents() {
+        return totalPriceCents;
+    }
+
+    public double getTotalPrice() {
+        return Money.toDollars(totalPriceCents);
+    }
+
     @Override
-    public String toString() {
-        StringBuilder sb = new StringBuilder();
-        sb.append("=== MEAL ===\n");
-        if (mealSize != null) {
-            sb.append("Size: ").append(mealSize).append("\n");
-        }
-        if (mainItem != null) {
-            sb.append("Main: ").append(mainItem.getName()).append(" ($").append(String.format("%.2f", mainItem.getPrice())).append(")\n");
-        }
-        if (sideItem != null) {
-            sb.append("Side: ").append(sideItem.getName()).append(" ($").append(String.format("%.2f", sideItem.getPrice())).append(")\n");
-        }
-        if (beverage != null) {
-            sb.append("Beverage: ").append(beverage.getName()).append(" ($").append(String.format("%.2f", beverage.getPrice())).append(")\n");
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
         }
-        if (dessert != null) {
-            sb.append("Dessert: ").append(dessert.getName()).append(" ($").append(String.format("%.2f", dessert.getPrice())).append(")\n");
+        if (!(o instanceof Meal)) {
+            return false;
         }
-        if (specialInstructions != null && !specialInstructions.isEmpty()) {
-            sb.append("Special Instructions: ").append(specialInstructions).append("\n");
-        }
-        sb.append("Total Price: $").append(String.format("%.2f", getTotalPrice()));
-        return sb.toString();
+        Meal other = (Meal) o;
+        return hash == other.hash
+            && matches(other.mainItem, other.sideItem, other.beverage, other.dessert,
+                other.specialInstructions, other.mealSize);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return ReceiptRenderer.toText(this);
     }
 
     public MenuItem getMainItem() {
@@ -105,8 +147,10 @@ public class Meal {
         return mealSize;
     }
 
+    /**
+     * Names of the items in the meal (unmodifiable)
+     */
     public List<String> getComponents() {
-        return new ArrayList<>(components);
+        return components;
     }
 }
-
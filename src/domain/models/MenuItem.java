@@ -1,20 +1,34 @@
 package domain.models;
 
 import domain.enums.MenuItemCategory;
+import domain.pricing.Money;
 
 public abstract class MenuItem {
-    protected String name;
-    protected String description;
-    protected double price;
-    protected MenuItemCategory category;
+    protected final int id;
+    protected final String name;
+    protected final String description;
+    protected final long priceCents;
+    protected final MenuItemCategory category;
 
     public MenuItem(String name, String description, double price, MenuItemCategory category) {
+        this(-1, name, description, Money.ofDollars(price), category);
+    }
+
+    public MenuItem(int id, String name, String description, long priceCents, MenuItemCategory category) {
+        this.id = id;
         this.name = name;
         this.description = description;
-        this.price = price;
+        this.priceCents = priceCents;
         this.category = category;
     }
 
+    /**
+     * Stable catalog ID of this item, or -1 if it was not issued by the menu catalog
+     */
+    public int getId() {
+        return id;
+    }
+
     public String getName() {
         return name;
     }
@@ -24,7 +38,11 @@ public abstract class MenuItem {
     }
 
     public double getPrice() {
-        return price;
+        return Money.toDollars(priceCents);
+    }
+
+    public long getPriceCents() {
+        return priceCents;
     }
 
     public MenuItemCategory getCategory() {
@@ -35,7 +53,9 @@ public abstract class MenuItem {
 
     @Override
     public String toString() {
-        return String.format("%s - %s ($%.2f)", name, description, price);
+        StringBuilder sb = new StringBuilder();
+        sb.append(name).append(" - ").append(description).append(" ($");
+        return Money.appendTo(sb, priceCents).append(')').toString();
     }
 }
 
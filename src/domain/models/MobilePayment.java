@@ -1,6 +1,10 @@
 package domain.models;
 
 import domain.enums.PaymentType;
+import logging.Event;
+import logging.Log;
+import metrics.Metrics;
+import metrics.Operation;
 
 public class MobilePayment implements Payment {
     private String phoneNumber;
@@ -12,12 +16,10 @@ public class MobilePayment implements Payment {
     }
 
     @Override
-    public void processPayment(double amount) {
-        System.out.println("Processing mobile payment via " + provider + "...");
-        System.out.println("Phone: " + phoneNumber);
-        System.out.println("Amount: $" + String.format("%.2f", amount));
-        System.out.println("Sending payment request to mobile device...");
-        System.out.println("Payment confirmed!");
+    public void processPayment(long amountCents) {
+        long start = Metrics.start(Operation.MOBILE_PAYMENT);
+        Log.log(Event.MOBILE_PAYMENT, provider, phoneNumber, amountCents);
+        Metrics.stop(Operation.MOBILE_PAYMENT, start);
     }
 
     @Override
@@ -29,5 +31,12 @@ public class MobilePayment implements Payment {
     public String getPaymentDetails() {
         return "Mobile Payment - " + provider + " (" + phoneNumber + ")";
     }
-}
 
+    public String getPhoneNumber() {
+        return phoneNumber;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+}
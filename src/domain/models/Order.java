@@ -1,153 +1,430 @@
 package domain.models;
 
 import domain.enums.OrderType;
+import domain.ids.OrderIds;
+import domain.pricing.Money;
+import domain.pricing.PriceBreakdown;
+import journal.OrderJournal;
+import metrics.Metrics;
+import metrics.Operation;
+import patterns.flyweight.MenuCatalog;
+import patterns.singleton.ConfigSnapshot;
+import payment.AsyncPaymentProcessor;
+import payment.PaymentResult;
 import patterns.singleton.RestaurantConfig;
-import java.util.ArrayList;
+import receipt.ReceiptRenderer;
+import java.util.AbstractList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
+/**
+ * A customer order. Orders are kept for the whole day (repository, reporting), so the
+ * layout is compact:
+ *
+ *   items   catalog item IDs, one int per run of the same item: id << 8 | quantity.
+ *           The catalog version the items came from is referenced once per order,
+ *           which pins names and prices at order time. Items that are not shared
+ *           instances of the current catalog are kept as plain references instead.
+ *   meals   references; meals are interned (MealCache), so identical combos share
+ *           one instance and a reference is smaller than any packed descriptor
+ *   phone   packed into a long when it only uses 0-9 + - space ( ) (see PackedText)
+ *   table   packed into a long when it only uses letters, digits and -
+ *
+ * The accessors are unchanged; getItem() returns the shared catalog instance and the
+ * phone and table getters rebuild an equal string.
+ */
 public class Order {
+    private static final Meal[] NO_MEALS = new Meal[0];
+    private static final MenuItem[] NO_ITEMS = new MenuItem[0];
+    private static final int[] NO_LINES = new int[0];
+    private static final int MAX_RUN = 0xFF;
+    private static final int MAX_COMPACT_ID = (1 << 23) - 1;
+    private static final AtomicReferenceFieldUpdater<Order, PriceBreakdown> PRICE_BREAKDOWN =
+        AtomicReferenceFieldUpdater.newUpdater(Order.class, PriceBreakdown.class, "priceBreakdown");
+
     private String customerName;
-    private String phoneNumber;
-    private String tableNumber;
-    private List<MenuItem> items;
-    private List<Meal> meals;
+    private final long phoneCode;
+    private final String phoneText;   // set when the phone number cannot be packed
+    private final long tableCode;
+    private final String tableText;   // set when the table number cannot be packed
+    // Item lines: either lines + catalog (compact) or items (plain references)
+    private final int[] lines;
+    private final MenuCatalog catalog;
+    private final MenuItem[] items;
+    private final int itemCount;
+    // The first mealCount slots are used (see the adopting constructor)
+    private final Meal[] meals;
+    private final int mealCount;
     private OrderType orderType;
     private String deliveryAddress;
     private Payment paymentMethod;
-    private int orderNumber;
-    private static int orderCounter = 1000;
+    private final long orderNumber;
+    private final long placedAtMillis;
+    // Lines never change after construction, so the subtotal is computed once
+    private final long subtotalCents;
+    private volatile PriceBreakdown priceBreakdown;
+    // Configuration in effect when the order was placed
+    private final ConfigSnapshot config;
 
     public Order(String customerName, String phoneNumber, String tableNumber,
                  List<MenuItem> items, List<Meal> meals, OrderType orderType,
                  String deliveryAddress, Payment paymentMethod) {
+        this(OrderIds.next(), customerName, phoneNumber, tableNumber, items, meals,
+             orderType, deliveryAddress, paymentMethod);
+    }
+
+    public Order(long orderNumber, String customerName, String phoneNumber, String tableNumber,
+                 List<MenuItem> items, List<Meal> meals, OrderType orderType,
+                 String deliveryAddress, Payment paymentMethod) {
+        this(orderNumber, System.currentTimeMillis(), RestaurantConfig.getInstance().snapshot(),
+             customerName, phoneNumber, tableNumber, items, meals, orderType, deliveryAddress, paymentMethod);
+    }
+
+    /**
+     * Restores an order placed earlier (e.g. replayed from the order journal), with its
+     * original placement time and the configuration it was priced with
+     */
+    public Order(long orderNumber, long placedAtMillis, ConfigSnapshot config,
+                 String customerName, String phoneNumber, String tableNumber,
+                 List<MenuItem> items, List<Meal> meals, OrderType orderType,
+                 String deliveryAddress, Payment paymentMethod) {
+        this(orderNumber, placedAtMillis, config, customerName, phoneNumber, tableNumber,
+             items != null ? items.toArray(NO_ITEMS) : NO_ITEMS, items != null ? items.size() : 0,
+             meals != null ? meals.toArray(NO_MEALS) : NO_MEALS, meals != null ? meals.size() : 0,
+             orderType, deliveryAddress, paymentMethod);
+    }
+
+    /**
+     * Creates an order that adopts the given line arrays instead of copying them; only
+     * the first itemCount items and mealCount meals are used. The caller hands the
+     * arrays over and must never write to them again (OrderBuilder relies on this).
+     * An order with compact item lines does not keep the items array (see
+     * hasCompactLines()), so the caller may reuse it.
+     */
+    public Order(long orderNumber, long placedAtMillis, ConfigSnapshot config,
+                 String customerName, String phoneNumber, String tableNumber,
+                 MenuItem[] items, int itemCount, Meal[] meals, int mealCount, OrderType orderType,
+                 String deliveryAddress, Payment paymentMethod) {
+        if (itemCount < 0 || itemCount > items.length || mealCount < 0 || mealCount > meals.length) {
+            throw new IllegalArgumentException("Line counts out of range: " + itemCount + " items, "
+                + mealCount + " meals");
+        }
+        this.orderNumber = orderNumber;
+        this.placedAtMillis = placedAtMillis;
         this.customerName = customerName;
-        this.phoneNumber = phoneNumber;
-        this.tableNumber = tableNumber;
-        this.items = items != null ? new ArrayList<>(items) : new ArrayList<>();
-        this.meals = meals != null ? new ArrayList<>(meals) : new ArrayList<>();
+        this.phoneCode = PackedText.packPhone(phoneNumber);
+        this.phoneText = phoneCode == PackedText.UNPACKABLE ? phoneNumber : null;
+        this.tableCode = PackedText.packLabel(tableNumber);
+        this.tableText = tableCode == PackedText.UNPACKABLE ? tableNumber : null;
+        MenuCatalog current = itemCount > 0 ? MenuCatalog.getLoaded() : null;
+        this.lines = itemCount == 0 ? NO_LINES : compact(items, itemCount, current);
+        this.catalog = lines != null ? current : null;
+        this.items = lines != null ? null : items;
+        this.itemCount = itemCount;
+        this.meals = mealCount == 0 ? NO_MEALS : meals;
+        this.mealCount = mealCount;
         this.orderType = orderType;
         this.deliveryAddress = deliveryAddress;
         this.paymentMethod = paymentMethod;
-        this.orderNumber = ++orderCounter;
+        this.subtotalCents = sumLines(items);
+        this.config = config;
     }
 
-    public double calculateSubtotal() {
-        double subtotal = 0.0;
-        for (MenuItem item : items) {
-            subtotal += item.getPrice();
+    // Run-length encodes the items as catalog IDs, or returns null if any item is not
+    // the shared instance of that catalog
+    private static int[] compact(MenuItem[] items, int count, MenuCatalog catalog) {
+        if (catalog == null) {
+            return null;
+        }
+        int runs = 0;
+        int run = 0;
+        for (int i = 0; i < count; i++) {
+            MenuItem item = items[i];
+            int id = item.getId();
+            if (id > MAX_COMPACT_ID || !catalog.isShared(item)) {
+                return null;
+            }
+            if (i > 0 && item == items[i - 1] && run < MAX_RUN) {
+                run++;
+            } else {
+                runs++;
+                run = 1;
+            }
+        }
+        int[] lines = new int[runs];
+        int line = -1;
+        for (int i = 0; i < count; i++) {
+            if (line >= 0 && items[i] == items[i - 1] && (lines[line] & MAX_RUN) < MAX_RUN) {
+                lines[line]++;
+            } else {
+                lines[++line] = items[i].getId() << 8 | 1;
+            }
+        }
+        return lines;
+    }
+
+    private long sumLines(MenuItem[] items) {
+        long subtotal = 0;
+        for (int i = 0; i < itemCount; i++) {
+            subtotal += items[i].getPriceCents();
         }
-        for (Meal meal : meals) {
-            subtotal += meal.getTotalPrice();
+        for (int i = 0; i < mealCount; i++) {
+            subtotal += meals[i].getTotalPriceCents();
         }
         return subtotal;
     }
 
+    public long calculateSubtotalCents() {
+        return subtotalCents;
+    }
+
+    public long calculateTaxCents() {
+        return getPriceBreakdown().getTaxCents();
+    }
+
+    public long calculateServiceFeeCents() {
+        return getPriceBreakdown().getServiceFeeCents();
+    }
+
+    public long calculateTotalCents() {
+        return getPriceBreakdown().getTotalCents();
+    }
+
+    /**
+     * Returns the order's totals, priced with the configuration snapshot the order
+     * was created with. Computed once and reused until a discount is applied.
+     */
+    public PriceBreakdown getPriceBreakdown() {
+        PriceBreakdown breakdown = priceBreakdown;
+        if (breakdown == null) {
+            // Only pricing is timed; later calls read the cached breakdown
+            long start = Metrics.start(Operation.ORDER_PRICING);
+            breakdown = price(0);
+            // Only fills an empty slot, so a concurrent applyDiscount() is never undone
+            if (!PRICE_BREAKDOWN.compareAndSet(this, null, breakdown)) {
+                breakdown = priceBreakdown;
+            }
+            Metrics.stop(Operation.ORDER_PRICING, start);
+        }
+        return breakdown;
+    }
+
+    /**
+     * Takes a discount (e.g. PromotionEngine.apply()) off the subtotal before tax and
+     * fees; replaces any earlier discount. Returns the new breakdown.
+     */
+    public PriceBreakdown applyDiscount(long discountCents) {
+        PriceBreakdown breakdown = price(discountCents);
+        priceBreakdown = breakdown;
+        return breakdown;
+    }
+
+    private PriceBreakdown price(long discountCents) {
+        return new PriceBreakdown(subtotalCents, discountCents, config.getTaxRateBasisPoints(),
+            config.getServiceFeeBasisPoints(), orderType == OrderType.DELIVERY, config.getVersion());
+    }
+
+    public long calculateDiscountCents() {
+        return getPriceBreakdown().getDiscountCents();
+    }
+
+    public double calculateSubtotal() {
+        return Money.toDollars(calculateSubtotalCents());
+    }
+
     public double calculateTax() {
-        RestaurantConfig config = RestaurantConfig.getInstance();
-        return calculateSubtotal() * (config.getTaxRate() / 100);
+        return Money.toDollars(calculateTaxCents());
     }
 
     public double calculateServiceFee() {
-        if (orderType == OrderType.DELIVERY) {
-            RestaurantConfig config = RestaurantConfig.getInstance();
-            return calculateSubtotal() * (config.getServiceFeePercentage() / 100);
-        }
-        return 0.0;
+        return Money.toDollars(calculateServiceFeeCents());
     }
 
     public double calculateTotal() {
-        return calculateSubtotal() + calculateTax() + calculateServiceFee();
+        return Money.toDollars(calculateTotalCents());
     }
 
     public void processPayment() {
         if (paymentMethod != null) {
-            paymentMethod.processPayment(calculateTotal());
+            paymentMethod.processPayment(calculateTotalCents());
+        }
+    }
+
+    /**
+     * Charges the total and journals the outcome: APPROVED, or DECLINED when the
+     * payment left an amount due (see Payment.getAmountDueCents())
+     */
+    public PaymentResult processPayment(OrderJournal journal) {
+        if (paymentMethod == null) {
+            throw new IllegalArgumentException("Order #" + orderNumber + " has no payment method");
         }
+        long start = System.nanoTime();
+        long total = calculateTotalCents();
+        paymentMethod.processPayment(total);
+        long due = paymentMethod.getAmountDueCents();
+        PaymentResult result = new PaymentResult(due == 0 ? PaymentResult.Status.APPROVED
+            : PaymentResult.Status.DECLINED, paymentMethod.getPaymentType(), total, 1,
+            System.nanoTime() - start, due == 0 ? "Approved" : "$" + Money.format(due) + " not covered by "
+            + paymentMethod.getPaymentType());
+        journal.appendPayment(orderNumber, result);
+        return result;
+    }
+
+    /**
+     * Submits the payment without blocking; see AsyncPaymentProcessor
+     */
+    public CompletableFuture<PaymentResult> processPaymentAsync(AsyncPaymentProcessor processor) {
+        return processor.submit(this);
     }
 
     @Override
     public String toString() {
-        StringBuilder sb = new StringBuilder();
-        RestaurantConfig config = RestaurantConfig.getInstance();
-
-        sb.append("\n╔════════════════════════════════════════╗\n");
-        sb.append("║          ORDER RECEIPT                ║\n");
-        sb.append("╚════════════════════════════════════════╝\n");
-        sb.append("Restaurant: ").append(config.getRestaurantName()).append("\n");
-        sb.append("Address: ").append(config.getAddress()).append("\n");
-        sb.append("Phone: ").append(config.getPhoneNumber()).append("\n");
-        sb.append("----------------------------------------\n");
-        sb.append("Order #").append(orderNumber).append("\n");
-        sb.append("Customer: ").append(customerName).append("\n");
-        sb.append("Phone: ").append(phoneNumber).append("\n");
-        if (tableNumber != null && !tableNumber.isEmpty()) {
-            sb.append("Table: ").append(tableNumber).append("\n");
-        }
-        sb.append("Order Type: ").append(orderType).append("\n");
-        if (deliveryAddress != null && !deliveryAddress.isEmpty()) {
-            sb.append("Delivery Address: ").append(deliveryAddress).append("\n");
-        }
-        sb.append("----------------------------------------\n");
-
-        if (!items.isEmpty()) {
-            sb.append("Individual Items:\n");
-            for (MenuItem item : items) {
-                sb.append("  - ").append(item.getName())
-                  .append(" ($").append(String.format("%.2f", item.getPrice())).append(")\n");
+        long start = Metrics.start(Operation.ORDER_RENDER);
+        String text = ReceiptRenderer.toText(this);
+        Metrics.stop(Operation.ORDER_RENDER, start);
+        return text;
+    }
+
+    // Getters
+    public String getCustomerName() { return customerName; }
+    public String getPhoneNumber() {
+        return phoneCode != PackedText.UNPACKABLE ? PackedText.unpackPhone(phoneCode) : phoneText;
+    }
+    public String getTableNumber() {
+        return tableCode != PackedText.UNPACKABLE ? PackedText.unpackLabel(tableCode) : tableText;
+    }
+    /** Read-only view of the items (no copy) */
+    public List<MenuItem> getItems() {
+        return lines != null ? new ItemLines(this) : new Lines<>(items, itemCount);
+    }
+    /** Read-only view of the meals (no copy) */
+    public List<Meal> getMeals() { return new Lines<>(meals, mealCount); }
+    // Indexed access without creating a view
+    public int getItemCount() { return itemCount; }
+    /**
+     * The index-th unit; walks the item lines when units were merged, so loops over
+     * all items should use getLineCount(), getLineItem() and getLineQuantity()
+     */
+    public MenuItem getItem(int index) {
+        checkIndex(index, itemCount);
+        if (lines == null) {
+            return items[index];
+        }
+        if (lines.length == itemCount) {
+            return catalog.get(lines[index] >>> 8);
+        }
+        for (int line : lines) {
+            int quantity = line & MAX_RUN;
+            if (index < quantity) {
+                return catalog.get(line >>> 8);
             }
+            index -= quantity;
         }
+        throw new IllegalStateException("Item lines do not add up to " + itemCount);
+    }
+    /** Number of item lines; consecutive units of the same item form one line */
+    public int getLineCount() { return lines != null ? lines.length : itemCount; }
+    public MenuItem getLineItem(int line) {
+        if (lines == null) {
+            return items[checkIndex(line, itemCount)];
+        }
+        return catalog.get(lines[checkIndex(line, lines.length)] >>> 8);
+    }
+    public int getLineQuantity(int line) {
+        if (lines == null) {
+            checkIndex(line, itemCount);
+            return 1;
+        }
+        return lines[checkIndex(line, lines.length)] & MAX_RUN;
+    }
+    /** True if the items are stored as catalog IDs (the items array passed in is not kept) */
+    public boolean hasCompactLines() { return lines != null; }
+    public int getMealCount() { return mealCount; }
+    public Meal getMeal(int index) { return meals[checkIndex(index, mealCount)]; }
+    public OrderType getOrderType() { return orderType; }
+    public String getDeliveryAddress() { return deliveryAddress; }
+    public Payment getPaymentMethod() { return paymentMethod; }
+    public long getOrderNumber() { return orderNumber; }
+    /** When the order was placed, epoch millis */
+    public long getPlacedAtMillis() { return placedAtMillis; }
+    public ConfigSnapshot getConfigSnapshot() { return config; }
 
-        if (!meals.isEmpty()) {
-            sb.append("\nCombo Meals:\n");
-            for (int i = 0; i < meals.size(); i++) {
-                sb.append("  Meal #").append(i + 1).append(":\n");
-                Meal meal = meals.get(i);
-                if (meal.getMainItem() != null) {
-                    sb.append("    Main: ").append(meal.getMainItem().getName()).append("\n");
-                }
-                if (meal.getSideItem() != null) {
-                    sb.append("    Side: ").append(meal.getSideItem().getName()).append("\n");
-                }
-                if (meal.getBeverage() != null) {
-                    sb.append("    Beverage: ").append(meal.getBeverage().getName()).append("\n");
-                }
-                if (meal.getDessert() != null) {
-                    sb.append("    Dessert: ").append(meal.getDessert().getName()).append("\n");
+    private static int checkIndex(int index, int count) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + count);
+        }
+        return index;
+    }
+
+    // Unmodifiable list over compact item lines, walking the runs when iterated. Not
+    // RandomAccess: get(i) walks the lines.
+    private static final class ItemLines extends AbstractList<MenuItem> {
+        private final Order order;
+
+        ItemLines(Order order) {
+            this.order = order;
+        }
+
+        @Override
+        public MenuItem get(int index) {
+            return order.getItem(index);
+        }
+
+        @Override
+        public int size() {
+            return order.itemCount;
+        }
+
+        @Override
+        public Iterator<MenuItem> iterator() {
+            return new Iterator<MenuItem>() {
+                private int line;
+                private int used;
+
+                @Override
+                public boolean hasNext() {
+                    return line < order.lines.length;
                 }
-                if (meal.getMealSize() != null) {
-                    sb.append("    Size: ").append(meal.getMealSize()).append("\n");
+
+                @Override
+                public MenuItem next() {
+                    if (line >= order.lines.length) {
+                        throw new NoSuchElementException();
+                    }
+                    MenuItem item = order.catalog.get(order.lines[line] >>> 8);
+                    if (++used == (order.lines[line] & MAX_RUN)) {
+                        line++;
+                        used = 0;
+                    }
+                    return item;
                 }
-                sb.append("    Meal Total: $").append(String.format("%.2f", meal.getTotalPrice())).append("\n");
-            }
+            };
         }
+    }
+
+    // Unmodifiable list over the first size slots of a line array
+    private static final class Lines<T> extends AbstractList<T> implements RandomAccess {
+        private final T[] lines;
+        private final int size;
 
-        sb.append("----------------------------------------\n");
-        sb.append("Subtotal: $").append(String.format("%.2f", calculateSubtotal())).append("\n");
-        sb.append("Tax (").append(config.getTaxRate()).append("%): $")
-          .append(String.format("%.2f", calculateTax())).append("\n");
-        if (calculateServiceFee() > 0) {
-            sb.append("Delivery Fee (").append(config.getServiceFeePercentage())
-              .append("%): $").append(String.format("%.2f", calculateServiceFee())).append("\n");
+        Lines(T[] lines, int size) {
+            this.lines = lines;
+            this.size = size;
         }
-        sb.append("========================================\n");
-        sb.append("TOTAL: $").append(String.format("%.2f", calculateTotal())).append("\n");
-        sb.append("========================================\n");
-        if (paymentMethod != null) {
-            sb.append("Payment Method: ").append(paymentMethod.getPaymentType()).append("\n");
+
+        @Override
+        public T get(int index) {
+            return lines[checkIndex(index, size)];
         }
 
-        return sb.toString();
+        @Override
+        public int size() {
+            return size;
+        }
     }
-
-    // Getters
-    public String getCustomerName() { return customerName; }
-    public String getPhoneNumber() { return phoneNumber; }
-    public String getTableNumber() { return tableNumber; }
-    public List<MenuItem> getItems() { return new ArrayList<>(items); }
-    public List<Meal> getMeals() { return new ArrayList<>(meals); }
-    public OrderType getOrderType() { return orderType; }
-    public String getDeliveryAddress() { return deliveryAddress; }
-    public Payment getPaymentMethod() { return paymentMethod; }
-    public int getOrderNumber() { return orderNumber; }
 }
 
@@ -0,0 +1,80 @@
+package domain.models;
+
+/**
+ * Packs short, restricted-alphabet strings (phone and table numbers) into a long,
+ * so retained orders do not carry a String object for them.
+ *
+ *   phone  4 bits per char, up to 16 chars of  0-9 + - space ( )
+ *   label  6 bits per char, up to 10 chars of  0-9 A-Z a-z -
+ *
+ * Characters are stored from the high bits down, 0 marks the end. A string that
+ * is null, empty, too long or uses other characters cannot be packed (UNPACKABLE)
+ * and is kept as a String by the caller. Unpacking rebuilds an equal string.
+ */
+final class PackedText {
+    static final long UNPACKABLE = 0;
+
+    private static final String PHONE_CHARS = "0123456789+- ()";
+    private static final String LABEL_CHARS = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz-";
+    // ASCII char -> symbol (index + 1), 0 for characters outside the alphabet
+    private static final byte[] PHONE_SYMBOLS = symbols(PHONE_CHARS);
+    private static final byte[] LABEL_SYMBOLS = symbols(LABEL_CHARS);
+
+    private PackedText() {
+    }
+
+    static long packPhone(String s) {
+        return pack(s, PHONE_SYMBOLS, 4);
+    }
+
+    static String unpackPhone(long packed) {
+        return unpack(packed, PHONE_CHARS, 4);
+    }
+
+    static long packLabel(String s) {
+        return pack(s, LABEL_SYMBOLS, 6);
+    }
+
+    static String unpackLabel(long packed) {
+        return unpack(packed, LABEL_CHARS, 6);
+    }
+
+    private static byte[] symbols(String alphabet) {
+        byte[] symbols = new byte[128];
+        for (int i = 0; i < alphabet.length(); i++) {
+            symbols[alphabet.charAt(i)] = (byte) (i + 1);
+        }
+        return symbols;
+    }
+
+    private static long pack(String s, byte[] symbols, int bits) {
+        if (s == null || s.isEmpty() || s.length() > 64 / bits) {
+            return UNPACKABLE;
+        }
+        long packed = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            int symbol = c < 128 ? symbols[c] : 0;
+            if (symbol == 0) {
+                return UNPACKABLE;
+            }
+            packed |= (long) symbol << (64 - bits * (i + 1));
+        }
+        return packed;
+    }
+
+    private static String unpack(long packed, String alphabet, int bits) {
+        int max = 64 / bits;
+        char[] chars = new char[max];
+        int length = 0;
+        long mask = (1L << bits) - 1;
+        while (length < max) {
+            int symbol = (int) (packed >>> (64 - bits * (length + 1)) & mask);
+            if (symbol == 0) {
+                break;
+            }
+            chars[length++] = alphabet.charAt(symbol - 1);
+        }
+        return new String(chars, 0, length);
+    }
+}
@@ -3,8 +3,16 @@ package domain.models;
 import domain.enums.PaymentType;
 
 public interface Payment {
-    void processPayment(double amount);
+    /**
+     * Charges the given amount, in cents (see domain.pricing.Money)
+     */
+    void processPayment(long amountCents);
+    /**
+     * Part of the last charge that was not paid, 0 if it was paid in full
+     */
+    default long getAmountDueCents() {
+        return 0;
+    }
     PaymentType getPaymentType();
     String getPaymentDetails();
 }
-
@@ -1,6 +1,8 @@
 package domain.models;
 
 import domain.enums.MenuItemCategory;
+import logging.Event;
+import logging.Log;
 
 public class Pizza extends MenuItem {
 
@@ -8,12 +10,13 @@ public class Pizza extends MenuItem {
         super(name, description, price, MenuItemCategory.MAIN_COURSE);
     }
 
+    public Pizza(int id, String name, String description, long priceCents) {
+        super(id, name, description, priceCents, MenuItemCategory.MAIN_COURSE);
+    }
+
     @Override
     public void prepare() {
-        System.out.println("Preparing pizza: " + name);
-        System.out.println("  - Rolling out dough...");
-        System.out.println("  - Adding toppings...");
-        System.out.println("  - Baking in wood-fired oven...");
+        Log.log(Event.PIZZA_PREPARING, name);
     }
 }
 
@@ -0,0 +1,163 @@
+package domain.pricing;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money arithmetic on primitive long cents.
+ *
+ * All prices, totals and payment amounts are whole cents held in a long, so sums
+ * are exact no matter how many orders are added up. Rates are expressed in basis
+ * points (1/100 of a percent, so 8.5% tax = 850 and a 1.3x multiplier = 13000) and
+ * every operation that can produce a fraction of a cent takes an explicit RoundingMode.
+ * Nothing on this path allocates.
+ */
+public final class Money {
+    /** Basis points in 100% (and in a 1.0x multiplier) */
+    public static final int ONE = 10_000;
+
+    /** Rounding applied to sales tax */
+    public static final RoundingMode TAX_ROUNDING = RoundingMode.HALF_UP;
+    /** Rounding applied to percentage service fees */
+    public static final RoundingMode FEE_ROUNDING = RoundingMode.HALF_UP;
+    /** Rounding applied to meal size multipliers */
+    public static final RoundingMode SIZE_ROUNDING = RoundingMode.HALF_EVEN;
+    /** Rounding applied to percentage discounts */
+    public static final RoundingMode DISCOUNT_ROUNDING = RoundingMode.HALF_DOWN;
+
+    private Money() {
+    }
+
+    /**
+     * Converts a dollar amount to cents, rounding half-up to the nearest cent
+     */
+    public static long ofDollars(double dollars) {
+        if (Double.isNaN(dollars) || Double.isInfinite(dollars)) {
+            throw new IllegalArgumentException("Invalid amount: " + dollars);
+        }
+        return Math.round(dollars * 100);
+    }
+
+    public static double toDollars(long cents) {
+        return cents / 100.0;
+    }
+
+    /**
+     * Converts a rate in percent (8.5) to basis points (850)
+     */
+    public static int percentToBasisPoints(double percent) {
+        return Math.toIntExact(Math.round(percent * 100));
+    }
+
+    /**
+     * Returns the given percentage of an amount, e.g. percentOf(1000, 850, HALF_UP) = 85
+     */
+    public static long percentOf(long cents, int basisPoints, RoundingMode rounding) {
+        return scale(cents, basisPoints, ONE, rounding);
+    }
+
+    /**
+     * Multiplies an amount by a factor in basis points, e.g. multiply(1000, 13000, ...) = 1300
+     */
+    public static long multiply(long cents, int factorBasisPoints, RoundingMode rounding) {
+        return scale(cents, factorBasisPoints, ONE, rounding);
+    }
+
+    /**
+     * Computes cents * numerator / denominator with the given rounding
+     */
+    public static long scale(long cents, long numerator, long denominator, RoundingMode rounding) {
+        if (denominator <= 0) {
+            throw new IllegalArgumentException("Denominator must be positive: " + denominator);
+        }
+        return divide(Math.multiplyExact(cents, numerator), denominator, rounding);
+    }
+
+    /**
+     * Integer division with BigDecimal-compatible rounding semantics (positive divisor)
+     */
+    static long divide(long dividend, long divisor, RoundingMode rounding) {
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) {
+            return quotient;
+        }
+        int sign = dividend < 0 ? -1 : 1;
+        long twiceRemainder = Math.abs(remainder) * 2;
+        boolean roundAway;
+        switch (rounding) {
+            case UP:
+                roundAway = true;
+                break;
+            case DOWN:
+                roundAway = false;
+                break;
+            case CEILING:
+                roundAway = sign > 0;
+                break;
+            case FLOOR:
+                roundAway = sign < 0;
+                break;
+            case HALF_UP:
+                roundAway = twiceRemainder >= divisor;
+                break;
+            case HALF_DOWN:
+                roundAway = twiceRemainder > divisor;
+                break;
+            case HALF_EVEN:
+                roundAway = twiceRemainder > divisor || (twiceRemainder == divisor && (quotient & 1) != 0);
+                break;
+            case UNNECESSARY:
+            default:
+                throw new ArithmeticException("Rounding necessary for " + dividend + "/" + divisor);
+        }
+        return roundAway ? quotient + sign : quotient;
+    }
+
+    /**
+     * Appends an amount as a plain decimal ("1234.50", "-0.05") without creating
+     * intermediate strings
+     */
+    public static StringBuilder appendTo(StringBuilder sb, long cents) {
+        try {
+            appendTo((Appendable) sb, cents);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringBuilder never throws
+        }
+        return sb;
+    }
+
+    /**
+     * Appends an amount as a plain decimal to any character sink
+     */
+    public static void appendTo(Appendable out, long cents) throws IOException {
+        if (cents < 0) {
+            out.append('-');
+            if (cents == Long.MIN_VALUE) {
+                throw new ArithmeticException("Amount out of range");
+            }
+            cents = -cents;
+        }
+        long dollars = cents / 100;
+        int fraction = (int) (cents % 100);
+        appendDigits(out, dollars);
+        out.append('.');
+        out.append((char) ('0' + fraction / 10));
+        out.append((char) ('0' + fraction % 10));
+    }
+
+    private static void appendDigits(Appendable out, long value) throws IOException {
+        if (value >= 10) {
+            appendDigits(out, value / 10);
+        }
+        out.append((char) ('0' + (int) (value % 10)));
+    }
+
+    /**
+     * Formats an amount as a plain decimal ("12.99")
+     */
+    public static String format(long cents) {
+        return appendTo(new StringBuilder(24), cents).toString();
+    }
+}
@@ -0,0 +1,73 @@
+package domain.pricing;
+
+/**
+ * Immutable price summary of an order, in cents.
+ *
+ * Captures the rates that were used together with the configuration version they
+ * came from, so a cached breakdown can be checked for staleness cheaply. A discount
+ * (promotions) comes off the subtotal before tax and the service fee are taken.
+ */
+public final class PriceBreakdown {
+    private final long subtotalCents;
+    private final long discountCents;
+    private final long taxCents;
+    private final long serviceFeeCents;
+    private final int taxRateBasisPoints;
+    private final int serviceFeeBasisPoints;
+    private final long configVersion;
+
+    public PriceBreakdown(long subtotalCents, int taxRateBasisPoints, int serviceFeeBasisPoints,
+                          boolean chargeServiceFee, long configVersion) {
+        this(subtotalCents, 0, taxRateBasisPoints, serviceFeeBasisPoints, chargeServiceFee, configVersion);
+    }
+
+    public PriceBreakdown(long subtotalCents, long discountCents, int taxRateBasisPoints, int serviceFeeBasisPoints,
+                          boolean chargeServiceFee, long configVersion) {
+        if (discountCents < 0 || discountCents > subtotalCents) {
+            throw new IllegalArgumentException("Discount must be between 0 and the subtotal: " + discountCents);
+        }
+        long taxable = subtotalCents - discountCents;
+        this.subtotalCents = subtotalCents;
+        this.discountCents = discountCents;
+        this.taxRateBasisPoints = taxRateBasisPoints;
+        this.serviceFeeBasisPoints = serviceFeeBasisPoints;
+        this.taxCents = Money.percentOf(taxable, taxRateBasisPoints, Money.TAX_ROUNDING);
+        this.serviceFeeCents = chargeServiceFee
+            ? Money.percentOf(taxable, serviceFeeBasisPoints, Money.FEE_ROUNDING)
+            : 0;
+        this.configVersion = configVersion;
+    }
+
+    public long getSubtotalCents() { return subtotalCents; }
+    public long getDiscountCents() { return discountCents; }
+    public long getDiscountedSubtotalCents() { return subtotalCents - discountCents; }
+    public long getTaxCents() { return taxCents; }
+    public long getServiceFeeCents() { return serviceFeeCents; }
+    public long getTotalCents() { return subtotalCents - discountCents + taxCents + serviceFeeCents; }
+    public int getTaxRateBasisPoints() { return taxRateBasisPoints; }
+    public int getServiceFeeBasisPoints() { return serviceFeeBasisPoints; }
+    public long getConfigVersion() { return configVersion; }
+
+    /**
+     * Tax rate in percent (850 basis points = 8.5)
+     */
+    public double getTaxRatePercent() {
+        return taxRateBasisPoints / 100.0;
+    }
+
+    /**
+     * Service fee rate in percent (1000 basis points = 10.0)
+     */
+    public double getServiceFeePercent() {
+        return serviceFeeBasisPoints / 100.0;
+    }
+
+    @Override
+    public String toString() {
+        return "Subtotal $" + Money.format(subtotalCents)
+            + (discountCents > 0 ? ", Discount $" + Money.format(discountCents) : "")
+            + ", Tax $" + Money.format(taxCents)
+            + ", Fee $" + Money.format(serviceFeeCents)
+            + ", Total $" + Money.format(getTotalCents());
+    }
+}
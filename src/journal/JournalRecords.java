@@ -0,0 +1,115 @@
+package journal;
+
+import domain.enums.PaymentType;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import patterns.singleton.ConfigSnapshot;
+import payment.PaymentResult;
+
+/**
+ * Payload layouts of the journal records (big-endian):
+ *
+ *   CONFIG        long version, string name, string address, string phone, string hours,
+ *                 int taxBasisPoints, int feeBasisPoints, int capacity, string currency
+ *   ORDER_PLACED  the order in OrderCodec format
+ *   PAYMENT       long orderNumber, byte paymentType, long amountCents, byte status
+ *   ORDER_CLOSED  long orderNumber
+ *
+ *   string        short length (-1 = null), UTF-16 chars
+ */
+final class JournalRecords {
+    private static final PaymentType[] PAYMENT_TYPES = PaymentType.values();
+    private static final PaymentResult.Status[] STATUSES = PaymentResult.Status.values();
+
+    private JournalRecords() {
+    }
+
+    // ----- encoding (into a caller-owned buffer; throws BufferOverflowException when it is too small)
+
+    static void encodeConfig(ByteBuffer out, ConfigSnapshot config) {
+        out.putLong(config.getVersion());
+        putString(out, config.getRestaurantName());
+        putString(out, config.getAddress());
+        putString(out, config.getPhoneNumber());
+        putString(out, config.getBusinessHours());
+        out.putInt(config.getTaxRateBasisPoints());
+        out.putInt(config.getServiceFeeBasisPoints());
+        out.putInt(config.getCapacity());
+        putString(out, config.getCurrency());
+    }
+
+    static void encodePayment(ByteBuffer out, long orderNumber, PaymentType type, long amountCents,
+                              PaymentResult.Status status) {
+        out.putLong(orderNumber);
+        out.put((byte) type.ordinal());
+        out.putLong(amountCents);
+        out.put((byte) status.ordinal());
+    }
+
+    static void encodeClosed(ByteBuffer out, long orderNumber) {
+        out.putLong(orderNumber);
+    }
+
+    private static void putString(ByteBuffer out, String s) {
+        if (s == null) {
+            out.putShort((short) -1);
+            return;
+        }
+        if (s.length() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Text too long to journal: " + s.length() + " chars");
+        }
+        if (out.remaining() < 2 + s.length() * 2) {
+            throw new BufferOverflowException();
+        }
+        out.putShort((short) s.length());
+        for (int i = 0; i < s.length(); i++) {
+            out.putChar(s.charAt(i));
+        }
+    }
+
+    // ----- decoding
+
+    static ConfigSnapshot decodeConfig(ByteBuffer in) {
+        long version = in.getLong();
+        String name = getString(in);
+        String address = getString(in);
+        String phone = getString(in);
+        String hours = getString(in);
+        int taxBasisPoints = in.getInt();
+        int feeBasisPoints = in.getInt();
+        int capacity = in.getInt();
+        return ConfigSnapshot.restore(version, name, address, phone, hours,
+            taxBasisPoints, feeBasisPoints, capacity, getString(in));
+    }
+
+    /**
+     * Order number of a PAYMENT or ORDER_CLOSED record
+     */
+    static long orderNumberOf(ByteBuffer in) {
+        return in.getLong(in.position());
+    }
+
+    static PaymentType paymentTypeOf(ByteBuffer payment) {
+        return PAYMENT_TYPES[payment.get(payment.position() + 8)];
+    }
+
+    static long paymentAmountOf(ByteBuffer payment) {
+        return payment.getLong(payment.position() + 9);
+    }
+
+    static PaymentResult.Status paymentStatusOf(ByteBuffer payment) {
+        return STATUSES[payment.get(payment.position() + 17)];
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = in.getShort();
+        if (length < 0) {
+            return null;
+        }
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = in.getChar();
+        }
+        return new String(chars);
+    }
+}
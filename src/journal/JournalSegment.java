@@ -0,0 +1,186 @@
+package journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * One memory-mapped journal file.
+ *
+ * Layout (big-endian):
+ *
+ *   header  int magic, short format, short reserved, long firstSequence,
+ *           long createdMillis, long reserved                          (32 bytes)
+ *   records int payloadLength, int crc32c, long sequence, byte type, payload
+ *
+ * The checksum covers payload, type and sequence. The file is created at its full
+ * size, so unused space reads as zeros and a zero length marks the end of the data.
+ */
+final class JournalSegment {
+    static final int MAGIC = 0x544A4E4C; // "TJNL"
+    static final short FORMAT_VERSION = 2;
+    static final int HEADER_SIZE = 32;
+    static final int RECORD_HEADER_SIZE = 17;
+    static final String PREFIX = "journal-";
+    static final String SUFFIX = ".seg";
+
+    final Path file;
+    final long firstSequence;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private volatile int writePosition;
+    private int forcedPosition; // only touched by the thread that forces
+
+    private JournalSegment(Path file, long firstSequence, MappedByteBuffer buffer) {
+        this.file = file;
+        this.firstSequence = firstSequence;
+        this.buffer = buffer;
+        this.capacity = buffer.capacity();
+        this.writePosition = HEADER_SIZE;
+        this.forcedPosition = HEADER_SIZE;
+    }
+
+    static Path fileFor(Path directory, long firstSequence) {
+        return directory.resolve(String.format("%s%020d%s", PREFIX, firstSequence, SUFFIX));
+    }
+
+    static JournalSegment create(Path directory, long firstSequence, int size) throws IOException {
+        Path file = fileFor(directory, firstSequence);
+        JournalSegment segment = new JournalSegment(file, firstSequence, map(file, size, true));
+        segment.buffer.putInt(0, MAGIC);
+        segment.buffer.putShort(4, FORMAT_VERSION);
+        segment.buffer.putLong(8, firstSequence);
+        segment.buffer.putLong(16, System.currentTimeMillis());
+        segment.buffer.force(0, HEADER_SIZE);
+        return segment;
+    }
+
+    static JournalSegment open(Path file) throws IOException {
+        MappedByteBuffer buffer = map(file, 0, false);
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a journal segment: " + file);
+        }
+        if (buffer.getShort(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported journal format " + buffer.getShort(4) + ": " + file);
+        }
+        return new JournalSegment(file, buffer.getLong(8), buffer);
+    }
+
+    private static MappedByteBuffer map(Path file, int size, boolean create) throws IOException {
+        try (FileChannel channel = create
+                ? FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, create ? size : channel.size());
+        }
+    }
+
+    boolean fits(int payloadLength) {
+        return writePosition + RECORD_HEADER_SIZE + payloadLength <= capacity;
+    }
+
+    /**
+     * Copies a record into the mapping. Caller holds the journal's append lock and
+     * has checked fits().
+     */
+    void append(long sequence, byte type, ByteBuffer payload, int crc) {
+        int position = writePosition;
+        int length = payload.remaining();
+        buffer.put(position + RECORD_HEADER_SIZE, payload, payload.position(), length);
+        buffer.putLong(position + 8, sequence);
+        buffer.put(position + 16, type);
+        buffer.putInt(position + 4, crc);
+        buffer.putInt(position, length); // written last: a record without its length is not there
+        writePosition = position + RECORD_HEADER_SIZE + length;
+    }
+
+    /**
+     * Forces everything appended so far to the storage device
+     */
+    synchronized void force() {
+        int end = writePosition;
+        if (end > forcedPosition) {
+            buffer.force(forcedPosition, end - forcedPosition);
+            forcedPosition = end;
+        }
+    }
+
+    /**
+     * Continues appending after the last record found by scan()
+     */
+    void resumeAt(int position) {
+        writePosition = position;
+        forcedPosition = position;
+    }
+
+    /**
+     * Cuts a damaged segment off after its last good record, so later scans end
+     * cleanly there. The segment must not be appended to afterwards.
+     */
+    static void truncate(Path file, int position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(position);
+        }
+    }
+
+    /**
+     * Visits records in order, stopping at the end of the data or at the first record
+     * that is incomplete, fails its checksum or breaks the sequence. Returns the
+     * position after the last good record.
+     */
+    int scan(long expectedSequence, RecordVisitor visitor) {
+        CRC32C crc = new CRC32C();
+        ByteBuffer view = buffer.duplicate();
+        int position = HEADER_SIZE;
+        long sequence = expectedSequence;
+        while (position + RECORD_HEADER_SIZE <= capacity) {
+            int length = view.getInt(position);
+            if (length == 0) {
+                break;
+            }
+            if (length < 0 || position + RECORD_HEADER_SIZE + length > capacity
+                    || view.getLong(position + 8) != sequence) {
+                visitor.corrupt(file, position);
+                break;
+            }
+            ByteBuffer payload = view.duplicate();
+            payload.limit(position + RECORD_HEADER_SIZE + length).position(position + RECORD_HEADER_SIZE);
+            byte type = view.get(position + 16);
+            beginChecksum(crc, payload.duplicate(), type);
+            if (finishChecksum(crc, sequence) != view.getInt(position + 4)) {
+                visitor.corrupt(file, position);
+                break;
+            }
+            visitor.record(sequence, type, payload.slice());
+            position += RECORD_HEADER_SIZE + length;
+            sequence++;
+        }
+        return position;
+    }
+
+    /**
+     * Checksums payload and type. Split from finishChecksum() so appenders can do
+     * this part before they take the append lock and know their sequence number.
+     */
+    static void beginChecksum(CRC32C crc, ByteBuffer payload, byte type) {
+        crc.reset();
+        crc.update(payload);
+        crc.update(type);
+    }
+
+    static int finishChecksum(CRC32C crc, long sequence) {
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            crc.update((int) (sequence >>> shift));
+        }
+        return (int) crc.getValue();
+    }
+
+    interface RecordVisitor {
+        void record(long sequence, byte type, ByteBuffer payload);
+
+        void corrupt(Path file, int position);
+    }
+}
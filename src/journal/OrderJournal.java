@@ -0,0 +1,410 @@
+package journal;
+
+import codec.OrderCodec;
+import domain.models.Order;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+import patterns.flyweight.MenuCatalog;
+import payment.GiftCardLedger;
+import payment.PaymentResult;
+
+/**
+ * Append-only write-ahead journal of order and payment events.
+ *
+ * Records go into fixed-size memory-mapped segment files (journal-<first sequence>.seg).
+ * An append encodes and checksums its record on the calling thread, then holds the
+ * append lock only to take a sequence number and copy the bytes into the mapping, so
+ * concurrent order intake does not queue behind encoding or disk I/O.
+ *
+ * Durability uses group commit: appended records are in the page cache immediately
+ * and a background flusher forces the mapped range to disk every sync interval (sooner
+ * when someone is waiting), so one force covers every record appended since the last.
+ * Callers that must not acknowledge before the data is on disk use whenDurable() /
+ * awaitDurable() with the sequence number returned by the append.
+ *
+ * Opening a journal replays it (see Recovery). Replay stops at the first record that
+ * is incomplete or fails its checksum; that segment is cut off after its last good
+ * record and appending continues in a new segment.
+ */
+public final class OrderJournal implements Closeable {
+    public static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+    public static final Duration DEFAULT_SYNC_INTERVAL = Duration.ofMillis(2);
+    private static final int MAX_RECORD_SIZE = 1 << 20;
+    private static final String DAMAGED_SUFFIX = ".damaged";
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long syncIntervalNanos;
+    private final Recovery recovery;
+
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private volatile JournalSegment current;
+    private long nextSequence; // guarded by appendLock
+    private volatile long lastSequence;
+    private final AtomicLong durableSequence = new AtomicLong();
+    private final ConcurrentSkipListMap<Long, CompletableFuture<Long>> waiters = new ConcurrentSkipListMap<>();
+    // Config versions journaled by this process, mapped to the sequence of their CONFIG
+    // record. Not seeded from replay: versions restart at 1 in every process, so the
+    // same number may now stand for different rates.
+    private final Map<Long, Long> journaledConfigs = new ConcurrentHashMap<>();
+    private final LongAdder forces = new LongAdder();
+    private final Thread flusher;
+    private volatile boolean closed;
+
+    private OrderJournal(Path directory, int segmentSize, Duration syncInterval,
+                         MenuCatalog catalog, GiftCardLedger ledger) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.syncIntervalNanos = syncInterval.toNanos();
+        this.recovery = new Recovery(new OrderCodec(catalog, ledger));
+        Files.createDirectories(directory);
+        replay();
+        this.lastSequence = nextSequence - 1;
+        this.durableSequence.set(lastSequence);
+        this.flusher = new Thread(this::flushLoop, "order-journal-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Opens (or creates) a journal with the default segment size and sync interval
+     */
+    public static OrderJournal open(Path directory) {
+        return open(directory, DEFAULT_SEGMENT_SIZE, DEFAULT_SYNC_INTERVAL);
+    }
+
+    /**
+     * Opens (or creates) a journal. Replayed orders are resolved against the current
+     * menu catalog and gift card ledger.
+     */
+    public static OrderJournal open(Path directory, int segmentSize, Duration syncInterval) {
+        if (segmentSize < 4096) {
+            throw new IllegalArgumentException("Segment size must be at least 4096 bytes: " + segmentSize);
+        }
+        if (syncInterval.isNegative() || syncInterval.isZero()) {
+            throw new IllegalArgumentException("Sync interval must be positive: " + syncInterval);
+        }
+        try {
+            return new OrderJournal(directory, segmentSize, syncInterval,
+                MenuCatalog.getDefault(), GiftCardLedger.getDefault());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open order journal " + directory, e);
+        }
+    }
+
+    // ----- appending
+
+    /**
+     * Journals a newly placed order (preceded by its configuration snapshot the first
+     * time this journal instance sees that version; replay uses the latest CONFIG
+     * record of a version). Returns the record's sequence number.
+     */
+    public long appendOrder(Order order) {
+        // computeIfAbsent holds back other orders of the same version until the CONFIG
+        // record is appended, so replay always sees a config before its orders
+        journaledConfigs.computeIfAbsent(order.getConfigSnapshot().getVersion(),
+            version -> append(RecordType.CONFIG, out -> JournalRecords.encodeConfig(out, order.getConfigSnapshot())));
+        return append(RecordType.ORDER_PLACED, out -> OrderCodec.getDefault().encode(order, out));
+    }
+
+    /**
+     * Journals the outcome of a payment attempt for an order
+     */
+    public long appendPayment(long orderNumber, PaymentResult result) {
+        return append(RecordType.PAYMENT, out -> JournalRecords.encodePayment(out, orderNumber,
+            result.getPaymentType(), result.getAmountCents(), result.getStatus()));
+    }
+
+    /**
+     * Journals that an order is finished; replay no longer treats it as open
+     */
+    public long appendClosed(long orderNumber) {
+        return append(RecordType.ORDER_CLOSED, out -> JournalRecords.encodeClosed(out, orderNumber));
+    }
+
+    private long append(RecordType type, Consumer<ByteBuffer> encoder) {
+        Scratch scratch = SCRATCH.get();
+        ByteBuffer payload = scratch.encode(encoder);
+        int length = payload.remaining();
+        if (JournalSegment.HEADER_SIZE + JournalSegment.RECORD_HEADER_SIZE + length > segmentSize) {
+            throw new IllegalArgumentException("Journal record of " + length + " bytes does not fit a segment");
+        }
+        JournalSegment.beginChecksum(scratch.crc, payload.duplicate(), type.getCode());
+
+        appendLock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Order journal is closed");
+            }
+            JournalSegment segment = current;
+            if (!segment.fits(length)) {
+                segment = roll();
+            }
+            long sequence = nextSequence++;
+            segment.append(sequence, type.getCode(), payload, JournalSegment.finishChecksum(scratch.crc, sequence));
+            lastSequence = sequence;
+            return sequence;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot roll order journal segment", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    // Caller holds appendLock
+    private JournalSegment roll() throws IOException {
+        current.force();
+        forces.increment();
+        current = JournalSegment.create(directory, nextSequence, segmentSize);
+        return current;
+    }
+
+    // ----- durability
+
+    /**
+     * Completes once every record up to and including the given sequence is on disk
+     */
+    public CompletableFuture<Long> whenDurable(long sequence) {
+        if (sequence > lastSequence) {
+            throw new IllegalArgumentException("Sequence " + sequence + " has not been appended");
+        }
+        if (sequence <= durableSequence.get()) {
+            return CompletableFuture.completedFuture(sequence);
+        }
+        CompletableFuture<Long> future = waiters.computeIfAbsent(sequence, s -> new CompletableFuture<>());
+        if (closed) {
+            sync();
+        } else {
+            LockSupport.unpark(flusher);
+        }
+        return future;
+    }
+
+    /**
+     * Blocks until the given sequence is on disk
+     */
+    public void awaitDurable(long sequence) {
+        whenDurable(sequence).join();
+    }
+
+    /**
+     * Forces everything appended so far on the calling thread and returns the durable
+     * sequence. Normally the flusher does this; it is public for callers that want
+     * a synchronous force per append.
+     */
+    public long sync() {
+        long target = lastSequence;
+        if (target > durableSequence.get()) {
+            // Read after target: if the segment rolled in between, roll() forced the old one
+            current.force();
+            forces.increment();
+            durableSequence.accumulateAndGet(target, Math::max);
+        }
+        completeWaiters();
+        return durableSequence.get();
+    }
+
+    private void completeWaiters() {
+        long durable = durableSequence.get();
+        Map.Entry<Long, CompletableFuture<Long>> waiter;
+        while ((waiter = waiters.firstEntry()) != null) {
+            if (waiter.getKey() <= durable) {
+                waiter.getValue().complete(waiter.getKey());
+            } else {
+                break;
+            }
+            waiters.remove(waiter.getKey(), waiter.getValue());
+        }
+    }
+
+    private void flushLoop() {
+        while (!closed) {
+            if (waiters.isEmpty()) {
+                LockSupport.parkNanos(this, syncIntervalNanos);
+            }
+            try {
+                sync();
+            } catch (RuntimeException e) {
+                // Nothing is marked durable; waiters stay pending and the next round retries
+                LockSupport.parkNanos(this, syncIntervalNanos);
+            }
+        }
+    }
+
+    // ----- recovery
+
+    private void replay() throws IOException {
+        long started = System.nanoTime();
+        List<Path> files = listSegments();
+        ReplayVisitor visitor = new ReplayVisitor();
+        long expected = -1;
+        JournalSegment last = null;
+        int lastEnd = 0;
+        int index = 0;
+        for (; index < files.size(); index++) {
+            JournalSegment segment = JournalSegment.open(files.get(index));
+            if (expected >= 0 && segment.firstSequence != expected) {
+                visitor.corrupt(segment.file, JournalSegment.HEADER_SIZE);
+                break;
+            }
+            visitor.nextSequence = segment.firstSequence;
+            lastEnd = segment.scan(segment.firstSequence, visitor);
+            recovery.segmentScanned();
+            expected = visitor.nextSequence;
+            last = segment;
+            if (visitor.damaged) {
+                JournalSegment.truncate(segment.file, lastEnd);
+                index++;
+                break;
+            }
+        }
+        // Segments after a damaged one no longer connect to the recovered history
+        for (; index < files.size(); index++) {
+            Path file = files.get(index);
+            Files.move(file, file.resolveSibling(file.getFileName() + DAMAGED_SUFFIX),
+                StandardCopyOption.REPLACE_EXISTING);
+        }
+
+        nextSequence = last != null ? visitor.nextSequence : 1;
+        if (last != null && !visitor.damaged) {
+            last.resumeAt(lastEnd);
+            current = last;
+        } else {
+            current = JournalSegment.create(directory, nextSequence, segmentSize);
+        }
+        recovery.finish(System.nanoTime() - started);
+    }
+
+    private List<Path> listSegments() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.filter(file -> {
+                String name = file.getFileName().toString();
+                return name.startsWith(JournalSegment.PREFIX) && name.endsWith(JournalSegment.SUFFIX);
+            }).forEach(files::add);
+        }
+        files.sort(null); // zero-padded first sequence, so name order is sequence order
+        return files;
+    }
+
+    private final class ReplayVisitor implements JournalSegment.RecordVisitor {
+        long nextSequence;
+        boolean damaged;
+
+        @Override
+        public void record(long sequence, byte type, ByteBuffer payload) {
+            recovery.apply(sequence, type, payload);
+            nextSequence = sequence + 1;
+        }
+
+        @Override
+        public void corrupt(Path file, int position) {
+            damaged = true;
+            recovery.markDamagedTail();
+        }
+    }
+
+    // ----- state
+
+    /**
+     * What was rebuilt when this journal was opened
+     */
+    public Recovery getRecovery() {
+        return recovery;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Sequence number of the last appended record
+     */
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Every record up to this sequence is on disk
+     */
+    public long getDurableSequence() {
+        return durableSequence.get();
+    }
+
+    /**
+     * Number of forces issued since the journal was opened
+     */
+    public long getForceCount() {
+        return forces.sum();
+    }
+
+    /**
+     * Stops the flusher after a final force; the segment files stay in place for the
+     * next open()
+     */
+    @Override
+    public void close() {
+        appendLock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        } finally {
+            appendLock.unlock();
+        }
+        LockSupport.unpark(flusher);
+        try {
+            flusher.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sync();
+    }
+
+    /**
+     * Per-thread encode buffer and checksum, reused across appends
+     */
+    private static final class Scratch {
+        final CRC32C crc = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+
+        ByteBuffer encode(Consumer<ByteBuffer> encoder) {
+            while (true) {
+                buffer.clear();
+                try {
+                    encoder.accept(buffer);
+                    buffer.flip();
+                    return buffer;
+                } catch (BufferOverflowException e) {
+                    if (buffer.capacity() >= MAX_RECORD_SIZE) {
+                        throw new IllegalArgumentException("Journal record larger than " + MAX_RECORD_SIZE + " bytes");
+                    }
+                    buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+                }
+            }
+        }
+    }
+}
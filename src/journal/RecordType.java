@@ -0,0 +1,37 @@
+package journal;
+
+/**
+ * Kinds of journal records. The code is what is stored on disk; never renumber.
+ */
+public enum RecordType {
+    /** A configuration snapshot, written before the first order priced with it */
+    CONFIG(1),
+    ORDER_PLACED(2),
+    PAYMENT(3),
+    ORDER_CLOSED(4);
+
+    private static final RecordType[] BY_CODE = new RecordType[8];
+
+    static {
+        for (RecordType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    private final byte code;
+
+    RecordType(int code) {
+        this.code = (byte) code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    /**
+     * The type with the given code, or null for an unknown code
+     */
+    public static RecordType fromCode(byte code) {
+        return code > 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+    }
+}
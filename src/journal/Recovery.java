@@ -0,0 +1,144 @@
+package journal;
+
+import codec.OrderCodec;
+import codec.OrderView;
+import domain.models.Order;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import patterns.singleton.ConfigSnapshot;
+import payment.PaymentResult;
+
+/**
+ * State rebuilt from the journal when it is opened: every order that was placed but
+ * not closed, in the order it was placed, plus the approved payments recorded for it.
+ */
+public final class Recovery {
+    private final OrderCodec codec;
+    private final OrderView view = new OrderView();
+    private final Map<Long, ConfigSnapshot> configs = new HashMap<>();
+    private final Map<Long, Order> openOrders = new LinkedHashMap<>();
+    private final Map<Long, Long> paidCents = new HashMap<>();
+    private long recordCount;
+    private long unreadableRecords;
+    private long lastSequence;
+    private long highestOrderNumber;
+    private int segmentCount;
+    private boolean damagedTail;
+    private long elapsedNanos;
+
+    Recovery(OrderCodec codec) {
+        this.codec = codec;
+    }
+
+    void apply(long sequence, byte code, ByteBuffer payload) {
+        recordCount++;
+        lastSequence = sequence;
+        RecordType type = RecordType.fromCode(code);
+        try {
+            if (type == null) {
+                throw new IllegalStateException("Unknown record type " + code);
+            }
+            switch (type) {
+                case CONFIG:
+                    ConfigSnapshot config = JournalRecords.decodeConfig(payload);
+                    configs.put(config.getVersion(), config);
+                    break;
+                case ORDER_PLACED:
+                    view.wrap(payload, payload.position());
+                    long orderNumber = view.getOrderNumber();
+                    highestOrderNumber = Math.max(highestOrderNumber, orderNumber);
+                    ConfigSnapshot pricedWith = configs.get(view.getConfigVersion());
+                    if (pricedWith == null) {
+                        throw new IllegalStateException("Order " + orderNumber + " refers to an unknown config version");
+                    }
+                    openOrders.put(orderNumber, codec.decode(payload, pricedWith));
+                    break;
+                case PAYMENT:
+                    if (JournalRecords.paymentStatusOf(payload) == PaymentResult.Status.APPROVED) {
+                        paidCents.merge(JournalRecords.orderNumberOf(payload),
+                            JournalRecords.paymentAmountOf(payload), Long::sum);
+                    }
+                    break;
+                case ORDER_CLOSED:
+                    long closed = JournalRecords.orderNumberOf(payload);
+                    openOrders.remove(closed);
+                    paidCents.remove(closed);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown record type " + type);
+            }
+        } catch (RuntimeException e) {
+            // The record passed its checksum, so it is intact but no longer applies
+            // (e.g. its menu item was removed); skip it rather than lose the rest
+            unreadableRecords++;
+        }
+    }
+
+    void segmentScanned() {
+        segmentCount++;
+    }
+
+    void markDamagedTail() {
+        damagedTail = true;
+    }
+
+    void finish(long elapsedNanos) {
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Orders placed but not yet closed, oldest first
+     */
+    public List<Order> getOpenOrders() {
+        return new ArrayList<>(openOrders.values());
+    }
+
+    public int getOpenOrderCount() {
+        return openOrders.size();
+    }
+
+    /**
+     * Sum of the approved payments journaled for an open order
+     */
+    public long getPaidCents(long orderNumber) {
+        return paidCents.getOrDefault(orderNumber, 0L);
+    }
+
+    public long getRecordCount() { return recordCount; }
+
+    /**
+     * Records that were intact but could not be applied
+     */
+    public long getUnreadableRecords() { return unreadableRecords; }
+
+    /**
+     * Sequence number of the last good record, 0 for an empty journal
+     */
+    public long getLastSequence() { return lastSequence; }
+
+    /**
+     * Highest order number seen, so an ID generator can be seeded past it
+     */
+    public long getHighestOrderNumber() { return highestOrderNumber; }
+
+    public int getSegmentCount() { return segmentCount; }
+
+    /**
+     * True if replay stopped at a torn or corrupted record (typically the last write
+     * before a crash); everything before it was recovered
+     */
+    public boolean hasDamagedTail() { return damagedTail; }
+
+    public long getElapsedNanos() { return elapsedNanos; }
+
+    @Override
+    public String toString() {
+        return String.format("Recovery[%d records in %d segments, %d open orders, %d unreadable%s, %.1f ms]",
+            recordCount, segmentCount, openOrders.size(), unreadableRecords,
+            damagedTail ? ", damaged tail" : "", elapsedNanos / 1e6);
+    }
+}
@@ -0,0 +1,55 @@
+package kitchen;
+
+import java.time.Duration;
+
+/**
+ * How a station batches tickets, e.g. several pizzas baked in the oven at once.
+ *
+ * When a cook picks up a ticket, identical items waiting in the queue join it, and
+ * the cook holds the batch open for more identical items until it is full or the
+ * first ticket has been waiting for the window - so batching never adds more than
+ * the window to any ticket's wait. With mixed batches enabled, free slots are then
+ * filled with the most urgent other items, and the cook stops waiting as soon as
+ * enough tickets of any kind are queued to fill the batch.
+ */
+public final class BatchPolicy {
+    private final int capacity;
+    private final Duration window;
+    private final boolean mixedItems;
+
+    public BatchPolicy(int capacity, Duration window, boolean mixedItems) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Batch capacity must be positive: " + capacity);
+        }
+        if (window.isNegative()) {
+            throw new IllegalArgumentException("Batch window cannot be negative: " + window);
+        }
+        this.capacity = capacity;
+        this.window = window;
+        this.mixedItems = mixedItems;
+    }
+
+    /**
+     * Wood-fired oven: six pizzas per bake, waits up to 90 seconds for a fuller oven,
+     * different pizzas may share a bake
+     */
+    public static BatchPolicy woodFiredOven() {
+        return new BatchPolicy(6, Duration.ofSeconds(90), true);
+    }
+
+    public BatchPolicy withCapacity(int capacity) {
+        return new BatchPolicy(capacity, window, mixedItems);
+    }
+
+    public BatchPolicy withWindow(Duration window) {
+        return new BatchPolicy(capacity, window, mixedItems);
+    }
+
+    public BatchPolicy withMixedItems(boolean mixedItems) {
+        return new BatchPolicy(capacity, window, mixedItems);
+    }
+
+    public int getCapacity() { return capacity; }
+    public Duration getWindow() { return window; }
+    public boolean isMixedItems() { return mixedItems; }
+}
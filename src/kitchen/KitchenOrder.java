@@ -0,0 +1,37 @@
+package kitchen;
+
+import domain.models.Order;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks the tickets of one order; the future completes when the last one is done
+ * (or exceptionally when a station fails a ticket)
+ */
+final class KitchenOrder {
+    final Order order;
+    final CompletableFuture<Order> done = new CompletableFuture<>();
+    private final AtomicInteger remaining = new AtomicInteger();
+
+    KitchenOrder(Order order) {
+        this.order = order;
+    }
+
+    void expect(int tickets) {
+        remaining.set(tickets);
+        if (tickets == 0) {
+            done.complete(order);
+        }
+    }
+
+    void ticketDone() {
+        if (remaining.decrementAndGet() == 0) {
+            done.complete(order);
+        }
+    }
+
+    void ticketFailed(KitchenTicket ticket, Throwable error) {
+        done.completeExceptionally(new IllegalStateException("Station " + ticket.getStation()
+            + " failed " + ticket, error));
+    }
+}
@@ -0,0 +1,104 @@
+package kitchen;
+
+import domain.enums.OrderType;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Immutable kitchen settings: how many cooks work each station, how long after
+ * submission each kind of order is promised, which order type wins when two
+ * tickets are promised for the same moment, and which stations batch tickets.
+ *
+ * The with* methods return modified copies; the policy itself never changes.
+ */
+public final class KitchenPolicy {
+    private final Map<Station, Integer> parallelism;
+    private final Map<OrderType, Duration> leadTimes;
+    private final Map<OrderType, Integer> typeRanks;
+    private final Map<Station, BatchPolicy> batching;
+
+    private KitchenPolicy(Map<Station, Integer> parallelism, Map<OrderType, Duration> leadTimes,
+                          Map<OrderType, Integer> typeRanks, Map<Station, BatchPolicy> batching) {
+        this.parallelism = parallelism;
+        this.leadTimes = leadTimes;
+        this.typeRanks = typeRanks;
+        this.batching = batching;
+    }
+
+    /**
+     * Two ovens, one cook at every other station; dine-in promised in 15 minutes,
+     * takeout in 20, delivery in 25; on ties delivery goes first (a driver is
+     * waiting), then dine-in, then takeout
+     */
+    public static KitchenPolicy defaults() {
+        Map<Station, Integer> parallelism = new EnumMap<>(Station.class);
+        for (Station station : Station.values()) {
+            parallelism.put(station, 1);
+        }
+        parallelism.put(Station.OVEN, 2);
+        Map<OrderType, Duration> leadTimes = new EnumMap<>(OrderType.class);
+        leadTimes.put(OrderType.DINE_IN, Duration.ofMinutes(15));
+        leadTimes.put(OrderType.TAKEOUT, Duration.ofMinutes(20));
+        leadTimes.put(OrderType.DELIVERY, Duration.ofMinutes(25));
+        return new KitchenPolicy(parallelism, leadTimes,
+            ranks(OrderType.DELIVERY, OrderType.DINE_IN, OrderType.TAKEOUT), new EnumMap<>(Station.class));
+    }
+
+    public KitchenPolicy withParallelism(Station station, int cooks) {
+        if (cooks < 1) {
+            throw new IllegalArgumentException("Station parallelism must be positive: " + cooks);
+        }
+        Map<Station, Integer> updated = new EnumMap<>(parallelism);
+        updated.put(station, cooks);
+        return new KitchenPolicy(updated, leadTimes, typeRanks, batching);
+    }
+
+    public KitchenPolicy withLeadTime(OrderType type, Duration leadTime) {
+        if (leadTime.isNegative()) {
+            throw new IllegalArgumentException("Lead time cannot be negative: " + leadTime);
+        }
+        Map<OrderType, Duration> updated = new EnumMap<>(leadTimes);
+        updated.put(type, leadTime);
+        return new KitchenPolicy(parallelism, updated, typeRanks, batching);
+    }
+
+    /**
+     * Tie-break order for tickets promised at the same time, highest priority first.
+     * Every OrderType must be listed.
+     */
+    public KitchenPolicy withPriority(OrderType... highestFirst) {
+        return new KitchenPolicy(parallelism, leadTimes, ranks(highestFirst), batching);
+    }
+
+    /**
+     * Batches tickets at a station (null turns batching off again)
+     */
+    public KitchenPolicy withBatching(Station station, BatchPolicy batchPolicy) {
+        Map<Station, BatchPolicy> updated = new EnumMap<>(Station.class);
+        updated.putAll(batching);
+        if (batchPolicy == null) {
+            updated.remove(station);
+        } else {
+            updated.put(station, batchPolicy);
+        }
+        return new KitchenPolicy(parallelism, leadTimes, typeRanks, updated);
+    }
+
+    private static Map<OrderType, Integer> ranks(OrderType... highestFirst) {
+        Map<OrderType, Integer> ranks = new EnumMap<>(OrderType.class);
+        for (OrderType type : highestFirst) {
+            ranks.putIfAbsent(type, ranks.size());
+        }
+        if (ranks.size() != OrderType.values().length) {
+            throw new IllegalArgumentException("Priority must list every order type once");
+        }
+        return ranks;
+    }
+
+    public int getParallelism(Station station) { return parallelism.get(station); }
+    public Duration getLeadTime(OrderType type) { return leadTimes.get(type); }
+    public int getRank(OrderType type) { return typeRanks.get(type); }
+    /** Batch policy of a station, or null if it prepares tickets one at a time */
+    public BatchPolicy getBatching(Station station) { return batching.get(station); }
+}
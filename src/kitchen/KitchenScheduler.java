@@ -0,0 +1,288 @@
+package kitchen;
+
+import domain.models.Meal;
+import domain.models.MenuItem;
+import domain.models.Order;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Kitchen execution engine.
+ *
+ * A submitted Order is split into one KitchenTicket per item (meal components
+ * included) and each ticket goes to the queue of its Station. Every station has
+ * its own priority queue and its own work-stealing ForkJoinPool whose parallelism
+ * is the number of cooks at that station; a free cook always takes the most urgent
+ * ticket in the queue (see KitchenTicket ordering), not the oldest.
+ *
+ * A station with a BatchPolicy (typically the oven) prepares several tickets at
+ * once: the cook gathers identical items from the queue into one batch and may hold
+ * it open for a short window to fill it (see BatchPolicy).
+ *
+ * Queue depth, active tickets and wait / latency histograms are kept per station,
+ * so getBottleneck() can point at the station that is holding orders up.
+ */
+public class KitchenScheduler implements AutoCloseable {
+    // How often a cook holding a batch open looks for new tickets
+    private static final long BATCH_POLL_NANOS = 1_000_000;
+
+    private final KitchenPolicy policy;
+    private final StationWork work;
+    private final Map<Station, StationLine> lines = new EnumMap<>(Station.class);
+    private final AtomicLong sequence = new AtomicLong();
+
+    public KitchenScheduler() {
+        this(KitchenPolicy.defaults(), StationWork.PREPARE);
+    }
+
+    public KitchenScheduler(KitchenPolicy policy, StationWork work) {
+        this.policy = policy;
+        this.work = work;
+        for (Station station : Station.values()) {
+            lines.put(station, new StationLine(station, policy.getParallelism(station)));
+        }
+    }
+
+    /**
+     * Queues an order promised at submission time plus the lead time for its type
+     */
+    public CompletableFuture<Order> submit(Order order) {
+        long promisedAt = System.currentTimeMillis() + policy.getLeadTime(order.getOrderType()).toMillis();
+        return submit(order, promisedAt);
+    }
+
+    /**
+     * Queues an order with an explicit promised time (epoch millis). The future
+     * completes when every ticket of the order is done.
+     */
+    public CompletableFuture<Order> submit(Order order, long promisedAtMillis) {
+        KitchenOrder kitchenOrder = new KitchenOrder(order);
+        List<KitchenTicket> tickets = new ArrayList<>();
+        for (int line = 0; line < order.getLineCount(); line++) {
+            MenuItem item = order.getLineItem(line);
+            for (int q = order.getLineQuantity(line); q > 0; q--) {
+                tickets.add(ticket(kitchenOrder, item, promisedAtMillis));
+            }
+        }
+        for (int i = 0; i < order.getMealCount(); i++) {
+            Meal meal = order.getMeal(i);
+            addIfPresent(tickets, kitchenOrder, meal.getMainItem(), promisedAtMillis);
+            addIfPresent(tickets, kitchenOrder, meal.getSideItem(), promisedAtMillis);
+            addIfPresent(tickets, kitchenOrder, meal.getBeverage(), promisedAtMillis);
+            addIfPresent(tickets, kitchenOrder, meal.getDessert(), promisedAtMillis);
+        }
+        kitchenOrder.expect(tickets.size());
+        for (KitchenTicket ticket : tickets) {
+            lines.get(ticket.getStation()).enqueue(ticket);
+        }
+        return kitchenOrder.done;
+    }
+
+    private void addIfPresent(List<KitchenTicket> tickets, KitchenOrder order, MenuItem item, long promisedAt) {
+        if (item != null) {
+            tickets.add(ticket(order, item, promisedAt));
+        }
+    }
+
+    private static boolean sameItem(MenuItem a, MenuItem b) {
+        return a == b || (a.getId() >= 0 ? a.getId() == b.getId() : a.getName().equals(b.getName()));
+    }
+
+    private KitchenTicket ticket(KitchenOrder order, MenuItem item, long promisedAt) {
+        return new KitchenTicket(order, order.order.getOrderNumber(), order.order.getOrderType(),
+            policy.getRank(order.order.getOrderType()), item, promisedAt, sequence.getAndIncrement());
+    }
+
+    public StationStats getStats(Station station) {
+        return lines.get(station).stats();
+    }
+
+    public Map<Station, StationStats> getStats() {
+        Map<Station, StationStats> stats = new EnumMap<>(Station.class);
+        for (Station station : Station.values()) {
+            stats.put(station, getStats(station));
+        }
+        return stats;
+    }
+
+    /**
+     * The station tickets wait longest at (p95 queue wait), or while nothing has
+     * waited yet, the one with the largest backlog per cook
+     */
+    public Station getBottleneck() {
+        Station worst = Station.OVEN;
+        long worstWait = -1;
+        double worstBacklog = -1;
+        for (Station station : Station.values()) {
+            StationStats stats = getStats(station);
+            long wait = stats.getP95WaitNanos();
+            if (wait > worstWait || (wait == worstWait && stats.getBacklogPerCook() > worstBacklog)) {
+                worst = station;
+                worstWait = wait;
+                worstBacklog = stats.getBacklogPerCook();
+            }
+        }
+        return worst;
+    }
+
+    /**
+     * Waits until every queued ticket has been prepared
+     */
+    public boolean awaitIdle(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (StationLine line : lines.values()) {
+            while (line.outstanding.get() > 0) {
+                if (System.nanoTime() > deadline) {
+                    return false;
+                }
+                Thread.sleep(1);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void close() {
+        for (StationLine line : lines.values()) {
+            line.pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Queue, cooks and measurements of one station
+     */
+    private final class StationLine {
+        final Station station;
+        final int parallelism;
+        final PriorityBlockingQueue<KitchenTicket> queue = new PriorityBlockingQueue<>();
+        final ForkJoinPool pool;
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicInteger outstanding = new AtomicInteger(); // queued or active
+        final LongAdder failed = new LongAdder();
+        final LongAdder batches = new LongAdder();
+        final LatencyHistogram waits = new LatencyHistogram();
+        final LatencyHistogram service = new LatencyHistogram();
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        StationLine(Station station, int parallelism) {
+            this.station = station;
+            this.parallelism = parallelism;
+            String prefix = "kitchen-" + station.name().toLowerCase(Locale.ROOT) + "-";
+            AtomicInteger threads = new AtomicInteger();
+            this.pool = new ForkJoinPool(parallelism, p -> {
+                ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+                thread.setName(prefix + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }, null, true);
+        }
+
+        void enqueue(KitchenTicket ticket) {
+            ticket.queuedNanos = System.nanoTime();
+            outstanding.incrementAndGet();
+            queue.add(ticket);
+            // One task per ticket; each task takes whatever is most urgent when it runs
+            pool.execute(this::prepareNext);
+        }
+
+        private void prepareNext() {
+            KitchenTicket first = queue.poll();
+            if (first == null) {
+                return; // taken into an earlier batch
+            }
+            BatchPolicy batching = policy.getBatching(station);
+            List<KitchenTicket> batch = batching == null
+                ? Collections.singletonList(first) : collectBatch(first, batching);
+
+            long started = System.nanoTime();
+            active.addAndGet(batch.size());
+            for (KitchenTicket ticket : batch) {
+                ticket.startedNanos = started;
+                waits.record(started - ticket.queuedNanos);
+            }
+            try {
+                if (batching == null) {
+                    work.perform(first);
+                } else {
+                    work.performBatch(batch);
+                    batches.increment();
+                }
+                long finished = System.nanoTime();
+                for (KitchenTicket ticket : batch) {
+                    ticket.finishedNanos = finished;
+                    service.record(finished - started);
+                    latency.record(finished - ticket.queuedNanos);
+                    ticket.order.ticketDone();
+                }
+            } catch (Exception e) {
+                failed.add(batch.size());
+                for (KitchenTicket ticket : batch) {
+                    ticket.order.ticketFailed(ticket, e);
+                }
+            } finally {
+                active.addAndGet(-batch.size());
+                outstanding.addAndGet(-batch.size());
+            }
+        }
+
+        /**
+         * Gathers identical items around the first ticket, holding the batch open until
+         * it is full or the first ticket has waited for the batch window
+         */
+        private List<KitchenTicket> collectBatch(KitchenTicket first, BatchPolicy batching) {
+            List<KitchenTicket> batch = new ArrayList<>(batching.getCapacity());
+            batch.add(first);
+            long holdUntil = first.queuedNanos + batching.getWindow().toNanos();
+            while (true) {
+                takeIdentical(batch, first.getItem(), batching.getCapacity());
+                if (batch.size() >= batching.getCapacity()
+                        || (batching.isMixedItems() && batch.size() + queue.size() >= batching.getCapacity())) {
+                    break;
+                }
+                long remaining = holdUntil - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                LockSupport.parkNanos(Math.min(remaining, BATCH_POLL_NANOS));
+            }
+            if (batching.isMixedItems()) {
+                KitchenTicket next;
+                while (batch.size() < batching.getCapacity() && (next = queue.poll()) != null) {
+                    batch.add(next);
+                }
+            }
+            return batch;
+        }
+
+        private void takeIdentical(List<KitchenTicket> batch, MenuItem item, int capacity) {
+            for (KitchenTicket candidate : queue) {
+                if (batch.size() >= capacity) {
+                    return;
+                }
+                // remove() fails if another cook took the ticket first
+                if (sameItem(candidate.getItem(), item) && queue.remove(candidate)) {
+                    batch.add(candidate);
+                }
+            }
+        }
+
+        StationStats stats() {
+            return new StationStats(station, parallelism, queue.size(), active.get(), service.count(),
+                failed.sum(), waits.meanNanos(), waits.percentileNanos(95), waits.maxNanos(),
+                service.meanNanos(), latency.percentileNanos(95), batches.sum());
+        }
+    }
+}
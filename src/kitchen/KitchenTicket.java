@@ -0,0 +1,65 @@
+package kitchen;
+
+import domain.enums.OrderType;
+import domain.models.MenuItem;
+
+/**
+ * One item to prepare at one station, for one order.
+ *
+ * Tickets are ordered by promised time (earliest first), then by the rank of their
+ * OrderType in the KitchenPolicy, then first come first served.
+ */
+public final class KitchenTicket implements Comparable<KitchenTicket> {
+    private final long orderNumber;
+    private final OrderType orderType;
+    private final int typeRank;
+    private final MenuItem item;
+    private final Station station;
+    private final long promisedAtMillis;
+    private final long sequence;
+    final KitchenOrder order;
+
+    volatile long queuedNanos;
+    volatile long startedNanos;
+    volatile long finishedNanos;
+
+    KitchenTicket(KitchenOrder order, long orderNumber, OrderType orderType, int typeRank, MenuItem item,
+                  long promisedAtMillis, long sequence) {
+        this.order = order;
+        this.orderNumber = orderNumber;
+        this.orderType = orderType;
+        this.typeRank = typeRank;
+        this.item = item;
+        this.station = Station.forItem(item);
+        this.promisedAtMillis = promisedAtMillis;
+        this.sequence = sequence;
+    }
+
+    @Override
+    public int compareTo(KitchenTicket other) {
+        int c = Long.compare(promisedAtMillis, other.promisedAtMillis);
+        if (c == 0) {
+            c = Integer.compare(typeRank, other.typeRank);
+        }
+        return c != 0 ? c : Long.compare(sequence, other.sequence);
+    }
+
+    public long getOrderNumber() { return orderNumber; }
+    public OrderType getOrderType() { return orderType; }
+    public MenuItem getItem() { return item; }
+    public Station getStation() { return station; }
+    public long getPromisedAtMillis() { return promisedAtMillis; }
+
+    /**
+     * Time spent waiting in the station queue, or -1 if the ticket has not started
+     */
+    public long getWaitNanos() {
+        long started = startedNanos;
+        return started == 0 ? -1 : started - queuedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + orderNumber + " " + station + " " + item.getName();
+    }
+}
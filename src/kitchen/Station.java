@@ -0,0 +1,37 @@
+package kitchen;
+
+import domain.enums.MenuItemCategory;
+import domain.models.MenuItem;
+
+/**
+ * Kitchen stations. Every menu item is prepared at exactly one station.
+ */
+public enum Station {
+    /** Pizzas */
+    OVEN,
+    /** Appetizers and salads */
+    COLD_PREP,
+    /** Drinks */
+    BAR,
+    /** Desserts */
+    PASTRY;
+
+    public static Station forItem(MenuItem item) {
+        return forCategory(item.getCategory());
+    }
+
+    public static Station forCategory(MenuItemCategory category) {
+        switch (category) {
+            case MAIN_COURSE:
+                return OVEN;
+            case APPETIZER:
+                return COLD_PREP;
+            case BEVERAGE:
+                return BAR;
+            case DESSERT:
+                return PASTRY;
+            default:
+                throw new IllegalArgumentException("No station for category: " + category);
+        }
+    }
+}
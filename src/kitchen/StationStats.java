@@ -0,0 +1,74 @@
+package kitchen;
+
+/**
+ * Point-in-time view of one station. Wait is the time a ticket spends queued before a
+ * cook picks it up, service the time the cook spends on it.
+ */
+public final class StationStats {
+    private final Station station;
+    private final int parallelism;
+    private final int queueDepth;
+    private final int active;
+    private final long completed;
+    private final long failed;
+    private final double meanWaitNanos;
+    private final long p95WaitNanos;
+    private final long maxWaitNanos;
+    private final double meanServiceNanos;
+    private final long p95LatencyNanos;
+    private final long batches;
+
+    StationStats(Station station, int parallelism, int queueDepth, int active, long completed, long failed,
+                 double meanWaitNanos, long p95WaitNanos, long maxWaitNanos, double meanServiceNanos,
+                 long p95LatencyNanos, long batches) {
+        this.station = station;
+        this.parallelism = parallelism;
+        this.queueDepth = queueDepth;
+        this.active = active;
+        this.completed = completed;
+        this.failed = failed;
+        this.meanWaitNanos = meanWaitNanos;
+        this.p95WaitNanos = p95WaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+        this.meanServiceNanos = meanServiceNanos;
+        this.p95LatencyNanos = p95LatencyNanos;
+        this.batches = batches;
+    }
+
+    public Station getStation() { return station; }
+    public int getParallelism() { return parallelism; }
+    /** Tickets waiting for a cook */
+    public int getQueueDepth() { return queueDepth; }
+    /** Tickets being prepared right now */
+    public int getActive() { return active; }
+    public long getCompleted() { return completed; }
+    public long getFailed() { return failed; }
+    public double getMeanWaitNanos() { return meanWaitNanos; }
+    public long getP95WaitNanos() { return p95WaitNanos; }
+    public long getMaxWaitNanos() { return maxWaitNanos; }
+    public double getMeanServiceNanos() { return meanServiceNanos; }
+    /** 95th percentile of queued-to-finished time */
+    public long getP95LatencyNanos() { return p95LatencyNanos; }
+    /** Batches prepared, 0 for stations without a BatchPolicy */
+    public long getBatches() { return batches; }
+
+    public double getMeanBatchSize() {
+        return batches == 0 ? 0 : (double) (completed + failed) / batches;
+    }
+
+    /**
+     * Queued plus active tickets per cook
+     */
+    public double getBacklogPerCook() {
+        return (double) (queueDepth + active) / parallelism;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-9s cooks %2d  queued %4d  active %2d  done %6d  wait mean %8.1f ms  p95 %8.1f ms"
+                + "  max %8.1f ms  service %7.1f ms  latency p95 %8.1f ms",
+            station, parallelism, queueDepth, active, completed, meanWaitNanos / 1e6, p95WaitNanos / 1e6,
+            maxWaitNanos / 1e6, meanServiceNanos / 1e6, p95LatencyNanos / 1e6)
+            + (batches > 0 ? String.format("  batch avg %.1f", getMeanBatchSize()) : "");
+    }
+}
@@ -0,0 +1,21 @@
+package kitchen;
+
+import java.util.List;
+
+/**
+ * What a station does with a ticket. The default runs MenuItem.prepare(); simulations
+ * plug in work that takes realistic time. Stations with a BatchPolicy hand whole
+ * batches to performBatch(), which by default prepares the tickets one by one.
+ */
+@FunctionalInterface
+public interface StationWork {
+    StationWork PREPARE = ticket -> ticket.getItem().prepare();
+
+    void perform(KitchenTicket ticket) throws Exception;
+
+    default void performBatch(List<KitchenTicket> batch) throws Exception {
+        for (KitchenTicket ticket : batch) {
+            perform(ticket);
+        }
+    }
+}
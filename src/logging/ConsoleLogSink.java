@@ -0,0 +1,31 @@
+package logging;
+
+/**
+ * The console output the application has always produced: bare messages, errors on
+ * stderr and everything else on stdout. Output is collected per batch and handed to
+ * the console stream once per flush.
+ */
+public class ConsoleLogSink implements LogSink {
+    private final StringBuilder out = new StringBuilder(4096);
+    private final StringBuilder err = new StringBuilder(256);
+
+    @Override
+    public void write(Event event, long timestampMillis, long threadId, CharSequence message) {
+        StringBuilder target = event.getLevel() == Level.ERROR ? err : out;
+        target.append(message).append(System.lineSeparator());
+    }
+
+    @Override
+    public void flush() {
+        if (out.length() > 0) {
+            System.out.print(out);
+            System.out.flush();
+            out.setLength(0);
+        }
+        if (err.length() > 0) {
+            System.err.print(err);
+            System.err.flush();
+            err.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package logging;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Every message the application logs, with its level and message template.
+ *
+ * Templates are parsed once, when the enum is initialized. Placeholders refer to the
+ * arguments passed to Log.log():
+ *
+ *   {0} {1}     text arguments
+ *   {t0} {t1}   last four characters of a text argument (card numbers)
+ *   {n0}..{n3}  number arguments
+ *   {m0}..{m3}  number arguments formatted as money (cents, "12.99")
+ *
+ * Because arguments are passed as references and primitives and the text is only
+ * assembled by the writer, a call site never builds a string of its own.
+ */
+public enum Event {
+    CONFIG_INITIALIZED(Level.INFO, "✓ Restaurant Configuration initialized (Singleton Pattern)"),
+    MENU_RELOADED(Level.INFO, "✓ Menu reloaded from {0} (version {n0})"),
+    MENU_RELOAD_FAILED(Level.ERROR, "Menu reload failed, keeping current menu: {0}"),
+    PROMOTIONS_PUBLISHED(Level.INFO, "✓ Promotions '{0}' published (version {n0}, {n1} rules)"),
+    ORDER_SERVICE_STARTED(Level.INFO, "✓ Order service listening on port {n0} ({0})"),
+    ORDER_SERVICE_STOPPED(Level.INFO, "Order service stopped after {n0} requests ({n1} rejected)"),
+    ORDER_REJECTED(Level.DEBUG, "Order request rejected: {0}"),
+    METRICS_EXPORT_FAILED(Level.ERROR, "Metrics export to {0} failed, retrying in {n0} s: {1}"),
+
+    MEAL_BUILDING(Level.INFO, "✓ Building meal with Builder Pattern..."),
+    ORDER_BUILDING(Level.INFO, "✓ Building order with Builder Pattern..."),
+
+    APPETIZER_PREPARING(Level.INFO, "Preparing appetizer: {0}"),
+    PIZZA_PREPARING(Level.INFO, "Preparing pizza: {0}\n"
+        + "  - Rolling out dough...\n"
+        + "  - Adding toppings...\n"
+        + "  - Baking in wood-fired oven..."),
+    DESSERT_PREPARING(Level.INFO, "Preparing dessert: {0}"),
+    BEVERAGE_PREPARING(Level.INFO, "Preparing beverage: {0}"),
+
+    CASH_PAYMENT(Level.INFO, "Processing cash payment...\n"
+        + "Amount Given: ${m0}\n"
+        + "Total: ${m1}\n"
+        + "Change: ${m2}\n"
+        + "Payment successful!"),
+    CASH_INSUFFICIENT(Level.WARN, "Insufficient cash! Need ${m0} more."),
+    CARD_PAYMENT(Level.INFO, "Processing credit card payment...\n"
+        + "Card Holder: {0}\n"
+        + "Card Number: **** **** **** {t1}\n"
+        + "Amount: ${m0}\n"
+        + "Authorizing transaction...\n"
+        + "Payment successful!"),
+    MOBILE_PAYMENT(Level.INFO, "Processing mobile payment via {0}...\n"
+        + "Phone: {1}\n"
+        + "Amount: ${m0}\n"
+        + "Sending payment request to mobile device...\n"
+        + "Payment confirmed!"),
+    GIFT_CARD_PAYMENT(Level.INFO, "Processing gift card payment...\n"
+        + "Gift Card: **** **** {t0}\n"
+        + "Current Balance: ${m0}\n"
+        + "Amount: ${m1}\n"
+        + "Remaining Balance: ${m2}\n"
+        + "Payment successful!"),
+    // A partial redemption drains the card, so the amount applied is the old balance
+    GIFT_CARD_PARTIAL(Level.WARN, "Processing gift card payment...\n"
+        + "Gift Card: **** **** {t0}\n"
+        + "Current Balance: ${m0}\n"
+        + "Amount: ${m1}\n"
+        + "Partial payment: ${m0} applied, ${m3} still due."),
+    GIFT_CARD_INSUFFICIENT(Level.WARN, "Processing gift card payment...\n"
+        + "Gift Card: **** **** {t0}\n"
+        + "Current Balance: ${m0}\n"
+        + "Amount: ${m1}\n"
+        + "Insufficient balance! Need ${m3} more.");
+
+    static final byte TEXT = 0;
+    static final byte TAIL = 1;
+    static final byte NUMBER = 2;
+    static final byte MONEY = 3;
+
+    private final Level level;
+    private final String template;
+    // literals[i] is followed by placeholder i; the last literal has no placeholder
+    final String[] literals;
+    final byte[] kinds;
+    final byte[] args;
+
+    Event(Level level, String template) {
+        this.level = level;
+        this.template = template;
+        List<String> literalList = new ArrayList<>();
+        List<byte[]> placeholders = new ArrayList<>();
+        int start = 0;
+        int open;
+        while ((open = template.indexOf('{', start)) >= 0) {
+            int close = template.indexOf('}', open);
+            literalList.add(template.substring(start, open));
+            placeholders.add(parsePlaceholder(template.substring(open + 1, close)));
+            start = close + 1;
+        }
+        literalList.add(template.substring(start));
+        this.literals = literalList.toArray(new String[0]);
+        this.kinds = new byte[placeholders.size()];
+        this.args = new byte[placeholders.size()];
+        for (int i = 0; i < placeholders.size(); i++) {
+            kinds[i] = placeholders.get(i)[0];
+            args[i] = placeholders.get(i)[1];
+        }
+    }
+
+    private static byte[] parsePlaceholder(String spec) {
+        byte kind = TEXT;
+        switch (spec.charAt(0)) {
+            case 't':
+                kind = TAIL;
+                break;
+            case 'n':
+                kind = NUMBER;
+                break;
+            case 'm':
+                kind = MONEY;
+                break;
+            default:
+                break;
+        }
+        int index = spec.charAt(spec.length() - 1) - '0';
+        int limit = kind == TEXT || kind == TAIL ? LogRecord.TEXT_ARGS : LogRecord.NUMBER_ARGS;
+        if (index < 0 || index >= limit) {
+            throw new IllegalArgumentException("Invalid placeholder {" + spec + "}");
+        }
+        return new byte[] {kind, (byte) index};
+    }
+
+    public Level getLevel() {
+        return level;
+    }
+
+    public String getTemplate() {
+        return template;
+    }
+}
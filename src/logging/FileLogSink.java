@@ -0,0 +1,149 @@
+package logging;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends events to a log file, one line per event:
+ *
+ *   2026-01-31T18:04:05.123Z INFO  ORDER_BUILDING [t14] ✓ Building order with Builder Pattern...
+ *
+ * Lines are encoded as UTF-8 straight into a reused byte array and written to the file
+ * channel when the buffer fills or the batch ends, so a burst of events costs one
+ * write() instead of one per line. Continuation lines of multi-line messages are
+ * indented.
+ */
+public class FileLogSink implements LogSink {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final byte[] bytes = new byte[BUFFER_SIZE];
+    private final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    private int position;
+
+    public FileLogSink(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            parent.toFile().mkdirs();
+        }
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public void write(Event event, long timestampMillis, long threadId, CharSequence message) throws IOException {
+        putTimestamp(timestampMillis);
+        putAscii(' ');
+        String level = event.getLevel().name();
+        putAscii(level);
+        for (int i = level.length(); i < 6; i++) {
+            putAscii(' ');
+        }
+        putAscii(event.name());
+        putAscii(" [t");
+        putNumber(threadId, 1);
+        putAscii("] ");
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c == '\n') {
+                putAscii("\n    ");
+            } else if (Character.isHighSurrogate(c) && i + 1 < message.length()) {
+                putCodePoint(Character.toCodePoint(c, message.charAt(++i)));
+            } else {
+                putCodePoint(c);
+            }
+        }
+        putAscii('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        buffer.limit(position).position(0);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        position = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    private void ensure(int count) throws IOException {
+        if (BUFFER_SIZE - position < count) {
+            flush();
+        }
+    }
+
+    private void putAscii(char c) throws IOException {
+        ensure(1);
+        bytes[position++] = (byte) c;
+    }
+
+    private void putAscii(String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            putAscii(s.charAt(i));
+        }
+    }
+
+    private void putCodePoint(int cp) throws IOException {
+        ensure(4);
+        if (cp < 0x80) {
+            bytes[position++] = (byte) cp;
+        } else if (cp < 0x800) {
+            bytes[position++] = (byte) (0xC0 | cp >> 6);
+            bytes[position++] = (byte) (0x80 | cp & 0x3F);
+        } else if (cp < 0x10000) {
+            bytes[position++] = (byte) (0xE0 | cp >> 12);
+            bytes[position++] = (byte) (0x80 | cp >> 6 & 0x3F);
+            bytes[position++] = (byte) (0x80 | cp & 0x3F);
+        } else {
+            bytes[position++] = (byte) (0xF0 | cp >> 18);
+            bytes[position++] = (byte) (0x80 | cp >> 12 & 0x3F);
+            bytes[position++] = (byte) (0x80 | cp >> 6 & 0x3F);
+            bytes[position++] = (byte) (0x80 | cp & 0x3F);
+        }
+    }
+
+    private void putNumber(long value, int minDigits) throws IOException {
+        if (value >= 10 || minDigits > 1) {
+            putNumber(value / 10, minDigits - 1);
+        }
+        putAscii((char) ('0' + value % 10));
+    }
+
+    // ISO-8601 UTC without java.time objects (civil-from-days, Howard Hinnant)
+    private void putTimestamp(long millis) throws IOException {
+        long days = Math.floorDiv(millis, 86_400_000L);
+        long msOfDay = Math.floorMod(millis, 86_400_000L);
+        long z = days + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long doe = z - era * 146_097;
+        long yoe = (doe - doe / 1460 + doe / 36_524 - doe / 146_096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        long day = doy - (153 * mp + 2) / 5 + 1;
+        long month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+
+        putNumber(year, 4);
+        putAscii('-');
+        putNumber(month, 2);
+        putAscii('-');
+        putNumber(day, 2);
+        putAscii('T');
+        putNumber(msOfDay / 3_600_000, 2);
+        putAscii(':');
+        putNumber(msOfDay / 60_000 % 60, 2);
+        putAscii(':');
+        putNumber(msOfDay / 1000 % 60, 2);
+        putAscii('.');
+        putNumber(msOfDay % 1000, 3);
+        putAscii('Z');
+    }
+}
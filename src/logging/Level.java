@@ -0,0 +1,13 @@
+package logging;
+
+/**
+ * Log levels in increasing order of severity. OFF disables every event.
+ */
+public enum Level {
+    TRACE,
+    DEBUG,
+    INFO,
+    WARN,
+    ERROR,
+    OFF
+}
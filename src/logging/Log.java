@@ -0,0 +1,272 @@
+package logging;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Structured event logging.
+ *
+ * Call sites log an Event with reference and primitive arguments; a disabled event
+ * costs one comparison. Events are delivered to every registered LogSink (the
+ * console by default).
+ *
+ * By default logging threads only copy the event into a preallocated ring buffer and
+ * a single daemon writer thread renders and writes events in batches, so terminals
+ * never wait on stdout or the disk; a shutdown hook writes out what is left. After
+ * stopBackgroundWriter() (or with tmps.log.async=false), events are written on the
+ * calling thread under a global lock, in program order with the rest of the console
+ * output, exactly like the System.out.println calls they replace.
+ *
+ * System properties: tmps.log.level (default INFO), tmps.log.file (adds a
+ * FileLogSink), tmps.log.async (default true, starts the background writer).
+ */
+public final class Log {
+    public static final String LEVEL_PROPERTY = "tmps.log.level";
+    public static final String FILE_PROPERTY = "tmps.log.file";
+    public static final String ASYNC_PROPERTY = "tmps.log.async";
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final Object LOCK = new Object();
+    private static final StringBuilder MESSAGE = new StringBuilder(512); // guarded by LOCK
+    private static final LogRecord DIRECT = new LogRecord();             // guarded by LOCK
+    private static final int BATCH_SIZE = 256;
+
+    private static volatile int threshold = Level.INFO.ordinal();
+    private static volatile LogSink[] sinks = {new ConsoleLogSink()};
+    private static volatile LogRingBuffer ring;
+    private static volatile Thread writer;
+    private static boolean shutdownHookInstalled; // guarded by LOCK
+
+    static {
+        threshold = Level.valueOf(System.getProperty(LEVEL_PROPERTY, Level.INFO.name())).ordinal();
+        String file = System.getProperty(FILE_PROPERTY);
+        if (file != null) {
+            try {
+                addSink(new FileLogSink(Paths.get(file)));
+            } catch (IOException e) {
+                System.err.println("Cannot open log file " + file + ": " + e.getMessage());
+            }
+        }
+        if (Boolean.parseBoolean(System.getProperty(ASYNC_PROPERTY, "true"))) {
+            startBackgroundWriter(DEFAULT_BUFFER_SIZE);
+        }
+    }
+
+    private Log() {
+    }
+
+    public static void setLevel(Level level) {
+        threshold = level.ordinal();
+    }
+
+    public static Level getLevel() {
+        return Level.values()[threshold];
+    }
+
+    public static boolean isEnabled(Event event) {
+        return event.getLevel().ordinal() >= threshold;
+    }
+
+    public static void log(Event event) {
+        log(event, null, null, 0, 0, 0, 0);
+    }
+
+    public static void log(Event event, Object text0) {
+        log(event, text0, null, 0, 0, 0, 0);
+    }
+
+    public static void log(Event event, Object text0, long number0) {
+        log(event, text0, null, number0, 0, 0, 0);
+    }
+
+    public static void log(Event event, Object text0, Object text1, long number0) {
+        log(event, text0, text1, number0, 0, 0, 0);
+    }
+
+    public static void log(Event event, long number0) {
+        log(event, null, null, number0, 0, 0, 0);
+    }
+
+    public static void log(Event event, long number0, long number1, long number2) {
+        log(event, null, null, number0, number1, number2, 0);
+    }
+
+    public static void log(Event event, Object text0, Object text1,
+                           long number0, long number1, long number2, long number3) {
+        if (event.getLevel().ordinal() < threshold) {
+            return;
+        }
+        LogRingBuffer buffer = ring;
+        if (buffer != null) {
+            buffer.publish(event, text0, text1, number0, number1, number2, number3);
+            if (writer == null) {
+                drain(buffer); // the writer stopped while this event was being published
+            }
+            return;
+        }
+        synchronized (LOCK) {
+            DIRECT.set(event, text0, text1, number0, number1, number2, number3);
+            dispatch(DIRECT);
+            DIRECT.clear();
+            flushSinks();
+        }
+    }
+
+    /**
+     * Adds a destination for all subsequent events
+     */
+    public static void addSink(LogSink sink) {
+        synchronized (LOCK) {
+            LogSink[] updated = new LogSink[sinks.length + 1];
+            System.arraycopy(sinks, 0, updated, 0, sinks.length);
+            updated[sinks.length] = sink;
+            sinks = updated;
+        }
+    }
+
+    /**
+     * Replaces all sinks, e.g. setSinks(new FileLogSink(path)) on a headless server
+     */
+    public static void setSinks(LogSink... replacement) {
+        synchronized (LOCK) {
+            sinks = replacement.clone();
+        }
+    }
+
+    /**
+     * Removes a sink
+     */
+    public static void removeSink(LogSink sink) {
+        synchronized (LOCK) {
+            LogSink[] current = sinks;
+            int kept = 0;
+            LogSink[] updated = new LogSink[current.length];
+            for (LogSink s : current) {
+                if (s != sink) {
+                    updated[kept++] = s;
+                }
+            }
+            LogSink[] trimmed = new LogSink[kept];
+            System.arraycopy(updated, 0, trimmed, 0, kept);
+            sinks = trimmed;
+        }
+    }
+
+    /**
+     * Switches to asynchronous logging through a ring buffer of the given size
+     * (a power of two). Has no effect if the writer is already running.
+     */
+    public static void startBackgroundWriter(int bufferSize) {
+        synchronized (LOCK) {
+            if (writer != null) {
+                return;
+            }
+            ring = new LogRingBuffer(bufferSize);
+            Thread thread = new Thread(Log::runWriter, "log-writer");
+            thread.setDaemon(true);
+            writer = thread;
+            thread.start();
+            if (!shutdownHookInstalled) {
+                Runtime.getRuntime().addShutdownHook(new Thread(Log::stopBackgroundWriter, "log-shutdown"));
+                shutdownHookInstalled = true;
+            }
+        }
+    }
+
+    /**
+     * Writes out every buffered event, stops the writer and returns to synchronous
+     * logging
+     */
+    public static void stopBackgroundWriter() {
+        Thread thread;
+        synchronized (LOCK) {
+            thread = writer;
+            writer = null;
+        }
+        if (thread == null) {
+            return;
+        }
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LogRingBuffer buffer = ring;
+        if (buffer != null) {
+            drain(buffer);
+        }
+        synchronized (LOCK) {
+            ring = null;
+        }
+    }
+
+    public static boolean isBackgroundWriterRunning() {
+        return writer != null;
+    }
+
+    /**
+     * Number of times a logging thread had to wait because the ring buffer was full
+     */
+    public static long getStalls() {
+        LogRingBuffer buffer = ring;
+        return buffer == null ? 0 : buffer.getStalls();
+    }
+
+    private static void runWriter() {
+        Thread self = Thread.currentThread();
+        LogRingBuffer buffer = ring;
+        while (writer == self) {
+            if (drainBatch(buffer) == 0) {
+                buffer.awaitRecord(); // stopBackgroundWriter() unparks it to exit
+            }
+        }
+    }
+
+    private static void drain(LogRingBuffer buffer) {
+        while (drainBatch(buffer) > 0) {
+            // keep going until the buffer is empty
+        }
+    }
+
+    private static int drainBatch(LogRingBuffer buffer) {
+        synchronized (LOCK) {
+            int count = 0;
+            LogRecord record;
+            while (count < BATCH_SIZE && (record = buffer.peek()) != null) {
+                dispatch(record);
+                buffer.advance(record);
+                count++;
+            }
+            if (count > 0) {
+                flushSinks();
+            }
+            return count;
+        }
+    }
+
+    // Caller holds LOCK
+    private static void dispatch(LogRecord record) {
+        MESSAGE.setLength(0);
+        record.renderMessage(MESSAGE);
+        for (LogSink sink : sinks) {
+            try {
+                sink.write(record.event, record.timestampMillis, record.threadId, MESSAGE);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Log sink " + sink.getClass().getSimpleName() + " failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // Caller holds LOCK
+    private static void flushSinks() {
+        for (LogSink sink : sinks) {
+            try {
+                sink.flush();
+            } catch (IOException | RuntimeException e) {
+                System.err.println("Log sink " + sink.getClass().getSimpleName() + " failed: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package logging;
+
+import domain.pricing.Money;
+
+/**
+ * One preallocated ring buffer slot. Producers fill the fields and then publish the
+ * slot by writing its sequence number; the writer renders it and clears the text
+ * references so the slot does not keep arguments alive.
+ */
+final class LogRecord {
+    static final int TEXT_ARGS = 2;
+    static final int NUMBER_ARGS = 4;
+
+    volatile long published = -1;
+
+    Event event;
+    long timestampMillis;
+    long threadId;
+    Object text0;
+    Object text1;
+    long number0;
+    long number1;
+    long number2;
+    long number3;
+
+    void set(Event event, Object text0, Object text1, long number0, long number1, long number2, long number3) {
+        this.event = event;
+        this.timestampMillis = System.currentTimeMillis();
+        this.threadId = Thread.currentThread().getId();
+        this.text0 = text0;
+        this.text1 = text1;
+        this.number0 = number0;
+        this.number1 = number1;
+        this.number2 = number2;
+        this.number3 = number3;
+    }
+
+    void clear() {
+        text0 = null;
+        text1 = null;
+    }
+
+    /**
+     * Appends the event's message with the arguments filled in
+     */
+    void renderMessage(StringBuilder out) {
+        String[] literals = event.literals;
+        for (int i = 0; i < event.kinds.length; i++) {
+            out.append(literals[i]);
+            int arg = event.args[i];
+            switch (event.kinds[i]) {
+                case Event.TEXT:
+                    out.append(text(arg));
+                    break;
+                case Event.TAIL:
+                    appendTail(out, text(arg));
+                    break;
+                case Event.NUMBER:
+                    out.append(number(arg));
+                    break;
+                default:
+                    Money.appendTo(out, number(arg));
+            }
+        }
+        out.append(literals[literals.length - 1]);
+    }
+
+    private Object text(int index) {
+        return index == 0 ? text0 : text1;
+    }
+
+    private long number(int index) {
+        switch (index) {
+            case 0:
+                return number0;
+            case 1:
+                return number1;
+            case 2:
+                return number2;
+            default:
+                return number3;
+        }
+    }
+
+    private static void appendTail(StringBuilder out, Object value) {
+        if (value instanceof CharSequence) {
+            CharSequence s = (CharSequence) value;
+            out.append(s, Math.max(0, s.length() - 4), s.length());
+        } else {
+            String s = String.valueOf(value);
+            out.append(s, Math.max(0, s.length() - 4), s.length());
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package logging;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded multi-producer, single-consumer queue of preallocated LogRecords.
+ *
+ * A producer claims a sequence number with one getAndIncrement, fills the slot for
+ * that sequence and publishes it; no locks, no allocation. When the writer falls a
+ * full buffer behind, producers wait for it (the stall is counted) rather than drop
+ * events. An idle writer parks until a producer publishes, so an application with
+ * nothing to log costs no wakeups.
+ */
+final class LogRingBuffer {
+    private static final long STALL_PARK_NANOS = 50_000;
+
+    private final LogRecord[] records;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong consumed = new AtomicLong(); // next sequence the writer reads
+    private final AtomicLong stalls = new AtomicLong();
+    private volatile Thread idleWriter; // set while the writer is parked in awaitRecord()
+
+    LogRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring buffer capacity must be a power of two: " + capacity);
+        }
+        this.records = new LogRecord[capacity];
+        this.mask = capacity - 1;
+        for (int i = 0; i < capacity; i++) {
+            records[i] = new LogRecord();
+        }
+    }
+
+    /**
+     * Claims, fills and publishes the next slot
+     */
+    void publish(Event event, Object text0, Object text1, long number0, long number1, long number2, long number3) {
+        long sequence = claimed.getAndIncrement();
+        if (sequence - consumed.get() >= records.length) {
+            stalls.incrementAndGet();
+            // Back off instead of spinning so the writer gets the CPU it needs to catch up
+            while (sequence - consumed.get() >= records.length) {
+                LockSupport.parkNanos(STALL_PARK_NANOS);
+            }
+        }
+        LogRecord record = records[(int) sequence & mask];
+        record.set(event, text0, text1, number0, number1, number2, number3);
+        record.published = sequence;
+        Thread writer = idleWriter;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    /**
+     * Parks the writer until a record is published or the writer is unparked.
+     * Only the writer calls this.
+     */
+    void awaitRecord() {
+        idleWriter = Thread.currentThread();
+        // Checked after announcing: a record published before this point is seen here,
+        // one published after it unparks the writer
+        if (peek() == null) {
+            LockSupport.park(this);
+        }
+        idleWriter = null;
+    }
+
+    /**
+     * The next record to consume, or null if it has not been published yet.
+     * Only the writer calls this.
+     */
+    LogRecord peek() {
+        long next = consumed.get();
+        LogRecord record = records[(int) next & mask];
+        return record.published == next ? record : null;
+    }
+
+    /**
+     * Releases the record returned by peek() back to producers
+     */
+    void advance(LogRecord record) {
+        record.clear();
+        consumed.lazySet(consumed.get() + 1);
+    }
+
+    boolean isEmpty() {
+        return consumed.get() == claimed.get();
+    }
+
+    int capacity() {
+        return records.length;
+    }
+
+    long getStalls() {
+        return stalls.get();
+    }
+}
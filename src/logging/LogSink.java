@@ -0,0 +1,25 @@
+package logging;
+
+import java.io.IOException;
+
+/**
+ * Destination for rendered log events. Sinks are only ever called by one thread at
+ * a time (the background writer, or a logging thread holding the Log lock), so they
+ * need no synchronization of their own.
+ */
+public interface LogSink {
+    /**
+     * Writes one event. The message builder is reused for the next event and must not
+     * be retained.
+     */
+    void write(Event event, long timestampMillis, long threadId, CharSequence message) throws IOException;
+
+    /**
+     * Called at the end of every batch
+     */
+    void flush() throws IOException;
+
+    default void close() throws IOException {
+        flush();
+    }
+}
@@ -0,0 +1,44 @@
+package metrics;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Monotonic event counter. Increments are striped (LongAdder), so threads counting
+ * at the same time do not contend on one memory location.
+ */
+public final class Counter extends Metric implements CounterMXBean {
+    private final LongAdder count = new LongAdder();
+
+    Counter(String name, String help) {
+        super(name, help);
+    }
+
+    public void increment() {
+        count.increment();
+    }
+
+    public void add(long amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("A counter cannot go down");
+        }
+        count.add(amount);
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    void writePrometheus(Appendable out, String prefix) throws IOException {
+        String name = prefix + getName() + "_total";
+        writeHeader(out, name, "counter");
+        out.append(name).append(' ').append(Long.toString(count.sum())).append('\n');
+    }
+
+    @Override
+    String getMBeanType() {
+        return "Counter";
+    }
+}
@@ -0,0 +1,8 @@
+package metrics;
+
+/**
+ * JMX view of a Counter (see MetricsRegistry.registerMBeans)
+ */
+public interface CounterMXBean {
+    long getCount();
+}
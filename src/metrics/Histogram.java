@@ -0,0 +1,136 @@
+package metrics;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets (as in HdrHistogram): every
+ * power of two is split into 16 equal sub-buckets, so a value is counted in a
+ * bucket no more than 1/16 (6.25%) wider than the value itself. Values below 16 ns
+ * are counted exactly; values above about 73 minutes share the last bucket.
+ *
+ * record() is a few atomic adds into preallocated arrays and creates no garbage.
+ * Counts are cumulative since the histogram was created. Percentiles are read from
+ * a snapshot and reported as the upper bound of the bucket they fall in (never above
+ * the largest value recorded).
+ */
+public final class Histogram extends Metric implements HistogramMXBean {
+    private static final int SUB_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 42;
+    static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BITS + 1) * SUB_BUCKETS;
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sumNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    Histogram(String name, String help) {
+        super(name, help);
+    }
+
+    /**
+     * Records one value, in nanoseconds; negative values count as 0
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketOf(value));
+        sumNanos.add(value);
+        long max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+
+    static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (exponent - SUB_BITS) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Largest value counted in the bucket
+     */
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+        int sub = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+
+    public HistogramSnapshot snapshot() {
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+        }
+        return new HistogramSnapshot(snapshot, sumNanos.sum(), maxNanos.get());
+    }
+
+    // HistogramMXBean: each attribute is read from its own snapshot
+
+    @Override
+    public long getCount() {
+        return snapshot().getCount();
+    }
+
+    @Override
+    public double getMeanNanos() {
+        return snapshot().getMeanNanos();
+    }
+
+    @Override
+    public long getP50Nanos() {
+        return snapshot().getValueAtPercentile(50);
+    }
+
+    @Override
+    public long getP90Nanos() {
+        return snapshot().getValueAtPercentile(90);
+    }
+
+    @Override
+    public long getP99Nanos() {
+        return snapshot().getValueAtPercentile(99);
+    }
+
+    @Override
+    public long getP999Nanos() {
+        return snapshot().getValueAtPercentile(99.9);
+    }
+
+    @Override
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Exported as a summary in seconds, the Prometheus base unit
+     */
+    @Override
+    void writePrometheus(Appendable out, String prefix) throws IOException {
+        String name = prefix + getName() + "_seconds";
+        HistogramSnapshot snapshot = snapshot();
+        writeHeader(out, name, "summary");
+        for (double quantile : QUANTILES) {
+            out.append(name).append("{quantile=\"").append(Double.toString(quantile)).append("\"} ")
+                .append(Double.toString(snapshot.getValueAtPercentile(quantile * 100) / 1e9)).append('\n');
+        }
+        out.append(name).append("_sum ").append(Double.toString(snapshot.getSumNanos() / 1e9)).append('\n');
+        out.append(name).append("_count ").append(Long.toString(snapshot.getCount())).append('\n');
+    }
+
+    @Override
+    String getMBeanType() {
+        return "Histogram";
+    }
+}
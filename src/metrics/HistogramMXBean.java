@@ -0,0 +1,14 @@
+package metrics;
+
+/**
+ * JMX view of a Histogram (see MetricsRegistry.registerMBeans)
+ */
+public interface HistogramMXBean {
+    long getCount();
+    double getMeanNanos();
+    long getP50Nanos();
+    long getP90Nanos();
+    long getP99Nanos();
+    long getP999Nanos();
+    long getMaxNanos();
+}
@@ -0,0 +1,66 @@
+package metrics;
+
+/**
+ * Counts of a Histogram at one point in time. Buckets are read one by one while
+ * other threads keep recording, so a snapshot is consistent with itself but may
+ * miss values recorded while it was taken.
+ */
+public final class HistogramSnapshot {
+    private final long[] counts;
+    private final long count;
+    private final long sumNanos;
+    private final long maxNanos;
+
+    HistogramSnapshot(long[] counts, long sumNanos, long maxNanos) {
+        this.counts = counts;
+        long total = 0;
+        for (long c : counts) {
+            total += c;
+        }
+        this.count = total;
+        this.sumNanos = sumNanos;
+        this.maxNanos = maxNanos;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSumNanos() {
+        return sumNanos;
+    }
+
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    public double getMeanNanos() {
+        return count == 0 ? 0 : (double) sumNanos / count;
+    }
+
+    /**
+     * Upper bound of the bucket holding the given percentile (0-100), in nanoseconds;
+     * 0 when nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(count * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(maxNanos, Histogram.upperBoundOf(i));
+            }
+        }
+        return maxNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("count=%d mean=%.1f p50=%d p90=%d p99=%d p99.9=%d max=%d (ns)", count, getMeanNanos(),
+            getValueAtPercentile(50), getValueAtPercentile(90), getValueAtPercentile(99),
+            getValueAtPercentile(99.9), maxNanos);
+    }
+}
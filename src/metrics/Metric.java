@@ -0,0 +1,46 @@
+package metrics;
+
+import java.io.IOException;
+
+/**
+ * A named metric in a MetricsRegistry
+ */
+public abstract class Metric {
+    private final String name;
+    private final String help;
+
+    Metric(String name, String help) {
+        this.name = name;
+        this.help = help;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getHelp() {
+        return help;
+    }
+
+    /**
+     * Appends the metric in the Prometheus text exposition format
+     */
+    abstract void writePrometheus(Appendable out, String prefix) throws IOException;
+
+    abstract String getMBeanType();
+
+    void writeHeader(Appendable out, String exportedName, String type) throws IOException {
+        out.append("# HELP ").append(exportedName).append(' ');
+        for (int i = 0; i < help.length(); i++) {
+            char c = help.charAt(i);
+            if (c == '\\') {
+                out.append("\\\\");
+            } else if (c == '\n') {
+                out.append("\\n");
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('\n').append("# TYPE ").append(exportedName).append(' ').append(type).append('\n');
+    }
+}
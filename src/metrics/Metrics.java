@@ -0,0 +1,136 @@
+package metrics;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import logging.Event;
+import logging.Log;
+
+/**
+ * Timing of domain operations.
+ *
+ * Call sites bracket an operation with start() and stop():
+ *
+ *   long start = Metrics.start(Operation.ORDER_BUILD);
+ *   ...
+ *   Metrics.stop(Operation.ORDER_BUILD, start);
+ *
+ * Recording reads the clock twice and adds to preallocated counters; nothing is
+ * allocated. A call that is not timed (metrics disabled, or not picked for an
+ * operation that is sampled) gets 0 from start(), which stop() ignores.
+ *
+ * System properties: tmps.metrics.enabled (default true), tmps.metrics.file (writes
+ * the default registry to the file in Prometheus format every tmps.metrics.interval
+ * seconds, default 15), tmps.metrics.jmx=true (registers the metrics as MBeans).
+ */
+public final class Metrics {
+    public static final String ENABLED_PROPERTY = "tmps.metrics.enabled";
+    public static final String FILE_PROPERTY = "tmps.metrics.file";
+    public static final String INTERVAL_PROPERTY = "tmps.metrics.interval";
+    public static final String JMX_PROPERTY = "tmps.metrics.jmx";
+    public static final int DEFAULT_INTERVAL_SECONDS = 15;
+
+    private static volatile boolean enabled =
+        Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true"));
+    private static Thread exporter; // guarded by Metrics.class
+
+    static {
+        if (Boolean.getBoolean(JMX_PROPERTY)) {
+            getRegistry().registerMBeans();
+        }
+        String file = System.getProperty(FILE_PROPERTY);
+        if (file != null) {
+            startFileExport(Paths.get(file), Integer.getInteger(INTERVAL_PROPERTY, DEFAULT_INTERVAL_SECONDS));
+        }
+    }
+
+    private Metrics() {
+    }
+
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Start time for stop(), 0 when this call is not timed
+     */
+    public static long start(Operation operation) {
+        if (!enabled || (ThreadLocalRandom.current().nextInt() & operation.sampleMask) != 0) {
+            return 0;
+        }
+        return System.nanoTime();
+    }
+
+    public static void stop(Operation operation, long startNanos) {
+        if (startNanos != 0) {
+            operation.getLatency().record(System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Counts a failed call to the operation
+     */
+    public static void error(Operation operation) {
+        if (enabled) {
+            operation.getErrors().increment();
+        }
+    }
+
+    /**
+     * Writes the default registry to the file now and then every intervalSeconds on a
+     * daemon thread, until stopFileExport(). A failed write is logged
+     * (METRICS_EXPORT_FAILED) and retried at the next interval, so an unwritable file
+     * never breaks the operations being timed.
+     */
+    public static synchronized void startFileExport(Path file, int intervalSeconds) {
+        if (intervalSeconds <= 0) {
+            throw new IllegalArgumentException("Export interval must be positive");
+        }
+        stopFileExport();
+        MetricsRegistry registry = getRegistry();
+        export(registry, file, intervalSeconds);
+        Thread thread = new Thread(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    TimeUnit.SECONDS.sleep(intervalSeconds);
+                    export(registry, file, intervalSeconds);
+                }
+            } catch (InterruptedException e) {
+                // stopped
+            }
+        }, "metrics-export");
+        thread.setDaemon(true);
+        thread.start();
+        exporter = thread;
+    }
+
+    private static void export(MetricsRegistry registry, Path file, int intervalSeconds) {
+        try {
+            registry.writePrometheus(file);
+        } catch (UncheckedIOException e) {
+            Log.log(Event.METRICS_EXPORT_FAILED, file, e.getCause(), intervalSeconds);
+        }
+    }
+
+    /**
+     * The default registry, holding the metrics of every Operation even before the
+     * operation first runs
+     */
+    public static MetricsRegistry getRegistry() {
+        Operation.values(); // operation metrics join the registry when the enum is initialized
+        return MetricsRegistry.getDefault();
+    }
+
+    public static synchronized void stopFileExport() {
+        if (exporter != null) {
+            exporter.interrupt();
+            exporter = null;
+        }
+    }
+}
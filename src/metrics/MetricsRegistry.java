@@ -0,0 +1,161 @@
+package metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Named histograms and counters, exported together.
+ *
+ * Metrics are created once (usually into static fields, see Operation) and recorded
+ * into directly; the registry is only consulted to create and export them. Exports:
+ *
+ *   writePrometheus(Appendable)  Prometheus text format, names prefixed "tmps_"
+ *   writePrometheus(Path)        the same, replacing the file atomically (for the
+ *                                node_exporter textfile collector)
+ *   registerMBeans(MBeanServer)  one MXBean per metric, "tmps.metrics:type=...,name=..."
+ */
+public final class MetricsRegistry {
+    public static final String PREFIX = "tmps_";
+    public static final String JMX_DOMAIN = "tmps.metrics";
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private final ConcurrentMap<String, Metric> metrics = new ConcurrentHashMap<>();
+    private volatile MBeanServer mbeanServer;
+
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the histogram with this name, creating it on first use
+     */
+    public Histogram histogram(String name, String help) {
+        return metric(name, help, Histogram.class);
+    }
+
+    /**
+     * Returns the counter with this name, creating it on first use
+     */
+    public Counter counter(String name, String help) {
+        return metric(name, help, Counter.class);
+    }
+
+    private <M extends Metric> M metric(String name, String help, Class<M> type) {
+        Metric metric = metrics.get(name);
+        if (metric == null) {
+            checkName(name);
+            Metric created = type == Histogram.class ? new Histogram(name, help) : new Counter(name, help);
+            metric = metrics.putIfAbsent(name, created);
+            if (metric == null) {
+                metric = created;
+                MBeanServer server = mbeanServer;
+                if (server != null) {
+                    register(server, metric);
+                }
+            }
+        }
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException("Metric " + name + " is a " + metric.getMBeanType().toLowerCase(Locale.ROOT)
+                + ", not a " + type.getSimpleName().toLowerCase(Locale.ROOT));
+        }
+        return type.cast(metric);
+    }
+
+    private static void checkName(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("Metric name cannot be empty");
+        }
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (!(c >= 'a' && c <= 'z' || c == '_' || i > 0 && c >= '0' && c <= '9')) {
+                throw new IllegalArgumentException("Metric names use a-z, 0-9 and '_': " + name);
+            }
+        }
+    }
+
+    /**
+     * All metrics, sorted by name
+     */
+    public List<Metric> getMetrics() {
+        List<Metric> sorted = new ArrayList<>(metrics.values());
+        sorted.sort(Comparator.comparing(Metric::getName));
+        return sorted;
+    }
+
+    public void writePrometheus(Appendable out) throws IOException {
+        for (Metric metric : getMetrics()) {
+            metric.writePrometheus(out, PREFIX);
+        }
+    }
+
+    /**
+     * Writes the Prometheus text to a temporary file next to the target and moves it
+     * into place, so a scraper never reads a half-written file
+     */
+    public void writePrometheus(Path file) {
+        Path directory = file.toAbsolutePath().getParent();
+        try {
+            Path temp = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            try {
+                try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                    writePrometheus(out);
+                }
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write metrics to " + file, e);
+        }
+    }
+
+    /**
+     * Registers every metric, and every metric created from now on, with the platform
+     * MBeanServer
+     */
+    public void registerMBeans() {
+        registerMBeans(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    public synchronized void registerMBeans(MBeanServer server) {
+        mbeanServer = server;
+        for (Metric metric : metrics.values()) {
+            register(server, metric);
+        }
+    }
+
+    public static ObjectName objectNameOf(Metric metric) {
+        try {
+            return new ObjectName(JMX_DOMAIN + ":type=" + metric.getMBeanType() + ",name=" + metric.getName());
+        } catch (JMException e) {
+            throw new IllegalArgumentException("Invalid MBean name for metric " + metric.getName(), e);
+        }
+    }
+
+    private static void register(MBeanServer server, Metric metric) {
+        try {
+            server.registerMBean(metric, objectNameOf(metric));
+        } catch (InstanceAlreadyExistsException e) {
+            // registered by an earlier call
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register MBean for metric " + metric.getName(), e);
+        }
+    }
+}
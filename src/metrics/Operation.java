@@ -0,0 +1,50 @@
+package metrics;
+
+/**
+ * Every timed domain operation, with the histogram of its latency and the counter of
+ * calls that failed (unknown menu item, incomplete builder, payment not covered).
+ * Metric names are the lower-case names below, exported as tmps_<name>_seconds and
+ * tmps_<name>_errors_total.
+ *
+ * Operations that take well under a microsecond would be slowed down noticeably by
+ * reading the clock twice per call, so only a random 1 in sampleEvery of their calls
+ * is timed: percentiles stay unbiased, the histogram count is of timed calls only.
+ * Errors are always counted.
+ */
+public enum Operation {
+    MENU_ITEM_LOOKUP("menu_item_lookup", "MenuItemFactory.createMenuItem", 16),
+    MEAL_BUILD("meal_build", "MealBuilder.build", 8),
+    ORDER_BUILD("order_build", "OrderBuilder.build", 1),
+    ORDER_PRICING("order_pricing", "Order.calculateTotal, pricing an order's breakdown", 8),
+    ORDER_RENDER("order_render", "Order.toString", 1),
+    CASH_PAYMENT("payment_cash", "CashPayment.processPayment", 1),
+    CARD_PAYMENT("payment_credit_card", "CreditCardPayment.processPayment", 1),
+    MOBILE_PAYMENT("payment_mobile", "MobilePayment.processPayment", 1),
+    GIFT_CARD_PAYMENT("payment_gift_card", "GiftCardPayment.processPayment", 1);
+
+    private final Histogram latency;
+    private final Counter errors;
+    private final int sampleEvery;
+    final int sampleMask;
+
+    Operation(String name, String description, int sampleEvery) {
+        MetricsRegistry registry = MetricsRegistry.getDefault();
+        this.latency = registry.histogram(name, "Time spent in " + description
+            + (sampleEvery > 1 ? " (1 in " + sampleEvery + " calls timed)" : ""));
+        this.errors = registry.counter(name + "_errors", "Failed calls to " + description);
+        this.sampleEvery = sampleEvery;
+        this.sampleMask = sampleEvery - 1; // a power of two
+    }
+
+    public Histogram getLatency() {
+        return latency;
+    }
+
+    public Counter getErrors() {
+        return errors;
+    }
+
+    public int getSampleEvery() {
+        return sampleEvery;
+    }
+}
@@ -3,6 +3,11 @@ package patterns.builder;
 import domain.models.Meal;
 import domain.models.MenuItem;
 import domain.enums.MealSize;
+import logging.Event;
+import logging.Log;
+import metrics.Metrics;
+import metrics.Operation;
+import patterns.flyweight.MealCache;
 
 /**
  * BUILDER PATTERN
@@ -18,6 +23,8 @@ import domain.enums.MealSize;
  * - Supports fluent interface (method chaining)
  */
 public class MealBuilder {
+    private static final ThreadLocal<MealBuilder> POOL = ThreadLocal.withInitial(MealBuilder::new);
+
     private MenuItem mainItem;
     private MenuItem sideItem;
     private MenuItem beverage;
@@ -30,6 +37,14 @@ public class MealBuilder {
         this.mealSize = MealSize.REGULAR; // default size
     }
 
+    /**
+     * Returns this thread's reusable builder, reset to an empty regular meal. It stays
+     * valid until the next pooled() call on the same thread.
+     */
+    public static MealBuilder pooled() {
+        return POOL.get().reset();
+    }
+
     /**
      * Builder methods return 'this' to enable method chaining
      */
@@ -65,16 +80,21 @@ public class MealBuilder {
     }
 
     /**
-     * Validates and builds the final Meal object
+     * Validates and builds the final Meal object. Meals are immutable, so an
+     * identical combo built earlier is returned as the same shared instance.
      */
     public Meal build() {
         // Validation: At least main item is required
         if (mainItem == null) {
+            Metrics.error(Operation.MEAL_BUILD);
             throw new IllegalStateException("Cannot build meal without a main item");
         }
 
-        System.out.println("✓ Building meal with Builder Pattern...");
-        return new Meal(mainItem, sideItem, beverage, dessert, specialInstructions, mealSize);
+        long start = Metrics.start(Operation.MEAL_BUILD);
+        Log.log(Event.MEAL_BUILDING);
+        Meal meal = MealCache.getDefault().intern(mainItem, sideItem, beverage, dessert, specialInstructions, mealSize);
+        Metrics.stop(Operation.MEAL_BUILD, start);
+        return meal;
     }
 
     /**
@@ -1,12 +1,22 @@
 package patterns.builder;
 
+import analytics.SalesAnalytics;
 import domain.models.Order;
 import domain.models.MenuItem;
 import domain.models.Meal;
 import domain.models.Payment;
 import domain.enums.OrderType;
-import java.util.ArrayList;
+import domain.ids.OrderIdGenerator;
+import domain.ids.OrderIds;
+import java.util.Arrays;
 import java.util.List;
+import journal.OrderJournal;
+import logging.Event;
+import logging.Log;
+import metrics.Metrics;
+import metrics.Operation;
+import patterns.singleton.RestaurantConfig;
+import repository.OrderRepository;
 
 /**
  * BUILDER PATTERN
@@ -19,23 +29,56 @@ import java.util.List;
  * - Makes code more readable
  * - Supports fluent interface
  * - Validates data before building the final object
+ * - Hands its line arrays to the built order instead of copying them; with pooled()
+ *   one builder per thread is reused, so intake allocates little beyond the order
  */
 public class OrderBuilder {
+    private static final MenuItem[] NO_ITEMS = new MenuItem[0];
+    private static final Meal[] NO_MEALS = new Meal[0];
+    private static final int MIN_CAPACITY = 4;
+    private static final ThreadLocal<OrderBuilder> POOL = ThreadLocal.withInitial(OrderBuilder::new);
+
     private String customerName;
     private String phoneNumber;
     private String tableNumber;
-    private List<MenuItem> items;
-    private List<Meal> meals;
+    // Lines being collected. After build() the arrays belong to the order as well, so
+    // the next change copies them first (itemsShared / mealsShared).
+    private MenuItem[] items = NO_ITEMS;
+    private int itemCount;
+    private boolean itemsShared;
+    private Meal[] meals = NO_MEALS;
+    private int mealCount;
+    private boolean mealsShared;
+    // Sizes of the previous order, used to size the next one's arrays
+    private int itemCapacity = MIN_CAPACITY;
+    private int mealCapacity = MIN_CAPACITY;
     private OrderType orderType;
     private String deliveryAddress;
     private Payment paymentMethod;
+    private OrderIdGenerator idGenerator;
+    private OrderJournal journal;
+    private OrderRepository repository;
+    private SalesAnalytics analytics;
 
     public OrderBuilder() {
-        this.items = new ArrayList<>();
-        this.meals = new ArrayList<>();
         this.orderType = OrderType.DINE_IN; // default
     }
 
+    /**
+     * Returns this thread's reusable builder, cleared of the previous order and of
+     * any configuration (ID generator, journal, repository, analytics). It stays
+     * valid until the next pooled() call on the same thread; built orders do not
+     * share anything with it.
+     */
+    public static OrderBuilder pooled() {
+        OrderBuilder builder = POOL.get();
+        builder.idGenerator = null;
+        builder.journal = null;
+        builder.repository = null;
+        builder.analytics = null;
+        return builder.reset();
+    }
+
     /**
      * Builder methods with method chaining
      */
@@ -56,22 +99,34 @@ public class OrderBuilder {
     }
 
     public OrderBuilder addItem(MenuItem item) {
-        this.items.add(item);
+        if (itemsShared || itemCount == items.length) {
+            items = Arrays.copyOf(items, Math.max(itemCapacity, itemCount * 2));
+            itemsShared = false;
+        }
+        items[itemCount++] = item;
         return this;
     }
 
     public OrderBuilder addItems(List<MenuItem> items) {
-        this.items.addAll(items);
+        for (int i = 0; i < items.size(); i++) {
+            addItem(items.get(i));
+        }
         return this;
     }
 
     public OrderBuilder addMeal(Meal meal) {
-        this.meals.add(meal);
+        if (mealsShared || mealCount == meals.length) {
+            meals = Arrays.copyOf(meals, Math.max(mealCapacity, mealCount * 2));
+            mealsShared = false;
+        }
+        meals[mealCount++] = meal;
         return this;
     }
 
     public OrderBuilder addMeals(List<Meal> meals) {
-        this.meals.addAll(meals);
+        for (int i = 0; i < meals.size(); i++) {
+            addMeal(meals.get(i));
+        }
         return this;
     }
 
@@ -90,30 +145,88 @@ public class OrderBuilder {
         return this;
     }
 
+    /**
+     * Uses a specific ID generator instead of the shared default (OrderIds).
+     * Kept across reset(), since it configures the builder rather than the order.
+     */
+    public OrderBuilder setIdGenerator(OrderIdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+        return this;
+    }
+
+    /**
+     * Journals every order this builder builds before returning it.
+     * Kept across reset(), like the ID generator.
+     */
+    public OrderBuilder setJournal(OrderJournal journal) {
+        this.journal = journal;
+        return this;
+    }
+
+    /**
+     * Stores every order this builder builds in a repository.
+     * Kept across reset(), like the ID generator.
+     */
+    public OrderBuilder setRepository(OrderRepository repository) {
+        this.repository = repository;
+        return this;
+    }
+
+    /**
+     * Feeds every order this builder builds to live sales analytics.
+     * Kept across reset(), like the ID generator.
+     */
+    public OrderBuilder setAnalytics(SalesAnalytics analytics) {
+        this.analytics = analytics;
+        return this;
+    }
+
     /**
      * Validates and builds the final Order object
      */
     public Order build() {
         // Validation
         if (customerName == null || customerName.isEmpty()) {
-            throw new IllegalStateException("Customer name is required");
+            throw invalid("Customer name is required");
         }
         if (phoneNumber == null || phoneNumber.isEmpty()) {
-            throw new IllegalStateException("Phone number is required");
+            throw invalid("Phone number is required");
         }
-        if (items.isEmpty() && meals.isEmpty()) {
-            throw new IllegalStateException("Order must have at least one item or meal");
+        if (itemCount == 0 && mealCount == 0) {
+            throw invalid("Order must have at least one item or meal");
         }
         if (orderType == OrderType.DELIVERY && (deliveryAddress == null || deliveryAddress.isEmpty())) {
-            throw new IllegalStateException("Delivery address is required for delivery orders");
+            throw invalid("Delivery address is required for delivery orders");
         }
         if (orderType == OrderType.DINE_IN && (tableNumber == null || tableNumber.isEmpty())) {
-            throw new IllegalStateException("Table number is required for dine-in orders");
+            throw invalid("Table number is required for dine-in orders");
         }
 
-        System.out.println("✓ Building order with Builder Pattern...");
-        return new Order(customerName, phoneNumber, tableNumber, items, meals,
-                        orderType, deliveryAddress, paymentMethod);
+        long start = Metrics.start(Operation.ORDER_BUILD);
+
+        Log.log(Event.ORDER_BUILDING);
+        long orderNumber = idGenerator != null ? idGenerator.nextId() : OrderIds.next();
+        Order order = new Order(orderNumber, System.currentTimeMillis(), RestaurantConfig.getInstance().snapshot(),
+                                customerName, phoneNumber, tableNumber, items, itemCount, meals, mealCount,
+                                orderType, deliveryAddress, paymentMethod);
+        itemsShared = !order.hasCompactLines(); // compact orders keep catalog IDs, not the array
+        mealsShared = true;
+        if (journal != null) {
+            journal.appendOrder(order);
+        }
+        if (repository != null) {
+            repository.add(order);
+        }
+        if (analytics != null) {
+            analytics.record(order);
+        }
+        Metrics.stop(Operation.ORDER_BUILD, start);
+        return order;
+    }
+
+    private static IllegalStateException invalid(String message) {
+        Metrics.error(Operation.ORDER_BUILD);
+        return new IllegalStateException(message);
     }
 
     /**
@@ -123,8 +236,27 @@ public class OrderBuilder {
         this.customerName = null;
         this.phoneNumber = null;
         this.tableNumber = null;
-        this.items = new ArrayList<>();
-        this.meals = new ArrayList<>();
+        if (itemCount > 0) {
+            itemCapacity = itemCount;
+        }
+        if (mealCount > 0) {
+            mealCapacity = mealCount;
+        }
+        // Arrays that were never handed to an order are cleared and kept
+        if (itemsShared) {
+            this.items = NO_ITEMS;
+        } else {
+            Arrays.fill(items, 0, itemCount, null);
+        }
+        if (mealsShared) {
+            this.meals = NO_MEALS;
+        } else {
+            Arrays.fill(meals, 0, mealCount, null);
+        }
+        this.itemCount = 0;
+        this.mealCount = 0;
+        this.itemsShared = false;
+        this.mealsShared = false;
         this.orderType = OrderType.DINE_IN;
         this.deliveryAddress = null;
         this.paymentMethod = null;
@@ -2,6 +2,7 @@ package patterns.factory;
 
 import domain.models.*;
 import domain.enums.PaymentType;
+import payment.GiftCardLedger;
 
 /**
  * FACTORY METHOD PATTERN
@@ -48,13 +49,14 @@ public class PaymentFactory {
                 throw new IllegalArgumentException("Mobile payment requires: phoneNumber, provider");
 
             case GIFT_CARD:
-                if (params.length >= 2) {
+                // The balance always comes from the ledger, never from the caller
+                if (params.length >= 1) {
                     return new GiftCardPayment(
                         (String) params[0],  // gift card number
-                        (Double) params[1]   // balance
+                        params.length >= 2 ? (GiftCardLedger) params[1] : GiftCardLedger.getDefault()
                     );
                 }
-                throw new IllegalArgumentException("Gift card payment requires: giftCardNumber, balance");
+                throw new IllegalArgumentException("Gift card payment requires: giftCardNumber");
 
             default:
                 throw new IllegalArgumentException("Unknown payment type: " + paymentType);
@@ -75,8 +77,15 @@ public class PaymentFactory {
         return createPayment(PaymentType.MOBILE_PAYMENT, phoneNumber, provider);
     }
 
-    public static Payment createGiftCardPayment(String giftCardNumber, double balance) {
-        return createPayment(PaymentType.GIFT_CARD, giftCardNumber, balance);
+    /**
+     * Resolves an issued card in the default GiftCardLedger
+     */
+    public static Payment createGiftCardPayment(String giftCardNumber) {
+        return createPayment(PaymentType.GIFT_CARD, giftCardNumber);
+    }
+
+    public static Payment createGiftCardPayment(String giftCardNumber, GiftCardLedger ledger) {
+        return createPayment(PaymentType.GIFT_CARD, giftCardNumber, ledger);
     }
 }
 
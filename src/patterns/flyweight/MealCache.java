@@ -0,0 +1,143 @@
+package patterns.flyweight;
+
+import domain.enums.MealSize;
+import domain.models.Meal;
+import domain.models.MenuItem;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * FLYWEIGHT PATTERN
+ *
+ * Purpose: Shares one Meal instance per combo. Most meals are the same few
+ * combinations of items, size and instructions, and a Meal is immutable, so every
+ * order can reference the same instance with its total already computed.
+ *
+ * Key Features:
+ * - Bounded: a fixed table of buckets with four entries each, allocated up front
+ * - When a bucket is full the entry that has been in it longest is replaced, so
+ *   one-off meals (free-text instructions) cannot grow the cache
+ * - Lookups never lock and never allocate; a Meal is only created on a miss
+ * - Meals that were evicted stay valid; orders keep their own references
+ * - Two threads missing on the same combo at once may both create it; the meals
+ *   are equal, only one of them stays cached
+ */
+public final class MealCache {
+    public static final int DEFAULT_CAPACITY = 4096;
+    private static final int WAYS = 4;
+    private static final MealCache DEFAULT = new MealCache(DEFAULT_CAPACITY);
+
+    private final AtomicReferenceArray<Meal> entries;
+    private final AtomicIntegerArray nextVictim;
+    private final int bucketMask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a cache holding at most capacity meals (rounded up to a power of two)
+     */
+    public MealCache(int capacity) {
+        if (capacity < WAYS || capacity > 1 << 24) {
+            throw new IllegalArgumentException("Capacity must be between " + WAYS + " and " + (1 << 24)
+                + ": " + capacity);
+        }
+        int buckets = Integer.highestOneBit((capacity + WAYS - 1) / WAYS * 2 - 1);
+        this.entries = new AtomicReferenceArray<>(buckets * WAYS);
+        this.nextVictim = new AtomicIntegerArray(buckets);
+        this.bucketMask = buckets - 1;
+    }
+
+    /**
+     * Cache used by MealBuilder
+     */
+    public static MealCache getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the shared meal with these fields, creating and caching it on a miss
+     */
+    public Meal intern(MenuItem mainItem, MenuItem sideItem, MenuItem beverage,
+                       MenuItem dessert, String specialInstructions, MealSize mealSize) {
+        int hash = Meal.hashOf(mainItem, sideItem, beverage, dessert, specialInstructions, mealSize);
+        int bucket = bucketOf(hash);
+        Meal cached = find(bucket, hash, mainItem, sideItem, beverage, dessert, specialInstructions, mealSize);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        Meal meal = new Meal(mainItem, sideItem, beverage, dessert, specialInstructions, mealSize);
+        insert(bucket, meal);
+        return meal;
+    }
+
+    /**
+     * Returns the shared meal equal to this one (caching the given meal on a miss)
+     */
+    public Meal intern(Meal meal) {
+        int bucket = bucketOf(meal.hashCode());
+        Meal cached = find(bucket, meal.hashCode(), meal.getMainItem(), meal.getSideItem(), meal.getBeverage(),
+            meal.getDessert(), meal.getSpecialInstructions(), meal.getMealSize());
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        insert(bucket, meal);
+        return meal;
+    }
+
+    private Meal find(int bucket, int hash, MenuItem mainItem, MenuItem sideItem, MenuItem beverage,
+                      MenuItem dessert, String specialInstructions, MealSize mealSize) {
+        int first = bucket * WAYS;
+        for (int i = first; i < first + WAYS; i++) {
+            Meal meal = entries.get(i);
+            if (meal == null) {
+                return null; // entries fill a bucket from the front and are never removed
+            }
+            if (meal.hashCode() == hash
+                    && meal.matches(mainItem, sideItem, beverage, dessert, specialInstructions, mealSize)) {
+                return meal;
+            }
+        }
+        return null;
+    }
+
+    private void insert(int bucket, Meal meal) {
+        int first = bucket * WAYS;
+        for (int i = first; i < first + WAYS; i++) {
+            if (entries.get(i) == null && entries.compareAndSet(i, null, meal)) {
+                return;
+            }
+        }
+        // Bucket full: replace entries in the order they were filled
+        entries.set(first + (nextVictim.getAndIncrement(bucket) & (WAYS - 1)), meal);
+        evictions.increment();
+    }
+
+    private int bucketOf(int hash) {
+        return (hash ^ (hash >>> 16)) * 0x9E3779B9 >>> 8 & bucketMask;
+    }
+
+    /**
+     * Maximum number of meals held
+     */
+    public int getCapacity() {
+        return entries.length();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+}
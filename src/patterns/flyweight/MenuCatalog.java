@@ -0,0 +1,272 @@
+package patterns.flyweight;
+
+import domain.models.*;
+import domain.enums.MenuItemCategory;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * FLYWEIGHT PATTERN
+ *
+ * Purpose: Shares one MenuItem instance per dish instead of creating a new object
+ * every time an item is ordered. Menu items carry no per-order state, so the same
+ * instance can safely appear in any number of meals and orders.
+ *
+ * Key Features:
+ * - Every item gets a stable integer ID, assigned in the menu file
+ * - Names and aliases are resolved through a precomputed case-insensitive hash index
+ * - Lookups never allocate (no toLowerCase(), no intermediate strings)
+ * - The catalog reads a compiled menu image (see MenuCatalogFile) in place and only
+ *   decodes an item the first time it is requested
+ * - A new catalog version can be published at any time; callers that already hold
+ *   items keep using them, new lookups see the new version
+ */
+public final class MenuCatalog {
+    private static final AtomicReference<MenuCatalog> CURRENT = new AtomicReference<>();
+    private static final MenuItemCategory[] CATEGORIES = MenuItemCategory.values();
+
+    private final ByteBuffer image;
+    private final long version;
+    private final int itemSlots;
+    private final int aliasMask;
+    private final int aliasTableOffset;
+    private final AtomicReferenceArray<MenuItem> items;
+    private volatile Map<MenuItemCategory, List<MenuItem>> itemsByCategory;
+
+    /**
+     * Wraps a compiled menu image. Only the header is read here; item records and
+     * aliases are read on demand, so opening a large mapped file costs nothing up front.
+     */
+    MenuCatalog(ByteBuffer image) {
+        this.image = image.asReadOnlyBuffer();
+        if (this.image.getInt(MenuCatalogFile.MAGIC_OFFSET) != MenuCatalogFile.MAGIC) {
+            throw new IllegalArgumentException("Not a compiled menu catalog");
+        }
+        if (this.image.getShort(MenuCatalogFile.FORMAT_OFFSET) != MenuCatalogFile.FORMAT_VERSION) {
+            throw new IllegalArgumentException("Unsupported menu catalog format: "
+                + this.image.getShort(MenuCatalogFile.FORMAT_OFFSET));
+        }
+        this.version = this.image.getLong(MenuCatalogFile.VERSION_OFFSET);
+        this.itemSlots = this.image.getInt(MenuCatalogFile.ITEM_SLOTS_OFFSET);
+        this.aliasMask = this.image.getInt(MenuCatalogFile.ALIAS_SLOTS_OFFSET) - 1;
+        this.aliasTableOffset = MenuCatalogFile.HEADER_SIZE + itemSlots * 4;
+        this.items = new AtomicReferenceArray<>(itemSlots);
+    }
+
+    /**
+     * Returns the catalog currently in use. The first call loads the menu file
+     * (see MenuCatalogFile.loadDefault()); concurrent first calls load it once.
+     */
+    public static MenuCatalog getDefault() {
+        MenuCatalog catalog = CURRENT.get();
+        if (catalog == null) {
+            synchronized (CURRENT) {
+                if (CURRENT.get() == null) {
+                    // publish() may have run meanwhile; a published catalog is kept
+                    CURRENT.compareAndSet(null, MenuCatalogFile.loadDefault());
+                }
+            }
+            catalog = CURRENT.get();
+        }
+        return catalog;
+    }
+
+    /**
+     * Returns the catalog currently in use, or null if none has been loaded yet.
+     * Unlike getDefault() this never loads the menu file.
+     */
+    public static MenuCatalog getLoaded() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Atomically replaces the catalog used by getDefault()
+     */
+    public static void publish(MenuCatalog catalog) {
+        if (catalog == null) {
+            throw new IllegalArgumentException("Catalog cannot be null");
+        }
+        CURRENT.set(catalog);
+    }
+
+    /**
+     * Version stamp written by the menu compiler; changes whenever the menu is recompiled
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Number of ID slots (highest item ID + 1)
+     */
+    public int size() {
+        return itemSlots;
+    }
+
+    public boolean contains(int id) {
+        return id >= 0 && id < itemSlots && recordOffset(id) >= 0;
+    }
+
+    /**
+     * Returns the shared instance for a catalog ID
+     */
+    public MenuItem get(int id) {
+        MenuItem item = id >= 0 && id < itemSlots ? items.get(id) : null;
+        if (item != null) {
+            return item; // already decoded, so the ID is known
+        }
+        if (!contains(id)) {
+            throw new IllegalArgumentException("Unknown menu item ID: " + id);
+        }
+        // Two threads may decode the same record; only the first instance is kept
+        items.compareAndSet(id, null, decode(id));
+        return items.get(id);
+    }
+
+    /**
+     * True if the item is the instance this catalog hands out for its ID
+     */
+    public boolean isShared(MenuItem item) {
+        int id = item.getId();
+        return id >= 0 && id < itemSlots && items.get(id) == item;
+    }
+
+    /**
+     * Resolves a name or alias (case-insensitive) to its item ID, or -1 if unknown
+     */
+    public int findId(CharSequence name) {
+        if (name == null) {
+            return -1;
+        }
+        int slot = hashIgnoreCase(name) & aliasMask;
+        int keyOffset;
+        while ((keyOffset = image.getInt(aliasSlotOffset(slot))) >= 0) {
+            if (keyEqualsIgnoreCase(keyOffset, name)) {
+                return image.getInt(aliasSlotOffset(slot) + 4);
+            }
+            slot = (slot + 1) & aliasMask;
+        }
+        return -1;
+    }
+
+    /**
+     * Resolves a name or alias to its shared instance, or null if unknown
+     */
+    public MenuItem find(CharSequence name) {
+        int id = findId(name);
+        return id < 0 ? null : get(id);
+    }
+
+    /**
+     * Resolves a name or alias within a category, or null if it is unknown
+     * or belongs to a different category
+     */
+    public MenuItem find(MenuItemCategory category, CharSequence name) {
+        int id = findId(name);
+        return id >= 0 && categoryOf(id) == category ? get(id) : null;
+    }
+
+    /**
+     * Category of an item, read straight from the image without decoding the item
+     */
+    public MenuItemCategory categoryOf(int id) {
+        if (!contains(id)) {
+            throw new IllegalArgumentException("Unknown menu item ID: " + id);
+        }
+        return CATEGORIES[image.get(recordOffset(id))];
+    }
+
+    /**
+     * Items of one category in ID order
+     */
+    public List<MenuItem> getItems(MenuItemCategory category) {
+        Map<MenuItemCategory, List<MenuItem>> byCategory = itemsByCategory;
+        if (byCategory == null) {
+            byCategory = groupByCategory();
+            itemsByCategory = byCategory;
+        }
+        return byCategory.get(category);
+    }
+
+    private Map<MenuItemCategory, List<MenuItem>> groupByCategory() {
+        Map<MenuItemCategory, List<MenuItem>> byCategory = new EnumMap<>(MenuItemCategory.class);
+        for (MenuItemCategory category : MenuItemCategory.values()) {
+            byCategory.put(category, new ArrayList<>());
+        }
+        for (int id = 0; id < itemSlots; id++) {
+            if (contains(id)) {
+                byCategory.get(categoryOf(id)).add(get(id));
+            }
+        }
+        for (Map.Entry<MenuItemCategory, List<MenuItem>> entry : byCategory.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        return byCategory;
+    }
+
+    private MenuItem decode(int id) {
+        int offset = recordOffset(id);
+        MenuItemCategory category = CATEGORIES[image.get(offset)];
+        long priceCents = image.getInt(offset + 1);
+        int nameOffset = offset + 5;
+        String name = readString(nameOffset);
+        String description = readString(nameOffset + 2 + name.length() * 2);
+
+        switch (category) {
+            case APPETIZER:
+                return new Appetizer(id, name, description, priceCents);
+            case MAIN_COURSE:
+                return new Pizza(id, name, description, priceCents);
+            case DESSERT:
+                return new Dessert(id, name, description, priceCents);
+            case BEVERAGE:
+                return new Beverage(id, name, description, priceCents);
+            default:
+                throw new IllegalStateException("Unknown menu item category: " + category);
+        }
+    }
+
+    private int recordOffset(int id) {
+        return image.getInt(MenuCatalogFile.HEADER_SIZE + id * 4);
+    }
+
+    private int aliasSlotOffset(int slot) {
+        return aliasTableOffset + slot * 8;
+    }
+
+    private String readString(int offset) {
+        char[] chars = new char[image.getShort(offset)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = image.getChar(offset + 2 + i * 2);
+        }
+        return new String(chars);
+    }
+
+    // Keys are stored lower-cased, so only the caller's characters need folding
+    private boolean keyEqualsIgnoreCase(int keyOffset, CharSequence s) {
+        int length = image.getShort(keyOffset);
+        if (length != s.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (image.getChar(keyOffset + 2 + i * 2) != Character.toLowerCase(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int hashIgnoreCase(CharSequence s) {
+        int h = 0;
+        for (int i = 0; i < s.length(); i++) {
+            h = 31 * h + Character.toLowerCase(s.charAt(i));
+        }
+        return h ^ (h >>> 16);
+    }
+}
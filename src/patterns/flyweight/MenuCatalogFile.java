@@ -0,0 +1,335 @@
+package patterns.flyweight;
+
+import domain.enums.MenuItemCategory;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads, compiles and memory-maps menu catalog files.
+ *
+ * The menu is maintained as a text file (data/menu.txt by default), one item per line:
+ *
+ *   id | CATEGORY | Name | Description | price | alias, alias, ...
+ *
+ * It is compiled once into a binary image next to the source (menu.bin) which
+ * MenuCatalog reads in place through FileChannel.map. Binary layout (big-endian):
+ *
+ *   header      int magic, short format, short reserved, long version,
+ *               int itemSlots, int aliasSlots
+ *   item table  int[itemSlots]          record offset, -1 for unused IDs
+ *   alias table {int keyOffset, int id}[aliasSlots], keyOffset -1 for empty slots
+ *   records     byte category, int priceCents, string name, string description
+ *   strings     short length, UTF-16 chars (alias keys are stored lower-case)
+ */
+public final class MenuCatalogFile {
+    public static final String MENU_PROPERTY = "tmps.menu";
+    public static final String WATCH_PROPERTY = "tmps.menu.watch";
+    public static final String DEFAULT_MENU = "data/menu.txt";
+    public static final String MENU_RESOURCE = "/menu.txt";
+
+    static final int MAGIC = 0x544D4E55; // "TMNU"
+    static final short FORMAT_VERSION = 1;
+    static final int MAGIC_OFFSET = 0;
+    static final int FORMAT_OFFSET = 4;
+    static final int VERSION_OFFSET = 8;
+    static final int ITEM_SLOTS_OFFSET = 16;
+    static final int ALIAS_SLOTS_OFFSET = 20;
+    static final int HEADER_SIZE = 24;
+
+    private MenuCatalogFile() {
+    }
+
+    /**
+     * One line of the menu source
+     */
+    public static final class Entry {
+        final int id;
+        final MenuItemCategory category;
+        final String name;
+        final String description;
+        final int priceCents;
+        final List<String> aliases;
+
+        public Entry(int id, MenuItemCategory category, String name, String description,
+                     int priceCents, List<String> aliases) {
+            this.id = id;
+            this.category = category;
+            this.name = name;
+            this.description = description;
+            this.priceCents = priceCents;
+            this.aliases = aliases;
+        }
+    }
+
+    /**
+     * Loads the menu named by the tmps.menu system property and starts a
+     * MenuCatalogWatcher when tmps.menu.watch=true. If the property is unset and
+     * data/menu.txt is not under the working directory, the menu.txt bundled on the
+     * classpath is used (and not watched).
+     */
+    static MenuCatalog loadDefault() {
+        String property = System.getProperty(MENU_PROPERTY);
+        Path menu = Paths.get(property != null ? property : DEFAULT_MENU);
+        if (!Files.exists(menu)) {
+            MenuCatalog bundled = property == null ? loadResource(MENU_RESOURCE) : null;
+            if (bundled != null) {
+                return bundled;
+            }
+            throw new IllegalStateException("Menu file not found: " + menu.toAbsolutePath()
+                + " (set -D" + MENU_PROPERTY + "=<path to menu.txt or menu.bin>)");
+        }
+        MenuCatalog catalog = load(menu);
+        if (Boolean.getBoolean(WATCH_PROPERTY)) {
+            MenuCatalogWatcher.start(menu);
+        }
+        return catalog;
+    }
+
+    /**
+     * Loads a catalog from a text source (compiled to a sibling .bin when that is
+     * missing or older) or directly from a compiled .bin file
+     */
+    public static MenuCatalog load(Path menu) {
+        try {
+            Path image = menu;
+            if (!isCompiled(menu)) {
+                image = compiledPathFor(menu);
+                if (!Files.exists(image)
+                        || Files.getLastModifiedTime(image).compareTo(Files.getLastModifiedTime(menu)) < 0) {
+                    compile(menu, image);
+                }
+            }
+            return map(image);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load menu catalog " + menu, e);
+        }
+    }
+
+    /**
+     * Compiles a text menu from the classpath in memory, or returns null if there is
+     * no such resource
+     */
+    public static MenuCatalog loadResource(String name) {
+        try (InputStream in = MenuCatalogFile.class.getResourceAsStream(name)) {
+            if (in == null) {
+                return null;
+            }
+            List<String> lines = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lines.add(line);
+                }
+            }
+            return new MenuCatalog(encode(parse(lines, "classpath:" + name), System.currentTimeMillis()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load menu catalog classpath:" + name, e);
+        }
+    }
+
+    /**
+     * Maps a compiled catalog. The mapping stays valid after the channel is closed
+     * and even after the file is replaced, so old catalog versions remain readable.
+     */
+    public static MenuCatalog map(Path image) throws IOException {
+        try (FileChannel channel = FileChannel.open(image, StandardOpenOption.READ)) {
+            return new MenuCatalog(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Compiles a text menu into a binary image. The image is written to a temporary
+     * file first and moved into place, so readers never observe a partial file.
+     */
+    public static void compile(Path source, Path image) throws IOException {
+        ByteBuffer compiled = encode(parse(source), System.currentTimeMillis());
+        Path tmp = image.resolveSibling(image.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (compiled.hasRemaining()) {
+                channel.write(compiled);
+            }
+        }
+        Files.move(tmp, image, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static boolean isCompiled(Path menu) {
+        return menu.getFileName().toString().endsWith(".bin");
+    }
+
+    static Path compiledPathFor(Path source) {
+        String name = source.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        return source.resolveSibling((dot > 0 ? name.substring(0, dot) : name) + ".bin");
+    }
+
+    /**
+     * Parses the text menu format
+     */
+    public static List<Entry> parse(Path source) throws IOException {
+        return parse(Files.readAllLines(source, StandardCharsets.UTF_8), source.toString());
+    }
+
+    static List<Entry> parse(List<String> lines, String source) {
+        List<Entry> entries = new ArrayList<>();
+        int lineNumber = 0;
+        for (String line : lines) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String[] fields = trimmed.split("\\|", -1);
+            if (fields.length < 5) {
+                throw new IllegalArgumentException(source + ":" + lineNumber
+                    + ": expected 'id | CATEGORY | Name | Description | price | aliases'");
+            }
+            try {
+                List<String> aliases = new ArrayList<>();
+                if (fields.length > 5) {
+                    for (String alias : fields[5].split(",")) {
+                        if (!alias.trim().isEmpty()) {
+                            aliases.add(alias.trim());
+                        }
+                    }
+                }
+                entries.add(new Entry(
+                    Integer.parseInt(fields[0].trim()),
+                    MenuItemCategory.valueOf(fields[1].trim()),
+                    fields[2].trim(),
+                    fields[3].trim(),
+                    new BigDecimal(fields[4].trim()).movePointRight(2).intValueExact(),
+                    aliases));
+            } catch (IllegalArgumentException | ArithmeticException e) {
+                throw new IllegalArgumentException(source + ":" + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Encodes menu entries into the binary catalog layout
+     */
+    public static ByteBuffer encode(List<Entry> entries, long version) {
+        int itemSlots = 0;
+        int aliasCount = 0;
+        int dataSize = 0;
+        for (Entry entry : entries) {
+            if (entry.id < 0) {
+                throw new IllegalArgumentException("Menu item ID must not be negative: " + entry.name);
+            }
+            itemSlots = Math.max(itemSlots, entry.id + 1);
+            aliasCount += 1 + entry.aliases.size();
+            dataSize += 5 + stringSize(entry.name) + stringSize(entry.description);
+            dataSize += stringSize(entry.name.toLowerCase(Locale.ROOT));
+            for (String alias : entry.aliases) {
+                dataSize += stringSize(alias.toLowerCase(Locale.ROOT));
+            }
+        }
+        // Keep the alias table at most half full so probe chains stay short
+        int aliasSlots = Integer.highestOneBit(Math.max(2, aliasCount) * 4 - 1);
+        int dataOffset = HEADER_SIZE + itemSlots * 4 + aliasSlots * 8;
+
+        ByteBuffer buffer = ByteBuffer.allocate(dataOffset + dataSize);
+        buffer.putInt(MAGIC_OFFSET, MAGIC);
+        buffer.putShort(FORMAT_OFFSET, FORMAT_VERSION);
+        buffer.putLong(VERSION_OFFSET, version);
+        buffer.putInt(ITEM_SLOTS_OFFSET, itemSlots);
+        buffer.putInt(ALIAS_SLOTS_OFFSET, aliasSlots);
+        for (int id = 0; id < itemSlots; id++) {
+            buffer.putInt(HEADER_SIZE + id * 4, -1);
+        }
+        int aliasTable = HEADER_SIZE + itemSlots * 4;
+        for (int slot = 0; slot < aliasSlots; slot++) {
+            buffer.putInt(aliasTable + slot * 8, -1);
+        }
+
+        buffer.position(dataOffset);
+        for (Entry entry : entries) {
+            if (buffer.getInt(HEADER_SIZE + entry.id * 4) >= 0) {
+                throw new IllegalArgumentException("Duplicate menu item ID: " + entry.id);
+            }
+            buffer.putInt(HEADER_SIZE + entry.id * 4, buffer.position());
+            buffer.put((byte) entry.category.ordinal());
+            buffer.putInt(entry.priceCents);
+            putString(buffer, entry.name);
+            putString(buffer, entry.description);
+
+            insertAlias(buffer, aliasTable, aliasSlots - 1, entry.name, entry.id);
+            for (String alias : entry.aliases) {
+                insertAlias(buffer, aliasTable, aliasSlots - 1, alias, entry.id);
+            }
+        }
+        buffer.flip();
+        buffer.limit(buffer.capacity());
+        return buffer;
+    }
+
+    private static void insertAlias(ByteBuffer buffer, int aliasTable, int mask, String alias, int id) {
+        String key = alias.toLowerCase(Locale.ROOT);
+        int slot = MenuCatalog.hashIgnoreCase(key) & mask;
+        int existing;
+        while ((existing = buffer.getInt(aliasTable + slot * 8)) >= 0) {
+            if (readString(buffer, existing).equals(key)) {
+                throw new IllegalArgumentException("Duplicate menu alias: " + alias);
+            }
+            slot = (slot + 1) & mask;
+        }
+        buffer.putInt(aliasTable + slot * 8, buffer.position());
+        buffer.putInt(aliasTable + slot * 8 + 4, id);
+        putString(buffer, key);
+    }
+
+    private static int stringSize(String s) {
+        return 2 + s.length() * 2;
+    }
+
+    private static void putString(ByteBuffer buffer, String s) {
+        if (s.length() > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Menu text too long: " + s.substring(0, 32) + "...");
+        }
+        buffer.putShort((short) s.length());
+        for (int i = 0; i < s.length(); i++) {
+            buffer.putChar(s.charAt(i));
+        }
+    }
+
+    private static String readString(ByteBuffer buffer, int offset) {
+        char[] chars = new char[buffer.getShort(offset)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = buffer.getChar(offset + 2 + i * 2);
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Command-line compiler: MenuCatalogFile <menu.txt> [menu.bin]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: java patterns.flyweight.MenuCatalogFile <menu.txt> [menu.bin]");
+            System.exit(2);
+        }
+        Path source = Paths.get(args[0]);
+        Path image = args.length > 1 ? Paths.get(args[1]) : compiledPathFor(source);
+        compile(source, image);
+        MenuCatalog catalog = map(image);
+        System.out.println("Compiled " + source + " -> " + image + " (" + catalog.size()
+            + " item slots, version " + catalog.getVersion() + ")");
+    }
+}
@@ -0,0 +1,94 @@
+package patterns.flyweight;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import logging.Event;
+import logging.Log;
+
+/**
+ * Background watcher that hot-reloads the menu when its file changes.
+ *
+ * The new version is compiled and mapped on the watcher thread and then published
+ * with a single atomic swap (MenuCatalog.publish), so order intake never waits for
+ * a reload. A file that fails to parse is reported and the current menu stays active.
+ */
+public final class MenuCatalogWatcher implements Closeable {
+    // Editors often write a file in several steps; wait for them to finish
+    private static final long SETTLE_MILLIS = 200;
+
+    private final Path menu;
+    private final WatchService watchService;
+    private final Thread thread;
+
+    private MenuCatalogWatcher(Path menu) throws IOException {
+        this.menu = menu.toAbsolutePath();
+        this.watchService = FileSystems.getDefault().newWatchService();
+        this.menu.getParent().register(watchService,
+            StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        this.thread = new Thread(this::run, "menu-catalog-watcher");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts watching a menu file (text source or compiled .bin)
+     */
+    public static MenuCatalogWatcher start(Path menu) {
+        try {
+            MenuCatalogWatcher watcher = new MenuCatalogWatcher(menu);
+            watcher.thread.start();
+            return watcher;
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot watch menu file " + menu, e);
+        }
+    }
+
+    private void run() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (menu.getFileName().equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+                if (changed) {
+                    Thread.sleep(SETTLE_MILLIS);
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Watcher closed
+        }
+    }
+
+    /**
+     * Compiles (for text sources), maps and publishes the current file contents
+     */
+    public void reload() {
+        try {
+            if (!MenuCatalogFile.isCompiled(menu)) {
+                MenuCatalogFile.compile(menu, MenuCatalogFile.compiledPathFor(menu));
+            }
+            MenuCatalog catalog = MenuCatalogFile.load(menu);
+            MenuCatalog.publish(catalog);
+            Log.log(Event.MENU_RELOADED, menu, catalog.getVersion());
+        } catch (IOException | RuntimeException e) {
+            Log.log(Event.MENU_RELOAD_FAILED, e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        thread.interrupt();
+        watchService.close();
+    }
+}
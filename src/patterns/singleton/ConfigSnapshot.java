@@ -0,0 +1,173 @@
+package patterns.singleton;
+
+import domain.pricing.Money;
+
+/**
+ * Immutable, versioned view of the restaurant configuration.
+ *
+ * RestaurantConfig publishes a new snapshot for every change, so a reader that holds
+ * a snapshot always sees one consistent set of values (an order keeps the snapshot
+ * it was created with for its whole lifetime).
+ */
+public final class ConfigSnapshot {
+    private final long version;
+    private final String restaurantName;
+    private final String address;
+    private final String phoneNumber;
+    private final String businessHours;
+    private final int taxRateBasisPoints;
+    private final int serviceFeeBasisPoints;
+    private final int capacity;
+    private final String currency;
+
+    private ConfigSnapshot(Builder builder, long version) {
+        this.version = version;
+        this.restaurantName = builder.restaurantName;
+        this.address = builder.address;
+        this.phoneNumber = builder.phoneNumber;
+        this.businessHours = builder.businessHours;
+        this.taxRateBasisPoints = builder.taxRateBasisPoints;
+        this.serviceFeeBasisPoints = builder.serviceFeeBasisPoints;
+        this.capacity = builder.capacity;
+        this.currency = builder.currency;
+    }
+
+    /**
+     * Increases by one with every published change
+     */
+    public long getVersion() { return version; }
+    public String getRestaurantName() { return restaurantName; }
+    public String getAddress() { return address; }
+    public String getPhoneNumber() { return phoneNumber; }
+    public String getBusinessHours() { return businessHours; }
+    public double getTaxRate() { return taxRateBasisPoints / 100.0; }
+    public int getTaxRateBasisPoints() { return taxRateBasisPoints; }
+    public double getServiceFeePercentage() { return serviceFeeBasisPoints / 100.0; }
+    public int getServiceFeeBasisPoints() { return serviceFeeBasisPoints; }
+    public int getCapacity() { return capacity; }
+    public String getCurrency() { return currency; }
+
+    /**
+     * Starts a modified copy of this snapshot
+     */
+    public Builder toBuilder() {
+        return new Builder(this);
+    }
+
+    /**
+     * Recreates a snapshot that was persisted earlier (for example in the order
+     * journal). The result is not published to RestaurantConfig.
+     */
+    public static ConfigSnapshot restore(long version, String restaurantName, String address, String phoneNumber,
+                                         String businessHours, int taxRateBasisPoints, int serviceFeeBasisPoints,
+                                         int capacity, String currency) {
+        Builder builder = new Builder()
+            .setRestaurantName(restaurantName)
+            .setAddress(address)
+            .setPhoneNumber(phoneNumber)
+            .setBusinessHours(businessHours)
+            .setCapacity(capacity)
+            .setCurrency(currency);
+        builder.taxRateBasisPoints = taxRateBasisPoints;
+        builder.serviceFeeBasisPoints = serviceFeeBasisPoints;
+        return builder.build(version);
+    }
+
+    static Builder defaults() {
+        return new Builder();
+    }
+
+    /**
+     * Collects changes for the next snapshot; see RestaurantConfig.update()
+     */
+    public static final class Builder {
+        private String restaurantName;
+        private String address;
+        private String phoneNumber;
+        private String businessHours;
+        private int taxRateBasisPoints;
+        private int serviceFeeBasisPoints;
+        private int capacity;
+        private String currency;
+
+        private Builder() {
+        }
+
+        private Builder(ConfigSnapshot snapshot) {
+            this.restaurantName = snapshot.restaurantName;
+            this.address = snapshot.address;
+            this.phoneNumber = snapshot.phoneNumber;
+            this.businessHours = snapshot.businessHours;
+            this.taxRateBasisPoints = snapshot.taxRateBasisPoints;
+            this.serviceFeeBasisPoints = snapshot.serviceFeeBasisPoints;
+            this.capacity = snapshot.capacity;
+            this.currency = snapshot.currency;
+        }
+
+        public Builder setRestaurantName(String restaurantName) {
+            this.restaurantName = restaurantName;
+            return this;
+        }
+
+        public Builder setAddress(String address) {
+            this.address = address;
+            return this;
+        }
+
+        public Builder setPhoneNumber(String phoneNumber) {
+            this.phoneNumber = phoneNumber;
+            return this;
+        }
+
+        public Builder setBusinessHours(String businessHours) {
+            this.businessHours = businessHours;
+            return this;
+        }
+
+        /**
+         * Tax rate in percent (8.5 = 8.5%)
+         */
+        public Builder setTaxRate(double taxRate) {
+            this.taxRateBasisPoints = Money.percentToBasisPoints(taxRate);
+            return this;
+        }
+
+        /**
+         * Delivery fee in percent (10.0 = 10%)
+         */
+        public Builder setServiceFeePercentage(double serviceFeePercentage) {
+            this.serviceFeeBasisPoints = Money.percentToBasisPoints(serviceFeePercentage);
+            return this;
+        }
+
+        public Builder setCapacity(int capacity) {
+            this.capacity = capacity;
+            return this;
+        }
+
+        public Builder setCurrency(String currency) {
+            this.currency = currency;
+            return this;
+        }
+
+        ConfigSnapshot build(long version) {
+            if (taxRateBasisPoints < 0 || serviceFeeBasisPoints < 0) {
+                throw new IllegalArgumentException("Tax rate and service fee cannot be negative");
+            }
+            return new ConfigSnapshot(this, version);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "Restaurant Configuration:\n" +
+               "  Name: " + restaurantName + "\n" +
+               "  Address: " + address + "\n" +
+               "  Phone: " + phoneNumber + "\n" +
+               "  Hours: " + businessHours + "\n" +
+               "  Tax Rate: " + getTaxRate() + "%\n" +
+               "  Delivery Fee: " + getServiceFeePercentage() + "%\n" +
+               "  Capacity: " + capacity + " tables\n" +
+               "  Currency: " + currency;
+    }
+}
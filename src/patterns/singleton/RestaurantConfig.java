@@ -1,5 +1,10 @@
 package patterns.singleton;
 
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+import logging.Event;
+import logging.Log;
+
 /**
  * SINGLETON PATTERN
  *
@@ -8,129 +13,154 @@ package patterns.singleton;
  *
  * Key Features:
  * - Private constructor to prevent direct instantiation
- * - Static instance variable to hold the single instance
+ * - Lazy, thread-safe initialization through a holder class (no locking on access)
  * - Public static method to access the instance
- * - Thread-safe implementation
+ * - Settings are immutable ConfigSnapshots published through one AtomicReference:
+ *   readers never lock, and changes are applied by copy-and-swap with a version
+ *   counter that caches can key on
  */
 public class RestaurantConfig {
-    // Single instance of the class
-    private static RestaurantConfig instance;
-
-    // Restaurant configuration data
-    private String restaurantName;
-    private String address;
-    private String phoneNumber;
-    private String businessHours;
-    private double taxRate; // percentage
-    private double serviceFeePercentage; // for delivery
-    private int capacity;
-    private String currency;
+    // The JVM initializes the holder exactly once, on first use
+    private static final class Holder {
+        private static final RestaurantConfig INSTANCE = new RestaurantConfig();
+    }
+
+    private final AtomicReference<ConfigSnapshot> current;
 
     // Private constructor prevents instantiation from other classes
     private RestaurantConfig() {
         // Initialize with default configuration
-        this.restaurantName = "TMPS Pizza";
-        this.address = "123 Main Street, Downtown";
-        this.phoneNumber = "+1-555-0123";
-        this.businessHours = "Mon-Fri: 11AM-10PM, Sat-Sun: 12PM-11PM";
-        this.taxRate = 8.5;
-        this.serviceFeePercentage = 10.0;
-        this.capacity = 50;
-        this.currency = "USD";
+        this.current = new AtomicReference<>(ConfigSnapshot.defaults()
+            .setRestaurantName("TMPS Pizza")
+            .setAddress("123 Main Street, Downtown")
+            .setPhoneNumber("+1-555-0123")
+            .setBusinessHours("Mon-Fri: 11AM-10PM, Sat-Sun: 12PM-11PM")
+            .setTaxRate(8.5)
+            .setServiceFeePercentage(10.0)
+            .setCapacity(50)
+            .setCurrency("USD")
+            .build(1));
+        Log.log(Event.CONFIG_INITIALIZED);
     }
 
     /**
-     * Thread-safe method to get the single instance of RestaurantConfig
-     * Uses synchronized block for thread safety
+     * Returns the single instance of RestaurantConfig
      */
     public static RestaurantConfig getInstance() {
-        if (instance == null) {
-            synchronized (RestaurantConfig.class) {
-                if (instance == null) {
-                    instance = new RestaurantConfig();
-                    System.out.println("✓ Restaurant Configuration initialized (Singleton Pattern)");
-                }
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Returns the current configuration. Callers that need several values should
+     * take one snapshot and read everything from it.
+     */
+    public ConfigSnapshot snapshot() {
+        return current.get();
+    }
+
+    /**
+     * Applies a change by copy-and-swap: the change is applied to a copy of the
+     * current snapshot and published with the next version number. If another
+     * update wins the race, the change is re-applied on top of it.
+     */
+    public ConfigSnapshot update(UnaryOperator<ConfigSnapshot.Builder> change) {
+        while (true) {
+            ConfigSnapshot previous = current.get();
+            ConfigSnapshot next = change.apply(previous.toBuilder()).build(previous.getVersion() + 1);
+            if (current.compareAndSet(previous, next)) {
+                return next;
             }
         }
-        return instance;
     }
 
-    // Getters and Setters
+    /**
+     * Version of the current snapshot; changes with every update
+     */
+    public long getVersion() {
+        return snapshot().getVersion();
+    }
+
+    // Getters read the current snapshot; setters publish a new one
     public String getRestaurantName() {
-        return restaurantName;
+        return snapshot().getRestaurantName();
     }
 
     public void setRestaurantName(String restaurantName) {
-        this.restaurantName = restaurantName;
+        update(b -> b.setRestaurantName(restaurantName));
     }
 
     public String getAddress() {
-        return address;
+        return snapshot().getAddress();
     }
 
     public void setAddress(String address) {
-        this.address = address;
+        update(b -> b.setAddress(address));
     }
 
     public String getPhoneNumber() {
-        return phoneNumber;
+        return snapshot().getPhoneNumber();
     }
 
     public void setPhoneNumber(String phoneNumber) {
-        this.phoneNumber = phoneNumber;
+        update(b -> b.setPhoneNumber(phoneNumber));
     }
 
     public String getBusinessHours() {
-        return businessHours;
+        return snapshot().getBusinessHours();
     }
 
     public void setBusinessHours(String businessHours) {
-        this.businessHours = businessHours;
+        update(b -> b.setBusinessHours(businessHours));
     }
 
     public double getTaxRate() {
-        return taxRate;
+        return snapshot().getTaxRate();
     }
 
     public void setTaxRate(double taxRate) {
-        this.taxRate = taxRate;
+        update(b -> b.setTaxRate(taxRate));
+    }
+
+    /**
+     * Tax rate in basis points (8.5% = 850) for fixed-point pricing
+     */
+    public int getTaxRateBasisPoints() {
+        return snapshot().getTaxRateBasisPoints();
     }
 
     public double getServiceFeePercentage() {
-        return serviceFeePercentage;
+        return snapshot().getServiceFeePercentage();
     }
 
     public void setServiceFeePercentage(double serviceFeePercentage) {
-        this.serviceFeePercentage = serviceFeePercentage;
+        update(b -> b.setServiceFeePercentage(serviceFeePercentage));
+    }
+
+    /**
+     * Delivery fee in basis points (10% = 1000) for fixed-point pricing
+     */
+    public int getServiceFeeBasisPoints() {
+        return snapshot().getServiceFeeBasisPoints();
     }
 
     public int getCapacity() {
-        return capacity;
+        return snapshot().getCapacity();
     }
 
     public void setCapacity(int capacity) {
-        this.capacity = capacity;
+        update(b -> b.setCapacity(capacity));
     }
 
     public String getCurrency() {
-        return currency;
+        return snapshot().getCurrency();
     }
 
     public void setCurrency(String currency) {
-        this.currency = currency;
+        update(b -> b.setCurrency(currency));
     }
 
     @Override
     public String toString() {
-        return "Restaurant Configuration:\n" +
-               "  Name: " + restaurantName + "\n" +
-               "  Address: " + address + "\n" +
-               "  Phone: " + phoneNumber + "\n" +
-               "  Hours: " + businessHours + "\n" +
-               "  Tax Rate: " + taxRate + "%\n" +
-               "  Delivery Fee: " + serviceFeePercentage + "%\n" +
-               "  Capacity: " + capacity + " tables\n" +
-               "  Currency: " + currency;
+        return snapshot().toString();
     }
 }
-
@@ -0,0 +1,196 @@
+package payment;
+
+import concurrent.VirtualThreads;
+import domain.enums.PaymentType;
+import domain.models.Order;
+import domain.models.Payment;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import journal.OrderJournal;
+
+/**
+ * Non-blocking payment processing.
+ *
+ * submit() returns immediately with a CompletableFuture; each gateway attempt runs on
+ * its own virtual thread (see VirtualThreads), is cancelled if it exceeds the policy's
+ * timeout, and transient failures are retried with backoff. A semaphore per
+ * PaymentType bounds how many payments of that type are in flight; when the limit is
+ * reached new payments complete at once with status REJECTED instead of queueing
+ * behind a slow gateway. With a journal set, the outcome of every order's payment is
+ * journaled before its future completes.
+ *
+ * After close(), new payments complete at once as REJECTED and payments still in
+ * flight (or waiting to retry) complete as FAILED; no future is left pending.
+ */
+public class AsyncPaymentProcessor implements AutoCloseable {
+    private static final AtomicLong IDEMPOTENCY_KEYS = new AtomicLong(System.currentTimeMillis() << 16);
+
+    private final PaymentGateway gateway;
+    private final PaymentPolicy policy;
+    private final ExecutorService executor;
+    private final Map<PaymentType, Semaphore> inFlight = new EnumMap<>(PaymentType.class);
+    // Futures handed out and not yet complete, so close() can complete them
+    private final Map<CompletableFuture<PaymentResult>, PaymentRequest> pending = new ConcurrentHashMap<>();
+    private volatile OrderJournal journal;
+    private volatile boolean closed;
+
+    public AsyncPaymentProcessor(PaymentGateway gateway, PaymentPolicy policy) {
+        this.gateway = gateway;
+        this.policy = policy;
+        this.executor = VirtualThreads.newThreadPerTaskExecutor("payment");
+        for (PaymentType type : PaymentType.values()) {
+            inFlight.put(type, new Semaphore(policy.getMaxInFlight(type)));
+        }
+    }
+
+    public AsyncPaymentProcessor setJournal(OrderJournal journal) {
+        this.journal = journal;
+        return this;
+    }
+
+    /**
+     * Charges an order's total with its payment method
+     */
+    public CompletableFuture<PaymentResult> submit(Order order) {
+        if (order.getPaymentMethod() == null) {
+            throw new IllegalArgumentException("Order #" + order.getOrderNumber() + " has no payment method");
+        }
+        CompletableFuture<PaymentResult> result = submit(order.getPaymentMethod(), order.calculateTotalCents());
+        OrderJournal paymentsTo = journal;
+        if (paymentsTo == null) {
+            return result;
+        }
+        return result.thenApply(outcome -> {
+            paymentsTo.appendPayment(order.getOrderNumber(), outcome);
+            return outcome;
+        });
+    }
+
+    public CompletableFuture<PaymentResult> submit(Payment payment, long amountCents) {
+        long start = System.nanoTime();
+        Semaphore permits = inFlight.get(payment.getPaymentType());
+        if (!permits.tryAcquire()) {
+            return CompletableFuture.completedFuture(new PaymentResult(PaymentResult.Status.REJECTED,
+                payment.getPaymentType(), amountCents, 0, 0,
+                "Too many " + payment.getPaymentType() + " payments in flight"));
+        }
+        PaymentRequest request = new PaymentRequest(payment, amountCents, IDEMPOTENCY_KEYS.incrementAndGet(), 1);
+        CompletableFuture<PaymentResult> result = new CompletableFuture<>();
+        pending.put(result, request);
+        result.whenComplete((r, e) -> {
+            pending.remove(result);
+            permits.release();
+        });
+        // Registered before checking, so either this sees closed or close() sees the future
+        if (closed) {
+            result.complete(closedResult(request, start));
+            return result;
+        }
+        attempt(request, start).whenComplete((r, e) -> {
+            if (e == null) {
+                result.complete(r);
+            } else {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    private CompletableFuture<PaymentResult> attempt(PaymentRequest request, long start) {
+        CompletableFuture<PaymentResult> call = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                try {
+                    call.complete(gateway.authorize(request));
+                } catch (Throwable t) {
+                    call.completeExceptionally(t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(closedResult(request, start)); // closed meanwhile
+        }
+        call.orTimeout(policy.getAttemptTimeout().toNanos(), TimeUnit.NANOSECONDS)
+            .whenComplete((r, e) -> {
+                if (e instanceof TimeoutException) {
+                    task.cancel(true); // interrupt the blocked gateway call
+                }
+            });
+
+        return call.handle((outcome, error) -> {
+            if (error == null) {
+                return CompletableFuture.completedFuture(
+                    outcome.withTiming(request.getAttempt(), System.nanoTime() - start));
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause() : error;
+            if (!isTransient(cause) || request.getAttempt() > policy.getMaxRetries()) {
+                return CompletableFuture.completedFuture(failure(request, cause, start));
+            }
+            PaymentRequest retry = new PaymentRequest(request.getPayment(), request.getAmountCents(),
+                request.getIdempotencyKey(), request.getAttempt() + 1);
+            long delay = policy.getRetryBackoff().toNanos() * request.getAttempt();
+            // The delay runs off the executor, so a retry due after close() is rejected by attempt()
+            return CompletableFuture.supplyAsync(() -> retry,
+                    CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS))
+                .thenCompose(next -> attempt(next, start));
+        }).thenCompose(f -> f);
+    }
+
+    private static boolean isTransient(Throwable cause) {
+        return cause instanceof PaymentGatewayException || cause instanceof TimeoutException;
+    }
+
+    // A first attempt was never made; a retry ends the payment as failed
+    private static PaymentResult closedResult(PaymentRequest request, long start) {
+        int attempts = request.getAttempt() - 1;
+        return new PaymentResult(attempts == 0 ? PaymentResult.Status.REJECTED : PaymentResult.Status.FAILED,
+            request.getPayment().getPaymentType(), request.getAmountCents(), attempts, System.nanoTime() - start,
+            "Payment processor is closed");
+    }
+
+    private static PaymentResult failure(PaymentRequest request, Throwable cause, long start) {
+        PaymentResult.Status status = cause instanceof TimeoutException
+            ? PaymentResult.Status.TIMED_OUT : PaymentResult.Status.FAILED;
+        String message = cause instanceof TimeoutException ? "Gateway did not answer in time"
+            : cause instanceof CancellationException ? "Cancelled"
+            : String.valueOf(cause.getMessage());
+        return new PaymentResult(status, request.getPayment().getPaymentType(), request.getAmountCents(),
+            request.getAttempt(), System.nanoTime() - start, message);
+    }
+
+    /**
+     * Payments of a type currently being processed
+     */
+    public int getInFlight(PaymentType type) {
+        return policy.getMaxInFlight(type) - inFlight.get(type).availablePermits();
+    }
+
+    /**
+     * Stops the gateway calls in progress. Their payments complete as FAILED: the
+     * gateway may or may not have charged them, so they need reconciling by
+     * idempotency key rather than a blind retry.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        executor.shutdownNow();
+        for (Map.Entry<CompletableFuture<PaymentResult>, PaymentRequest> entry : pending.entrySet()) {
+            PaymentRequest request = entry.getValue();
+            entry.getKey().complete(new PaymentResult(PaymentResult.Status.FAILED,
+                request.getPayment().getPaymentType(), request.getAmountCents(), 0, 0,
+                "Payment processor closed while the payment was in flight"));
+        }
+    }
+}
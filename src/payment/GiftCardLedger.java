@@ -0,0 +1,298 @@
+package payment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Shared gift card balances, keyed by card number.
+ *
+ * Every terminal that accepts a card goes through the same ledger, so one physical
+ * card cannot be spent twice. Card numbers are folded into a long key (digit count
+ * included, so "0012" and "12" are different cards) and stored in
+ * an open-addressing table of primitive arrays; balances are updated with a
+ * compare-and-swap loop, so concurrent redemptions never block each other and never
+ * take a card below zero. Every balance change is appended to a history that is
+ * never rewritten.
+ *
+ * The table has a fixed capacity chosen at construction; issuing a card into a full
+ * ledger fails with IllegalStateException. So does any change once the history is
+ * full, before the balance is touched.
+ */
+public final class GiftCardLedger {
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    /** Longest card number that fits in a key */
+    public static final int MAX_CARD_DIGITS = 18;
+
+    private static final long EMPTY = 0;
+    // Balance of a slot whose key is claimed but whose card is not funded yet
+    private static final long INACTIVE = Long.MIN_VALUE;
+    private static final int HISTORY_CHUNK_BITS = 10;
+    private static final int HISTORY_CHUNK = 1 << HISTORY_CHUNK_BITS;
+    private static final int HISTORY_CHUNKS = 1 << 16;
+    private static final long HISTORY_CAPACITY = (long) HISTORY_CHUNKS << HISTORY_CHUNK_BITS;
+
+    private static final GiftCardLedger DEFAULT = new GiftCardLedger(DEFAULT_CAPACITY);
+
+    private final AtomicLongArray keys;
+    private final AtomicLongArray balances;
+    private final int mask;
+    private final int capacity;
+    private final AtomicLong cards = new AtomicLong();
+
+    // Append-only history: chunks are allocated on demand and never moved. A change
+    // reserves its history slot before it touches a balance, so it cannot be applied
+    // and then fail to be recorded.
+    private final AtomicLong historySize = new AtomicLong();
+    private final AtomicLong historyReserved = new AtomicLong();
+    private final AtomicReferenceArray<AtomicReferenceArray<GiftCardTransaction>> history =
+        new AtomicReferenceArray<>(HISTORY_CHUNKS);
+
+    public GiftCardLedger(int capacity) {
+        if (capacity < 1 || capacity > 1 << 29) {
+            throw new IllegalArgumentException("Invalid ledger capacity: " + capacity);
+        }
+        // Keep the table at most half full so probe chains stay short
+        int slots = Integer.highestOneBit(capacity * 4 - 1);
+        this.capacity = capacity;
+        this.mask = slots - 1;
+        this.keys = new AtomicLongArray(slots);
+        this.balances = new AtomicLongArray(slots);
+        for (int slot = 0; slot < slots; slot++) {
+            balances.set(slot, INACTIVE);
+        }
+    }
+
+    /**
+     * Ledger used by PaymentFactory.createGiftCardPayment
+     */
+    public static GiftCardLedger getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Activates a new card with an opening balance
+     */
+    public GiftCardTransaction issue(String cardNumber, long balanceCents) {
+        if (balanceCents < 0) {
+            throw new IllegalArgumentException("Opening balance cannot be negative");
+        }
+        long key = keyOf(cardNumber);
+        reserveHistory();
+        try {
+            int slot = spread(key) & mask;
+            while (true) {
+                long existing = keys.get(slot);
+                if (existing == key) {
+                    throw new IllegalStateException("Gift card already issued: " + mask(cardNumber));
+                }
+                if (existing == EMPTY) {
+                    if (cards.incrementAndGet() > capacity) {
+                        cards.decrementAndGet();
+                        throw new IllegalStateException("Gift card ledger is full (" + capacity + " cards)");
+                    }
+                    if (keys.compareAndSet(slot, EMPTY, key)) {
+                        balances.set(slot, balanceCents);
+                        return record(GiftCardTransaction.Type.ISSUE, cardNumber, balanceCents, balanceCents,
+                            balanceCents);
+                    }
+                    cards.decrementAndGet();
+                    continue; // lost the slot, re-read it
+                }
+                slot = (slot + 1) & mask;
+            }
+        } catch (RuntimeException e) {
+            historyReserved.decrementAndGet();
+            throw e;
+        }
+    }
+
+    public boolean contains(String cardNumber) {
+        int slot = find(keyOf(cardNumber));
+        return slot >= 0 && balances.get(slot) != INACTIVE;
+    }
+
+    public long getBalanceCents(String cardNumber) {
+        int slot = activeSlot(cardNumber);
+        return balances.get(slot);
+    }
+
+    /**
+     * Takes the full amount from the card, or nothing if the balance does not cover it.
+     * Returns the transaction, whose amount is 0 when the balance was insufficient.
+     */
+    public GiftCardTransaction redeem(String cardNumber, long amountCents) {
+        return debit(cardNumber, amountCents, false);
+    }
+
+    /**
+     * Takes as much of the amount as the balance covers; the rest is the transaction's
+     * shortfall and must be paid some other way
+     */
+    public GiftCardTransaction redeemPartial(String cardNumber, long amountCents) {
+        return debit(cardNumber, amountCents, true);
+    }
+
+    /**
+     * Adds value to an active card (reloads and refunds)
+     */
+    public GiftCardTransaction reload(String cardNumber, long amountCents) {
+        if (amountCents <= 0) {
+            throw new IllegalArgumentException("Reload amount must be positive");
+        }
+        int slot = activeSlot(cardNumber);
+        reserveHistory();
+        long current;
+        long updated;
+        do {
+            current = balances.get(slot);
+            if (current > Long.MAX_VALUE - amountCents) {
+                historyReserved.decrementAndGet();
+                throw new ArithmeticException("Gift card balance overflow");
+            }
+            updated = current + amountCents;
+        } while (!balances.compareAndSet(slot, current, updated));
+        return record(GiftCardTransaction.Type.RELOAD, cardNumber, amountCents, amountCents, updated);
+    }
+
+    private GiftCardTransaction debit(String cardNumber, long amountCents, boolean allowPartial) {
+        if (amountCents <= 0) {
+            throw new IllegalArgumentException("Redemption amount must be positive");
+        }
+        int slot = activeSlot(cardNumber);
+        reserveHistory();
+        long current;
+        long taken;
+        do {
+            current = balances.get(slot);
+            if (current < amountCents && !allowPartial) {
+                taken = 0;
+                break;
+            }
+            taken = Math.min(current, amountCents);
+        } while (taken > 0 && !balances.compareAndSet(slot, current, current - taken));
+        return record(GiftCardTransaction.Type.REDEEM, cardNumber, amountCents, taken, current - taken);
+    }
+
+    /**
+     * Every transaction of one card, in history order
+     */
+    public List<GiftCardTransaction> history(String cardNumber) {
+        long key = keyOf(cardNumber);
+        List<GiftCardTransaction> result = new ArrayList<>();
+        for (GiftCardTransaction transaction : history()) {
+            if (transaction.cardKey == key) {
+                result.add(transaction);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Every transaction in the ledger, in history order
+     */
+    public List<GiftCardTransaction> history() {
+        long size = historySize.get();
+        List<GiftCardTransaction> result = new ArrayList<>((int) Math.min(size, Integer.MAX_VALUE));
+        for (long i = 0; i < size; i++) {
+            AtomicReferenceArray<GiftCardTransaction> chunk = history.get((int) (i >>> HISTORY_CHUNK_BITS));
+            GiftCardTransaction transaction = chunk == null ? null : chunk.get((int) (i & (HISTORY_CHUNK - 1)));
+            if (transaction != null) { // null while its writer is still appending
+                result.add(transaction);
+            }
+        }
+        return result;
+    }
+
+    public long getTransactionCount() {
+        return historySize.get();
+    }
+
+    public int getCardCount() {
+        return (int) cards.get();
+    }
+
+    private void reserveHistory() {
+        if (historyReserved.incrementAndGet() > HISTORY_CAPACITY) {
+            historyReserved.decrementAndGet();
+            throw new IllegalStateException("Gift card history is full");
+        }
+    }
+
+    // Uses a slot reserved by reserveHistory(), so the sequence is within the history
+    private GiftCardTransaction record(GiftCardTransaction.Type type, String cardNumber,
+                                       long requestedCents, long amountCents, long balanceAfterCents) {
+        long sequence = historySize.getAndIncrement();
+        int chunkIndex = (int) (sequence >>> HISTORY_CHUNK_BITS);
+        AtomicReferenceArray<GiftCardTransaction> chunk = history.get(chunkIndex);
+        if (chunk == null) {
+            history.compareAndSet(chunkIndex, null, new AtomicReferenceArray<>(HISTORY_CHUNK));
+            chunk = history.get(chunkIndex);
+        }
+        GiftCardTransaction transaction = new GiftCardTransaction(keyOf(cardNumber), sequence, System.currentTimeMillis(),
+            type, mask(cardNumber), requestedCents, amountCents, balanceAfterCents);
+        chunk.set((int) (sequence & (HISTORY_CHUNK - 1)), transaction);
+        return transaction;
+    }
+
+    private int activeSlot(String cardNumber) {
+        int slot = find(keyOf(cardNumber));
+        if (slot < 0 || balances.get(slot) == INACTIVE) {
+            throw new IllegalArgumentException("Unknown gift card: " + mask(cardNumber));
+        }
+        return slot;
+    }
+
+    private int find(long key) {
+        int slot = spread(key) & mask;
+        long existing;
+        while ((existing = keys.get(slot)) != EMPTY) {
+            if (existing == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Card number digits as a number behind a leading 1 (10^digits + value), so that
+     * leading zeros count and no card maps to EMPTY. Spaces and dashes are ignored.
+     */
+    static long keyOf(String cardNumber) {
+        if (cardNumber == null) {
+            throw new IllegalArgumentException("Gift card number cannot be null");
+        }
+        long value = 1;
+        int digits = 0;
+        for (int i = 0; i < cardNumber.length(); i++) {
+            char c = cardNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digits > MAX_CARD_DIGITS) {
+                    throw new IllegalArgumentException("Gift card number longer than " + MAX_CARD_DIGITS + " digits");
+                }
+                value = value * 10 + (c - '0');
+            } else if (c != ' ' && c != '-') {
+                throw new IllegalArgumentException("Invalid gift card number: " + mask(cardNumber));
+            }
+        }
+        if (digits == 0) {
+            throw new IllegalArgumentException("Gift card number cannot be empty");
+        }
+        return value;
+    }
+
+    private static int spread(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * "**** **** 1234" form used on receipts and in the history
+     */
+    public static String mask(String cardNumber) {
+        return "**** **** " + cardNumber.substring(Math.max(0, cardNumber.length() - 4));
+    }
+}
@@ -0,0 +1,67 @@
+package payment;
+
+import domain.pricing.Money;
+
+/**
+ * One entry of the gift card ledger's append-only history
+ */
+public final class GiftCardTransaction {
+    public enum Type {
+        ISSUE,
+        REDEEM,
+        RELOAD
+    }
+
+    final long cardKey;
+    private final long sequence;
+    private final long timestampMillis;
+    private final Type type;
+    private final String maskedCardNumber;
+    private final long requestedCents;
+    private final long amountCents;
+    private final long balanceAfterCents;
+
+    GiftCardTransaction(long cardKey, long sequence, long timestampMillis, Type type, String maskedCardNumber,
+                        long requestedCents, long amountCents, long balanceAfterCents) {
+        this.cardKey = cardKey;
+        this.sequence = sequence;
+        this.timestampMillis = timestampMillis;
+        this.type = type;
+        this.maskedCardNumber = maskedCardNumber;
+        this.requestedCents = requestedCents;
+        this.amountCents = amountCents;
+        this.balanceAfterCents = balanceAfterCents;
+    }
+
+    /**
+     * Position in the ledger history. Entries for the same card may be numbered out of
+     * balance order when they race; balanceAfter is always exact.
+     */
+    public long getSequence() { return sequence; }
+    public long getTimestampMillis() { return timestampMillis; }
+    public Type getType() { return type; }
+    public String getMaskedCardNumber() { return maskedCardNumber; }
+    /** Amount asked for; differs from getAmountCents() for a partial redemption */
+    public long getRequestedCents() { return requestedCents; }
+    /** Amount actually moved */
+    public long getAmountCents() { return amountCents; }
+    public long getBalanceAfterCents() { return balanceAfterCents; }
+
+    public boolean isPartial() {
+        return amountCents < requestedCents;
+    }
+
+    /**
+     * Amount of the request the card could not cover
+     */
+    public long getShortfallCents() {
+        return requestedCents - amountCents;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + sequence + " " + type + " " + maskedCardNumber + " $" + Money.format(amountCents)
+            + (isPartial() ? " of $" + Money.format(requestedCents) : "")
+            + " -> $" + Money.format(balanceAfterCents);
+    }
+}
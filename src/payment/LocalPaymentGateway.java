@@ -0,0 +1,84 @@
+package payment;
+
+import domain.models.Payment;
+import domain.pricing.Money;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Gateway that settles payments in-process through Payment.processPayment(),
+ * i.e. the synchronous behaviour the demo has always had. A charge that leaves an
+ * amount due (cash short, gift card balance short) is DECLINED.
+ *
+ * Charges are remembered by idempotency key: a retry whose first attempt timed out
+ * on the processor's side gets that attempt's outcome instead of charging again.
+ * Only the most recent keys are kept; retries arrive within seconds.
+ */
+public class LocalPaymentGateway implements PaymentGateway {
+    public static final int DEFAULT_REMEMBERED_CHARGES = 10_000;
+
+    // Guarded by itself; insertion order, so the eldest entry is the oldest charge
+    private final Map<Long, CompletableFuture<PaymentResult>> charges;
+
+    public LocalPaymentGateway() {
+        this(DEFAULT_REMEMBERED_CHARGES);
+    }
+
+    public LocalPaymentGateway(int rememberedCharges) {
+        if (rememberedCharges < 1) {
+            throw new IllegalArgumentException("Must remember at least one charge");
+        }
+        this.charges = new LinkedHashMap<>() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CompletableFuture<PaymentResult>> eldest) {
+                return size() > rememberedCharges;
+            }
+        };
+    }
+
+    @Override
+    public PaymentResult authorize(PaymentRequest request) throws InterruptedException {
+        CompletableFuture<PaymentResult> charge = new CompletableFuture<>();
+        CompletableFuture<PaymentResult> earlier;
+        synchronized (charges) {
+            earlier = charges.putIfAbsent(request.getIdempotencyKey(), charge);
+        }
+        if (earlier != null) {
+            return outcomeOf(earlier);
+        }
+        try {
+            charge.complete(settle(request));
+        } catch (RuntimeException | Error e) {
+            charge.completeExceptionally(e);
+        }
+        return outcomeOf(charge);
+    }
+
+    private static PaymentResult settle(PaymentRequest request) {
+        Payment payment = request.getPayment();
+        payment.processPayment(request.getAmountCents());
+        long due = payment.getAmountDueCents();
+        if (due > 0) {
+            return PaymentResult.declined(request, "$" + Money.format(due) + " not covered by "
+                + payment.getPaymentType());
+        }
+        return PaymentResult.approved(request);
+    }
+
+    // Waits for a charge, possibly made by an earlier attempt, and rethrows its failure
+    private static PaymentResult outcomeOf(CompletableFuture<PaymentResult> charge) throws InterruptedException {
+        try {
+            return charge.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw (Error) cause;
+        }
+    }
+}
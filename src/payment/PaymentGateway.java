@@ -0,0 +1,13 @@
+package payment;
+
+/**
+ * Blocking call to the party that authorizes a payment. The AsyncPaymentProcessor
+ * runs each call on its own (virtual) thread, so implementations may simply block.
+ */
+public interface PaymentGateway {
+    /**
+     * Authorizes one attempt. Returns APPROVED or DECLINED; throws for transient
+     * failures that are worth retrying.
+     */
+    PaymentResult authorize(PaymentRequest request) throws PaymentGatewayException, InterruptedException;
+}
@@ -0,0 +1,17 @@
+package payment;
+
+/**
+ * Transient gateway failure (network error, gateway unavailable). The processor
+ * retries these; a definite answer such as a decline is returned as a PaymentResult.
+ */
+public class PaymentGatewayException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    public PaymentGatewayException(String message) {
+        super(message);
+    }
+
+    public PaymentGatewayException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,72 @@
+package payment;
+
+import domain.enums.PaymentType;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Immutable settings for the AsyncPaymentProcessor: per-attempt timeout, retries with
+ * linear backoff, and how many payments of each type may be in flight at once.
+ * The with* methods return modified copies.
+ */
+public final class PaymentPolicy {
+    private final Duration attemptTimeout;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+    private final Map<PaymentType, Integer> maxInFlight;
+
+    private PaymentPolicy(Duration attemptTimeout, int maxRetries, Duration retryBackoff,
+                          Map<PaymentType, Integer> maxInFlight) {
+        this.attemptTimeout = attemptTimeout;
+        this.maxRetries = maxRetries;
+        this.retryBackoff = retryBackoff;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * 3 s per attempt, 2 retries 100 ms apart, 256 in-flight payments per type
+     */
+    public static PaymentPolicy defaults() {
+        Map<PaymentType, Integer> limits = new EnumMap<>(PaymentType.class);
+        for (PaymentType type : PaymentType.values()) {
+            limits.put(type, 256);
+        }
+        return new PaymentPolicy(Duration.ofSeconds(3), 2, Duration.ofMillis(100), limits);
+    }
+
+    public PaymentPolicy withAttemptTimeout(Duration timeout) {
+        if (timeout.isNegative() || timeout.isZero()) {
+            throw new IllegalArgumentException("Timeout must be positive: " + timeout);
+        }
+        return new PaymentPolicy(timeout, maxRetries, retryBackoff, maxInFlight);
+    }
+
+    public PaymentPolicy withMaxRetries(int retries) {
+        if (retries < 0) {
+            throw new IllegalArgumentException("Retries cannot be negative: " + retries);
+        }
+        return new PaymentPolicy(attemptTimeout, retries, retryBackoff, maxInFlight);
+    }
+
+    /**
+     * Delay before retry n is n * backoff
+     */
+    public PaymentPolicy withRetryBackoff(Duration backoff) {
+        return new PaymentPolicy(attemptTimeout, maxRetries, backoff, maxInFlight);
+    }
+
+    public PaymentPolicy withMaxInFlight(PaymentType type, int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("In-flight limit must be positive: " + limit);
+        }
+        Map<PaymentType, Integer> limits = new EnumMap<>(maxInFlight);
+        limits.put(type, limit);
+        return new PaymentPolicy(attemptTimeout, maxRetries, retryBackoff, limits);
+    }
+
+    public Duration getAttemptTimeout() { return attemptTimeout; }
+    public int getMaxRetries() { return maxRetries; }
+    public Duration getRetryBackoff() { return retryBackoff; }
+    public int getMaxInFlight(PaymentType type) { return maxInFlight.get(type); }
+}
@@ -0,0 +1,27 @@
+package payment;
+
+import domain.models.Payment;
+
+/**
+ * One authorization attempt sent to a PaymentGateway. All retries of the same
+ * checkout share the idempotency key, so a gateway can recognise a retry of an
+ * attempt that timed out on our side but succeeded on theirs.
+ */
+public final class PaymentRequest {
+    private final Payment payment;
+    private final long amountCents;
+    private final long idempotencyKey;
+    private final int attempt;
+
+    PaymentRequest(Payment payment, long amountCents, long idempotencyKey, int attempt) {
+        this.payment = payment;
+        this.amountCents = amountCents;
+        this.idempotencyKey = idempotencyKey;
+        this.attempt = attempt;
+    }
+
+    public Payment getPayment() { return payment; }
+    public long getAmountCents() { return amountCents; }
+    public long getIdempotencyKey() { return idempotencyKey; }
+    public int getAttempt() { return attempt; }
+}
@@ -0,0 +1,68 @@
+package payment;
+
+import domain.enums.PaymentType;
+import domain.pricing.Money;
+
+/**
+ * Final outcome of an asynchronous payment
+ */
+public final class PaymentResult {
+    public enum Status {
+        APPROVED,
+        DECLINED,
+        /** Every attempt failed with a transient gateway error */
+        FAILED,
+        /** The last attempt did not answer within the configured timeout */
+        TIMED_OUT,
+        /** Not attempted: the in-flight limit for the payment type was reached or the processor is closed */
+        REJECTED
+    }
+
+    private final Status status;
+    private final PaymentType paymentType;
+    private final long amountCents;
+    private final int attempts;
+    private final long latencyNanos;
+    private final String message;
+
+    public PaymentResult(Status status, PaymentType paymentType, long amountCents,
+                         int attempts, long latencyNanos, String message) {
+        this.status = status;
+        this.paymentType = paymentType;
+        this.amountCents = amountCents;
+        this.attempts = attempts;
+        this.latencyNanos = latencyNanos;
+        this.message = message;
+    }
+
+    public static PaymentResult approved(PaymentRequest request) {
+        return new PaymentResult(Status.APPROVED, request.getPayment().getPaymentType(),
+            request.getAmountCents(), request.getAttempt(), 0, "Approved");
+    }
+
+    public static PaymentResult declined(PaymentRequest request, String reason) {
+        return new PaymentResult(Status.DECLINED, request.getPayment().getPaymentType(),
+            request.getAmountCents(), request.getAttempt(), 0, reason);
+    }
+
+    /**
+     * Copy stamped with the attempt count and end-to-end latency seen by the processor
+     */
+    PaymentResult withTiming(int attempts, long latencyNanos) {
+        return new PaymentResult(status, paymentType, amountCents, attempts, latencyNanos, message);
+    }
+
+    public boolean isApproved() { return status == Status.APPROVED; }
+    public Status getStatus() { return status; }
+    public PaymentType getPaymentType() { return paymentType; }
+    public long getAmountCents() { return amountCents; }
+    public int getAttempts() { return attempts; }
+    public long getLatencyNanos() { return latencyNanos; }
+    public String getMessage() { return message; }
+
+    @Override
+    public String toString() {
+        return status + " " + paymentType + " $" + Money.format(amountCents)
+            + " after " + attempts + " attempt(s), " + (latencyNanos / 1_000_000) + " ms: " + message;
+    }
+}
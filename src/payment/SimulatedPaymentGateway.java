@@ -0,0 +1,59 @@
+package payment;
+
+import domain.enums.PaymentType;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stand-in for the real card and mobile gateways, used for load testing.
+ *
+ * Each attempt sleeps for a random latency drawn from the range configured for its
+ * PaymentType (cards 100 ms - 2 s by default), then fails transiently, declines or
+ * approves with the configured probabilities. Nothing is printed and no money moves.
+ */
+public class SimulatedPaymentGateway implements PaymentGateway {
+    private final Map<PaymentType, long[]> latencyMillis = new EnumMap<>(PaymentType.class);
+    private final double transientFailureRate;
+    private final double declineRate;
+
+    /**
+     * Production-like latencies, 2% transient failures and 1% declines
+     */
+    public SimulatedPaymentGateway() {
+        this(0.02, 0.01);
+    }
+
+    public SimulatedPaymentGateway(double transientFailureRate, double declineRate) {
+        this.transientFailureRate = transientFailureRate;
+        this.declineRate = declineRate;
+        setLatency(PaymentType.CASH, 0, 1);
+        setLatency(PaymentType.CREDIT_CARD, 100, 2000);
+        setLatency(PaymentType.MOBILE_PAYMENT, 100, 1500);
+        setLatency(PaymentType.GIFT_CARD, 20, 200);
+    }
+
+    public SimulatedPaymentGateway setLatency(PaymentType type, long minMillis, long maxMillis) {
+        if (minMillis < 0 || maxMillis < minMillis) {
+            throw new IllegalArgumentException("Invalid latency range " + minMillis + "-" + maxMillis);
+        }
+        latencyMillis.put(type, new long[] {minMillis, maxMillis});
+        return this;
+    }
+
+    @Override
+    public PaymentResult authorize(PaymentRequest request) throws PaymentGatewayException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long[] range = latencyMillis.get(request.getPayment().getPaymentType());
+        Thread.sleep(range[0] + random.nextLong(range[1] - range[0] + 1));
+
+        double roll = random.nextDouble();
+        if (roll < transientFailureRate) {
+            throw new PaymentGatewayException("Simulated gateway error");
+        }
+        if (roll < transientFailureRate + declineRate) {
+            return PaymentResult.declined(request, "Simulated decline");
+        }
+        return PaymentResult.approved(request);
+    }
+}
@@ -0,0 +1,325 @@
+package promotions;
+
+import domain.enums.MenuItemCategory;
+import domain.models.Meal;
+import domain.models.MenuItem;
+import domain.models.Order;
+import domain.pricing.Money;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import patterns.flyweight.MenuCatalog;
+
+/**
+ * A PromotionSet resolved against the menu catalog into flat lookup tables:
+ *
+ *   happy hour   int per (15-minute slot of the week, item ID): rule << 16 | basis points
+ *   buy X get Y  per item ID: rule, X and Y
+ *   combos       per combo, per component: the item IDs that can fill it
+ *   templates    meal template name -> rule;  coupons  code -> rule
+ *
+ * Evaluating an order is a handful of array reads per line plus per-thread scratch
+ * counters, so its cost grows with the order, not with the number of rules.
+ */
+final class CompiledPromotions {
+    static final int SLOT_MINUTES = 15;
+    static final int SLOTS_PER_DAY = 24 * 60 / SLOT_MINUTES;
+    static final int SLOTS = 7 * SLOTS_PER_DAY;
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    final PromotionSet source;
+    final long version;
+    final int width;
+    private final ZoneRules zoneRules;
+    private final int fixedOffsetMillis; // valid when zoneRules has a fixed offset
+    private final String[] ruleNames;
+
+    private final int[] happyHour;
+    private final int[] buyXGetYRule;
+    private final int[] buyCount;
+    private final int[] freeCount;
+    private final int[] comboRule;
+    private final long[] comboCents;
+    private final int[][][] comboIds;
+    private final int maxComponents;
+    private final Map<String, Integer> mealTemplateRule = new HashMap<>();
+    private final Map<String, Integer> couponRule = new HashMap<>();
+    private final int[] ruleBasisPoints;
+    private final long[] couponMinimum;
+
+    CompiledPromotions(PromotionSet set, MenuCatalog catalog, long version) {
+        this.source = set;
+        this.version = version;
+        this.width = catalog != null ? catalog.size() : 0;
+        this.zoneRules = set.getZone().getRules();
+        this.fixedOffsetMillis = zoneRules.isFixedOffset()
+            ? zoneRules.getOffset(Instant.EPOCH).getTotalSeconds() * 1000 : 0;
+        List<String> names = new ArrayList<>();
+        int ruleCount = set.getRuleCount();
+        this.ruleBasisPoints = new int[ruleCount];
+        this.couponMinimum = new long[ruleCount];
+
+        happyHour = new int[SLOTS * width];
+        for (PromotionSet.HappyHour rule : set.happyHours) {
+            int index = names.size();
+            names.add(rule.name);
+            int[] ids = itemsIn(catalog, rule.categories);
+            // Builder.happyHour() only accepts times on a slot boundary
+            int from = rule.from.toSecondOfDay() / 60 / SLOT_MINUTES;
+            int to = rule.to.toSecondOfDay() / 60 / SLOT_MINUTES;
+            if (to <= from) {
+                to += SLOTS_PER_DAY; // window runs past midnight
+            }
+            for (DayOfWeek day : rule.days) {
+                for (int slot = from; slot < to; slot++) {
+                    int weekSlot = ((day.getValue() - 1) * SLOTS_PER_DAY + slot) % SLOTS;
+                    for (int id : ids) {
+                        int cell = weekSlot * width + id;
+                        // Overlapping happy hours: the larger discount wins
+                        if ((happyHour[cell] & 0xFFFF) < rule.basisPointsOff) {
+                            happyHour[cell] = index << 16 | rule.basisPointsOff;
+                        }
+                    }
+                }
+            }
+        }
+
+        buyXGetYRule = new int[width];
+        buyCount = new int[width];
+        freeCount = new int[width];
+        Arrays.fill(buyXGetYRule, -1);
+        for (PromotionSet.BuyXGetY rule : set.buyXGetY) {
+            int index = names.size();
+            names.add(rule.name);
+            if (rule.itemId < width) {
+                buyXGetYRule[rule.itemId] = index;
+                buyCount[rule.itemId] = rule.buy;
+                freeCount[rule.itemId] = rule.free;
+            }
+        }
+
+        List<PromotionSet.Combo> combos = new ArrayList<>(set.combos);
+        combos.sort(Comparator.comparingLong((PromotionSet.Combo combo) -> combo.centsOff).reversed());
+        comboRule = new int[combos.size()];
+        comboCents = new long[combos.size()];
+        comboIds = new int[combos.size()][][];
+        int components = 0;
+        for (int c = 0; c < combos.size(); c++) {
+            PromotionSet.Combo combo = combos.get(c);
+            comboRule[c] = names.size();
+            names.add(combo.name);
+            comboCents[c] = combo.centsOff;
+            comboIds[c] = new int[combo.components.size()][];
+            components = Math.max(components, combo.components.size());
+            for (int k = 0; k < combo.components.size(); k++) {
+                comboIds[c][k] = itemsIn(catalog, combo.components.get(k));
+            }
+        }
+
+        maxComponents = components;
+
+        for (PromotionSet.MealTemplate rule : set.mealTemplates) {
+            ruleBasisPoints[names.size()] = rule.basisPointsOff;
+            mealTemplateRule.put(rule.template, names.size());
+            names.add(rule.name);
+        }
+        for (PromotionSet.Coupon rule : set.coupons) {
+            ruleBasisPoints[names.size()] = rule.basisPointsOff;
+            couponMinimum[names.size()] = rule.minSubtotalCents;
+            couponRule.put(rule.code, names.size());
+            names.add("Coupon " + rule.code);
+        }
+        this.ruleNames = names.toArray(new String[0]);
+    }
+
+    private static int[] itemsIn(MenuCatalog catalog, Set<MenuItemCategory> categories) {
+        if (catalog == null) {
+            return new int[0];
+        }
+        int[] ids = new int[catalog.size()];
+        int count = 0;
+        for (int id = 0; id < catalog.size(); id++) {
+            if (catalog.contains(id) && categories.contains(catalog.categoryOf(id))) {
+                ids[count++] = id;
+            }
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    int ruleCount() {
+        return ruleNames.length;
+    }
+
+    /**
+     * Per-thread working state, reset after every evaluation
+     */
+    static final class Scratch {
+        int[] count = new int[0];
+        long[] minPrice = new long[0];
+        int[] touched = new int[0];
+        int touchedCount;
+        long[] ruleCents = new long[0];
+        int[] applied = new int[0];
+        int appliedCount;
+        int[] taken = new int[0];
+
+        void ensure(int width, int rules, int components) {
+            if (count.length < width) {
+                count = new int[width];
+                minPrice = new long[width];
+                touched = new int[width];
+            }
+            if (ruleCents.length < rules) {
+                ruleCents = new long[rules];
+                applied = new int[rules];
+            }
+            if (taken.length < components) {
+                taken = new int[components];
+            }
+        }
+
+        void credit(int rule, long cents) {
+            if (cents <= 0) {
+                return;
+            }
+            if (ruleCents[rule] == 0) {
+                applied[appliedCount++] = rule;
+            }
+            ruleCents[rule] += cents;
+        }
+    }
+
+    PromotionResult evaluate(Order order, long atMillis, String couponCode, Scratch s) {
+        s.ensure(width, ruleNames.length, maxComponents);
+        int slotBase = slotOf(atMillis) * width;
+
+        // 1. Happy hour, per item line; remember counts and cheapest price per item
+        for (int line = 0; line < order.getLineCount(); line++) {
+            MenuItem item = order.getLineItem(line);
+            int id = item.getId();
+            if (id < 0 || id >= width) {
+                continue;
+            }
+            int quantity = order.getLineQuantity(line);
+            long price = item.getPriceCents();
+            int cell = happyHour[slotBase + id];
+            if (cell != 0) {
+                // Rounded per unit, as when every unit was its own line
+                long off = Money.percentOf(price, cell & 0xFFFF, Money.DISCOUNT_ROUNDING);
+                s.credit(cell >>> 16, quantity * off);
+                price -= off;
+            }
+            int before = s.count[id];
+            s.count[id] = before + quantity;
+            if (before == 0) {
+                s.touched[s.touchedCount++] = id;
+                s.minPrice[id] = price;
+            } else if (price < s.minPrice[id]) {
+                s.minPrice[id] = price;
+            }
+        }
+
+        // 2. Buy X get Y
+        for (int t = 0; t < s.touchedCount; t++) {
+            int id = s.touched[t];
+            int rule = buyXGetYRule[id];
+            if (rule >= 0) {
+                int group = buyCount[id] + freeCount[id];
+                int groups = s.count[id] / group;
+                s.credit(rule, (long) groups * freeCount[id] * s.minPrice[id]);
+                s.count[id] -= groups * group;
+            }
+        }
+
+        // 3. Combos, largest discount first, one complete set at a time
+        for (int c = 0; c < comboIds.length; c++) {
+            while (takeCombo(comboIds[c], s.taken, s.count)) {
+                s.credit(comboRule[c], comboCents[c]);
+            }
+        }
+
+        // 4. Meal templates
+        if (!mealTemplateRule.isEmpty()) {
+            for (int i = 0; i < order.getMealCount(); i++) {
+                Meal meal = order.getMeal(i);
+                Integer rule = meal.getSpecialInstructions() != null
+                    ? mealTemplateRule.get(meal.getSpecialInstructions()) : null;
+                if (rule != null) {
+                    s.credit(rule, Money.percentOf(meal.getTotalPriceCents(), ruleBasisPoints[rule],
+                        Money.DISCOUNT_ROUNDING));
+                }
+            }
+        }
+
+        long subtotal = order.calculateSubtotalCents();
+        long discount = 0;
+        for (int a = 0; a < s.appliedCount; a++) {
+            discount += s.ruleCents[s.applied[a]];
+        }
+
+        // 5. Coupon on what is left
+        boolean couponApplied = false;
+        Integer coupon = couponCode != null ? couponRule.get(couponCode) : null;
+        if (coupon != null && subtotal >= couponMinimum[coupon] && discount < subtotal) {
+            long off = Money.percentOf(subtotal - discount, ruleBasisPoints[coupon], Money.DISCOUNT_ROUNDING);
+            s.credit(coupon, off);
+            discount += off;
+            couponApplied = true;
+        }
+
+        String[] names = new String[s.appliedCount];
+        long[] cents = new long[s.appliedCount];
+        Arrays.sort(s.applied, 0, s.appliedCount); // report in rule order
+        for (int a = 0; a < s.appliedCount; a++) {
+            int rule = s.applied[a];
+            names[a] = ruleNames[rule];
+            cents[a] = s.ruleCents[rule];
+            s.ruleCents[rule] = 0;
+        }
+        for (int t = 0; t < s.touchedCount; t++) {
+            s.count[s.touched[t]] = 0;
+        }
+        s.touchedCount = 0;
+        s.appliedCount = 0;
+        return new PromotionResult(version, subtotal, Math.min(discount, subtotal), names, cents, couponApplied);
+    }
+
+    // Takes one item for every component, or nothing if some component cannot be filled
+    private static boolean takeCombo(int[][] components, int[] taken, int[] count) {
+        for (int k = 0; k < components.length; k++) {
+            taken[k] = -1;
+            for (int id : components[k]) {
+                if (count[id] > 0) {
+                    count[id]--;
+                    taken[k] = id;
+                    break;
+                }
+            }
+            if (taken[k] < 0) {
+                for (int undo = 0; undo < k; undo++) {
+                    count[taken[undo]]++;
+                }
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // 15-minute slot of the week (Monday 00:00 = 0) in the set's time zone
+    private int slotOf(long epochMillis) {
+        long offset = zoneRules.isFixedOffset() ? fixedOffsetMillis
+            : zoneRules.getOffset(Instant.ofEpochMilli(epochMillis)).getTotalSeconds() * 1000L;
+        long local = epochMillis + offset;
+        long day = Math.floorDiv(local, DAY_MILLIS);
+        int dayOfWeek = Math.floorMod(day + 3, 7); // 1970-01-01 was a Thursday
+        int minute = (int) (Math.floorMod(local, DAY_MILLIS) / 60_000);
+        return dayOfWeek * SLOTS_PER_DAY + minute / SLOT_MINUTES;
+    }
+}
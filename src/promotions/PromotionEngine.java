@@ -0,0 +1,97 @@
+package promotions;
+
+import domain.models.Order;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import logging.Event;
+import logging.Log;
+import patterns.flyweight.MenuCatalog;
+
+/**
+ * Applies the current PromotionSet to orders.
+ *
+ * publish() compiles a set into lookup tables (see CompiledPromotions) on the caller's
+ * thread and then swaps it in with a single atomic write, in the same way MenuCatalog
+ * publishes a new menu. Every evaluation reads the reference once, so an order is
+ * always priced entirely by one set, never by a mix of the old and the new rules, and
+ * evaluations never wait for a publish.
+ */
+public final class PromotionEngine {
+    private static final PromotionEngine DEFAULT = new PromotionEngine();
+
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicReference<CompiledPromotions> current =
+        new AtomicReference<>(new CompiledPromotions(PromotionSet.none(), null, 0));
+    private final ThreadLocal<CompiledPromotions.Scratch> scratch =
+        ThreadLocal.withInitial(CompiledPromotions.Scratch::new);
+
+    /**
+     * Shared engine; starts without promotions
+     */
+    public static PromotionEngine getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Compiles a set against the current menu and makes it the active one
+     *
+     * @return version number of the published set
+     */
+    public long publish(PromotionSet set) {
+        return publish(set, MenuCatalog.getDefault());
+    }
+
+    public long publish(PromotionSet set, MenuCatalog catalog) {
+        if (set == null || catalog == null) {
+            throw new IllegalArgumentException("Promotion set and catalog cannot be null");
+        }
+        CompiledPromotions compiled = new CompiledPromotions(set, catalog, versions.incrementAndGet());
+        current.set(compiled);
+        Log.log(Event.PROMOTIONS_PUBLISHED, set.getName(), null, compiled.version, compiled.ruleCount(), 0, 0);
+        return compiled.version;
+    }
+
+    public PromotionSet getPromotionSet() {
+        return current.get().source;
+    }
+
+    public long getVersion() {
+        return current.get().version;
+    }
+
+    /**
+     * Promotions for an order placed now, without a coupon
+     */
+    public PromotionResult evaluate(Order order) {
+        return evaluate(order, System.currentTimeMillis(), null);
+    }
+
+    public PromotionResult evaluate(Order order, String couponCode) {
+        return evaluate(order, System.currentTimeMillis(), couponCode);
+    }
+
+    /**
+     * Evaluates the promotions for an order placed now and takes the discount off the
+     * order's price (see Order.applyDiscount())
+     */
+    public PromotionResult apply(Order order, String couponCode) {
+        return apply(order, System.currentTimeMillis(), couponCode);
+    }
+
+    public PromotionResult apply(Order order, long atMillis, String couponCode) {
+        PromotionResult result = evaluate(order, atMillis, couponCode);
+        order.applyDiscount(result.getDiscountCents());
+        return result;
+    }
+
+    /**
+     * Promotions for an order at a given time (happy hours are looked up for that
+     * instant); couponCode may be null
+     */
+    public PromotionResult evaluate(Order order, long atMillis, String couponCode) {
+        if (order == null) {
+            throw new IllegalArgumentException("Order cannot be null");
+        }
+        return current.get().evaluate(order, atMillis, couponCode, scratch.get());
+    }
+}
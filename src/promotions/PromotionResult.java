@@ -0,0 +1,59 @@
+package promotions;
+
+import domain.pricing.Money;
+
+/**
+ * Discounts granted to one order by the promotion set that was current when it was
+ * evaluated
+ */
+public final class PromotionResult {
+    private final long promotionSetVersion;
+    private final long subtotalCents;
+    private final long discountCents;
+    private final String[] names;
+    private final long[] cents;
+    private final boolean couponApplied;
+
+    PromotionResult(long promotionSetVersion, long subtotalCents, long discountCents,
+                    String[] names, long[] cents, boolean couponApplied) {
+        this.promotionSetVersion = promotionSetVersion;
+        this.subtotalCents = subtotalCents;
+        this.discountCents = discountCents;
+        this.names = names;
+        this.cents = cents;
+        this.couponApplied = couponApplied;
+    }
+
+    /**
+     * Version assigned by PromotionEngine.publish() to the set that produced this result
+     */
+    public long getPromotionSetVersion() { return promotionSetVersion; }
+    public long getSubtotalCents() { return subtotalCents; }
+
+    /**
+     * Total discount, never more than the subtotal
+     */
+    public long getDiscountCents() { return discountCents; }
+    public long getDiscountedSubtotalCents() { return subtotalCents - discountCents; }
+    public boolean isCouponApplied() { return couponApplied; }
+
+    /**
+     * Number of promotions that gave a discount
+     */
+    public int getAppliedCount() { return names.length; }
+    public String getPromotionName(int index) { return names[index]; }
+    public long getPromotionDiscountCents(int index) { return cents[index]; }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(64 + names.length * 32);
+        sb.append("Discount $");
+        Money.appendTo(sb, discountCents).append(" of $");
+        Money.appendTo(sb, subtotalCents);
+        for (int i = 0; i < names.length; i++) {
+            sb.append(i == 0 ? " (" : ", ").append(names[i]).append(" -$");
+            Money.appendTo(sb, cents[i]);
+        }
+        return sb.append(names.length > 0 ? ")" : "").toString();
+    }
+}
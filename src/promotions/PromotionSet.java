@@ -0,0 +1,266 @@
+package promotions;
+
+import domain.enums.MenuItemCategory;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable definition of the promotions in effect: happy hours, buy-X-get-Y offers,
+ * combo discounts, meal template discounts and coupons. A set is only a description;
+ * PromotionEngine compiles it into lookup tables when it is published.
+ *
+ * Rules are applied in this order, each on what the previous ones left:
+ *   1. happy hour      percentage off individual items during a weekly time window
+ *   2. buy X get Y     every X+Y units of an item, the Y cheapest are free
+ *   3. combos          fixed amount off per complete combo (largest discount first)
+ *   4. meal templates  percentage off meals built from a MealBuilder template
+ *   5. coupon          percentage off the remaining subtotal
+ * Happy hour, buy X get Y and combos apply to individually ordered items; meals are
+ * already bundles and only take meal template discounts. Items used by a buy X get Y
+ * group are not reused for combos.
+ */
+public final class PromotionSet {
+    private final String name;
+    private final ZoneId zone;
+    final List<HappyHour> happyHours;
+    final List<BuyXGetY> buyXGetY;
+    final List<Combo> combos;
+    final List<MealTemplate> mealTemplates;
+    final List<Coupon> coupons;
+
+    private PromotionSet(Builder builder) {
+        this.name = builder.name;
+        this.zone = builder.zone;
+        this.happyHours = Collections.unmodifiableList(new ArrayList<>(builder.happyHours));
+        this.buyXGetY = Collections.unmodifiableList(new ArrayList<>(builder.buyXGetY));
+        this.combos = Collections.unmodifiableList(new ArrayList<>(builder.combos));
+        this.mealTemplates = Collections.unmodifiableList(new ArrayList<>(builder.mealTemplates));
+        this.coupons = Collections.unmodifiableList(new ArrayList<>(builder.coupons));
+    }
+
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    /**
+     * A set without any promotions
+     */
+    public static PromotionSet none() {
+        return new Builder("none").build();
+    }
+
+    public String getName() { return name; }
+
+    /**
+     * Time zone the happy hour windows are defined in
+     */
+    public ZoneId getZone() { return zone; }
+
+    public int getRuleCount() {
+        return happyHours.size() + buyXGetY.size() + combos.size() + mealTemplates.size() + coupons.size();
+    }
+
+    // ----- rule definitions
+
+    static final class HappyHour {
+        final String name;
+        final int basisPointsOff;
+        final LocalTime from;
+        final LocalTime to;
+        final Set<DayOfWeek> days;
+        final Set<MenuItemCategory> categories;
+
+        HappyHour(String name, int basisPointsOff, LocalTime from, LocalTime to,
+                  Set<DayOfWeek> days, Set<MenuItemCategory> categories) {
+            this.name = name;
+            this.basisPointsOff = basisPointsOff;
+            this.from = from;
+            this.to = to;
+            this.days = days;
+            this.categories = categories;
+        }
+    }
+
+    static final class BuyXGetY {
+        final String name;
+        final int itemId;
+        final int buy;
+        final int free;
+
+        BuyXGetY(String name, int itemId, int buy, int free) {
+            this.name = name;
+            this.itemId = itemId;
+            this.buy = buy;
+            this.free = free;
+        }
+    }
+
+    static final class Combo {
+        final String name;
+        final long centsOff;
+        final List<Set<MenuItemCategory>> components;
+
+        Combo(String name, long centsOff, List<Set<MenuItemCategory>> components) {
+            this.name = name;
+            this.centsOff = centsOff;
+            this.components = components;
+        }
+    }
+
+    static final class MealTemplate {
+        final String name;
+        final String template;
+        final int basisPointsOff;
+
+        MealTemplate(String name, String template, int basisPointsOff) {
+            this.name = name;
+            this.template = template;
+            this.basisPointsOff = basisPointsOff;
+        }
+    }
+
+    static final class Coupon {
+        final String code;
+        final int basisPointsOff;
+        final long minSubtotalCents;
+
+        Coupon(String code, int basisPointsOff, long minSubtotalCents) {
+            this.code = code;
+            this.basisPointsOff = basisPointsOff;
+            this.minSubtotalCents = minSubtotalCents;
+        }
+    }
+
+    /**
+     * Collects the rules of a promotion set
+     */
+    public static final class Builder {
+        private final String name;
+        private ZoneId zone = ZoneId.systemDefault();
+        private final List<HappyHour> happyHours = new ArrayList<>();
+        private final List<BuyXGetY> buyXGetY = new ArrayList<>();
+        private final List<Combo> combos = new ArrayList<>();
+        private final List<MealTemplate> mealTemplates = new ArrayList<>();
+        private final List<Coupon> coupons = new ArrayList<>();
+
+        private Builder(String name) {
+            this.name = name;
+        }
+
+        public Builder setZone(ZoneId zone) {
+            this.zone = zone;
+            return this;
+        }
+
+        /**
+         * Percentage off items of the given categories between from and to (to may be
+         * past midnight, e.g. 22:00-02:00) on the given days. Both times must fall on a
+         * quarter hour, the resolution of the compiled lookup table.
+         */
+        public Builder happyHour(String name, int basisPointsOff, LocalTime from, LocalTime to,
+                                 Set<DayOfWeek> days, MenuItemCategory... categories) {
+            checkBasisPoints(basisPointsOff);
+            if (!onSlotBoundary(from) || !onSlotBoundary(to)) {
+                throw new IllegalArgumentException("Happy hour '" + name + "' must start and end on a quarter hour: "
+                    + from + "-" + to);
+            }
+            if (categories.length == 0) {
+                throw new IllegalArgumentException("Happy hour '" + name + "' needs at least one category");
+            }
+            happyHours.add(new HappyHour(name, basisPointsOff, from, to, EnumSet.copyOf(days),
+                EnumSet.of(categories[0], categories)));
+            return this;
+        }
+
+        private static boolean onSlotBoundary(LocalTime time) {
+            return time.getSecond() == 0 && time.getNano() == 0
+                && time.getMinute() % CompiledPromotions.SLOT_MINUTES == 0;
+        }
+
+        /**
+         * Buy one, get one free
+         */
+        public Builder buyOneGetOne(String name, int itemId) {
+            return buyXGetY(name, itemId, 1, 1);
+        }
+
+        /**
+         * For every buy units of an item, the next free units are free
+         */
+        public Builder buyXGetY(String name, int itemId, int buy, int free) {
+            if (itemId < 0 || buy < 1 || free < 1) {
+                throw new IllegalArgumentException("Invalid buy " + buy + " get " + free + " for item " + itemId);
+            }
+            for (BuyXGetY existing : buyXGetY) {
+                if (existing.itemId == itemId) {
+                    throw new IllegalArgumentException("Item " + itemId + " already has offer '" + existing.name + "'");
+                }
+            }
+            buyXGetY.add(new BuyXGetY(name, itemId, buy, free));
+            return this;
+        }
+
+        /**
+         * Fixed amount off for every complete set of one item from each component,
+         * e.g. combo("Pizza + drink", 200, MAIN_COURSE, BEVERAGE)
+         */
+        public Builder combo(String name, long centsOff, MenuItemCategory... components) {
+            List<Set<MenuItemCategory>> sets = new ArrayList<>();
+            for (MenuItemCategory component : components) {
+                sets.add(EnumSet.of(component));
+            }
+            return combo(name, centsOff, sets);
+        }
+
+        /**
+         * Combo whose components each accept any of several categories
+         */
+        public Builder combo(String name, long centsOff, List<Set<MenuItemCategory>> components) {
+            if (centsOff <= 0 || components.size() < 2) {
+                throw new IllegalArgumentException("Combo '" + name + "' needs a positive discount and two components");
+            }
+            List<Set<MenuItemCategory>> copies = new ArrayList<>();
+            for (Set<MenuItemCategory> component : components) {
+                copies.add(EnumSet.copyOf(component));
+            }
+            combos.add(new Combo(name, centsOff, Collections.unmodifiableList(copies)));
+            return this;
+        }
+
+        /**
+         * Percentage off meals built from a MealBuilder template, matched by the
+         * template's name (e.g. "Lunch Special")
+         */
+        public Builder mealTemplate(String name, String template, int basisPointsOff) {
+            checkBasisPoints(basisPointsOff);
+            mealTemplates.add(new MealTemplate(name, template, basisPointsOff));
+            return this;
+        }
+
+        /**
+         * Percentage off the subtotal (after other promotions) when the code is
+         * presented and the subtotal is at least minSubtotalCents
+         */
+        public Builder coupon(String code, int basisPointsOff, long minSubtotalCents) {
+            checkBasisPoints(basisPointsOff);
+            coupons.add(new Coupon(code, basisPointsOff, minSubtotalCents));
+            return this;
+        }
+
+        public PromotionSet build() {
+            return new PromotionSet(this);
+        }
+
+        private static void checkBasisPoints(int basisPoints) {
+            if (basisPoints <= 0 || basisPoints > 10_000) {
+                throw new IllegalArgumentException("Discount must be between 1 and 10000 basis points: " + basisPoints);
+            }
+        }
+    }
+}
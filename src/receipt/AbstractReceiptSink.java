@@ -0,0 +1,64 @@
+package receipt;
+
+/**
+ * Number formatting shared by all sinks, written digit by digit through character()
+ * so nothing is allocated.
+ */
+public abstract class AbstractReceiptSink implements ReceiptSink {
+
+    @Override
+    public void number(long value) {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                throw new ArithmeticException("Value out of range");
+            }
+            character('-');
+            value = -value;
+        }
+        long divisor = 1;
+        while (value / divisor >= 10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            character((char) ('0' + (int) (value / divisor % 10)));
+            divisor /= 10;
+        }
+    }
+
+    @Override
+    public void money(long cents) {
+        if (cents < 0) {
+            character('-');
+            cents = -cents;
+        }
+        number(cents / 100);
+        character('.');
+        int fraction = (int) (cents % 100);
+        character((char) ('0' + fraction / 10));
+        character((char) ('0' + fraction % 10));
+    }
+
+    @Override
+    public void percent(int basisPoints) {
+        // Same digits Double.toString would print for the percentage: 850 -> 8.5, 1000 -> 10.0
+        number(basisPoints / 100);
+        character('.');
+        int fraction = Math.abs(basisPoints % 100);
+        character((char) ('0' + fraction / 10));
+        if (fraction % 10 != 0) {
+            character((char) ('0' + fraction % 10));
+        }
+    }
+
+    @Override
+    public void emphasis(boolean on) {
+    }
+
+    @Override
+    public void begin() {
+    }
+
+    @Override
+    public void end() {
+    }
+}
@@ -0,0 +1,86 @@
+package receipt;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Receipt output as ESC/POS printer commands into a ByteBuffer.
+ *
+ * Text is encoded in code page 437 (the default on most thermal printers), which
+ * includes the box-drawing characters used in the receipt header; characters
+ * outside it print as '?'. A receipt starts with a printer reset and ends with a
+ * feed and partial cut. Throws BufferOverflowException if the buffer is too small.
+ */
+public class EscPosReceiptSink extends AbstractReceiptSink {
+    private static final byte ESC = 0x1B;
+    private static final byte GS = 0x1D;
+    private static final byte LF = 0x0A;
+
+    private ByteBuffer out;
+
+    public EscPosReceiptSink(ByteBuffer out) {
+        this.out = out;
+    }
+
+    public EscPosReceiptSink setTarget(ByteBuffer out) {
+        this.out = out;
+        return this;
+    }
+
+    @Override
+    public void begin() {
+        out.put(ESC).put((byte) '@'); // initialize printer
+    }
+
+    @Override
+    public void end() {
+        out.put(ESC).put((byte) 'd').put((byte) 3); // feed 3 lines
+        out.put(GS).put((byte) 'V').put((byte) 66).put((byte) 0); // partial cut
+    }
+
+    @Override
+    public void emphasis(boolean on) {
+        out.put(ESC).put((byte) 'E').put((byte) (on ? 1 : 0));
+    }
+
+    @Override
+    public void fragment(ReceiptTemplate.Fragment fragment) {
+        out.put(fragment.getEscPosBytes());
+    }
+
+    @Override
+    public void text(CharSequence text) {
+        for (int i = 0; i < text.length(); i++) {
+            out.put(toCodePage437(text.charAt(i)));
+        }
+    }
+
+    @Override
+    public void character(char c) {
+        out.put(toCodePage437(c));
+    }
+
+    @Override
+    public void newline() {
+        out.put(LF);
+    }
+
+    static byte toCodePage437(char c) {
+        if (c < 0x80) {
+            return (byte) c;
+        }
+        switch (c) {
+            case '═': return (byte) 0xCD;
+            case '║': return (byte) 0xBA;
+            case '╔': return (byte) 0xC9;
+            case '╗': return (byte) 0xBB;
+            case '╚': return (byte) 0xC8;
+            case '╝': return (byte) 0xBC;
+            case '•': return (byte) 0xF9;
+            case 'é': return (byte) 0x82;
+            case 'è': return (byte) 0x8A;
+            case 'à': return (byte) 0x85;
+            case 'ñ': return (byte) 0xA4;
+            default: return (byte) '?';
+        }
+    }
+}
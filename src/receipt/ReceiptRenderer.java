@@ -0,0 +1,186 @@
+package receipt;
+
+import domain.models.Meal;
+import domain.models.MenuItem;
+import domain.models.Order;
+import domain.pricing.PriceBreakdown;
+import patterns.singleton.ConfigSnapshot;
+
+/**
+ * Renders order receipts and meal cards into a ReceiptSink.
+ *
+ * Literal text comes from a precompiled ReceiptTemplate and amounts are written
+ * digit by digit, so rendering into a reused sink and buffer creates no garbage.
+ * The renderer is stateless and can be shared between threads.
+ */
+public final class ReceiptRenderer {
+    private static final ReceiptRenderer STANDARD = new ReceiptRenderer(ReceiptTemplate.standard());
+
+    private final ReceiptTemplate t;
+
+    public ReceiptRenderer(ReceiptTemplate template) {
+        this.t = template;
+    }
+
+    public static ReceiptRenderer standard() {
+        return STANDARD;
+    }
+
+    /**
+     * Renders an order receipt as text
+     */
+    public static String toText(Order order) {
+        StringBuilder sb = new StringBuilder(1024);
+        STANDARD.render(order, new TextReceiptSink(sb));
+        return sb.toString();
+    }
+
+    /**
+     * Renders a meal card as text
+     */
+    public static String toText(Meal meal) {
+        StringBuilder sb = new StringBuilder(256);
+        STANDARD.render(meal, new TextReceiptSink(sb));
+        return sb.toString();
+    }
+
+    public void render(Order order, ReceiptSink out) {
+        ConfigSnapshot config = order.getConfigSnapshot();
+        PriceBreakdown prices = order.getPriceBreakdown();
+        out.begin();
+
+        out.emphasis(true);
+        out.fragment(t.banner);
+        out.emphasis(false);
+        line(out, t.restaurant, config.getRestaurantName());
+        line(out, t.address, config.getAddress());
+        line(out, t.phone, config.getPhoneNumber());
+        out.fragment(t.thinRule);
+        out.fragment(t.orderNumber);
+        out.number(order.getOrderNumber());
+        out.newline();
+        line(out, t.customer, order.getCustomerName());
+        line(out, t.phone, order.getPhoneNumber());
+        if (isPresent(order.getTableNumber())) {
+            line(out, t.table, order.getTableNumber());
+        }
+        line(out, t.orderType, order.getOrderType().name());
+        if (isPresent(order.getDeliveryAddress())) {
+            line(out, t.deliveryAddress, order.getDeliveryAddress());
+        }
+        out.fragment(t.thinRule);
+
+        int lineCount = order.getLineCount();
+        if (lineCount > 0) {
+            out.fragment(t.itemsHeading);
+            for (int line = 0; line < lineCount; line++) {
+                MenuItem item = order.getLineItem(line);
+                // One receipt row per unit, as before compact lines
+                for (int q = order.getLineQuantity(line); q > 0; q--) {
+                    out.fragment(t.itemBullet);
+                    out.text(item.getName());
+                    out.fragment(t.openPrice);
+                    out.money(item.getPriceCents());
+                    out.fragment(t.closePrice);
+                }
+            }
+        }
+
+        int mealCount = order.getMealCount();
+        if (mealCount > 0) {
+            out.fragment(t.mealsHeading);
+            for (int i = 0; i < mealCount; i++) {
+                Meal meal = order.getMeal(i);
+                out.fragment(t.mealNumber);
+                out.number(i + 1);
+                out.fragment(t.mealNumberEnd);
+                itemLine(out, t.mealMain, meal.getMainItem());
+                itemLine(out, t.mealSide, meal.getSideItem());
+                itemLine(out, t.mealBeverage, meal.getBeverage());
+                itemLine(out, t.mealDessert, meal.getDessert());
+                if (meal.getMealSize() != null) {
+                    line(out, t.mealSize, meal.getMealSize().name());
+                }
+                out.fragment(t.mealTotal);
+                out.money(meal.getTotalPriceCents());
+                out.newline();
+            }
+        }
+
+        out.fragment(t.thinRule);
+        out.fragment(t.subtotal);
+        out.money(prices.getSubtotalCents());
+        out.newline();
+        if (prices.getDiscountCents() > 0) {
+            out.fragment(t.discount);
+            out.money(prices.getDiscountCents());
+            out.newline();
+        }
+        out.fragment(t.tax);
+        out.percent(prices.getTaxRateBasisPoints());
+        out.fragment(t.percentAmount);
+        out.money(prices.getTaxCents());
+        out.newline();
+        if (prices.getServiceFeeCents() > 0) {
+            out.fragment(t.deliveryFee);
+            out.percent(prices.getServiceFeeBasisPoints());
+            out.fragment(t.percentAmount);
+            out.money(prices.getServiceFeeCents());
+            out.newline();
+        }
+        out.fragment(t.thickRule);
+        out.emphasis(true);
+        out.fragment(t.total);
+        out.money(prices.getTotalCents());
+        out.newline();
+        out.emphasis(false);
+        out.fragment(t.thickRule);
+        if (order.getPaymentMethod() != null) {
+            line(out, t.paymentMethod, order.getPaymentMethod().getPaymentType().name());
+        }
+
+        out.end();
+    }
+
+    public void render(Meal meal, ReceiptSink out) {
+        out.fragment(t.mealCardHeading);
+        if (meal.getMealSize() != null) {
+            line(out, t.cardSize, meal.getMealSize().name());
+        }
+        pricedLine(out, t.cardMain, meal.getMainItem());
+        pricedLine(out, t.cardSide, meal.getSideItem());
+        pricedLine(out, t.cardBeverage, meal.getBeverage());
+        pricedLine(out, t.cardDessert, meal.getDessert());
+        if (isPresent(meal.getSpecialInstructions())) {
+            line(out, t.cardInstructions, meal.getSpecialInstructions());
+        }
+        out.fragment(t.cardTotal);
+        out.money(meal.getTotalPriceCents());
+    }
+
+    private static void line(ReceiptSink out, ReceiptTemplate.Fragment label, CharSequence value) {
+        out.fragment(label);
+        out.text(value == null ? "null" : value);
+        out.newline();
+    }
+
+    private static void itemLine(ReceiptSink out, ReceiptTemplate.Fragment label, MenuItem item) {
+        if (item != null) {
+            line(out, label, item.getName());
+        }
+    }
+
+    private void pricedLine(ReceiptSink out, ReceiptTemplate.Fragment label, MenuItem item) {
+        if (item != null) {
+            out.fragment(label);
+            out.text(item.getName());
+            out.fragment(t.openPrice);
+            out.money(item.getPriceCents());
+            out.fragment(t.closePrice);
+        }
+    }
+
+    private static boolean isPresent(String value) {
+        return value != null && !value.isEmpty();
+    }
+}
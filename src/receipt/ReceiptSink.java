@@ -0,0 +1,35 @@
+package receipt;
+
+/**
+ * Output target for ReceiptRenderer. Implementations write straight into their
+ * destination (Appendable, CharBuffer, ByteBuffer) without building strings.
+ */
+public interface ReceiptSink {
+    /** Writes a precompiled template literal */
+    void fragment(ReceiptTemplate.Fragment fragment);
+
+    /** Writes dynamic text such as a customer or item name */
+    void text(CharSequence text);
+
+    void character(char c);
+
+    void newline();
+
+    /** Writes a whole number */
+    void number(long value);
+
+    /** Writes an amount in cents as a plain decimal ("12.99") */
+    void money(long cents);
+
+    /** Writes a rate in basis points as a percentage number ("8.5", "10.0", "8.25") */
+    void percent(int basisPoints);
+
+    /** Switches emphasized (bold) printing on or off where the output supports it */
+    void emphasis(boolean on);
+
+    /** Called once before the first line of a receipt */
+    void begin();
+
+    /** Called once after the last line of a receipt */
+    void end();
+}
@@ -0,0 +1,89 @@
+package receipt;
+
+/**
+ * Precompiled literal text of a receipt.
+ *
+ * Every label and rule line is compiled once into a Fragment that holds both the
+ * text and its ESC/POS byte encoding, so rendering only copies ready-made data.
+ */
+public final class ReceiptTemplate {
+    private static final ReceiptTemplate STANDARD = new ReceiptTemplate();
+
+    /**
+     * A literal piece of the receipt, pre-encoded for every output format
+     */
+    public static final class Fragment {
+        private final String text;
+        private final byte[] escPosBytes;
+
+        Fragment(String text) {
+            this.text = text;
+            this.escPosBytes = new byte[text.length()];
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                escPosBytes[i] = c == '\n' ? 0x0A : EscPosReceiptSink.toCodePage437(c);
+            }
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        byte[] getEscPosBytes() {
+            return escPosBytes;
+        }
+    }
+
+    // Order receipt
+    final Fragment banner = new Fragment(
+        "\n╔════════════════════════════════════════╗\n"
+        + "║          ORDER RECEIPT                ║\n"
+        + "╚════════════════════════════════════════╝\n");
+    final Fragment restaurant = new Fragment("Restaurant: ");
+    final Fragment address = new Fragment("Address: ");
+    final Fragment phone = new Fragment("Phone: ");
+    final Fragment thinRule = new Fragment("----------------------------------------\n");
+    final Fragment thickRule = new Fragment("========================================\n");
+    final Fragment orderNumber = new Fragment("Order #");
+    final Fragment customer = new Fragment("Customer: ");
+    final Fragment table = new Fragment("Table: ");
+    final Fragment orderType = new Fragment("Order Type: ");
+    final Fragment deliveryAddress = new Fragment("Delivery Address: ");
+    final Fragment itemsHeading = new Fragment("Individual Items:\n");
+    final Fragment itemBullet = new Fragment("  - ");
+    final Fragment openPrice = new Fragment(" ($");
+    final Fragment closePrice = new Fragment(")\n");
+    final Fragment mealsHeading = new Fragment("\nCombo Meals:\n");
+    final Fragment mealNumber = new Fragment("  Meal #");
+    final Fragment mealNumberEnd = new Fragment(":\n");
+    final Fragment mealMain = new Fragment("    Main: ");
+    final Fragment mealSide = new Fragment("    Side: ");
+    final Fragment mealBeverage = new Fragment("    Beverage: ");
+    final Fragment mealDessert = new Fragment("    Dessert: ");
+    final Fragment mealSize = new Fragment("    Size: ");
+    final Fragment mealTotal = new Fragment("    Meal Total: $");
+    final Fragment subtotal = new Fragment("Subtotal: $");
+    final Fragment discount = new Fragment("Discount: -$");
+    final Fragment tax = new Fragment("Tax (");
+    final Fragment deliveryFee = new Fragment("Delivery Fee (");
+    final Fragment percentAmount = new Fragment("%): $");
+    final Fragment total = new Fragment("TOTAL: $");
+    final Fragment paymentMethod = new Fragment("Payment Method: ");
+
+    // Meal card (Meal.toString())
+    final Fragment mealCardHeading = new Fragment("=== MEAL ===\n");
+    final Fragment cardSize = new Fragment("Size: ");
+    final Fragment cardMain = new Fragment("Main: ");
+    final Fragment cardSide = new Fragment("Side: ");
+    final Fragment cardBeverage = new Fragment("Beverage: ");
+    final Fragment cardDessert = new Fragment("Dessert: ");
+    final Fragment cardInstructions = new Fragment("Special Instructions: ");
+    final Fragment cardTotal = new Fragment("Total Price: $");
+
+    private ReceiptTemplate() {
+    }
+
+    public static ReceiptTemplate standard() {
+        return STANDARD;
+    }
+}
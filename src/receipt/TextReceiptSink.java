@@ -0,0 +1,49 @@
+package receipt;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Plain-text receipt output to any Appendable (StringBuilder, CharBuffer, Writer).
+ * The target can be swapped with setTarget() so one sink can be reused.
+ */
+public class TextReceiptSink extends AbstractReceiptSink {
+    private Appendable out;
+
+    public TextReceiptSink(Appendable out) {
+        this.out = out;
+    }
+
+    public TextReceiptSink setTarget(Appendable out) {
+        this.out = out;
+        return this;
+    }
+
+    @Override
+    public void fragment(ReceiptTemplate.Fragment fragment) {
+        text(fragment.getText());
+    }
+
+    @Override
+    public void text(CharSequence text) {
+        try {
+            out.append(text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void character(char c) {
+        try {
+            out.append(c);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void newline() {
+        character('\n');
+    }
+}
@@ -0,0 +1,254 @@
+package reporting;
+
+import domain.enums.MealSize;
+import domain.models.Meal;
+import domain.models.MenuItem;
+import domain.models.Order;
+import domain.models.Payment;
+import domain.pricing.PriceBreakdown;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Up to a fixed number of orders stored column by column in primitive arrays.
+ *
+ * Per order: number, placement time, subtotal, promotion discount, tax, service fee
+ * (as priced when the order was added), order type code, payment type code and the
+ * start of its lines.
+ * Lines (ordered items and meal components) are stored as parallel item ID and cents
+ * arrays. Aggregating a range of rows touches only the arrays it needs.
+ *
+ * Chunk file layout (big-endian): int magic, short format, short reserved, int rows,
+ * int lines, long minPlacedAt, long maxPlacedAt, then every column in field order.
+ */
+final class ColumnChunk {
+    static final int MAGIC = 0x54434F4C; // "TCOL"
+    static final short FORMAT_VERSION = 2;
+    private static final int HEADER_SIZE = 32;
+
+    final long[] orderNumbers;
+    final long[] placedAt;
+    final long[] subtotalCents;
+    final long[] discountCents;
+    final long[] taxCents;
+    final long[] feeCents;
+    final byte[] orderTypes;
+    final byte[] paymentTypes;
+    final int[] lineStart; // rows + 1 entries
+    int[] itemIds;
+    int[] lineCents;
+    int rows;
+    int lines;
+    long minPlacedAt = Long.MAX_VALUE;
+    long maxPlacedAt = Long.MIN_VALUE;
+
+    ColumnChunk(int capacity) {
+        this(capacity, Math.max(16, capacity * 4));
+    }
+
+    private ColumnChunk(int capacity, int lineCapacity) {
+        orderNumbers = new long[capacity];
+        placedAt = new long[capacity];
+        subtotalCents = new long[capacity];
+        discountCents = new long[capacity];
+        taxCents = new long[capacity];
+        feeCents = new long[capacity];
+        orderTypes = new byte[capacity];
+        paymentTypes = new byte[capacity];
+        lineStart = new int[capacity + 1];
+        itemIds = new int[lineCapacity];
+        lineCents = new int[lineCapacity];
+    }
+
+    int capacity() {
+        return orderNumbers.length;
+    }
+
+    boolean isFull() {
+        return rows == orderNumbers.length;
+    }
+
+    void append(Order order) {
+        int row = rows;
+        orderNumbers[row] = order.getOrderNumber();
+        placedAt[row] = order.getPlacedAtMillis();
+        PriceBreakdown prices = order.getPriceBreakdown();
+        subtotalCents[row] = prices.getSubtotalCents();
+        discountCents[row] = prices.getDiscountCents();
+        taxCents[row] = prices.getTaxCents();
+        feeCents[row] = prices.getServiceFeeCents();
+        orderTypes[row] = (byte) order.getOrderType().ordinal();
+        Payment payment = order.getPaymentMethod();
+        paymentTypes[row] = (byte) (payment == null ? SalesReport.NO_PAYMENT : payment.getPaymentType().ordinal());
+
+        for (int line = 0; line < order.getLineCount(); line++) {
+            MenuItem item = order.getLineItem(line);
+            for (int q = order.getLineQuantity(line); q > 0; q--) {
+                addLine(item.getId(), item.getPriceCents());
+            }
+        }
+        for (int i = 0; i < order.getMealCount(); i++) {
+            Meal meal = order.getMeal(i);
+            addMealLine(meal.getMainItem(), meal.getMealSize());
+            addMealLine(meal.getSideItem(), meal.getMealSize());
+            addMealLine(meal.getBeverage(), meal.getMealSize());
+            addMealLine(meal.getDessert(), meal.getMealSize());
+        }
+        lineStart[row + 1] = lines;
+        minPlacedAt = Math.min(minPlacedAt, placedAt[row]);
+        maxPlacedAt = Math.max(maxPlacedAt, placedAt[row]);
+        rows = row + 1;
+    }
+
+    private void addMealLine(MenuItem item, MealSize size) {
+        if (item != null) {
+            addLine(item.getId(), size != null ? size.applyTo(item.getPriceCents()) : item.getPriceCents());
+        }
+    }
+
+    private void addLine(int itemId, long cents) {
+        if (lines == itemIds.length) {
+            itemIds = Arrays.copyOf(itemIds, lines * 2);
+            lineCents = Arrays.copyOf(lineCents, lines * 2);
+        }
+        itemIds[lines] = itemId;
+        lineCents[lines] = Math.toIntExact(cents);
+        lines++;
+    }
+
+    /**
+     * Adds rows [fromRow, toRow) placed within [fromMillis, toMillis) to a report
+     */
+    void aggregate(int fromRow, int toRow, long fromMillis, long toMillis, SalesReport into) {
+        for (int row = fromRow; row < toRow; row++) {
+            long time = placedAt[row];
+            if (time < fromMillis || time >= toMillis) {
+                continue;
+            }
+            long subtotal = subtotalCents[row];
+            long discount = discountCents[row];
+            long tax = taxCents[row];
+            long fee = feeCents[row];
+            into.orders++;
+            into.items += lineStart[row + 1] - lineStart[row];
+            into.subtotalCents += subtotal;
+            into.discountCents += discount;
+            into.taxCents += tax;
+            into.serviceFeeCents += fee;
+            into.ordersByType[orderTypes[row]]++;
+            into.revenueByType[orderTypes[row]] += subtotal - discount;
+            into.ordersByPayment[paymentTypes[row]]++;
+            into.totalByPayment[paymentTypes[row]] += subtotal - discount + tax + fee;
+        }
+    }
+
+    /**
+     * A copy of the rows stored so far, unaffected by later appends
+     */
+    ColumnChunk copy() {
+        ColumnChunk copy = new ColumnChunk(Math.max(1, rows), Math.max(16, lines));
+        copyRows(this, copy);
+        return copy;
+    }
+
+    private static void copyRows(ColumnChunk from, ColumnChunk to) {
+        int rows = from.rows;
+        System.arraycopy(from.orderNumbers, 0, to.orderNumbers, 0, rows);
+        System.arraycopy(from.placedAt, 0, to.placedAt, 0, rows);
+        System.arraycopy(from.subtotalCents, 0, to.subtotalCents, 0, rows);
+        System.arraycopy(from.discountCents, 0, to.discountCents, 0, rows);
+        System.arraycopy(from.taxCents, 0, to.taxCents, 0, rows);
+        System.arraycopy(from.feeCents, 0, to.feeCents, 0, rows);
+        System.arraycopy(from.orderTypes, 0, to.orderTypes, 0, rows);
+        System.arraycopy(from.paymentTypes, 0, to.paymentTypes, 0, rows);
+        System.arraycopy(from.lineStart, 0, to.lineStart, 0, rows + 1);
+        System.arraycopy(from.itemIds, 0, to.itemIds, 0, from.lines);
+        System.arraycopy(from.lineCents, 0, to.lineCents, 0, from.lines);
+        to.rows = rows;
+        to.lines = from.lines;
+        to.minPlacedAt = from.minPlacedAt;
+        to.maxPlacedAt = from.maxPlacedAt;
+    }
+
+    // ----- chunk files
+
+    void writeTo(Path file) throws IOException {
+        int size = HEADER_SIZE + rows * (6 * 8 + 2 + 4) + 4 + lines * 8;
+        ByteBuffer out = ByteBuffer.allocateDirect(size);
+        out.putInt(MAGIC).putShort(FORMAT_VERSION).putShort((short) 0)
+            .putInt(rows).putInt(lines).putLong(minPlacedAt).putLong(maxPlacedAt);
+        out.asLongBuffer().put(orderNumbers, 0, rows);
+        out.position(out.position() + rows * 8);
+        out.asLongBuffer().put(placedAt, 0, rows);
+        out.position(out.position() + rows * 8);
+        out.asLongBuffer().put(subtotalCents, 0, rows);
+        out.position(out.position() + rows * 8);
+        out.asLongBuffer().put(discountCents, 0, rows);
+        out.position(out.position() + rows * 8);
+        out.asLongBuffer().put(taxCents, 0, rows);
+        out.position(out.position() + rows * 8);
+        out.asLongBuffer().put(feeCents, 0, rows);
+        out.position(out.position() + rows * 8);
+        out.put(orderTypes, 0, rows);
+        out.put(paymentTypes, 0, rows);
+        out.asIntBuffer().put(lineStart, 0, rows + 1);
+        out.position(out.position() + (rows + 1) * 4);
+        out.asIntBuffer().put(itemIds, 0, lines);
+        out.position(out.position() + lines * 4);
+        out.asIntBuffer().put(lineCents, 0, lines);
+        out.position(out.position() + lines * 4);
+        out.flip();
+
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static ColumnChunk readFrom(Path file, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (in.getInt() != MAGIC || in.getShort() != FORMAT_VERSION) {
+                throw new IOException("Not a column chunk: " + file);
+            }
+            in.getShort();
+            int rows = in.getInt();
+            int lines = in.getInt();
+            ColumnChunk chunk = new ColumnChunk(Math.max(capacity, rows), Math.max(16, lines));
+            chunk.rows = rows;
+            chunk.lines = lines;
+            chunk.minPlacedAt = in.getLong();
+            chunk.maxPlacedAt = in.getLong();
+            in.asLongBuffer().get(chunk.orderNumbers, 0, rows);
+            in.position(in.position() + rows * 8);
+            in.asLongBuffer().get(chunk.placedAt, 0, rows);
+            in.position(in.position() + rows * 8);
+            in.asLongBuffer().get(chunk.subtotalCents, 0, rows);
+            in.position(in.position() + rows * 8);
+            in.asLongBuffer().get(chunk.discountCents, 0, rows);
+            in.position(in.position() + rows * 8);
+            in.asLongBuffer().get(chunk.taxCents, 0, rows);
+            in.position(in.position() + rows * 8);
+            in.asLongBuffer().get(chunk.feeCents, 0, rows);
+            in.position(in.position() + rows * 8);
+            in.get(chunk.orderTypes, 0, rows);
+            in.get(chunk.paymentTypes, 0, rows);
+            in.asIntBuffer().get(chunk.lineStart, 0, rows + 1);
+            in.position(in.position() + (rows + 1) * 4);
+            in.asIntBuffer().get(chunk.itemIds, 0, lines);
+            in.position(in.position() + lines * 4);
+            in.asIntBuffer().get(chunk.lineCents, 0, lines);
+            return chunk;
+        }
+    }
+}
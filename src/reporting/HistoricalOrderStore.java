@@ -0,0 +1,193 @@
+package reporting;
+
+import domain.models.Order;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Columnar store of historical orders for reporting.
+ *
+ * Orders are appended into fixed-size ColumnChunks. When more sealed chunks are in
+ * memory than the budget allows, the oldest are written to chunk files and dropped
+ * from the heap. Reports load spilled chunks one at a time, so a range larger than
+ * memory streams through a bounded working set.
+ *
+ * Each store spills into its own subdirectory of the spill directory, so several
+ * stores can share one; close() deletes it.
+ */
+public final class HistoricalOrderStore implements AutoCloseable {
+    public static final int DEFAULT_CHUNK_ROWS = 65_536;
+
+    private final int chunkRows;
+    private final int maxChunksInMemory;
+    private final Path spillDirectory;
+    private Path chunkDirectory; // created on the first spill
+    private boolean closed;
+    private final List<ChunkRef> sealed = new ArrayList<>(); // guarded by this
+    private ColumnChunk active;
+    private long size;
+    private int inMemory;
+    private int spilled;
+
+    /**
+     * A store that keeps everything in memory
+     */
+    public HistoricalOrderStore() {
+        this(DEFAULT_CHUNK_ROWS, Integer.MAX_VALUE, null);
+    }
+
+    /**
+     * @param chunkRows         orders per chunk
+     * @param maxChunksInMemory sealed chunks kept on the heap before spilling
+     * @param spillDirectory    where spilled chunk files go (required if chunks can spill)
+     */
+    public HistoricalOrderStore(int chunkRows, int maxChunksInMemory, Path spillDirectory) {
+        if (chunkRows < 1 || maxChunksInMemory < 1) {
+            throw new IllegalArgumentException("Chunk size and memory budget must be positive");
+        }
+        if (spillDirectory == null && maxChunksInMemory != Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("A spill directory is required when the memory budget is limited");
+        }
+        this.chunkRows = chunkRows;
+        this.maxChunksInMemory = maxChunksInMemory;
+        this.spillDirectory = spillDirectory;
+        this.active = new ColumnChunk(chunkRows);
+    }
+
+    /**
+     * A sealed chunk: either on the heap or in a chunk file
+     */
+    static final class ChunkRef {
+        final long minPlacedAt;
+        final long maxPlacedAt;
+        final int rows;
+        final int capacity;
+        volatile Path file;
+        volatile ColumnChunk chunk;
+
+        ChunkRef(ColumnChunk chunk) {
+            this.minPlacedAt = chunk.minPlacedAt;
+            this.maxPlacedAt = chunk.maxPlacedAt;
+            this.rows = chunk.rows;
+            this.capacity = chunk.capacity();
+            this.chunk = chunk;
+        }
+
+        boolean overlaps(long fromMillis, long toMillis) {
+            return rows > 0 && maxPlacedAt >= fromMillis && minPlacedAt < toMillis;
+        }
+
+        /**
+         * The chunk's data; spilled chunks are read from their file and not cached
+         */
+        ColumnChunk load() {
+            ColumnChunk data = chunk;
+            if (data != null) {
+                return data;
+            }
+            try {
+                return ColumnChunk.readFrom(file, capacity);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot read chunk file " + file, e);
+            }
+        }
+    }
+
+    public synchronized void append(Order order) {
+        if (closed) {
+            throw new IllegalStateException("Order store is closed");
+        }
+        active.append(order);
+        size++;
+        if (active.isFull()) {
+            sealed.add(new ChunkRef(active));
+            inMemory++;
+            active = new ColumnChunk(chunkRows);
+            spillIfNeeded();
+        }
+    }
+
+    public void appendAll(Iterable<Order> orders) {
+        for (Order order : orders) {
+            append(order);
+        }
+    }
+
+    // Caller holds the monitor
+    private void spillIfNeeded() {
+        for (int i = 0; inMemory > maxChunksInMemory && i < sealed.size(); i++) {
+            ChunkRef ref = sealed.get(i);
+            if (ref.chunk == null) {
+                continue;
+            }
+            try {
+                if (chunkDirectory == null) {
+                    Files.createDirectories(spillDirectory);
+                    chunkDirectory = Files.createTempDirectory(spillDirectory, "orders-");
+                }
+                Path file = chunkDirectory.resolve(String.format("chunk-%08d.col", i));
+                ref.chunk.writeTo(file);
+                ref.file = file;
+                ref.chunk = null; // readers that already hold the chunk keep using it
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot spill chunk to " + spillDirectory, e);
+            }
+            inMemory--;
+            spilled++;
+        }
+    }
+
+    /**
+     * Deletes the spilled chunk files. Reports must not be running; the store cannot
+     * be appended to afterwards.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (chunkDirectory == null) {
+            return;
+        }
+        try {
+            for (ChunkRef ref : sealed) {
+                if (ref.file != null) {
+                    Files.deleteIfExists(ref.file);
+                }
+            }
+            Files.deleteIfExists(chunkDirectory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot delete spilled chunks in " + chunkDirectory, e);
+        }
+        chunkDirectory = null;
+    }
+
+    /**
+     * Sealed chunks plus a frozen copy of the chunk being filled
+     */
+    synchronized List<ChunkRef> snapshot() {
+        List<ChunkRef> chunks = new ArrayList<>(sealed.size() + 1);
+        chunks.addAll(sealed);
+        if (active.rows > 0) {
+            chunks.add(new ChunkRef(active.copy()));
+        }
+        return chunks;
+    }
+
+    /**
+     * Number of orders stored
+     */
+    public synchronized long size() {
+        return size;
+    }
+
+    public synchronized int getChunkCount() {
+        return sealed.size() + (active.rows > 0 ? 1 : 0);
+    }
+
+    public synchronized int getSpilledChunkCount() {
+        return spilled;
+    }
+}
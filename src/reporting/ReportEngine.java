@@ -0,0 +1,139 @@
+package reporting;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiConsumer;
+
+/**
+ * Aggregates sales reports over a HistoricalOrderStore with fork-join parallelism.
+ *
+ * Chunks outside the requested range are skipped using their time bounds. The
+ * remaining chunks are split in halves until a task holds one chunk, and a chunk is
+ * split into row ranges of ROWS_PER_TASK, so every core scans its own slice of the
+ * primitive columns. Partial reports are merged on the way back up.
+ */
+public final class ReportEngine {
+    static final int ROWS_PER_TASK = 16_384;
+
+    private final HistoricalOrderStore store;
+    private final ForkJoinPool pool;
+
+    public ReportEngine(HistoricalOrderStore store) {
+        this(store, ForkJoinPool.commonPool());
+    }
+
+    public ReportEngine(HistoricalOrderStore store, ForkJoinPool pool) {
+        this.store = store;
+        this.pool = pool;
+    }
+
+    /**
+     * Report for orders placed in [fromMillis, toMillis)
+     */
+    public SalesReport report(long fromMillis, long toMillis) {
+        return report(store.snapshot(), fromMillis, toMillis);
+    }
+
+    /**
+     * Report for one local day
+     */
+    public SalesReport report(LocalDate day, ZoneId zone) {
+        return report(startOf(day, zone), startOf(day.plusDays(1), zone));
+    }
+
+    /**
+     * Streams one report per day from first to last (inclusive), in day order. Only
+     * the chunks of the day being aggregated are loaded, so a month that does not fit
+     * in memory is reported with a bounded working set.
+     */
+    public void reportByDay(LocalDate first, LocalDate last, ZoneId zone, BiConsumer<LocalDate, SalesReport> sink) {
+        List<HistoricalOrderStore.ChunkRef> chunks = store.snapshot();
+        for (LocalDate day = first; !day.isAfter(last); day = day.plusDays(1)) {
+            sink.accept(day, report(chunks, startOf(day, zone), startOf(day.plusDays(1), zone)));
+        }
+    }
+
+    private SalesReport report(List<HistoricalOrderStore.ChunkRef> chunks, long fromMillis, long toMillis) {
+        List<HistoricalOrderStore.ChunkRef> selected = new ArrayList<>();
+        for (HistoricalOrderStore.ChunkRef chunk : chunks) {
+            if (chunk.overlaps(fromMillis, toMillis)) {
+                selected.add(chunk);
+            }
+        }
+        if (selected.isEmpty()) {
+            return new SalesReport(fromMillis, toMillis);
+        }
+        return pool.invoke(new ChunksTask(selected, 0, selected.size(), fromMillis, toMillis));
+    }
+
+    private static long startOf(LocalDate day, ZoneId zone) {
+        return day.atStartOfDay(zone).toInstant().toEpochMilli();
+    }
+
+    private static final class ChunksTask extends RecursiveTask<SalesReport> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<HistoricalOrderStore.ChunkRef> chunks;
+        private final int from;
+        private final int to;
+        private final long fromMillis;
+        private final long toMillis;
+
+        ChunksTask(List<HistoricalOrderStore.ChunkRef> chunks, int from, int to, long fromMillis, long toMillis) {
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+            this.fromMillis = fromMillis;
+            this.toMillis = toMillis;
+        }
+
+        @Override
+        protected SalesReport compute() {
+            if (to - from == 1) {
+                ColumnChunk chunk = chunks.get(from).load();
+                return new RowsTask(chunk, 0, chunk.rows, fromMillis, toMillis).compute();
+            }
+            int mid = (from + to) >>> 1;
+            ChunksTask left = new ChunksTask(chunks, from, mid, fromMillis, toMillis);
+            left.fork();
+            SalesReport right = new ChunksTask(chunks, mid, to, fromMillis, toMillis).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    private static final class RowsTask extends RecursiveTask<SalesReport> {
+        private static final long serialVersionUID = 1L;
+
+        private final ColumnChunk chunk;
+        private final int fromRow;
+        private final int toRow;
+        private final long fromMillis;
+        private final long toMillis;
+
+        RowsTask(ColumnChunk chunk, int fromRow, int toRow, long fromMillis, long toMillis) {
+            this.chunk = chunk;
+            this.fromRow = fromRow;
+            this.toRow = toRow;
+            this.fromMillis = fromMillis;
+            this.toMillis = toMillis;
+        }
+
+        @Override
+        protected SalesReport compute() {
+            if (toRow - fromRow <= ROWS_PER_TASK) {
+                SalesReport report = new SalesReport(fromMillis, toMillis);
+                chunk.aggregate(fromRow, toRow, fromMillis, toMillis, report);
+                return report;
+            }
+            int mid = (fromRow + toRow) >>> 1;
+            RowsTask left = new RowsTask(chunk, fromRow, mid, fromMillis, toMillis);
+            left.fork();
+            SalesReport right = new RowsTask(chunk, mid, toRow, fromMillis, toMillis).compute();
+            return left.join().merge(right);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package reporting;
+
+import domain.enums.OrderType;
+import domain.enums.PaymentType;
+import domain.pricing.Money;
+
+/**
+ * Aggregated sales figures for a time range: order and item counts, sales before and
+ * after promotion discounts, tax and service fees collected, and the mix of order
+ * types and payment types. Revenue and totals are net of discounts, like the amounts
+ * the customers were charged.
+ *
+ * Reports are built by ReportEngine, which merges the partial reports of its
+ * parallel tasks; once returned to the caller a report is no longer modified.
+ */
+public final class SalesReport {
+    private static final OrderType[] ORDER_TYPES = OrderType.values();
+    private static final PaymentType[] PAYMENT_TYPES = PaymentType.values();
+    // Payment slot used for orders without a payment method
+    static final int NO_PAYMENT = PAYMENT_TYPES.length;
+
+    private final long fromMillis;
+    private final long toMillis;
+    long orders;
+    long items;
+    long subtotalCents;
+    long discountCents;
+    long taxCents;
+    long serviceFeeCents;
+    final long[] ordersByType = new long[ORDER_TYPES.length];
+    final long[] revenueByType = new long[ORDER_TYPES.length];
+    final long[] ordersByPayment = new long[PAYMENT_TYPES.length + 1];
+    final long[] totalByPayment = new long[PAYMENT_TYPES.length + 1];
+
+    SalesReport(long fromMillis, long toMillis) {
+        this.fromMillis = fromMillis;
+        this.toMillis = toMillis;
+    }
+
+    SalesReport merge(SalesReport other) {
+        orders += other.orders;
+        items += other.items;
+        subtotalCents += other.subtotalCents;
+        discountCents += other.discountCents;
+        taxCents += other.taxCents;
+        serviceFeeCents += other.serviceFeeCents;
+        for (int i = 0; i < ordersByType.length; i++) {
+            ordersByType[i] += other.ordersByType[i];
+            revenueByType[i] += other.revenueByType[i];
+        }
+        for (int i = 0; i < ordersByPayment.length; i++) {
+            ordersByPayment[i] += other.ordersByPayment[i];
+            totalByPayment[i] += other.totalByPayment[i];
+        }
+        return this;
+    }
+
+    /**
+     * Start of the range (inclusive), epoch milliseconds
+     */
+    public long getFromMillis() { return fromMillis; }
+
+    /**
+     * End of the range (exclusive), epoch milliseconds
+     */
+    public long getToMillis() { return toMillis; }
+
+    public long getOrderCount() { return orders; }
+    public long getItemCount() { return items; }
+
+    /**
+     * Sales at menu prices, before promotion discounts
+     */
+    public long getSubtotalCents() { return subtotalCents; }
+    public long getDiscountCents() { return discountCents; }
+    public long getNetSalesCents() { return subtotalCents - discountCents; }
+    public long getTaxCents() { return taxCents; }
+    public long getServiceFeeCents() { return serviceFeeCents; }
+    public long getTotalCents() { return subtotalCents - discountCents + taxCents + serviceFeeCents; }
+
+    public long getOrderCount(OrderType type) { return ordersByType[type.ordinal()]; }
+
+    /**
+     * Net sales (subtotal less discounts) of one order type
+     */
+    public long getRevenueCents(OrderType type) { return revenueByType[type.ordinal()]; }
+
+    /**
+     * Number of orders paid with a payment type (null = orders without a payment method)
+     */
+    public long getOrderCount(PaymentType type) {
+        return ordersByPayment[type == null ? NO_PAYMENT : type.ordinal()];
+    }
+
+    /**
+     * Order totals (tax and fees included) paid with a payment type
+     */
+    public long getTotalCents(PaymentType type) {
+        return totalByPayment[type == null ? NO_PAYMENT : type.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append(orders).append(" orders, ").append(items).append(" items, ");
+        if (discountCents > 0) {
+            sb.append("discounts $");
+            Money.appendTo(sb, discountCents).append(", ");
+        }
+        sb.append("net $");
+        Money.appendTo(sb, getNetSalesCents()).append(", tax $");
+        Money.appendTo(sb, taxCents).append(", fees $");
+        Money.appendTo(sb, serviceFeeCents).append(", total $");
+        Money.appendTo(sb, getTotalCents()).append(" | payments:");
+        for (PaymentType type : PAYMENT_TYPES) {
+            sb.append(' ').append(type).append('=').append(ordersByPayment[type.ordinal()]);
+        }
+        return sb.toString();
+    }
+}
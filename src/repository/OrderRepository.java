@@ -0,0 +1,344 @@
+package repository;
+
+import domain.enums.OrderStatus;
+import domain.enums.OrderType;
+import domain.models.Order;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import journal.OrderJournal;
+
+/**
+ * In-memory store of recent orders with a primary index by order number and
+ * secondary indexes on phone number, table number, order type and status.
+ *
+ * All indexes are concurrent hash structures, so lookups never take a lock while
+ * terminals insert. An insert becomes visible through the primary index first and
+ * through the secondary indexes a moment later. The status of an order is held here,
+ * not in the order (whose only later change is a promotion discount, which no index
+ * depends on); status queries always check the current status, so an order moving
+ * between statuses is never reported under the old one.
+ *
+ * Memory is bounded by days: orders are grouped by the local day they were placed
+ * and only the most recent hotDays days are kept. When an order for a new day
+ * arrives, days that fall out of the window are dropped from every index.
+ */
+public final class OrderRepository {
+    public static final int DEFAULT_HOT_DAYS = 3;
+    private static final long ANY_DAY = Long.MIN_VALUE;
+
+    private static final Comparator<Entry> BY_ORDER_NUMBER =
+        Comparator.comparingLong(entry -> entry.order.getOrderNumber());
+
+    private final int hotDays;
+    private final ZoneId zone;
+    private final Map<Long, Entry> byNumber = new ConcurrentHashMap<>();
+    private final Map<String, Set<Entry>> byPhone = new ConcurrentHashMap<>();
+    private final Map<String, Set<Entry>> byTable = new ConcurrentHashMap<>();
+    private final Map<OrderType, Set<Entry>> byType = new EnumMap<>(OrderType.class);
+    private final Map<OrderStatus, Set<Entry>> byStatus = new EnumMap<>(OrderStatus.class);
+    private final ConcurrentSkipListMap<Long, Day> days = new ConcurrentSkipListMap<>();
+    private final AtomicLong evicted = new AtomicLong();
+    private volatile OrderJournal journal;
+
+    public OrderRepository() {
+        this(DEFAULT_HOT_DAYS, ZoneId.systemDefault());
+    }
+
+    /**
+     * @param hotDays number of most recent days whose orders are kept
+     * @param zone    time zone that decides which day an order belongs to
+     */
+    public OrderRepository(int hotDays, ZoneId zone) {
+        if (hotDays < 1) {
+            throw new IllegalArgumentException("At least one day must be kept: " + hotDays);
+        }
+        this.hotDays = hotDays;
+        this.zone = zone;
+        // Fixed key sets, filled once, so the maps themselves are never modified
+        for (OrderType type : OrderType.values()) {
+            byType.put(type, ConcurrentHashMap.newKeySet());
+        }
+        for (OrderStatus status : OrderStatus.values()) {
+            byStatus.put(status, ConcurrentHashMap.newKeySet());
+        }
+    }
+
+    /**
+     * Journals every order that is completed or cancelled from now on, so recovery no
+     * longer treats it as open
+     */
+    public OrderRepository setJournal(OrderJournal journal) {
+        this.journal = journal;
+        return this;
+    }
+
+    /**
+     * One stored order with its current status
+     */
+    private static final class Entry {
+        final Order order;
+        final long day;
+        volatile OrderStatus status = OrderStatus.PLACED;
+
+        Entry(Order order, long day) {
+            this.order = order;
+            this.day = day;
+        }
+    }
+
+    /**
+     * Orders placed on one day. Inserts share the read lock; eviction takes the write
+     * lock, so no insert can slip into a day while it is being dropped.
+     */
+    private static final class Day {
+        final ConcurrentLinkedQueue<Entry> entries = new ConcurrentLinkedQueue<>();
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        boolean evicted; // guarded by lock
+    }
+
+    // ----- writes
+
+    /**
+     * Stores a new order with status PLACED
+     */
+    public void add(Order order) {
+        long dayNumber = dayOf(order.getPlacedAtMillis());
+        Entry entry = new Entry(order, dayNumber);
+        while (true) {
+            Day day = days.computeIfAbsent(dayNumber, d -> new Day());
+            day.lock.readLock().lock();
+            try {
+                if (day.evicted) {
+                    continue; // lost a race with eviction; the next pass creates a fresh day
+                }
+                if (byNumber.putIfAbsent(order.getOrderNumber(), entry) != null) {
+                    throw new IllegalArgumentException("Order " + order.getOrderNumber() + " is already stored");
+                }
+                day.entries.add(entry);
+                index(byPhone, order.getPhoneNumber(), entry);
+                index(byTable, order.getTableNumber(), entry);
+                byType.get(order.getOrderType()).add(entry);
+                byStatus.get(entry.status).add(entry);
+                break;
+            } finally {
+                day.lock.readLock().unlock();
+            }
+        }
+        if (dayNumber == days.lastKey()) {
+            evictBefore(dayNumber - hotDays + 1);
+        }
+    }
+
+    /**
+     * Moves an order to a new status. Completed and cancelled orders are final.
+     */
+    public void updateStatus(long orderNumber, OrderStatus status) {
+        Entry entry = byNumber.get(orderNumber);
+        if (entry == null) {
+            throw new IllegalArgumentException("Unknown order: " + orderNumber);
+        }
+        synchronized (entry) {
+            if (byNumber.get(orderNumber) != entry) {
+                throw new IllegalArgumentException("Unknown order: " + orderNumber); // evicted meanwhile
+            }
+            OrderStatus previous = entry.status;
+            if (previous == status) {
+                return;
+            }
+            if (!previous.isOpen()) {
+                throw new IllegalStateException("Order " + orderNumber + " is already " + previous);
+            }
+            // Add before removing so the order is always in at least one status set
+            byStatus.get(status).add(entry);
+            entry.status = status;
+            byStatus.get(previous).remove(entry);
+        }
+        OrderJournal closedIn = journal;
+        if (!status.isOpen() && closedIn != null) {
+            closedIn.appendClosed(orderNumber);
+        }
+    }
+
+    /**
+     * Drops every order placed before the given day from all indexes. Returns the
+     * number of orders dropped.
+     */
+    public int evictBefore(LocalDate firstKeptDay) {
+        return evictBefore(firstKeptDay.toEpochDay());
+    }
+
+    private int evictBefore(long firstKeptDay) {
+        int dropped = 0;
+        Map.Entry<Long, Day> oldest;
+        while ((oldest = days.firstEntry()) != null && oldest.getKey() < firstKeptDay) {
+            Day day = oldest.getValue();
+            if (!days.remove(oldest.getKey(), day)) {
+                continue; // another thread is evicting it
+            }
+            day.lock.writeLock().lock();
+            try {
+                day.evicted = true;
+            } finally {
+                day.lock.writeLock().unlock();
+            }
+            for (Entry entry : day.entries) {
+                Order order = entry.order;
+                byNumber.remove(order.getOrderNumber(), entry);
+                unindex(byPhone, order.getPhoneNumber(), entry);
+                unindex(byTable, order.getTableNumber(), entry);
+                byType.get(order.getOrderType()).remove(entry);
+                synchronized (entry) {
+                    byStatus.get(entry.status).remove(entry);
+                }
+                dropped++;
+            }
+        }
+        evicted.addAndGet(dropped);
+        return dropped;
+    }
+
+    private static void index(Map<String, Set<Entry>> index, String key, Entry entry) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(entry);
+        }
+    }
+
+    private static void unindex(Map<String, Set<Entry>> index, String key, Entry entry) {
+        if (key != null) {
+            index.computeIfPresent(key, (k, entries) -> {
+                entries.remove(entry);
+                return entries.isEmpty() ? null : entries;
+            });
+        }
+    }
+
+    // ----- reads (lock-free)
+
+    /**
+     * The order with this number, or null if it is not stored (or was evicted)
+     */
+    public Order get(long orderNumber) {
+        Entry entry = byNumber.get(orderNumber);
+        return entry != null ? entry.order : null;
+    }
+
+    /**
+     * Current status of an order, or null if it is not stored
+     */
+    public OrderStatus getStatus(long orderNumber) {
+        Entry entry = byNumber.get(orderNumber);
+        return entry != null ? entry.status : null;
+    }
+
+    /**
+     * All stored orders for a phone number, oldest first
+     */
+    public List<Order> findByPhone(String phoneNumber) {
+        return select(byPhone.get(phoneNumber), false, ANY_DAY);
+    }
+
+    /**
+     * Orders for a phone number placed on the given day
+     */
+    public List<Order> findByPhone(String phoneNumber, LocalDate day) {
+        return select(byPhone.get(phoneNumber), false, day.toEpochDay());
+    }
+
+    public List<Order> findByTable(String tableNumber) {
+        return select(byTable.get(tableNumber), false, ANY_DAY);
+    }
+
+    /**
+     * Orders at a table that are not yet completed or cancelled
+     */
+    public List<Order> findOpenByTable(String tableNumber) {
+        return select(byTable.get(tableNumber), true, ANY_DAY);
+    }
+
+    public List<Order> findByType(OrderType orderType) {
+        return select(byType.get(orderType), false, ANY_DAY);
+    }
+
+    public List<Order> findByStatus(OrderStatus status) {
+        List<Entry> matches = new ArrayList<>();
+        for (Entry entry : byStatus.get(status)) {
+            if (entry.status == status) {
+                matches.add(entry);
+            }
+        }
+        return toOrders(matches);
+    }
+
+    /**
+     * Delivery orders that are not yet completed or cancelled
+     */
+    public List<Order> findPendingDeliveries() {
+        return select(byType.get(OrderType.DELIVERY), true, ANY_DAY);
+    }
+
+    private List<Order> select(Collection<Entry> candidates, boolean openOnly, long day) {
+        if (candidates == null) {
+            return new ArrayList<>();
+        }
+        List<Entry> matches = new ArrayList<>();
+        for (Entry entry : candidates) {
+            if ((!openOnly || entry.status.isOpen()) && (day == ANY_DAY || entry.day == day)) {
+                matches.add(entry);
+            }
+        }
+        return toOrders(matches);
+    }
+
+    private static List<Order> toOrders(List<Entry> entries) {
+        entries.sort(BY_ORDER_NUMBER);
+        List<Order> orders = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            orders.add(entry.order);
+        }
+        return orders;
+    }
+
+    private long dayOf(long epochMillis) {
+        return LocalDate.ofInstant(Instant.ofEpochMilli(epochMillis), zone).toEpochDay();
+    }
+
+    // ----- state
+
+    /**
+     * Number of stored orders
+     */
+    public int size() {
+        return byNumber.size();
+    }
+
+    /**
+     * Number of days currently held
+     */
+    public int getDayCount() {
+        return days.size();
+    }
+
+    public int getHotDays() {
+        return hotDays;
+    }
+
+    /**
+     * Orders dropped by the day budget since the repository was created
+     */
+    public long getEvictedCount() {
+        return evicted.get();
+    }
+}
@@ -0,0 +1,62 @@
+package server;
+
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fields of an application/x-www-form-urlencoded body; a field may repeat
+ * (item=Margherita&item=Coke)
+ */
+final class FormData {
+    private final Map<String, List<String>> fields = new HashMap<>();
+
+    private FormData() {
+    }
+
+    static FormData parse(String body) {
+        FormData form = new FormData();
+        if (body == null || body.isEmpty()) {
+            return form;
+        }
+        int start = 0;
+        while (start <= body.length()) {
+            int end = body.indexOf('&', start);
+            if (end < 0) {
+                end = body.length();
+            }
+            if (end > start) {
+                int equals = body.indexOf('=', start);
+                String name = equals < 0 || equals > end ? body.substring(start, end) : body.substring(start, equals);
+                String value = equals < 0 || equals > end ? "" : body.substring(equals + 1, end);
+                form.fields.computeIfAbsent(decode(name), key -> new ArrayList<>(1)).add(decode(value));
+            }
+            start = end + 1;
+        }
+        return form;
+    }
+
+    private static String decode(String s) {
+        return s.indexOf('%') < 0 && s.indexOf('+') < 0 ? s : URLDecoder.decode(s, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * First value of a field, or null if it is missing or blank
+     */
+    String first(String name) {
+        List<String> values = fields.get(name);
+        if (values == null || values.get(0).trim().isEmpty()) {
+            return null;
+        }
+        return values.get(0).trim();
+    }
+
+    List<String> all(String name) {
+        List<String> values = fields.get(name);
+        return values != null ? values : Collections.emptyList();
+    }
+}
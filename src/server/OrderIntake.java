@@ -0,0 +1,177 @@
+package server;
+
+import analytics.SalesAnalytics;
+import domain.enums.MealSize;
+import domain.enums.OrderType;
+import domain.ids.OrderIdGenerator;
+import domain.ids.OrderIds;
+import domain.models.Meal;
+import domain.models.Order;
+import domain.models.Payment;
+import java.util.Locale;
+import journal.OrderJournal;
+import patterns.builder.MealBuilder;
+import patterns.builder.OrderBuilder;
+import patterns.factory.MenuItemFactory;
+import patterns.factory.PaymentFactory;
+import repository.OrderRepository;
+
+/**
+ * Turns an order request from a terminal into an Order, through the same builders
+ * and factories the rest of the application uses. Independent of HTTP, so it can be
+ * driven directly as well as by OrderServer.
+ *
+ * Request fields (form-encoded, item and meal may repeat):
+ *
+ *   customer, phone        required
+ *   type                   DINE_IN (default), TAKEOUT or DELIVERY
+ *   table, address         required for DINE_IN / DELIVERY
+ *   item                   menu item name or alias, e.g. item=Margherita&item=Coke
+ *   meal                   main|side|beverage|dessert|SIZE|instructions, empty parts
+ *                          omitted, e.g. meal=Pepperoni||Coke||LARGE
+ *   payment                cash:50.00, card:number:holder:MM/YY:cvv, mobile:provider
+ *                          or giftcard:number
+ *
+ * Invalid requests throw IllegalArgumentException or IllegalStateException with a
+ * message that can be shown to the terminal.
+ */
+public final class OrderIntake {
+    private OrderIdGenerator idGenerator;
+    // Requests each run on a new thread: per-thread ID blocks would be used once
+    private final OrderIdGenerator requestIds = () ->
+        (idGenerator != null ? idGenerator : OrderIds.getGenerator()).nextSharedId();
+    private OrderJournal journal;
+    private OrderRepository repository;
+    private SalesAnalytics analytics;
+
+    public OrderIntake setIdGenerator(OrderIdGenerator idGenerator) {
+        this.idGenerator = idGenerator;
+        return this;
+    }
+
+    public OrderIntake setJournal(OrderJournal journal) {
+        this.journal = journal;
+        return this;
+    }
+
+    public OrderIntake setRepository(OrderRepository repository) {
+        this.repository = repository;
+        return this;
+    }
+
+    public OrderIntake setAnalytics(SalesAnalytics analytics) {
+        this.analytics = analytics;
+        return this;
+    }
+
+    /**
+     * Builds (and journals, stores, records, where configured) the order described
+     * by a form-encoded request body
+     */
+    public Order place(String formBody) {
+        return place(FormData.parse(formBody));
+    }
+
+    Order place(FormData form) {
+        String phone = form.first("phone");
+        OrderBuilder builder = new OrderBuilder()
+            .setIdGenerator(requestIds)
+            .setJournal(journal)
+            .setRepository(repository)
+            .setAnalytics(analytics)
+            .setCustomerName(form.first("customer"))
+            .setPhoneNumber(phone)
+            .setOrderType(orderType(form.first("type")))
+            .setTableNumber(form.first("table"))
+            .setDeliveryAddress(form.first("address"));
+        for (String item : form.all("item")) {
+            builder.addItem(MenuItemFactory.createMenuItem(item.trim()));
+        }
+        for (String meal : form.all("meal")) {
+            builder.addMeal(meal(meal));
+        }
+        String payment = form.first("payment");
+        if (payment != null) {
+            builder.setPaymentMethod(payment(payment, phone));
+        }
+        return builder.build();
+    }
+
+    private static OrderType orderType(String type) {
+        if (type == null) {
+            return OrderType.DINE_IN;
+        }
+        try {
+            return OrderType.valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown order type: " + type);
+        }
+    }
+
+    private static Meal meal(String spec) {
+        String[] parts = spec.split("\\|", -1);
+        if (parts.length > 6) {
+            throw new IllegalArgumentException("Meal needs main|side|beverage|dessert|SIZE|instructions: " + spec);
+        }
+        MealBuilder builder = new MealBuilder();
+        if (part(parts, 0) != null) {
+            builder.setMainItem(MenuItemFactory.createMenuItem(part(parts, 0)));
+        }
+        if (part(parts, 1) != null) {
+            builder.setSideItem(MenuItemFactory.createMenuItem(part(parts, 1)));
+        }
+        if (part(parts, 2) != null) {
+            builder.setBeverage(MenuItemFactory.createMenuItem(part(parts, 2)));
+        }
+        if (part(parts, 3) != null) {
+            builder.setDessert(MenuItemFactory.createMenuItem(part(parts, 3)));
+        }
+        if (part(parts, 4) != null) {
+            try {
+                builder.setMealSize(MealSize.valueOf(part(parts, 4).toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown meal size: " + part(parts, 4));
+            }
+        }
+        builder.setSpecialInstructions(part(parts, 5));
+        return builder.build();
+    }
+
+    private static String part(String[] parts, int index) {
+        return index < parts.length && !parts[index].trim().isEmpty() ? parts[index].trim() : null;
+    }
+
+    private static Payment payment(String spec, String phone) {
+        String[] parts = spec.split(":", -1);
+        switch (parts[0].toLowerCase(Locale.ROOT)) {
+            case "cash":
+                if (parts.length == 2) {
+                    try {
+                        return PaymentFactory.createCashPayment(Double.parseDouble(parts[1]));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid cash amount: " + parts[1]);
+                    }
+                }
+                break;
+            case "card":
+                if (parts.length == 5) {
+                    return PaymentFactory.createCreditCardPayment(parts[1], parts[2], parts[3], parts[4]);
+                }
+                break;
+            case "mobile":
+                if (parts.length == 2) {
+                    return PaymentFactory.createMobilePayment(phone, parts[1]);
+                }
+                break;
+            case "giftcard":
+                if (parts.length == 2) {
+                    return PaymentFactory.createGiftCardPayment(parts[1]);
+                }
+                break;
+            default:
+                break;
+        }
+        throw new IllegalArgumentException("Invalid payment: " + spec.split(":", 2)[0]
+            + " (expected cash:amount, card:number:holder:MM/YY:cvv, mobile:provider or giftcard:number)");
+    }
+}
@@ -0,0 +1,220 @@
+package server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import concurrent.VirtualThreads;
+import domain.models.Order;
+import domain.pricing.Money;
+import domain.pricing.PriceBreakdown;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import logging.Event;
+import logging.Log;
+import metrics.Metrics;
+import repository.OrderRepository;
+
+/**
+ * Embedded HTTP order-intake service (JDK com.sun.net.httpserver).
+ *
+ *   POST /orders   form-encoded order (see OrderIntake), answers 201 with the order
+ *                  number and totals as JSON, 400 with {"error": ...} if invalid
+ *   GET  /health   200 "OK"
+ *   GET  /metrics  domain operation metrics in Prometheus text format (see Metrics)
+ *
+ * Every request runs on its own virtual thread (platform threads on JVMs without
+ * them, see VirtualThreads), so a terminal waiting on a slow journal flush or
+ * payment does not hold up the others.
+ *
+ * Run: java -cp out server.OrderServer [port]
+ */
+public final class OrderServer implements Closeable {
+    public static final int DEFAULT_PORT = 8080;
+    static final int MAX_BODY_BYTES = 16 * 1024;
+    private static final int BACKLOG = 1024;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final OrderIntake intake;
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    private OrderServer(InetSocketAddress address, OrderIntake intake) throws IOException {
+        this.intake = intake;
+        this.server = HttpServer.create(address, BACKLOG);
+        this.executor = VirtualThreads.newThreadPerTaskExecutor("order-http");
+        server.setExecutor(executor);
+        server.createContext("/orders", this::handleOrder);
+        server.createContext("/health", this::handleHealth);
+        server.createContext("/metrics", this::handleMetrics);
+    }
+
+    /**
+     * Starts serving on all interfaces; port 0 picks a free port (see getPort())
+     */
+    public static OrderServer start(int port, OrderIntake intake) {
+        return start(new InetSocketAddress(port), intake);
+    }
+
+    public static OrderServer start(InetSocketAddress address, OrderIntake intake) {
+        if (intake == null) {
+            throw new IllegalArgumentException("Order intake cannot be null");
+        }
+        try {
+            OrderServer orderServer = new OrderServer(address, intake);
+            orderServer.server.start();
+            Log.log(Event.ORDER_SERVICE_STARTED,
+                VirtualThreads.isAvailable() ? "virtual threads" : "platform threads", orderServer.getPort());
+            return orderServer;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot start order service on " + address, e);
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    private void handleOrder(HttpExchange exchange) throws IOException {
+        requests.increment();
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                reject(exchange, 405, "Use POST to place an order");
+                return;
+            }
+            byte[] body;
+            try (InputStream in = exchange.getRequestBody()) {
+                body = in.readNBytes(MAX_BODY_BYTES + 1);
+            }
+            if (body.length > MAX_BODY_BYTES) {
+                reject(exchange, 413, "Order request larger than " + MAX_BODY_BYTES + " bytes");
+                return;
+            }
+            Order order;
+            try {
+                order = intake.place(new String(body, StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException | IllegalStateException e) {
+                reject(exchange, 400, e.getMessage());
+                return;
+            }
+            respond(exchange, 201, toJson(order));
+        } catch (RuntimeException e) {
+            reject(exchange, 500, "Internal error: " + e.getClass().getSimpleName());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleHealth(HttpExchange exchange) throws IOException {
+        try {
+            respond(exchange, 200, "OK");
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try {
+            StringBuilder text = new StringBuilder(8192);
+            Metrics.getRegistry().writePrometheus(text);
+            respond(exchange, 200, "text/plain; version=0.0.4; charset=utf-8", text);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void reject(HttpExchange exchange, int status, String message) throws IOException {
+        rejected.increment();
+        Log.log(Event.ORDER_REJECTED, message);
+        StringBuilder json = new StringBuilder(32 + message.length()).append("{\"error\":");
+        appendString(json, message);
+        respond(exchange, status, json.append('}'));
+    }
+
+    private static void respond(HttpExchange exchange, int status, CharSequence body) throws IOException {
+        respond(exchange, status,
+            body.length() > 0 && body.charAt(0) == '{' ? "application/json" : "text/plain; charset=utf-8", body);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, CharSequence body)
+            throws IOException {
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Response for a placed order: number, type, line counts and totals in dollars
+     * (discount only when a promotion applied)
+     */
+    static StringBuilder toJson(Order order) {
+        PriceBreakdown price = order.getPriceBreakdown();
+        StringBuilder json = new StringBuilder(160);
+        json.append("{\"orderNumber\":").append(order.getOrderNumber())
+            .append(",\"type\":\"").append(order.getOrderType().name())
+            .append("\",\"items\":").append(order.getItemCount())
+            .append(",\"meals\":").append(order.getMealCount())
+            .append(",\"subtotal\":");
+        Money.appendTo(json, price.getSubtotalCents());
+        if (price.getDiscountCents() > 0) {
+            Money.appendTo(json.append(",\"discount\":"), price.getDiscountCents());
+        }
+        json.append(",\"tax\":");
+        Money.appendTo(json, price.getTaxCents()).append(",\"serviceFee\":");
+        Money.appendTo(json, price.getServiceFeeCents()).append(",\"total\":");
+        return Money.appendTo(json, price.getTotalCents()).append('}');
+    }
+
+    private static void appendString(StringBuilder json, String s) {
+        json.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Log.log(Event.ORDER_SERVICE_STOPPED, requests.sum(), rejected.sum(), 0);
+    }
+
+    public static void main(String[] args) {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        Metrics.getRegistry().registerMBeans();
+        OrderServer orderServer = start(port, new OrderIntake().setRepository(new OrderRepository()));
+        Runtime.getRuntime().addShutdownHook(new Thread(orderServer::close, "order-service-shutdown"));
+    }
+}